@@ -81,10 +81,69 @@ public class BigDecimals {
             result = null;
         } else if (value instanceof BigDecimal) {
             result = (BigDecimal) value;
+        } else if (isIntegral(value)) {
+            result = BigDecimal.valueOf(value.longValue());         // Avoid formatting and parsing a String
         } else {
             result = new BigDecimal(value.toString());
         }
 
         return result;
     }
+
+
+    /**
+     * Convert a numeric value to the most compact type that can hold it without losing precision. The result is
+     * <ul>
+     *     <li>a {@link Long} for integral values that fit in a {@code long}</li>
+     *     <li>a {@link Double} for values that are exactly represented by their {@link Double#toString()} form</li>
+     *     <li>a {@link BigDecimal} for all other values</li>
+     * </ul>
+     * A {@link Float} is converted to the Double that has the same decimal representation, so {@literal 1.1f}
+     * becomes {@literal 1.1} rather than {@literal 1.100000023841858}
+     * @param value     value to convert
+     * @return          {@code value} in its most compact form
+     * @throws NumberFormatException if {@code value} is infinite or not a number
+     */
+    @Nullable
+    public static Number toCompact(@Nullable Number value) throws NumberFormatException {
+        Number result;
+
+        if (value == null) {
+            result = null;
+        } else if (value instanceof Long) {
+            result = value;
+        } else if (isIntegral(value)) {
+            result = value.longValue();
+        } else if (value instanceof Double asDouble) {
+            result = (Double.isFinite(asDouble) ? asDouble : toBigDecimal(value));
+        } else if (value instanceof Float asFloat) {
+            result = (Float.isFinite(asFloat) ? Double.valueOf(asFloat.toString()) : toBigDecimal(value));
+        } else {
+            result = toCompact(toBigDecimal(value));
+        }
+
+        return result;
+    }
+
+
+    @Nonnull
+    private static Number toCompact(@Nonnull BigDecimal value) {
+        Number result;
+
+        if ((value.scale() == 0) && (value.unscaledValue().bitLength() < Long.SIZE)) {
+            result = value.longValue();
+        } else {
+            double asDouble = value.doubleValue();
+
+            result = (Double.isFinite(asDouble) && value.equals(BigDecimal.valueOf(asDouble)) ? asDouble : value);
+        }
+
+        return result;
+    }
+
+
+    private static boolean isIntegral(@Nonnull Number value) {
+        return (value instanceof Long) || (value instanceof Integer) ||
+               (value instanceof Short) || (value instanceof Byte);
+    }
 }
@@ -8,6 +8,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -30,6 +33,23 @@ public class Convert {
         entry(long.class, Long.class)
     );
 
+    private static final Converter<?> NONE = value -> null;
+
+    /** Converters indexed by their target type, and then by their source type */
+    private static final ClassValue<ClassValue<Converter<?>>> CONVERTERS = new ClassValue<>() {
+        @Override
+        @Nonnull
+        protected ClassValue<Converter<?>> computeValue(@Nonnull Class<?> target) {
+            return new ClassValue<>() {
+                @Override
+                @Nonnull
+                protected Converter<?> computeValue(@Nonnull Class<?> source) {
+                    return resolve(source, target);
+                }
+            };
+        }
+    };
+
 
     private Convert() {
     }
@@ -79,36 +99,57 @@ public class Convert {
      */
     @Nullable
     public static <T> T to(@Nullable Object value, @Nonnull Class<T> type) throws IllegalArgumentException {
-        Object result;
-
-        type = (Class<T>) BOXED_TYPES.getOrDefault(type, type);
-
-        try {
-            if (value == null) {
-                result = null;
-            } else if (type.isAssignableFrom(value.getClass())) {
-                result = value;
-            } else if (type == String.class) {
-                result = value instanceof BigDecimal number ? number.toPlainString() : value.toString();
-            } else if ((type == Boolean.class) || (type == boolean.class)) {
-                result = toBoolean(value);
-            } else if (Enum.class.isAssignableFrom(type)) {
-                result = toEnum(value, (Class<Enum>) type);
-            } else if (Number.class.isAssignableFrom(type)) {
-                result = toNumber(value, (Class<? extends Number>) type);
-            } else {
-                result = null;
-            }
-        } catch (RuntimeException e) {
-            result = null;
-        }
+        T result = safeTo(value, type);
 
         if ((value != null) && (result == null)) {
             throw new IllegalArgumentException("Can not convert '" + value + "' " +
-                    "from " + value.getClass().getSimpleName() + " to " + type.getSimpleName());
+                    "from " + value.getClass().getSimpleName() + " to " +
+                    BOXED_TYPES.getOrDefault(type, type).getSimpleName());
         }
 
-        return type.cast(result);
+        return result;
+    }
+
+
+    /**
+     * Convert a single value to another type using the rules defined in {@link #to(Object, Class)}, but return
+     * {@literal null} if the value could not be converted. No exceptions are created, so this is suitable for
+     * values that are often invalid
+     * @param value         Value to convert
+     * @param type          Required type of the value
+     * @param <T>           Required type of the value
+     * @return              The converted value or {@literal null} if {@code value} is {@literal null} or
+     *                      could not be converted
+     * @see #to(Object, Class)
+     */
+    @Nullable
+    public static <T> T safeTo(@Nullable Object value, @Nonnull Class<T> type) {
+        return (value == null ? null : converter(value.getClass(), type).convert(value));
+    }
+
+
+    /**
+     * Returns a Converter for values of the {@code source} type to the {@code target} type that applies the rules
+     * defined in {@link #to(Object, Class)}. The conversion rules are resolved once for each pair of types.
+     * @param source        Type of the values to convert
+     * @param target        Required type of the values
+     * @param <T>           Required type of the values
+     * @return              A Converter for values of the {@code source} type to the {@code target} type
+     */
+    @Nonnull
+    public static <T> Converter<T> converter(@Nonnull Class<?> source, @Nonnull Class<T> target) {
+        return (Converter<T>) CONVERTERS.get(BOXED_TYPES.getOrDefault(target, target)).get(source);
+    }
+
+
+    /**
+     * Convert a value to a String. BigDecimals are formatted without an exponent
+     * @param value     Value to convert
+     * @return          {@code value} as a String
+     */
+    @Nonnull
+    private static String toString(@Nonnull Object value) {
+        return (value instanceof BigDecimal number ? number.toPlainString() : value.toString());
     }
 
 
@@ -143,104 +184,121 @@ public class Convert {
     }
 
 
-    @Nullable
-    private static <E extends Enum<E>> E toEnum(@Nonnull Object value, @Nonnull Class<E> type) {
-        E result;
-
-        try {
-            result = Enums.toEnum(type, value.toString());
-        } catch (RuntimeException e) {
-            result = null;
+    @Nonnull
+    private static Converter<?> resolve(@Nonnull Class<?> source, @Nonnull Class<?> target) {
+        Converter<?> result;
+
+        if (target.isAssignableFrom(source)) {
+            result = value -> value;
+        } else if (target == String.class) {
+            result = Convert::toString;
+        } else if (target == Boolean.class) {
+            result = Convert::toBoolean;
+        } else if (target.isEnum()) {
+            result = value -> Enums.safeToEnum((Class<Enum>) target, value.toString());
+        } else if (!Number.class.isAssignableFrom(target)) {
+            result = NONE;
+        } else if (source == String.class) {
+            result = parser(target);
+        } else if (Number.class.isAssignableFrom(source)) {
+            result = numeric(target);
+        } else if (source == Boolean.class) {
+            Converter<?> numeric = converter(Integer.class, target);
+
+            result = value -> numeric.convert((Boolean) value ? 1 : 0);
+        } else {
+            result = NONE;
         }
 
         return result;
     }
 
 
-    @Nullable
-    private static <N extends Number> N toNumber(@Nonnull Object value, @Nonnull Class<N> type) {
-        N result;
-
-        if (value instanceof String) {
-            result = toNumber((String) value, type);
-        } else if (value instanceof Number) {
-            result = toNumber((Number) value, type);
-        } else if (value instanceof Boolean) {
-            result = toNumber((Boolean) value, type);
+    @Nonnull
+    private static Converter<?> parser(@Nonnull Class<?> target) {
+        Converter<?> result;
+
+        if (target == Byte.class) {
+            result = whole(Byte.MIN_VALUE, Byte.MAX_VALUE, value -> (byte) value);
+        } else if (target == Short.class) {
+            result = whole(Short.MIN_VALUE, Short.MAX_VALUE, value -> (short) value);
+        } else if (target == Integer.class) {
+            result = whole(Integer.MIN_VALUE, Integer.MAX_VALUE, value -> (int) value);
+        } else if (target == Long.class) {
+            result = whole(Long.MIN_VALUE, Long.MAX_VALUE, value -> value);
+        } else if (target == Float.class) {
+            result = text(NumberParser::isFloatingPoint, Float::valueOf);
+        } else if (target == Double.class) {
+            result = text(NumberParser::isFloatingPoint, Double::valueOf);
+        } else if (target == BigDecimal.class) {
+            result = text(NumberParser::isDecimal, BigDecimal::new);
+        } else if (target == BigInteger.class) {
+            result = text(NumberParser::isInteger, BigInteger::new);
         } else {
-            result = null;
+            result = NONE;
         }
 
         return result;
     }
 
 
-    @Nullable
-    private static <N extends Number> N toNumber(@Nonnull String value, @Nonnull Class<N> type)
-            throws ClassCastException, NumberFormatException {
-        Object result;
-
-        value = value.trim();
-
-        if (type == Byte.class) {
-            result = Byte.parseByte(value);
-        } else if (type == Short.class) {
-            result = Short.parseShort(value);
-        } else if (type == Integer.class) {
-            result = Integer.parseInt(value);
-        } else if (type == Long.class) {
-            result = Long.parseLong(value);
-        } else if (type == Float.class) {
-            result = Float.parseFloat(value);
-        } else if (type == Double.class) {
-            result = Double.parseDouble(value);
-        } else if (type == BigDecimal.class) {
-            result = new BigDecimal(value);
-        } else if (type == BigInteger.class) {
-            result = new BigInteger(value);
-        } else {
-            result = null;
-        }
+    @Nonnull
+    private static Converter<Number> whole(long min, long max, @Nonnull LongFunction<Number> box) {
+        return value -> {
+            Long parsed = NumberParser.parseLong(value.toString().trim(), min, max);
 
-        return type.cast(result);
+            return (parsed == null ? null : box.apply(parsed));
+        };
     }
 
 
-    @Nullable
-    private static <N extends Number> N toNumber(@Nonnull Number value, @Nonnull Class<N> type)
-            throws ClassCastException, NumberFormatException {
-        Object result;
-
-        if (type == value.getClass()) {
-            result = value;
-        } else if (type == Byte.class) {
-            result = value.byteValue();
-        } else if (type == Short.class) {
-            result = value.shortValue();
-        } else if (type == Integer.class) {
-            result = value.intValue();
-        } else if (type == Long.class) {
-            result = value.longValue();
-        } else if (type == Float.class) {
-            result = value.floatValue();
-        } else if (type == Double.class) {
-            result = value.doubleValue();
-        } else if (type == BigDecimal.class) {
-            result = new BigDecimal(value.toString());
-        } else if (type == BigInteger.class) {
-            result = toNumber(value, BigDecimal.class).toBigInteger();
+    @Nonnull
+    private static Converter<Number> text(@Nonnull Predicate<String> valid, @Nonnull Function<String, Number> parse) {
+        return value -> {
+            String text = value.toString().trim();
+
+            return (valid.test(text) ? parse.apply(text) : null);
+        };
+    }
+
+
+    @Nonnull
+    private static Converter<?> numeric(@Nonnull Class<?> target) {
+        Converter<?> result;
+
+        if (target == Byte.class) {
+            result = value -> ((Number) value).byteValue();
+        } else if (target == Short.class) {
+            result = value -> ((Number) value).shortValue();
+        } else if (target == Integer.class) {
+            result = value -> ((Number) value).intValue();
+        } else if (target == Long.class) {
+            result = value -> ((Number) value).longValue();
+        } else if (target == Float.class) {
+            result = value -> ((Number) value).floatValue();
+        } else if (target == Double.class) {
+            result = value -> ((Number) value).doubleValue();
+        } else if (target == BigDecimal.class) {
+            result = value -> toBigDecimal((Number) value);
+        } else if (target == BigInteger.class) {
+            result = value -> {
+                BigDecimal decimal = toBigDecimal((Number) value);
+
+                return (decimal == null ? null : decimal.toBigInteger());
+            };
         } else {
-            result = null;
+            result = NONE;
         }
 
-        return type.cast(result);
+        return result;
     }
 
 
     @Nullable
-    private static <N extends Number> N toNumber(@Nonnull Boolean value,
-                                                 @Nonnull Class<N> type)
-            throws ClassCastException, NumberFormatException {
-        return toNumber((value ? 1 : 0), type);
+    private static BigDecimal toBigDecimal(@Nonnull Number value) {
+        boolean floating = (value instanceof Double) || (value instanceof Float);
+        boolean finite = !floating || Double.isFinite(value.doubleValue());
+
+        return (finite ? BigDecimals.toBigDecimal(value) : null);
     }
 }
@@ -0,0 +1,21 @@
+package com.github.tymefly.common.base.utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Converts values of one type to another type using the rules described in {@link Convert#to(Object, Class)}.
+ * Converters are specialised for a single source and target type, and are obtained from
+ * {@link Convert#converter(Class, Class)}
+ * @param <T>   The type that values are converted to
+ */
+@FunctionalInterface
+public interface Converter<T> {
+    /**
+     * Convert a single value
+     * @param value     Value to convert. This must be an instance of the source type of the converter
+     * @return          The converted value or {@literal null} if the {@code value} could not be converted
+     */
+    @Nullable
+    T convert(@Nonnull Object value);
+}
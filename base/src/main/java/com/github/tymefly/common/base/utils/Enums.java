@@ -1,7 +1,9 @@
 package com.github.tymefly.common.base.utils;
 
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -12,6 +14,36 @@ import com.github.tymefly.common.base.validate.Preconditions;
  * Utility functions for enumeration types.
  */
 public class Enums {
+    /**
+     * The constants of an enumeration, indexed for {@link #safeToEnum(Class, String)}
+     * @param exact     The constants, indexed by their names
+     * @param folded    The constants, indexed by their names in {@link #fold(String) folded} case
+     */
+    private record Constants(@Nonnull Map<String, Enum<?>> exact, @Nonnull Map<String, Enum<?>> folded) {
+    }
+
+
+    private static final ClassValue<Constants> CONSTANTS = new ClassValue<>() {
+        @Override
+        @Nonnull
+        protected Constants computeValue(@Nonnull Class<?> type) {
+            Class<?> declaring = (type.isEnum() ? type : type.getSuperclass());     // Constant specific class bodies
+            Object[] constants = declaring.getEnumConstants();
+            Map<String, Enum<?>> exact = new HashMap<>();
+            Map<String, Enum<?>> folded = new HashMap<>();
+
+            for (Object constant : constants) {
+                Enum<?> value = (Enum<?>) constant;
+
+                exact.put(value.name(), value);
+                folded.putIfAbsent(fold(value.name()), value);   // First match wins, as with a linear scan
+            }
+
+            return new Constants(Map.copyOf(exact), Map.copyOf(folded));
+        }
+    };
+
+
     private Enums() {
     }
 
@@ -72,18 +104,14 @@ public class Enums {
      */
     @Nullable
     public static <T extends Enum<T>> T safeToEnum(@Nonnull Class<T> type, @Nonnull String name) {
-        T found = null;
+        Constants constants = CONSTANTS.get(type);
+        Enum<?> found = constants.exact().get(name);
 
-        name = cleanName(name);
-
-        for (var test : type.getEnumConstants()) {
-            if (name.equalsIgnoreCase(test.name())) {
-                found = test;
-                break;
-            }
+        if (found == null) {
+            found = constants.folded().get(fold(name));
         }
 
-        return found;
+        return type.cast(found);
     }
 
     
@@ -98,7 +126,46 @@ public class Enums {
      */
     @Nonnull
     public static String cleanName(@Nonnull String name) {
-        return name.trim()
-            .replaceAll(" +", "_");
+        String trimmed = name.trim();
+
+        return (trimmed.indexOf(' ') < 0 ? trimmed : clean(trimmed, false));
+    }
+
+
+    /**
+     * Returns a key for the cleaned up {@code name} that is the same for every name that it is equal to, ignoring
+     * case, in the same way as {@link String#equalsIgnoreCase(String)}
+     * @param name      Name of an enumeration
+     * @return          A key for {@code name}
+     * @see #cleanName(String)
+     */
+    @Nonnull
+    private static String fold(@Nonnull String name) {
+        return clean(name.trim(), true);
+    }
+
+
+    @Nonnull
+    private static String clean(@Nonnull String trimmed, boolean fold) {
+        int length = trimmed.length();
+        StringBuilder result = new StringBuilder(length);
+        boolean space = false;
+
+        for (int index = 0; index < length; index++) {
+            char c = trimmed.charAt(index);
+
+            if (c == ' ') {
+                if (!space) {
+                    result.append('_');
+                }
+
+                space = true;
+            } else {
+                result.append(fold ? Character.toLowerCase(Character.toUpperCase(c)) : c);
+                space = false;
+            }
+        }
+
+        return result.toString();
     }
 }
@@ -0,0 +1,188 @@
+package com.github.tymefly.common.base.utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Parse numbers without throwing exceptions.
+ * <br>
+ * Text is checked against the syntax accepted by the JDK parse functions before it is parsed, so text that is not
+ * a number is rejected without the cost of creating a {@link NumberFormatException} and filling in its stack trace.
+ * The text must already have been trimmed.
+ */
+final class NumberParser {
+    private static final int DECIMAL = 10;
+    private static final int HEX = 16;
+    private static final int ASCII = 128;
+    private static final long EXPONENT_OVERFLOW = Integer.MAX_VALUE + 1L;
+    private static final String NAN = "NaN";
+    private static final String INFINITY = "Infinity";
+    private static final String FLOAT_SUFFIXES = "fFdD";
+
+
+    private NumberParser() {
+    }
+
+
+    /**
+     * Parse a whole number in the same way as {@link Long#parseLong(String)}
+     * @param text      Text to parse
+     * @param min       The smallest value that can be returned
+     * @param max       The largest value that can be returned
+     * @return          The value of the {@code text} or {@literal null} if it is not a whole number between
+     *                  {@code min} and {@code max}
+     */
+    @Nullable
+    static Long parseLong(@Nonnull String text, long min, long max) {
+        int length = text.length();
+        int start = sign(text, 0);
+        boolean negative = (start != 0) && (text.charAt(0) == '-');
+        long limit = (negative ? min : -max);           // Accumulate negatively, as -min may not be a long
+        long overflow = limit / DECIMAL;
+        long value = 0;
+        boolean valid = (start < length);
+
+        for (int index = start; valid && (index < length); index++) {
+            int digit = Character.digit(text.charAt(index), DECIMAL);
+
+            valid = (digit >= 0) && (value >= overflow) && (value * DECIMAL >= limit + digit);
+            value = value * DECIMAL - digit;
+        }
+
+        return (valid ? Long.valueOf(negative ? value : -value) : null);
+    }
+
+
+    /**
+     * Returns {@literal true} only if {@code text} can be parsed by {@link Double#parseDouble(String)} and
+     * {@link Float#parseFloat(String)}
+     * @param text      Text to test
+     * @return          {@literal true} only if {@code text} is a floating point number
+     */
+    static boolean isFloatingPoint(@Nonnull String text) {
+        int length = text.length();
+        int start = sign(text, 0);
+        boolean valid;
+
+        if (text.startsWith(NAN, start)) {
+            valid = (length == start + NAN.length());
+        } else if (text.startsWith(INFINITY, start)) {
+            valid = (length == start + INFINITY.length());
+        } else {
+            boolean hex = text.startsWith("0x", start) || text.startsWith("0X", start);
+            int end = (hex ? mantissa(text, start + 2, HEX, false) : mantissa(text, start, DECIMAL, false));
+
+            if (hex) {
+                end = (isExponent(text, end, 'p') ? exponent(text, end + 1, Long.MAX_VALUE, false) : -1);
+            } else if (isExponent(text, end, 'e')) {
+                end = exponent(text, end + 1, Long.MAX_VALUE, false);
+            }
+
+            if ((end >= 0) && (end < length) && (FLOAT_SUFFIXES.indexOf(text.charAt(end)) >= 0)) {
+                end++;
+            }
+
+            valid = (end == length);
+        }
+
+        return valid;
+    }
+
+
+    /**
+     * Returns {@literal true} only if {@code text} can be parsed by {@link java.math.BigDecimal#BigDecimal(String)}
+     * @param text      Text to test
+     * @return          {@literal true} only if {@code text} is a decimal number
+     */
+    static boolean isDecimal(@Nonnull String text) {
+        int length = text.length();
+        int end = mantissa(text, sign(text, 0), DECIMAL, true);
+
+        if (isExponent(text, end, 'e')) {
+            end = exponent(text, end + 1, Integer.MAX_VALUE - length, true);    // The scale must fit in an int
+        }
+
+        return (end == length);
+    }
+
+
+    /**
+     * Returns {@literal true} only if {@code text} can be parsed by {@link java.math.BigInteger#BigInteger(String)}
+     * @param text      Text to test
+     * @return          {@literal true} only if {@code text} is a whole number
+     */
+    static boolean isInteger(@Nonnull String text) {
+        int start = sign(text, 0);
+        int end = digits(text, start, DECIMAL, true);
+
+        return (end > start) && (end == text.length());
+    }
+
+
+    private static int sign(@Nonnull String text, int index) {
+        boolean signed = (index < text.length()) && ((text.charAt(index) == '-') || (text.charAt(index) == '+'));
+
+        return (signed ? index + 1 : index);
+    }
+
+
+    private static int digits(@Nonnull String text, int index, int radix, boolean unicode) {
+        int length = text.length();
+        int end = index;
+
+        while ((end < length) && isDigit(text.charAt(end), radix, unicode)) {
+            end++;
+        }
+
+        return end;
+    }
+
+
+    private static boolean isDigit(char c, int radix, boolean unicode) {
+        return (unicode || (c < ASCII)) && (Character.digit(c, radix) >= 0);
+    }
+
+
+    /**
+     * Scan the digits, with an optional decimal point, at the start of a number
+     * @return  the index of the character after the mantissa or {@literal -1} if there are no digits
+     */
+    private static int mantissa(@Nonnull String text, int index, int radix, boolean unicode) {
+        int end = digits(text, index, radix, unicode);
+        int count = end - index;
+
+        if ((end < text.length()) && (text.charAt(end) == '.')) {
+            int fraction = digits(text, end + 1, radix, unicode);
+
+            count += fraction - end - 1;
+            end = fraction;
+        }
+
+        return (count == 0 ? -1 : end);
+    }
+
+
+    private static boolean isExponent(@Nonnull String text, int index, char marker) {
+        return (index >= 0) && (index < text.length()) && (Character.toLowerCase(text.charAt(index)) == marker);
+    }
+
+
+    /**
+     * Scan the signed digits of an exponent
+     * @return  the index of the character after the exponent or {@literal -1} if there are no digits or the
+     *          magnitude of the exponent is larger than {@code max}
+     */
+    private static int exponent(@Nonnull String text, int index, long max, boolean unicode) {
+        int length = text.length();
+        int start = sign(text, index);
+        int end = start;
+        long value = 0;
+
+        while ((end < length) && isDigit(text.charAt(end), DECIMAL, unicode)) {
+            value = Math.min(value * DECIMAL + Character.digit(text.charAt(end), DECIMAL), EXPONENT_OVERFLOW);
+            end++;
+        }
+
+        return ((end == start) || (value > max) ? -1 : end);
+    }
+}
@@ -11,12 +11,55 @@ import javax.annotation.Nullable;
  *  <li> messages are required, in Guava they are optional</li>
  *  <li> message templates take more that just the {@code %s} formatter</li>
  * </ul>
+ * Overloaded versions of the methods that take zero or one message argument are provided so that callers on hot
+ * paths do not allocate a varargs array every time a check passes.
  */
 public class Preconditions {
     private Preconditions() {
     }
 
 
+    /**
+     * Check that {@code obj} is not null.
+     * @param obj                   Object to test
+     * @param message               Formatting string used to generate a message if {@code obj} is null
+     * @param <T>                   Type of {@code obj}
+     * @return                      {@code obj}, which is guaranteed not to be null
+     * @throws NullPointerException if {@code obj} is null
+     * @see #checkNotNull(Object, String, Object...)
+     */
+    @Nonnull
+    public static <T> T checkNotNull(@Nullable T obj, @Nonnull String message) throws NullPointerException {
+        if (obj == null) {
+            String formatted = String.format(message);
+            throw new NullPointerException(formatted);
+        }
+
+        return obj;
+    }
+
+    /**
+     * Check that {@code obj} is not null.
+     * @param obj                   Object to test
+     * @param message               Formatting string used to generate a message if {@code obj} is null
+     * @param messageArg            Single argument to the {@code message}
+     * @param <T>                   Type of {@code obj}
+     * @return                      {@code obj}, which is guaranteed not to be null
+     * @throws NullPointerException if {@code obj} is null
+     * @see #checkNotNull(Object, String, Object...)
+     */
+    @Nonnull
+    public static <T> T checkNotNull(@Nullable T obj,
+                                     @Nonnull String message,
+                                     @Nullable Object messageArg) throws NullPointerException {
+        if (obj == null) {
+            String formatted = String.format(message, messageArg);
+            throw new NullPointerException(formatted);
+        }
+
+        return obj;
+    }
+
     /**
      * Check that {@code obj} is not null.
      * Unlike {@link java.util.Objects#requireNonNull(Object, String)} we can pass a formatted string without
@@ -43,6 +86,37 @@ public class Preconditions {
     }
 
 
+    /**
+     * Check that {@code expression} evaluates to {@code true}
+     * @param expression            expression to test
+     * @param message               Formatting string used to generate a message if {@code expression} is {@code false}
+     * @throws IllegalStateException if {@code expression} is false
+     * @see #checkState(boolean, String, Object...)
+     */
+    public static void checkState(boolean expression, @Nonnull String message) throws IllegalStateException {
+        if (!expression) {
+            String formatted = String.format(message);
+            throw new IllegalStateException(formatted);
+        }
+    }
+
+    /**
+     * Check that {@code expression} evaluates to {@code true}
+     * @param expression            expression to test
+     * @param message               Formatting string used to generate a message if {@code expression} is {@code false}
+     * @param messageArg            Single argument to the {@code message}
+     * @throws IllegalStateException if {@code expression} is false
+     * @see #checkState(boolean, String, Object...)
+     */
+    public static void checkState(boolean expression,
+                                  @Nonnull String message,
+                                  @Nullable Object messageArg) throws IllegalStateException {
+        if (!expression) {
+            String formatted = String.format(message, messageArg);
+            throw new IllegalStateException(formatted);
+        }
+    }
+
     /**
      * Check that {@code expression} evaluates to {@code true}
      * @param expression            expression to test
@@ -60,6 +134,37 @@ public class Preconditions {
         }
     }
 
+    /**
+     * Check that {@code argument} evaluates to {@code true}
+     * @param argument              argument to test
+     * @param message               Formatting string used to generate a message if {@code argument} is {@code false}
+     * @throws IllegalArgumentException if {@code argument} is false
+     * @see #checkArgument(boolean, String, Object...)
+     */
+    public static void checkArgument(boolean argument, @Nonnull String message) throws IllegalArgumentException {
+        if (!argument) {
+            String formatted = String.format(message);
+            throw new IllegalArgumentException(formatted);
+        }
+    }
+
+    /**
+     * Check that {@code argument} evaluates to {@code true}
+     * @param argument              argument to test
+     * @param message               Formatting string used to generate a message if {@code argument} is {@code false}
+     * @param messageArg            Single argument to the {@code message}
+     * @throws IllegalArgumentException if {@code argument} is false
+     * @see #checkArgument(boolean, String, Object...)
+     */
+    public static void checkArgument(boolean argument,
+                                     @Nonnull String message,
+                                     @Nullable Object messageArg) throws IllegalArgumentException {
+        if (!argument) {
+            String formatted = String.format(message, messageArg);
+            throw new IllegalArgumentException(formatted);
+        }
+    }
+
     /**
      * Check that {@code argument} evaluates to {@code true}. This is used to valuate argument
      * @param argument              argument to test
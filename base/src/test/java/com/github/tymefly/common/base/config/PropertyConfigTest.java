@@ -84,4 +84,20 @@ public class PropertyConfigTest {
                 "Setting JUNIT_UNDEFINED was not defined in System Properties",
                 actual.getMessage());
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Unit test {@link PropertyConfig#read(ConfigSetting, Class)}} with a value that can not be converted
+     */
+    @Test
+    public void test_read_BadValue() {
+        Exception actual = Assert.assertThrows("Read DEFINED",
+                ConfigException.class,
+                () -> config.read(TestKey.DEFINED, Integer.class));
+
+        Assert.assertEquals("Unexpected message",
+                "JUNIT_DEFINED can't be read as a Integer: setValue",
+                actual.getMessage());
+        Assert.assertTrue("Unexpected cause", actual.getCause() instanceof IllegalArgumentException);
+    }
+}
@@ -102,4 +102,29 @@ public class BigDecimalsTest {
         Assert.assertEquals("double", new BigDecimal("7.8"), BigDecimals.toBigDecimal(7.8));
         Assert.assertEquals("decimal", new BigDecimal("99"), BigDecimals.toBigDecimal(new BigInteger("99")));
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Unit test {@link BigDecimals#toCompact(Number)}
+     */
+    @Test
+    public void test_toCompact() {
+        Assert.assertNull("null", BigDecimals.toCompact(null));
+        Assert.assertEquals("byte", 1L, BigDecimals.toCompact((byte) 1));
+        Assert.assertEquals("short", 2L, BigDecimals.toCompact((short) 2));
+        Assert.assertEquals("int", 3L, BigDecimals.toCompact(3));
+        Assert.assertEquals("long", Long.MAX_VALUE, BigDecimals.toCompact(Long.MAX_VALUE));
+        Assert.assertEquals("float", 5.6, BigDecimals.toCompact(5.6f));
+        Assert.assertEquals("double", 7.8, BigDecimals.toCompact(7.8));
+        Assert.assertEquals("BigInteger", 99L, BigDecimals.toCompact(new BigInteger("99")));
+        Assert.assertEquals("Big BigInteger",
+            new BigDecimal("99999999999999999999"), BigDecimals.toCompact(new BigInteger("99999999999999999999")));
+        Assert.assertEquals("Integral BigDecimal", 10L, BigDecimals.toCompact(BigDecimal.TEN));
+        Assert.assertEquals("Double BigDecimal", 2.5, BigDecimals.toCompact(new BigDecimal("2.5")));
+        Assert.assertEquals("Scaled BigDecimal", new BigDecimal("2.50"), BigDecimals.toCompact(new BigDecimal("2.50")));
+        Assert.assertEquals("Precise BigDecimal",
+            new BigDecimal("0.12345678901234567890"), BigDecimals.toCompact(new BigDecimal("0.12345678901234567890")));
+
+        Assert.assertThrows("NaN", NumberFormatException.class, () -> BigDecimals.toCompact(Double.NaN));
+    }
+}
@@ -32,6 +32,9 @@ public class ConvertTest {
         Assert.assertEquals("long", "3", Convert.to((long) 3, String.class));
         Assert.assertEquals("float", "3.4", Convert.to(3.4f, String.class));
         Assert.assertEquals("double", "-5.6", Convert.to(-5.6, String.class));
+        Assert.assertEquals("large double", "1.0E20", Convert.to(1e20, String.class));
+        Assert.assertEquals("small double", "1.0E-10", Convert.to(1e-10, String.class));
+        Assert.assertEquals("NaN", "NaN", Convert.to(Double.NaN, String.class));
         Assert.assertEquals("BigDecimal", "7", Convert.to(BigDecimal.valueOf(7), String.class));
         Assert.assertEquals("BigInteger", "8", Convert.to(BigInteger.valueOf(8), String.class));
         Assert.assertEquals("enum", "OFF", Convert.to(Enumeration.OFF, String.class));
@@ -250,6 +253,70 @@ public class ConvertTest {
     }
 
 
+    /**
+     * Unit test {@link Convert#to(Object, Class}
+     */
+    @Test
+    public void test_to_Number_InvalidText() {
+        Assert.assertEquals("trimmed", Integer.valueOf(-12), Convert.to("  -12 ", Integer.class));
+        Assert.assertEquals("plus", Long.valueOf(5), Convert.to("+5", Long.class));
+        Assert.assertEquals("max byte", Byte.valueOf(Byte.MAX_VALUE), Convert.to("127", Byte.class));
+        Assert.assertEquals("min long", Long.valueOf(Long.MIN_VALUE), Convert.to("-9223372036854775808", Long.class));
+        Assert.assertEquals("exponent", Double.valueOf(1.5e3), Convert.to("1.5e3", Double.class));
+        Assert.assertEquals("hex float", Double.valueOf(8.0), Convert.to("0x1p3", Double.class));
+        Assert.assertEquals("suffix", Float.valueOf(2.5f), Convert.to("2.5f", Float.class));
+        Assert.assertEquals("NaN", Double.valueOf(Double.NaN), Convert.to("NaN", Double.class));
+        Assert.assertEquals("BigDecimal exponent", new BigDecimal("1E+5"), Convert.to("1e5", BigDecimal.class));
+
+        Assert.assertThrows("byte overflow", RuntimeException.class, () -> Convert.to("128", Byte.class));
+        Assert.assertThrows("long overflow", RuntimeException.class,
+                () -> Convert.to("9223372036854775808", Long.class));
+        Assert.assertThrows("fraction", RuntimeException.class, () -> Convert.to("1.5", Integer.class));
+        Assert.assertThrows("sign only", RuntimeException.class, () -> Convert.to("-", Integer.class));
+        Assert.assertThrows("empty", RuntimeException.class, () -> Convert.to("", Double.class));
+        Assert.assertThrows("dot", RuntimeException.class, () -> Convert.to(".", Double.class));
+        Assert.assertThrows("hex without exponent", RuntimeException.class, () -> Convert.to("0x1", Double.class));
+        Assert.assertThrows("BigDecimal NaN", RuntimeException.class, () -> Convert.to("NaN", BigDecimal.class));
+        Assert.assertThrows("BigDecimal suffix", RuntimeException.class, () -> Convert.to("1d", BigDecimal.class));
+        Assert.assertThrows("BigDecimal scale", RuntimeException.class,
+                () -> Convert.to("1e99999999999", BigDecimal.class));
+        Assert.assertThrows("BigInteger fraction", RuntimeException.class, () -> Convert.to("1.0", BigInteger.class));
+        Assert.assertThrows("Double NaN", RuntimeException.class, () -> Convert.to(Double.NaN, BigDecimal.class));
+        Assert.assertThrows("Float infinite", RuntimeException.class,
+                () -> Convert.to(Float.POSITIVE_INFINITY, BigInteger.class));
+    }
+
+
+    /**
+     * Unit test {@link Convert#safeTo(Object, Class)}
+     */
+    @Test
+    public void test_safeTo() {
+        Assert.assertNull("null", Convert.safeTo(null, Integer.class));
+        Assert.assertEquals("valid", Integer.valueOf(3), Convert.safeTo("3", int.class));
+        Assert.assertEquals("enum", Enumeration.TWO, Convert.safeTo("two", Enumeration.class));
+        Assert.assertNull("invalid number", Convert.safeTo("three", Integer.class));
+        Assert.assertNull("invalid enum", Convert.safeTo("three", Enumeration.class));
+        Assert.assertNull("invalid boolean", Convert.safeTo("three", Boolean.class));
+        Assert.assertNull("unsupported", Convert.safeTo("three", List.class));
+    }
+
+
+    /**
+     * Unit test {@link Convert#converter(Class, Class)}
+     */
+    @Test
+    public void test_converter() {
+        Converter<Integer> converter = Convert.converter(String.class, Integer.class);
+
+        Assert.assertSame("Not cached", converter, Convert.converter(String.class, Integer.class));
+        Assert.assertSame("Primitive type", converter, Convert.converter(String.class, int.class));
+        Assert.assertNotSame("Wrong source", converter, Convert.converter(Long.class, Integer.class));
+        Assert.assertEquals("Unexpected value", Integer.valueOf(42), converter.convert("42"));
+        Assert.assertNull("Unexpected invalid value", converter.convert("forty two"));
+    }
+
+
     /**
      * Unit test {@link Convert#to(Object, Class}
      */
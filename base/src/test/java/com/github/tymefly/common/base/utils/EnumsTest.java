@@ -16,6 +16,15 @@ public class EnumsTest {
         ONE, TWO, THREE, THREE_B
     }
 
+    enum MixedEnum {
+        Lower, LOWER, Body {
+            @Override
+            public String toString() {
+                return "body";
+            }
+        }
+    }
+
 
     /**
      * Unit test {@link Enums#toEnum}
@@ -69,6 +78,33 @@ public class EnumsTest {
     }
 
 
+    /**
+     * Unit test {@link Enums#safeToEnum(Class, String)}
+     */
+    @Test
+    public void test_safeToEnum_MixedCase() {
+        Assert.assertEquals("Exact", MixedEnum.Lower, Enums.safeToEnum(MixedEnum.class, "Lower"));
+        Assert.assertEquals("Exact upper", MixedEnum.LOWER, Enums.safeToEnum(MixedEnum.class, "LOWER"));
+        Assert.assertEquals("First match", MixedEnum.Lower, Enums.safeToEnum(MixedEnum.class, " lower "));
+        Assert.assertEquals("Class body", MixedEnum.Body, Enums.safeToEnum(MixedEnum.class, "BODY"));
+        Assert.assertEquals("Repeated", MixedEnum.Body, Enums.safeToEnum(MixedEnum.class, "BODY"));
+        Assert.assertNull("Missing", Enums.safeToEnum(MixedEnum.class, "Lower Body"));
+    }
+
+
+    /**
+     * Unit test {@link Enums#cleanName(String)}
+     */
+    @Test
+    public void test_cleanName() {
+        Assert.assertEquals("Clean", "Name", Enums.cleanName("Name"));
+        Assert.assertEquals("Trim", "Name", Enums.cleanName(" \tName\n "));
+        Assert.assertEquals("Spaces", "A_b_C", Enums.cleanName("A b   C"));
+        Assert.assertEquals("Tabs", "A\tb", Enums.cleanName("A\tb"));
+        Assert.assertEquals("Empty", "", Enums.cleanName("   "));
+    }
+
+
     /**
      * Unit test {@link Enums#toEnums}
      */
@@ -0,0 +1,81 @@
+package com.github.tymefly.common.base.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link NumberParser}
+ */
+public class NumberParserTest {
+    /**
+     * Unit test {@link NumberParser#parseLong(String, long, long)}
+     */
+    @Test
+    public void test_parseLong() {
+        Assert.assertEquals("zero", Long.valueOf(0), NumberParser.parseLong("0", -1, 1));
+        Assert.assertEquals("negative", Long.valueOf(-128), NumberParser.parseLong("-128", -128, 127));
+        Assert.assertEquals("positive", Long.valueOf(127), NumberParser.parseLong("+127", -128, 127));
+        Assert.assertEquals("leading zeros", Long.valueOf(7), NumberParser.parseLong("0007", -128, 127));
+        Assert.assertEquals("max", Long.valueOf(Long.MAX_VALUE),
+                NumberParser.parseLong("9223372036854775807", Long.MIN_VALUE, Long.MAX_VALUE));
+        Assert.assertEquals("min", Long.valueOf(Long.MIN_VALUE),
+                NumberParser.parseLong("-9223372036854775808", Long.MIN_VALUE, Long.MAX_VALUE));
+
+        Assert.assertNull("too small", NumberParser.parseLong("-129", -128, 127));
+        Assert.assertNull("too large", NumberParser.parseLong("128", -128, 127));
+        Assert.assertNull("overflow",
+                NumberParser.parseLong("9223372036854775808", Long.MIN_VALUE, Long.MAX_VALUE));
+        Assert.assertNull("large overflow", NumberParser.parseLong("99999999999999999999", -1, 1));
+        Assert.assertNull("empty", NumberParser.parseLong("", -1, 1));
+        Assert.assertNull("sign", NumberParser.parseLong("+", -1, 1));
+        Assert.assertNull("text", NumberParser.parseLong("1a", -100, 100));
+    }
+
+
+    /**
+     * Unit test {@link NumberParser#isFloatingPoint(String)}
+     */
+    @Test
+    public void test_isFloatingPoint() {
+        for (String valid : new String[] {"1", "-1.", ".5", "+1.5e-3", "1E10", "2f", "3.0D", "NaN", "-Infinity",
+                                          "0x1p3", "0X.8P-1d", "1e99999999999"}) {
+            Assert.assertTrue("Rejected " + valid, NumberParser.isFloatingPoint(valid));
+            Double.parseDouble(valid);
+        }
+
+        for (String invalid : new String[] {"", "-", ".", "e5", "1e", "1e+", "1.5.2", "0x1", "0xp1", "NaNf",
+                                            "Infinityd", "1ff", "1 2", "one"}) {
+            Assert.assertFalse("Accepted " + invalid, NumberParser.isFloatingPoint(invalid));
+            Assert.assertThrows(invalid, NumberFormatException.class, () -> Double.parseDouble(invalid));
+        }
+    }
+
+
+    /**
+     * Unit test {@link NumberParser#isDecimal(String)}
+     */
+    @Test
+    public void test_isDecimal() {
+        for (String valid : new String[] {"1", "-1.", ".5", "+1.5e-3", "1E10", "1e2147483000"}) {
+            Assert.assertTrue("Rejected " + valid, NumberParser.isDecimal(valid));
+        }
+
+        for (String invalid : new String[] {"", "-", ".", "1e", "1f", "NaN", "0x1p3", "1e99999999999"}) {
+            Assert.assertFalse("Accepted " + invalid, NumberParser.isDecimal(invalid));
+        }
+    }
+
+
+    /**
+     * Unit test {@link NumberParser#isInteger(String)}
+     */
+    @Test
+    public void test_isInteger() {
+        Assert.assertTrue("positive", NumberParser.isInteger("+123456789012345678901234567890"));
+        Assert.assertTrue("negative", NumberParser.isInteger("-1"));
+        Assert.assertFalse("empty", NumberParser.isInteger(""));
+        Assert.assertFalse("sign", NumberParser.isInteger("-"));
+        Assert.assertFalse("fraction", NumberParser.isInteger("1.0"));
+        Assert.assertFalse("exponent", NumberParser.isInteger("1e3"));
+    }
+}
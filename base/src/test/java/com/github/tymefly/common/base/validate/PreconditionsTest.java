@@ -24,6 +24,24 @@ public class PreconditionsTest {
         Assert.assertEquals("Unexpected message", "Hello world 1", actual.getMessage());
     }
 
+    /**
+     * Unit test {@link Preconditions#checkNotNull}
+     */
+    @Test
+    public void test_checkNotNull_fixedArguments() {
+        Preconditions.checkNotNull("Not Null", "Hello");
+        Preconditions.checkNotNull("Not Null", "Hello %s", "world");
+
+
+        Exception noArgs = Assert.assertThrows(NullPointerException.class,
+                () -> Preconditions.checkNotNull(null, "Hello 100%%"));
+        Exception oneArg = Assert.assertThrows(NullPointerException.class,
+                () -> Preconditions.checkNotNull(null, "Hello %s", "world"));
+
+        Assert.assertEquals("Unexpected message", "Hello 100%", noArgs.getMessage());
+        Assert.assertEquals("Unexpected message", "Hello world", oneArg.getMessage());
+    }
+
     /**
      * Unit test {@link Preconditions#checkState}
      */
@@ -38,6 +56,24 @@ public class PreconditionsTest {
         Assert.assertEquals("Unexpected message", "Hello world 1", actual.getMessage());
     }
 
+    /**
+     * Unit test {@link Preconditions#checkState}
+     */
+    @Test
+    public void test_checkState_fixedArguments() {
+        Preconditions.checkState(true, "Hello");
+        Preconditions.checkState(true, "Hello %s", "world");
+
+
+        Exception noArgs = Assert.assertThrows(IllegalStateException.class,
+                () -> Preconditions.checkState(false, "Hello 100%%"));
+        Exception oneArg = Assert.assertThrows(IllegalStateException.class,
+                () -> Preconditions.checkState(false, "Hello %s", "world"));
+
+        Assert.assertEquals("Unexpected message", "Hello 100%", noArgs.getMessage());
+        Assert.assertEquals("Unexpected message", "Hello world", oneArg.getMessage());
+    }
+
     /**
      * Unit test {@link Preconditions#checkArgument}
      */
@@ -52,6 +88,24 @@ public class PreconditionsTest {
         Assert.assertEquals("Unexpected message", "Hello world 1", actual.getMessage());
     }
 
+    /**
+     * Unit test {@link Preconditions#checkArgument}
+     */
+    @Test
+    public void test_checkArgument_fixedArguments() {
+        Preconditions.checkArgument(true, "Hello");
+        Preconditions.checkArgument(true, "Hello %s", "world");
+
+
+        Exception noArgs = Assert.assertThrows(IllegalArgumentException.class,
+                () -> Preconditions.checkArgument(false, "Hello 100%%"));
+        Exception oneArg = Assert.assertThrows(IllegalArgumentException.class,
+                () -> Preconditions.checkArgument(false, "Hello %s", "world"));
+
+        Assert.assertEquals("Unexpected message", "Hello 100%", noArgs.getMessage());
+        Assert.assertEquals("Unexpected message", "Hello world", oneArg.getMessage());
+    }
+
 
     /**
      * Unit test {@link Preconditions#checkSet}
@@ -0,0 +1,27 @@
+package com.github.tymefly.common.document;
+
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.common.document.key.DocumentKey;
+
+/**
+ * Applies a batch of updates to a Document. A BatchWriter is passed to the function given to
+ * {@link WritableDocument#batch(Consumer)} or {@link WritableDocument#batch(DocumentKey, Consumer)}, and can only be
+ * used until that function returns.
+ */
+public interface BatchWriter extends DocumentWriter<BatchWriter> {
+    /**
+     * Apply a nested batch of updates to the child Document at the location given by the {@code prefix}. The keys
+     * passed to the nested BatchWriter are relative to the child Document.
+     * @param prefix    a key that determines the location of the child Document. Missing child Documents are
+     *                  created
+     * @param writes    function that applies the updates to the child Document
+     * @return          a fluent interface
+     * @throws DocumentException if the Document contains a value that is not a Document at the location
+     * @see WritableDocument#batch(DocumentKey, Consumer)
+     */
+    @Nonnull
+    BatchWriter batch(@Nonnull DocumentKey prefix, @Nonnull Consumer<? super BatchWriter> writes);
+}
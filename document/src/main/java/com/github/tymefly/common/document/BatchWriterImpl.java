@@ -0,0 +1,292 @@
+package com.github.tymefly.common.document;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.github.tymefly.common.base.validate.Preconditions;
+import com.github.tymefly.common.document.key.DocumentKey;
+
+/**
+ * The {@link BatchWriter} that is passed to the function given to {@link WritableDocument#batch(Consumer)}.
+ * Each update is passed to the Document that the batch is applied to, which is responsible for holding any locks
+ * for the duration of the batch.
+ */
+final class BatchWriterImpl implements BatchWriter {
+    private final WritableDocument<?> target;
+    private boolean open;
+
+
+    private BatchWriterImpl(@Nonnull WritableDocument<?> target) {
+        this.target = target;
+        this.open = true;
+    }
+
+
+    /**
+     * Apply a batch of updates to a Document
+     * @param target    the Document that is updated
+     * @param writes    function that applies the updates to the {@code target}
+     */
+    static void apply(@Nonnull WritableDocument<?> target, @Nonnull Consumer<? super BatchWriter> writes) {
+        BatchWriterImpl writer = new BatchWriterImpl(target);
+
+        try {
+            writes.accept(writer);
+        } finally {
+            writer.open = false;
+        }
+    }
+
+
+    @Nonnull
+    @Override
+    public BatchWriter addString(@Nonnull DocumentKey key, @Nullable String value) {
+        target().addString(key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter addStrings(@Nonnull DocumentKey key, String... values) {
+        target().addStrings(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter addStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values) {
+        target().addStrings(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter appendString(@Nonnull DocumentKey key, @Nullable String value) {
+        target().appendString(key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter appendStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values) {
+        target().appendStrings(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter addNumber(@Nonnull DocumentKey key, @Nullable Number value) {
+        target().addNumber(key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter addNumbers(@Nonnull DocumentKey key, Number... values) {
+        target().addNumbers(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter addNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values) {
+        target().addNumbers(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter appendNumber(@Nonnull DocumentKey key, @Nullable Number value) {
+        target().appendNumber(key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter appendNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values) {
+        target().appendNumbers(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter increment(@Nonnull DocumentKey key, long delta) {
+        target().increment(key, delta);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter add(@Nonnull DocumentKey key, double delta) {
+        target().add(key, delta);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter accumulate(@Nonnull DocumentKey key, @Nonnull UnaryOperator<Number> function) {
+        target().accumulate(key, function);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter addBoolean(@Nonnull DocumentKey key, @Nullable Boolean value) {
+        target().addBoolean(key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter addBooleans(@Nonnull DocumentKey key, Boolean... values) {
+        target().addBooleans(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter addBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values) {
+        target().addBooleans(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter appendBoolean(@Nonnull DocumentKey key, @Nullable Boolean value) {
+        target().appendBoolean(key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter appendBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values) {
+        target().appendBooleans(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter addEnum(@Nonnull DocumentKey key, @Nullable Enum<?> value) {
+        target().addEnum(key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> BatchWriter addEnums(@Nonnull DocumentKey key, E... values) {
+        target().addEnums(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> BatchWriter addEnums(@Nonnull DocumentKey key, @Nonnull Collection<E> values) {
+        target().addEnums(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> BatchWriter appendEnum(@Nonnull DocumentKey key, @Nullable E value) {
+        target().appendEnum(key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> BatchWriter appendEnums(@Nonnull DocumentKey key, @Nonnull Collection<E> values) {
+        target().appendEnums(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter addDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value) {
+        target().addDocument(key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter addDocuments(@Nonnull DocumentKey key, CommonDocument... values) {
+        target().addDocuments(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter addDocuments(@Nonnull DocumentKey key, @Nonnull Collection<? extends CommonDocument> values) {
+        target().addDocuments(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter appendDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value) {
+        target().appendDocument(key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter appendDocuments(@Nonnull DocumentKey key, @Nonnull Collection<? extends CommonDocument> values) {
+        target().appendDocuments(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter remove(@Nonnull DocumentKey key) {
+        target().remove(key);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public BatchWriter batch(@Nonnull DocumentKey prefix, @Nonnull Consumer<? super BatchWriter> writes) {
+        target().batch(prefix, writes);
+
+        return this;
+    }
+
+
+    @Nonnull
+    private WritableDocument<?> target() {
+        Preconditions.checkState(open, "The batch has already been applied");
+
+        return target;
+    }
+}
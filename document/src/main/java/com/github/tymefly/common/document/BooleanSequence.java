@@ -0,0 +1,66 @@
+package com.github.tymefly.common.document;
+
+import java.util.BitSet;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Sequence} of Booleans that stores its elements as bits in a {@link BitSet}
+ */
+final class BooleanSequence extends Sequence<Boolean> {
+    private final BitSet values;
+    private final BitSet present;
+    private int capacity;
+
+
+    /**
+     * Constructor for an empty sequence
+     * @param capacity  Initial capacity of the sequence
+     */
+    BooleanSequence(int capacity) {
+        super(Boolean.class, 0);
+
+        this.values = new BitSet();
+        this.present = new BitSet();
+        this.capacity = capacity;
+    }
+
+
+    @Override
+    @Nullable
+    Boolean get(int index) {
+        return ((index < size()) && present.get(index) ? values.get(index) : null);
+    }
+
+    @Override
+    boolean isNull(int index) {
+        return !present.get(index);
+    }
+
+    @Override
+    boolean accepts(@Nullable Boolean value) {
+        return true;
+    }
+
+    @Override
+    void store(int index, @Nullable Boolean value) {
+        if (value == null) {
+            present.clear(index);
+            values.clear(index);
+        } else {
+            values.set(index, value);
+            present.set(index);
+        }
+    }
+
+    @Override
+    void resize(int capacity) {
+        // BitSets grow on demand, so only the logical capacity needs to be updated
+        this.capacity = capacity;
+    }
+
+    @Override
+    int capacity() {
+        return capacity;
+    }
+}
@@ -33,12 +33,37 @@ public interface CommonDocument {
      *     .copy(this)
      *     .immutable()
      *     .build();}</pre>
+     * or, without copying the data, by calling {@link #snapshot()}
      * @return an unmodifiable view of this Document
      * @see #canMutate()
      */
     @Nonnull
     ReadableDocument unmodifiable();
 
+    /**
+     * Returns an unmodifiable copy of the data in this Document at the time this method is called. The snapshot
+     * shares its data with this Document, so the cost of taking it does not depend on the size of the Document,
+     * and it is unaffected by any later changes to this Document. Attempts to modify the returned
+     * ReadableDocument result in an {@code UnsupportedOperationException}.
+     * <br>
+     * If this Document can be updated by other threads then the snapshot is taken under the same locks as
+     * {@link ReadableDocument#clone()}, so it sees a consistent view of the Document.
+     * @return an unmodifiable copy of the data in this Document
+     * @see #unmodifiable()
+     */
+    @Nonnull
+    ReadableDocument snapshot();
+
+    /**
+     * Returns a number that changes whenever this Document is updated. Callers can detect changes by comparing the
+     * version with one they read earlier, rather than by comparing the contents of the Document. The version is
+     * shared by all the Documents in a tree, so it also changes when another Document in the same tree is updated;
+     * if the version has not changed then neither has the Document, but a new version does not guarantee that this
+     * Document is different.
+     * @return a number that changes whenever this Document is updated
+     */
+    long version();
+
     /**
      * Returns {@code true} only of this document can be mutated
      * @return {@code true} only of this document can be mutated
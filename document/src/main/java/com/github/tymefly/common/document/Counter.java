@@ -0,0 +1,137 @@
+package com.github.tymefly.common.document;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.github.tymefly.common.base.utils.BigDecimals;
+import com.github.tymefly.common.document.key.DocumentKey;
+
+/**
+ * A number in a {@link Structure} that is updated by {@link DocumentWriter#increment(DocumentKey, long)} or
+ * {@link DocumentWriter#add(DocumentKey, double)}. The value is held in striped cells, so many threads can update
+ * the same counter without contending with each other.
+ * <br>
+ * Whole numbers are held exactly, as a {@code long}. Once a value that is not a whole number has been added the
+ * counter is held as a {@code double}. Counters are never seen outside the Document that holds them; readers and
+ * visitors are given the {@link #value()} of the counter, in the same format as any other number in the Document.
+ */
+@ThreadSafe
+final class Counter {
+    private final LongAdder whole;
+    private final DoubleAdder fraction;
+    private final Function<Number, Number> numbers;
+    private volatile boolean fractional;
+
+
+    /**
+     * Constructor
+     * @param numbers   Function that converts the value of the counter to the format required by the Document
+     */
+    Counter(@Nonnull Function<Number, Number> numbers) {
+        this.whole = new LongAdder();
+        this.fraction = new DoubleAdder();
+        this.numbers = numbers;
+        this.fractional = false;
+    }
+
+
+    /**
+     * Returns the value held by {@code value}, which may or may not be a Counter
+     * @param value     A value held in a Structure
+     * @return the value held by {@code value}
+     */
+    @Nullable
+    static Object valueOf(@Nullable Object value) {
+        return (value instanceof Counter counter ? counter.value() : value);
+    }
+
+
+    /**
+     * Add a whole number to this counter
+     * @param delta     the number to add
+     */
+    void increment(long delta) {
+        whole.add(delta);
+    }
+
+
+    /**
+     * Add a number that may not be a whole number to this counter
+     * @param delta     the number to add
+     */
+    void add(double delta) {
+        if (!fractional) {
+            fractional = true;                          // Set first, so the value is never missing the fraction
+        }
+
+        fraction.add(delta);
+    }
+
+
+    /**
+     * Add any number to this counter
+     * @param delta     the number to add
+     */
+    void add(@Nonnull Number delta) {
+        Number compact = BigDecimals.toCompact(delta);
+
+        if (compact instanceof Long value) {
+            increment(value);
+        } else {
+            add(compact.doubleValue());
+        }
+    }
+
+
+    /**
+     * Returns the current value of this counter
+     * @return the current value of this counter
+     */
+    @Nonnull
+    Number value() {
+        Number sum = (fractional ? (Number) (whole.sum() + fraction.sum()) : (Number) whole.sum());
+
+        return numbers.apply(sum);
+    }
+
+
+    /**
+     * Returns a new counter with the same value as this counter
+     * @return a new counter with the same value as this counter
+     */
+    @Nonnull
+    Counter copy() {
+        return copy(numbers);
+    }
+
+
+    /**
+     * Returns a new counter with the same value as this counter
+     * @param numbers   Function that converts the value of the copy to the format required by its Document
+     * @return a new counter with the same value as this counter
+     */
+    @Nonnull
+    Counter copy(@Nonnull Function<Number, Number> numbers) {
+        Counter copy = new Counter(numbers);
+
+        copy.increment(whole.sum());
+
+        if (fractional) {
+            copy.add(fraction.sum());
+        }
+
+        return copy;
+    }
+
+
+    @Override
+    @Nonnull
+    public String toString() {
+        return value().toString();
+    }
+}
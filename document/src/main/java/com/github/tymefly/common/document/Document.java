@@ -32,6 +32,8 @@ import com.github.tymefly.common.document.key.DocumentKey;
  * Documents are generally not synchronized, so care must be taken in multi-threaded environments. If
  * Synchronization is required then build with the synchronized decorator by calling
  * {@code Document.factory().withSynchronization().build();}
+ * Documents that are mostly read by many threads should instead be built with the concurrent decorator by calling
+ * {@code Document.factory().withConcurrency().build();} so that readers don't block each other.
  */
 public interface Document extends ReadableDocument, WritableDocument<Document> {
     /**
@@ -2,12 +2,15 @@ package com.github.tymefly.common.document;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.github.tymefly.common.document.decorator.UnmodifiableDocument;
+import com.github.tymefly.common.document.key.CompiledKey;
 import com.github.tymefly.common.document.key.DocumentKey;
 import com.github.tymefly.common.document.visitor.DocumentVisitor;
 
@@ -53,6 +56,29 @@ public abstract non-sealed class DocumentDecorator<D extends CommonDocument> ext
         return getWrapped().getStructure();
     }
 
+    /**
+     * Returns {@literal true} only if {@code key} refers to a counter, held directly by the underlying Document,
+     * that {@link #increment(DocumentKey, long)} and {@link #add(DocumentKey, double)} can update without changing
+     * the structure of the Document. Decorators that control concurrent access to a Document can allow these
+     * updates to run at the same time as readers and each other.
+     * @param key       key to test
+     * @return {@literal true} only if {@code key} refers to a counter that can be updated in place
+     */
+    protected final boolean isCounter(@Nonnull DocumentKey key) {
+        return getImpl().isCounter(CompiledKey.of(key));
+    }
+
+    /**
+     * Returns the number of values held at {@code key} by the underlying Document. This is the number of elements
+     * in a sequence, {@literal 1} for any other value and {@literal 0} if there is no value. Unlike reading a
+     * sequence, this does not copy its elements, so decorators can cheaply find where values will be appended.
+     * @param key       key to the value
+     * @return the number of values held at {@code key}
+     */
+    protected final int sizeOf(@Nonnull DocumentKey key) {
+        return getImpl().sizeOf(key);
+    }
+
     @Override
     public boolean wraps(@Nonnull Class<? extends DocumentDecorator<?>> type) {
         return (this.getClass().isAssignableFrom(type) || getWrapped().wraps(type));
@@ -81,6 +107,17 @@ public abstract non-sealed class DocumentDecorator<D extends CommonDocument> ext
         return (canMutate() ? new UnmodifiableDocument(this) : this);
     }
 
+    @Nonnull
+    @Override
+    public ReadableDocument snapshot() {
+        return clone().unmodifiable();
+    }
+
+    @Override
+    public long version() {
+        return getWrapped().version();
+    }
+
     @Nonnull
     @Override
     public D addString(@Nonnull DocumentKey key, @Nullable String value) {
@@ -113,6 +150,14 @@ public abstract non-sealed class DocumentDecorator<D extends CommonDocument> ext
         return (D) this;
     }
 
+    @Nonnull
+    @Override
+    public D appendStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values) {
+        getWrapped().appendStrings(key, values);
+
+        return (D) this;
+    }
+
     @Nonnull
     @Override
     public D addNumber(@Nonnull DocumentKey key, @Nullable Number value) {
@@ -145,6 +190,38 @@ public abstract non-sealed class DocumentDecorator<D extends CommonDocument> ext
         return (D) this;
     }
 
+    @Nonnull
+    @Override
+    public D appendNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values) {
+        getWrapped().appendNumbers(key, values);
+
+        return (D) this;
+    }
+
+    @Nonnull
+    @Override
+    public D increment(@Nonnull DocumentKey key, long delta) {
+        getWrapped().increment(key, delta);
+
+        return (D) this;
+    }
+
+    @Nonnull
+    @Override
+    public D add(@Nonnull DocumentKey key, double delta) {
+        getWrapped().add(key, delta);
+
+        return (D) this;
+    }
+
+    @Nonnull
+    @Override
+    public D accumulate(@Nonnull DocumentKey key, @Nonnull UnaryOperator<Number> function) {
+        getWrapped().accumulate(key, function);
+
+        return (D) this;
+    }
+
     @Nonnull
     @Override
     public D addBoolean(@Nonnull DocumentKey key, @Nullable Boolean value) {
@@ -177,6 +254,14 @@ public abstract non-sealed class DocumentDecorator<D extends CommonDocument> ext
         return (D) this;
     }
 
+    @Nonnull
+    @Override
+    public D appendBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values) {
+        getWrapped().appendBooleans(key, values);
+
+        return (D) this;
+    }
+
     @Nonnull
     @Override
     public D addEnum(@Nonnull DocumentKey key, @Nullable Enum<?> value) {
@@ -209,6 +294,14 @@ public abstract non-sealed class DocumentDecorator<D extends CommonDocument> ext
         return (D) this;
     }
 
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> D appendEnums(@Nonnull DocumentKey key, @Nonnull Collection<E> values) {
+        getWrapped().appendEnums(key, values);
+
+        return (D) this;
+    }
+
     @Nonnull
     @Override
     public D addDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value) {
@@ -241,6 +334,14 @@ public abstract non-sealed class DocumentDecorator<D extends CommonDocument> ext
         return (D) this;
     }
 
+    @Nonnull
+    @Override
+    public D appendDocuments(@Nonnull DocumentKey key, @Nonnull Collection<? extends CommonDocument> values) {
+        getWrapped().appendDocuments(key, values);
+
+        return (D) this;
+    }
+
     @Nonnull
     @Override
     public D remove(@Nonnull DocumentKey key) {
@@ -249,6 +350,35 @@ public abstract non-sealed class DocumentDecorator<D extends CommonDocument> ext
         return (D) this;
     }
 
+    /**
+     * Apply a batch of updates to this Document. Each update is passed to the corresponding method of this
+     * decorator. Decorators that control concurrent access to the Document should override this method so that
+     * they only do so once for the whole batch.
+     * @param writes    function that applies the updates to this Document
+     * @return          a fluent interface
+     */
+    @Nonnull
+    @Override
+    public D batch(@Nonnull Consumer<? super BatchWriter> writes) {
+        BatchWriterImpl.apply(this, writes);
+
+        return (D) this;
+    }
+
+    @Nonnull
+    @Override
+    public D batch(@Nonnull DocumentKey prefix, @Nonnull Consumer<? super BatchWriter> writes) {
+        getWrapped().batch(prefix, writes);
+
+        return (D) this;
+    }
+
+    @Nonnull
+    @Override
+    public D child(@Nonnull DocumentKey prefix) {
+        return (D) getWrapped().child(prefix);
+    }
+
 
     @Nonnull
     @Override
@@ -262,6 +392,26 @@ public abstract non-sealed class DocumentDecorator<D extends CommonDocument> ext
         return getWrapped().getOrDefault(key, defaultValue);
     }
 
+    @Override
+    public long getLong(@Nonnull DocumentKey key, long defaultValue) {
+        return getWrapped().getLong(key, defaultValue);
+    }
+
+    @Override
+    public int getInt(@Nonnull DocumentKey key, int defaultValue) {
+        return getWrapped().getInt(key, defaultValue);
+    }
+
+    @Override
+    public double getDouble(@Nonnull DocumentKey key, double defaultValue) {
+        return getWrapped().getDouble(key, defaultValue);
+    }
+
+    @Override
+    public boolean getBoolean(@Nonnull DocumentKey key, boolean defaultValue) {
+        return getWrapped().getBoolean(key, defaultValue);
+    }
+
     @Nonnull
     @Override
     public <T> T get(@Nonnull DocumentKey key, @Nonnull Function<String, T> fromString) {
@@ -286,6 +436,11 @@ public abstract non-sealed class DocumentDecorator<D extends CommonDocument> ext
         return getWrapped().isEmpty();
     }
 
+    @Override
+    public int size() {
+        return getWrapped().size();
+    }
+
     @Override
     public boolean contains(@Nonnull DocumentKey key) {
         return getWrapped().contains(key);
@@ -308,6 +463,12 @@ public abstract non-sealed class DocumentDecorator<D extends CommonDocument> ext
         return getWrapped().accept(visitor);
     }
 
+    @Nonnull
+    @Override
+    public ReadableDocument at(@Nonnull DocumentKey prefix) {
+        return getWrapped().at(prefix);
+    }
+
 
     @Override
     public boolean equals(Object obj) {
@@ -17,6 +17,20 @@ import com.github.tymefly.common.document.parse.DocumentParser;
  * @param <D>       Type of Generated Document
  */
 public interface DocumentFactory<D extends CommonDocument> extends FluentDocumentFactory<D> {
+    /**
+     * Store numbers in the generated document in a compact form. Integral values that fit in a {@code long} are
+     * stored as {@link Long}s, values that can be represented exactly by a {@code double} are stored as
+     * {@link Double}s and only other values are stored as {@link java.math.BigDecimal}s. By default all numbers are
+     * stored as BigDecimals.
+     * <br>
+     * This should be called before the document is populated. Child documents and clones of the generated
+     * document will also store their numbers in a compact form.
+     * @return              a fluent interface
+     * @see com.github.tymefly.common.base.utils.BigDecimals#toCompact(Number)
+     */
+    @Nonnull
+    DocumentFactory<D> compactNumbers();
+
     /**
      * Load a document with data represented in the {@code source} String
      * @param source        data represented in a String
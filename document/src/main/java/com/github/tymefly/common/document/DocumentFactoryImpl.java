@@ -9,18 +9,21 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.github.tymefly.common.base.io.FailedIoException;
 import com.github.tymefly.common.base.io.LimitedInputStream;
+import com.github.tymefly.common.document.decorator.ConcurrentDocument;
 import com.github.tymefly.common.document.decorator.NullFilterDocument;
+import com.github.tymefly.common.document.decorator.ObservableDocument;
 import com.github.tymefly.common.document.decorator.SynchronizedDocument;
 import com.github.tymefly.common.document.decorator.UnmodifiableDocument;
+import com.github.tymefly.common.document.event.ChangeListener;
 import com.github.tymefly.common.document.key.DocumentKey;
 import com.github.tymefly.common.document.parse.DocumentParser;
-import com.github.tymefly.common.document.visitor.util.Copy;
 
 /**
  * The only Implementation of {@link DocumentFactory}.
@@ -87,6 +90,18 @@ class DocumentFactoryImpl<D extends CommonDocument> implements WrappedDocumentFa
         return as(Document.class, SynchronizedDocument::new);
     }
 
+    @Nonnull
+    @Override
+    public DocumentFactoryImpl<Document> withConcurrency() {
+        return as(Document.class, ConcurrentDocument::new);
+    }
+
+    @Nonnull
+    @Override
+    public DocumentFactoryImpl<Document> withListener(@Nonnull ChangeListener listener) {
+        return as(Document.class, wrapped -> new ObservableDocument(wrapped, listener));
+    }
+
     @Override
     @Nonnull
     public <E extends CommonDocument> DocumentFactoryImpl<E> as(
@@ -99,13 +114,29 @@ class DocumentFactoryImpl<D extends CommonDocument> implements WrappedDocumentFa
     }
 
 
+    @Override
+    @Nonnull
+    public DocumentFactory<D> compactNumbers() {
+        backing.getImpl().setCompactNumbers(true);
+
+        return this;
+    }
+
+
     @Override
     @Nonnull
     public FluentDocumentFactory<D> copy(@Nonnull ReadableDocument source) {
-        AbstractDocument<?> copy = (AbstractDocument<?>) source.accept(new Copy());
-        Structure backing = copy.getStructure();
+        DocumentImpl target = this.backing.getImpl();
 
-        this.backing.getImpl().setStructure(backing);
+        if (!(source instanceof AbstractDocument<?> document)) {
+            AbstractDocument<?> copy = (AbstractDocument<?>) source.accept(target.copier());
+
+            target.share(copy.getImpl());
+        } else if (document.getImpl().isCompactNumbers() == target.isCompactNumbers()) {
+            target.share(document.getImpl());
+        } else {
+            target.copy(document.getImpl());
+        }
 
         return this;
     }
@@ -196,6 +227,14 @@ class DocumentFactoryImpl<D extends CommonDocument> implements WrappedDocumentFa
         return this;
     }
 
+    @Nonnull
+    @Override
+    public FluentDocumentFactory<D> appendStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values) {
+        backing.appendStrings(key, values);
+
+        return this;
+    }
+
     @Nonnull
     @Override
     public FluentDocumentFactory<D> addNumber(@Nonnull DocumentKey key, @Nullable Number value) {
@@ -228,6 +267,38 @@ class DocumentFactoryImpl<D extends CommonDocument> implements WrappedDocumentFa
         return this;
     }
 
+    @Nonnull
+    @Override
+    public FluentDocumentFactory<D> appendNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values) {
+        backing.appendNumbers(key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public FluentDocumentFactory<D> increment(@Nonnull DocumentKey key, long delta) {
+        backing.increment(key, delta);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public FluentDocumentFactory<D> add(@Nonnull DocumentKey key, double delta) {
+        backing.add(key, delta);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public FluentDocumentFactory<D> accumulate(@Nonnull DocumentKey key, @Nonnull UnaryOperator<Number> function) {
+        backing.accumulate(key, function);
+
+        return this;
+    }
+
     @Nonnull
     @Override
     public FluentDocumentFactory<D> addBoolean(@Nonnull DocumentKey key, @Nullable Boolean value) {
@@ -260,6 +331,14 @@ class DocumentFactoryImpl<D extends CommonDocument> implements WrappedDocumentFa
         return this;
     }
 
+    @Nonnull
+    @Override
+    public FluentDocumentFactory<D> appendBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values) {
+        backing.appendBooleans(key, values);
+
+        return this;
+    }
+
     @Nonnull
     @Override
     public FluentDocumentFactory<D> addEnum(@Nonnull DocumentKey key, @Nullable Enum<?> value) {
@@ -293,6 +372,15 @@ class DocumentFactoryImpl<D extends CommonDocument> implements WrappedDocumentFa
         return this;
     }
 
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> FluentDocumentFactory<D> appendEnums(@Nonnull DocumentKey key,
+                                                                    @Nonnull Collection<E> values) {
+        backing.appendEnums(key, values);
+
+        return this;
+    }
+
     @Nonnull
     @Override
     public FluentDocumentFactory<D> addDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value) {
@@ -326,6 +414,15 @@ class DocumentFactoryImpl<D extends CommonDocument> implements WrappedDocumentFa
         return this;
     }
 
+    @Nonnull
+    @Override
+    public FluentDocumentFactory<D> appendDocuments(@Nonnull DocumentKey key,
+                                                    @Nonnull Collection<? extends CommonDocument> values) {
+        backing.appendDocuments(key, values);
+
+        return this;
+    }
+
     @Nonnull
     @Override
     public FluentDocumentFactory<D> remove(@Nonnull DocumentKey key) {
@@ -1,19 +1,25 @@
 package com.github.tymefly.common.document;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.github.tymefly.common.base.function.TriConsumer;
 import com.github.tymefly.common.base.utils.BigDecimals;
 import com.github.tymefly.common.base.utils.Convert;
 import com.github.tymefly.common.base.validate.Preconditions;
+import com.github.tymefly.common.document.History.Revision;
+import com.github.tymefly.common.document.History.Snapshot;
 import com.github.tymefly.common.document.decorator.UnmodifiableDocument;
+import com.github.tymefly.common.document.key.CompiledKey;
 import com.github.tymefly.common.document.key.DocumentKey;
 import com.github.tymefly.common.document.visitor.DocumentVisitor;
 import com.github.tymefly.common.document.visitor.VisitorContext;
@@ -28,6 +34,15 @@ import com.github.tymefly.common.document.visitor.util.Copy;
  *              calling {@literal clone.super()}
  */
 final class DocumentImpl extends AbstractDocument<Document> implements Document {
+    /**
+     * The hash code of a Document
+     * @param version   The version of the History when the hash code was calculated
+     * @param value     The hash code
+     */
+    private record Hash(long version, int value) {
+    }
+
+
     /** Single implementation of VisitorContext */
     private class VisitorContextImpl implements VisitorContext {
         @Nonnull
@@ -47,15 +62,96 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
             .whenFound(DocumentImpl::containsHelper)
             .whenNotFound(() -> false)
             .build();
+    private static final Walker<Integer> SIZE_WALKER = new Walker.Builder<Integer>()
+            .toWalk((d, k) -> ((AbstractDocument<?>) d).getImpl().sizeOf(k))
+            .whenFound(DocumentImpl::sizeHelper)
+            .whenNotFound(() -> 0)
+            .build();
+    private static final Walker<ReadableDocument> AT_WALKER = new Walker.Builder<ReadableDocument>()
+            .toWalk(ReadableDocument::at)
+            .whenFound(DocumentImpl::atHelper)
+            .whenNotFound(() -> null)
+            .build();
     private static final Walker<WritableDocument<?>> REMOVE_WALKER = new Walker.Builder<WritableDocument<?>>()
             .toWalk(WritableDocument::remove)
             .whenFound(DocumentImpl::removeHelper)
             .whenNotFound(() -> null)
             .build();
 
-    private Structure structure;
+    private static final Inserter<String> ADD_STRING =
+            adder(String.class, WritableDocument::addString, Function.identity());
+    private static final Inserter<String[]> ADD_STRING_ARRAY =
+            adder(String.class, WritableDocument::addStrings, Function.identity());
+    private static final Inserter<Collection<String>> ADD_STRING_COLLECTION =
+            adder(String.class, WritableDocument::addStrings, Function.identity());
+    private static final Inserter<String> APPEND_STRING =
+            appender(String.class, WritableDocument::appendString, Function.identity());
+    private static final Inserter<Collection<String>> APPEND_STRING_COLLECTION =
+            appender(String.class, WritableDocument::appendStrings, Function.identity());
+
+    private static final Inserter<Number> ADD_NUMBER = numberAdder(WritableDocument::addNumber);
+    private static final Inserter<Number[]> ADD_NUMBER_ARRAY = numberAdder(WritableDocument::addNumbers);
+    private static final Inserter<Collection<Number>> ADD_NUMBER_COLLECTION = numberAdder(WritableDocument::addNumbers);
+    private static final Inserter<Number> APPEND_NUMBER = numberAppender(WritableDocument::appendNumber);
+    private static final Inserter<Collection<Number>> APPEND_NUMBER_COLLECTION =
+            numberAppender(WritableDocument::appendNumbers);
+    private static final Inserter<Long> INCREMENT = new Inserter.Builder<Long>()
+            .toWalk(WritableDocument::increment)
+            .whenFound((d, k, v) -> d.countHelper(k, c -> c.increment(v)))
+            .build();
+    private static final Inserter<Double> ADD = new Inserter.Builder<Double>()
+            .toWalk(WritableDocument::add)
+            .whenFound((d, k, v) -> d.countHelper(k, c -> c.add(v)))
+            .build();
+    private static final Inserter<UnaryOperator<Number>> ACCUMULATE = new Inserter.Builder<UnaryOperator<Number>>()
+            .toWalk(WritableDocument::accumulate)
+            .whenFound(DocumentImpl::accumulateHelper)
+            .build();
+
+    private static final Inserter<Boolean> ADD_BOOLEAN =
+            adder(Boolean.class, WritableDocument::addBoolean, Function.identity());
+    private static final Inserter<Boolean[]> ADD_BOOLEAN_ARRAY =
+            adder(Boolean.class, WritableDocument::addBooleans, Function.identity());
+    private static final Inserter<Collection<Boolean>> ADD_BOOLEAN_COLLECTION =
+            adder(Boolean.class, WritableDocument::addBooleans, Function.identity());
+    private static final Inserter<Boolean> APPEND_BOOLEAN =
+            appender(Boolean.class, WritableDocument::appendBoolean, Function.identity());
+    private static final Inserter<Collection<Boolean>> APPEND_BOOLEAN_COLLECTION =
+            appender(Boolean.class, WritableDocument::appendBooleans, Function.identity());
+
+    private static final Inserter<Enum<?>> ADD_ENUM =
+            adder(Enum.class, WritableDocument::addEnum, Function.identity());
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Inserter<Enum[]> ADD_ENUM_ARRAY =
+            adder(Enum.class, (d, k, v) -> d.addEnums(k, v), Function.identity());
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Inserter<Collection> ADD_ENUM_COLLECTION =
+            adder(Enum.class, (d, k, v) -> d.addEnums(k, v), Function.identity());
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Inserter<Enum> APPEND_ENUM =
+            appender(Enum.class, (d, k, v) -> d.appendEnum(k, v), Function.identity());
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Inserter<Collection> APPEND_ENUM_COLLECTION =
+            appender(Enum.class, (d, k, v) -> d.appendEnums(k, v), Function.identity());
+
+    private static final Inserter<CommonDocument> ADD_DOCUMENT =
+            adder(CommonDocument.class, WritableDocument::addDocument, DocumentImpl::validateDocument);
+    private static final Inserter<CommonDocument[]> ADD_DOCUMENT_ARRAY =
+            adder(CommonDocument.class, WritableDocument::addDocuments, DocumentImpl::validateDocument);
+    private static final Inserter<Collection<? extends CommonDocument>> ADD_DOCUMENT_COLLECTION =
+            adder(CommonDocument.class, WritableDocument::addDocuments, DocumentImpl::validateDocument);
+    private static final Inserter<CommonDocument> APPEND_DOCUMENT =
+            appender(CommonDocument.class, WritableDocument::appendDocument, DocumentImpl::validateDocument);
+    private static final Inserter<Collection<? extends CommonDocument>> APPEND_DOCUMENT_COLLECTION =
+            appender(CommonDocument.class, WritableDocument::appendDocuments, DocumentImpl::validateDocument);
+
+    private final History history;
+    private volatile Revision revision;
     private Function<AbstractDocument<?>, ? extends AbstractDocument<?>> constructor;
     private VisitorContext visitorContext;
+    private boolean compactNumbers;
+    private Function<Number, Number> numbers;
+    private volatile Hash hash;
 
 
     /**
@@ -65,9 +161,27 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
      *                      Document in which contains the underlying structure that can be used without copying.
      */
     DocumentImpl(@Nullable AbstractDocument<?> initialData) {
-        structure = initialData == null ?  new Structure() : initialData.getStructure();
+        if (initialData == null) {
+            history = new History();
+            revision = new Revision(new Structure(), null, history.generation());
+        } else {
+            history = initialData.getImpl().history;
+            revision = initialData.getImpl().revision;
+        }
+
         constructor = DocumentImpl::new;
         visitorContext = null;
+
+        setCompactNumbers((initialData != null) && initialData.getImpl().isCompactNumbers());
+    }
+
+    private DocumentImpl(@Nonnull History history, @Nonnull Revision revision, boolean compactNumbers) {
+        this.history = history;
+        this.revision = revision;
+        this.constructor = DocumentImpl::new;
+        this.visitorContext = null;
+
+        setCompactNumbers(compactNumbers);
     }
 
     @Nonnull
@@ -81,14 +195,116 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
         return this;
     }
 
+    /**
+     * Returns the structure that holds the data in this document. If this document still shares its structure
+     * with the document that it was cloned from then the structure is copied first, so that the child documents
+     * in the returned structure belong to this document.
+     * @return the structure that holds the data in this document
+     */
     @Override
     @Nonnull
     Structure getStructure() {
+        if (revision.source() != null) {
+            fork();
+        }
+
+        return revision.structure();
+    }
+
+    /**
+     * Returns the structure that holds the data in this document so that it can be updated. If the structure may
+     * be shared with a clone of this document then it is copied first.
+     * @return the structure that holds the data in this document
+     */
+    @Nonnull
+    Structure getWritableStructure() {
+        Structure structure = getStructure();
+
+        if (revision.generation() != history.generation()) {
+            structure = structure.copy(DocumentImpl::shareValue);
+            setRevision(new Revision(structure, null, history.generation()));
+        }
+
         return structure;
     }
 
-    void setStructure(@Nonnull Structure structure) {
-        this.structure = structure;
+    /**
+     * Returns the current revision of the data in this document. This is used by {@link History.Snapshot}
+     * to find the data in documents that have not changed since a snapshot was taken.
+     * @return the current revision of the data in this document
+     */
+    @Nonnull
+    Revision getRevision() {
+        return revision;
+    }
+
+    /**
+     * Replace the data in this document with the data in the {@code source} document. The data is shared until
+     * either document is updated, so this does not need to copy the source.
+     * @param source    Document to take the data from
+     */
+    void share(@Nonnull DocumentImpl source) {
+        Revision shared = source.capture();
+
+        setRevision(new Revision(shared.structure(), shared.source(), history.generation()));
+        history.modified();
+    }
+
+    /**
+     * Replace the data in this document with a copy of the data in the {@code source} document. Unlike
+     * {@link #share(DocumentImpl)} numbers are converted to the form used by this document, so the structures are
+     * copied node by node. Sequences of values that do not need to be converted are shared until they are updated.
+     * @param source    Document to copy the data from
+     */
+    void copy(@Nonnull DocumentImpl source) {
+        Structure copy = source.getStructure().copy(this::copyValue);
+
+        setRevision(new Revision(copy, null, history.generation()));
+        history.modified();
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private Object copyValue(@Nullable Object value) {
+        Object result;
+
+        if (value instanceof Number number) {
+            result = numbers.apply(number);
+        } else if (value instanceof Counter counter) {
+            result = counter.copy(numbers);
+        } else if (value instanceof AbstractDocument<?> child) {
+            DocumentImpl copy = new DocumentImpl(history,
+                                                 new Revision(new Structure(), null, history.generation()),
+                                                 compactNumbers);
+
+            copy.copy(child.getImpl());
+            result = copy;
+        } else if ((value instanceof Sequence<?> sequence) && (sequence.getType() == Number.class)) {
+            result = ((Sequence<Number>) sequence).copy(n -> (n == null ? null : numbers.apply(n)));
+        } else if ((value instanceof Sequence<?> sequence) &&
+                    sequence.getType().isAssignableFrom(CommonDocument.class)) {
+            result = ((Sequence<Object>) sequence).copy(this::copyValue);
+        } else {
+            result = shareValue(value);
+        }
+
+        return result;
+    }
+
+    /**
+     * Add the tree that the {@code child} document belongs to to the tree that this document belongs to
+     * @param child     A document that has been added to this document
+     */
+    void join(@Nonnull DocumentImpl child) {
+        history.join(child.history);
+    }
+
+    /**
+     * Record that this document, or one of its children, has been updated. This must be called after the update
+     * is complete
+     */
+    void modified() {
+        history.modified();
     }
 
     void setConstructor(@Nonnull Function<AbstractDocument<?>, ? extends AbstractDocument<?>> constructor) {
@@ -100,6 +316,40 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
         return this.constructor;
     }
 
+    /**
+     * Sets how numbers are stored in this document. Child documents that are created by this document will
+     * store their numbers in the same way.
+     * @param compactNumbers    if {@literal true} numbers are stored in their most compact form as described by
+     *                          {@link BigDecimals#toCompact(Number)}, otherwise they are stored as BigDecimals
+     */
+    void setCompactNumbers(boolean compactNumbers) {
+        this.compactNumbers = compactNumbers;
+        this.numbers = (compactNumbers ? BigDecimals::toCompact : BigDecimals::toBigDecimal);
+    }
+
+    boolean isCompactNumbers() {
+        return compactNumbers;
+    }
+
+    /**
+     * Create a visitor that makes a deep copy of this document. Numbers in the copy are stored in the same way as
+     * they are in this document
+     * @return a visitor that makes a deep copy of this document
+     */
+    @Nonnull
+    Copy copier() {
+        return new Copy(emptyCopy(), this::emptyCopy);
+    }
+
+    @Nonnull
+    private DocumentImpl emptyCopy() {
+        DocumentImpl target = new DocumentImpl(null);
+
+        target.setCompactNumbers(compactNumbers);
+
+        return target;
+    }
+
     @Override
     public boolean wraps(@Nonnull Class<? extends DocumentDecorator<?>> type) {
         return false;
@@ -123,11 +373,22 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
         return new UnmodifiableDocument(this);
     }
 
+    @Nonnull
+    @Override
+    public ReadableDocument snapshot() {
+        return clone().unmodifiable();
+    }
+
+    @Override
+    public long version() {
+        return history.version();
+    }
+
 
     @Override
     @Nonnull
     public DocumentImpl addString(@Nonnull DocumentKey key, @Nullable String value) {
-        add(key, String.class, value, (d, k) -> d.addString(k, value));
+        ADD_STRING.insert(this, key, value);
 
         return this;
     }
@@ -135,7 +396,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Override
     @Nonnull
     public DocumentImpl addStrings(@Nonnull DocumentKey key, String... values) {
-        add(key, String.class, values, (d, k) -> d.addStrings(k, values));
+        ADD_STRING_ARRAY.insert(this, key, values);
 
         return this;
     }
@@ -143,7 +404,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Override
     @Nonnull
     public DocumentImpl addStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values) {
-        add(key, String.class, values, (d, k) -> d.addStrings(k, values));
+        ADD_STRING_COLLECTION.insert(this, key, values);
 
         return this;
     }
@@ -151,7 +412,15 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Nonnull
     @Override
     public Document appendString(@Nonnull DocumentKey key, @Nullable String value) {
-        append(key, String.class, value, (d, k) -> d.appendString(k, value));
+        APPEND_STRING.insert(this, key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public Document appendStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values) {
+        APPEND_STRING_COLLECTION.insert(this, key, values);
 
         return this;
     }
@@ -160,7 +429,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Override
     @Nonnull
     public DocumentImpl addNumber(@Nonnull DocumentKey key, @Nullable Number value) {
-        add(key, Number.class, value, (d, k) -> d.addNumber(k, value), BigDecimals::toBigDecimal);
+        ADD_NUMBER.insert(this, key, value);
 
         return this;
     }
@@ -168,7 +437,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Override
     @Nonnull
     public DocumentImpl addNumbers(@Nonnull DocumentKey key, Number... values) {
-        add(key, Number.class, values, (d, k) -> d.addNumbers(k, values), BigDecimals::toBigDecimal);
+        ADD_NUMBER_ARRAY.insert(this, key, values);
 
         return this;
     }
@@ -176,7 +445,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Override
     @Nonnull
     public DocumentImpl addNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values) {
-        add(key, Number.class, values, (d, k) -> d.addNumbers(k, values), BigDecimals::toBigDecimal);
+        ADD_NUMBER_COLLECTION.insert(this, key, values);
 
         return this;
     }
@@ -184,16 +453,99 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Nonnull
     @Override
     public Document appendNumber(@Nonnull DocumentKey key, @Nullable Number value) {
-        append(key, Number.class, value, (d, k) -> d.appendNumber(k, value), BigDecimals::toBigDecimal);
+        APPEND_NUMBER.insert(this, key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public Document appendNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values) {
+        APPEND_NUMBER_COLLECTION.insert(this, key, values);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public Document increment(@Nonnull DocumentKey key, long delta) {
+        INCREMENT.insert(this, key, delta);
 
         return this;
     }
 
+    @Nonnull
+    @Override
+    public Document add(@Nonnull DocumentKey key, double delta) {
+        ADD.insert(this, key, delta);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public Document accumulate(@Nonnull DocumentKey key, @Nonnull UnaryOperator<Number> function) {
+        ACCUMULATE.insert(this, key, function);
+
+        return this;
+    }
+
+    /**
+     * Returns {@literal true} only if {@code walkerKey} refers to a counter in this document that can be updated in
+     * place. Counters that may be shared with a clone of this document have to be copied before they are updated.
+     * @param walkerKey     a key to a value in this document, rather than one of its children
+     * @return {@literal true} only if {@code walkerKey} refers to a counter that can be updated in place
+     */
+    boolean isCounter(@Nonnull CompiledKey walkerKey) {
+        Revision current = revision;
+
+        return !walkerKey.hasChildren() &&
+               !walkerKey.hasIndex() &&
+               (current.source() == null) &&
+               (current.generation() == history.generation()) &&
+               (current.structure().get(walkerKey.simpleKey()) instanceof Counter);
+    }
+
+    private void countHelper(@Nonnull CompiledKey walkerKey, @Nonnull Consumer<Counter> update) {
+        if (isCounter(walkerKey)) {
+            update.accept((Counter) getStructure().get(walkerKey.simpleKey()));
+        } else {
+            Structure structure = getWritableStructure();
+            Object current = WalkerHelper.get(Object.class, structure, walkerKey);
+            Counter counter = (current instanceof Counter existing ? existing : new Counter(numbers));
+
+            if (counter != current) {
+                Number initial = WalkerHelper.cast(Number.class, walkerKey, current);
+
+                if (initial != null) {
+                    counter.add(initial);
+                }
+            }
+
+            update.accept(counter);
+
+            if (walkerKey.hasIndex()) {                 // Sequences only hold plain numbers
+                addHelper(walkerKey, Number.class, counter.value(), numbers);
+            } else if (counter != current) {
+                structure.add(walkerKey.simpleKey(), counter);
+            } else {
+                // Do nothing - the counter has been updated in place
+            }
+        }
+    }
+
+    private void accumulateHelper(@Nonnull CompiledKey walkerKey, @Nonnull UnaryOperator<Number> function) {
+        Object current = Counter.valueOf(WalkerHelper.get(Object.class, getStructure(), walkerKey));
+        Number updated = function.apply(WalkerHelper.cast(Number.class, walkerKey, current));
+
+        addHelper(walkerKey, Number.class, updated, numbers);
+    }
+
 
     @Override
     @Nonnull
     public DocumentImpl addBoolean(@Nonnull DocumentKey key, @Nullable Boolean value) {
-        add(key, Boolean.class, value, (d, k) -> d.addBoolean(k, value));
+        ADD_BOOLEAN.insert(this, key, value);
 
         return this;
     }
@@ -201,7 +553,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Override
     @Nonnull
     public DocumentImpl addBooleans(@Nonnull DocumentKey key, Boolean... values) {
-        add(key, Boolean.class, values, (d, k) -> d.addBooleans(k, values));
+        ADD_BOOLEAN_ARRAY.insert(this, key, values);
 
         return this;
     }
@@ -209,7 +561,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Override
     @Nonnull
     public DocumentImpl addBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values) {
-        add(key, Boolean.class, values, (d, k) -> d.addBooleans(k, values));
+        ADD_BOOLEAN_COLLECTION.insert(this, key, values);
 
         return this;
     }
@@ -217,7 +569,15 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Nonnull
     @Override
     public Document appendBoolean(@Nonnull DocumentKey key, @Nullable Boolean value) {
-        append(key, Boolean.class, value, (d, k) -> d.appendBoolean(k, value));
+        APPEND_BOOLEAN.insert(this, key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public Document appendBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values) {
+        APPEND_BOOLEAN_COLLECTION.insert(this, key, values);
 
         return this;
     }
@@ -226,7 +586,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Override
     @Nonnull
     public DocumentImpl addEnum(@Nonnull DocumentKey key, @Nullable Enum<?> value) {
-        add(key, Enum.class, value, (d, k) -> d.addEnum(k, value));
+        ADD_ENUM.insert(this, key, value);
 
         return this;
     }
@@ -235,7 +595,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Override
     @Nonnull
     public final <E extends Enum<E>> DocumentImpl addEnums(@Nonnull DocumentKey key, E... values) {
-        add(key, Enum.class, values, (d, k) -> d.addEnums(k, values));
+        ADD_ENUM_ARRAY.insert(this, key, values);
 
         return this;
     }
@@ -243,7 +603,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Override
     @Nonnull
     public <E extends Enum<E>> DocumentImpl addEnums(@Nonnull DocumentKey key, @Nonnull Collection<E> values) {
-        add(key, Enum.class, values, (d, k) -> d.addEnums(k, values));
+        ADD_ENUM_COLLECTION.insert(this, key, values);
 
         return this;
     }
@@ -251,7 +611,15 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Nonnull
     @Override
     public <E extends Enum<E>> Document appendEnum(@Nonnull DocumentKey key, @Nullable E value) {
-        append(key, Enum.class, value, (d, k) -> d.appendEnum(k, value));
+        APPEND_ENUM.insert(this, key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> Document appendEnums(@Nonnull DocumentKey key, @Nonnull Collection<E> values) {
+        APPEND_ENUM_COLLECTION.insert(this, key, values);
 
         return this;
     }
@@ -259,7 +627,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Nonnull
     @Override
     public Document addDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value) {
-        add(key, CommonDocument.class, value, (d, k) -> d.addDocument(k, value), this::validateDocument);
+        ADD_DOCUMENT.insert(this, key, value);
 
         return this;
     }
@@ -267,7 +635,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Nonnull
     @Override
     public Document addDocuments(@Nonnull DocumentKey key, CommonDocument... values) {
-        add(key, CommonDocument.class, values, (d, k) -> d.addDocuments(k, values), this::validateDocument);
+        ADD_DOCUMENT_ARRAY.insert(this, key, values);
 
         return this;
     }
@@ -275,7 +643,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Override
     @Nonnull
     public DocumentImpl addDocuments(@Nonnull DocumentKey key, @Nonnull Collection<? extends CommonDocument> values) {
-        add(key, CommonDocument.class, values, (d, k) -> d.addDocuments(k, values), this::validateDocument);
+        ADD_DOCUMENT_COLLECTION.insert(this, key, values);
 
         return this;
     }
@@ -283,13 +651,22 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     @Nonnull
     @Override
     public Document appendDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value) {
-        append(key, CommonDocument.class, value, (d, k) -> d.appendDocument(k, value), this::validateDocument);
+        APPEND_DOCUMENT.insert(this, key, value);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public Document appendDocuments(@Nonnull DocumentKey key,
+                                    @Nonnull Collection<? extends CommonDocument> values) {
+        APPEND_DOCUMENT_COLLECTION.insert(this, key, values);
 
         return this;
     }
 
     @Nullable
-    private <T extends CommonDocument> T validateDocument(@Nullable T document) {
+    private static <T extends CommonDocument> T validateDocument(@Nullable T document) {
         Preconditions.checkArgument(((document == null) || (document instanceof AbstractDocument)),
                 "Unexpected Document Type");
 
@@ -297,63 +674,101 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     }
 
 
-    private <T> void append(@Nonnull DocumentKey key,
-                            @Nonnull Class<T> type,
-                            @Nullable Object data,
-                            @Nonnull BiConsumer<WritableDocument<?>, DocumentKey> walkFunction) {
-        append(key, type, data, walkFunction, Function.identity());
-    }
-
-    private <T> void append(@Nonnull DocumentKey key,
-                            @Nonnull Class<T> type,
-                            @Nullable Object data,
-                            @Nonnull BiConsumer<WritableDocument<?>, DocumentKey> walkFunction,
-                            @Nonnull Function<T, T> transform) {
-        new Inserter.Builder()
-            .toWalk(walkFunction)
-            .constructBy(constructor)
-            .whenFound((d, k) -> d.appendHelper(k, type, data, transform))
-            .build()
-            .insert(this, key);
+    /**
+     * Create an {@link Inserter} that will append values of {@code type} to a Sequence. The appended value can be
+     * a single value or a Collection
+     * @param type      Type of data stored in the Sequence
+     * @param walk      Function used to walk one step towards the ultimate child document
+     * @param transform Function applied to each value before it is stored
+     * @param <T>       Type of data stored in the Sequence
+     * @param <V>       Type of the value passed to the Inserter
+     * @return          A thread-safe Inserter that can be shared by all documents
+     */
+    @Nonnull
+    private static <T, V> Inserter<V> appender(@Nonnull Class<T> type,
+                                               @Nonnull TriConsumer<WritableDocument<?>, DocumentKey, V> walk,
+                                               @Nonnull Function<T, T> transform) {
+        return new Inserter.Builder<V>()
+            .toWalk(walk)
+            .whenFound((d, k, v) -> d.appendHelper(k, type, v, transform))
+            .build();
     }
 
-    private <T> void appendHelper(@Nonnull WalkerKey walkerKey,
+    @SuppressWarnings("unchecked")
+    private <T> void appendHelper(@Nonnull CompiledKey walkerKey,
                                   @Nonnull Class<T> type,
                                   @Nullable Object value,
                                   @Nonnull Function<T, T> transform) {
-        if (value != null) {
-            value = transform.apply(type.cast(value));
-        }
-
         if (walkerKey.hasIndex()) {
             throw new DocumentException("Can not append to '%s'", walkerKey.fullKey().externalise());
+        } else if (value instanceof Collection) {
+            Structure structure = getWritableStructure();
+            Sequence<T> sequence = WalkerHelper.getSequence(structure, walkerKey, type);
+            Collection<T> values = transformAll(transform, (Collection<? extends T>) value);
+
+            adopt(type, values);
+            update(structure, walkerKey, sequence, sequence.appendAll(values));
         } else {
+            Structure structure = getWritableStructure();
             Sequence<T> sequence = WalkerHelper.getSequence(structure, walkerKey, type);
-            sequence.append(type.cast(value));
+            T element = (value == null ? null : transform.apply(type.cast(value)));
+
+            adopt(type, element);
+            update(structure, walkerKey, sequence, sequence.append(element));
         }
     }
 
-    private <T> void add(@Nonnull DocumentKey key,
-                         @Nonnull Class<T> type,
-                         @Nullable Object data,
-                         @Nonnull BiConsumer<WritableDocument<?>, DocumentKey> walkFunction) {
-        add(key, type, data, walkFunction, Function.identity());
+    /**
+     * Create an {@link Inserter} that will add numbers in the format required by the document.
+     * The inserted value can be a single value, an array or a Collection
+     * @param walk      Function used to walk one step towards the ultimate child document
+     * @param <V>       Type of the value passed to the Inserter
+     * @return          A thread-safe Inserter that can be shared by all documents
+     */
+    @Nonnull
+    private static <V> Inserter<V> numberAdder(@Nonnull TriConsumer<WritableDocument<?>, DocumentKey, V> walk) {
+        return new Inserter.Builder<V>()
+            .toWalk(walk)
+            .whenFound((d, k, v) -> d.addHelper(k, Number.class, v, d.numbers))
+            .build();
     }
 
-    private <T> void add(@Nonnull DocumentKey key,
-                         @Nonnull Class<T> type,
-                         @Nullable Object data,
-                         @Nonnull BiConsumer<WritableDocument<?>, DocumentKey> walkFunction,
-                         @Nonnull Function<T, T> transform) {
-        new Inserter.Builder()
-            .toWalk(walkFunction)
-            .constructBy(constructor)
-            .whenFound((d, k) -> d.addHelper(k, type, data, transform))
-            .build()
-            .insert(this, key);
+    /**
+     * Create an {@link Inserter} that will append numbers, in the format required by the document, to a Sequence.
+     * The appended value can be a single value or a Collection
+     * @param walk      Function used to walk one step towards the ultimate child document
+     * @param <V>       Type of the value passed to the Inserter
+     * @return          A thread-safe Inserter that can be shared by all documents
+     */
+    @Nonnull
+    private static <V> Inserter<V> numberAppender(@Nonnull TriConsumer<WritableDocument<?>, DocumentKey, V> walk) {
+        return new Inserter.Builder<V>()
+            .toWalk(walk)
+            .whenFound((d, k, v) -> d.appendHelper(k, Number.class, v, d.numbers))
+            .build();
     }
 
-    private <T> void addHelper(@Nonnull WalkerKey walkerKey,
+    /**
+     * Create an {@link Inserter} that will add values of {@code type}. The inserted value can be a single value, an
+     * array or a Collection
+     * @param type      Type of data that is stored
+     * @param walk      Function used to walk one step towards the ultimate child document
+     * @param transform Function applied to each value before it is stored
+     * @param <T>       Type of data that is stored
+     * @param <V>       Type of the value passed to the Inserter
+     * @return          A thread-safe Inserter that can be shared by all documents
+     */
+    @Nonnull
+    private static <T, V> Inserter<V> adder(@Nonnull Class<T> type,
+                                            @Nonnull TriConsumer<WritableDocument<?>, DocumentKey, V> walk,
+                                            @Nonnull Function<T, T> transform) {
+        return new Inserter.Builder<V>()
+            .toWalk(walk)
+            .whenFound((d, k, v) -> d.addHelper(k, type, v, transform))
+            .build();
+    }
+
+    private <T> void addHelper(@Nonnull CompiledKey walkerKey,
                                @Nonnull Class<T> type,
                                @Nullable Object value,
                                @Nonnull Function<T, T> transform) {
@@ -367,32 +782,83 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
             value = transform.apply(type.cast(value));
         }
 
+        Structure structure = getWritableStructure();
+
+        adopt(type, value);
+
         if (walkerKey.hasIndex()) {
             Sequence<T> sequence = WalkerHelper.getSequence(structure, walkerKey, type);
 
-            sequence.set(walkerKey.index(), type.cast(value));
+            update(structure, walkerKey, sequence, sequence.set(walkerKey.index(), type.cast(value)));
         } else {
             structure.add(walkerKey.simpleKey(), value);
         }
     }
 
+    /**
+     * Documents that are stored in this document join the tree of this document, so that they are not updated
+     * in place while a clone of this document shares their data.
+     * @param type      Type of data that is being stored
+     * @param value     A value, or a sequence or collection of values, that is being stored in this document
+     */
+    private void adopt(@Nonnull Class<?> type, @Nullable Object value) {
+        if (type != CommonDocument.class) {
+            // Do nothing - only documents have a history
+        } else if (value == DocumentFactoryImpl.empty()) {
+            // Do nothing - the shared empty document can never change, so it does not need to join every tree
+        } else if (value instanceof AbstractDocument<?> child) {
+            join(child.getImpl());
+        } else if (value instanceof Iterable<?> values) {
+            for (Object element : values) {
+                adopt(type, element);
+            }
+        } else {
+            // Do nothing - value is null
+        }
+    }
+
+    /**
+     * Replace a Sequence in the structure if it had to be widened to store a new value
+     * @param structure     Structure that holds the sequence
+     * @param walkerKey     Key to the sequence
+     * @param original      Sequence that a value was stored in
+     * @param updated       Sequence that now holds the value
+     * @param <T>           Type of the sequence
+     */
+    private <T> void update(@Nonnull Structure structure,
+                            @Nonnull CompiledKey walkerKey,
+                            @Nonnull Sequence<T> original,
+                            @Nonnull Sequence<T> updated) {
+        if (original != updated) {
+            structure.put(walkerKey.simpleKey(), updated);
+        }
+    }
+
 
     @Nonnull
     @Override
     public Document remove(@Nonnull DocumentKey key) {
         REMOVE_WALKER.walk(this, key);
+        history.modified();
 
         return this;
     }
 
     @Nonnull
-    private WritableDocument<?> removeHelper(@Nonnull WalkerKey walkerKey) {
+    private WritableDocument<?> removeHelper(@Nonnull CompiledKey walkerKey) {
         String simple = walkerKey.simpleKey();
+        Structure structure = getWritableStructure();
 
         if (walkerKey.hasIndex()) {
             int index = walkerKey.index();
             Object data = structure.get(simple);
             Sequence<?> children = WalkerHelper.cast(Sequence.class, walkerKey, data);
+
+            if ((children != null) && children.isShared()) {
+                children = children.copy(UnaryOperator.identity());
+                structure.put(simple, children);
+            }
+
             boolean empty = (children == null ? false : children.remove(index));
 
             if (empty) {
@@ -406,12 +872,49 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     }
 
 
+    @Nonnull
+    @Override
+    public Document batch(@Nonnull Consumer<? super BatchWriter> writes) {
+        BatchWriterImpl.apply(this, writes);
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public Document batch(@Nonnull DocumentKey prefix, @Nonnull Consumer<? super BatchWriter> writes) {
+        CompiledKey walkerKey = CompiledKey.of(prefix);
+        AbstractDocument<?> child = Inserter.child(this, walkerKey);
+
+        if (walkerKey.hasChildren()) {
+            child.batch(walkerKey.shift(), writes);         // Pass through the decorators of each child
+        } else {
+            child.batch(writes);
+        }
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public Document child(@Nonnull DocumentKey prefix) {
+        CompiledKey walkerKey = CompiledKey.of(prefix);
+        AbstractDocument<?> child = Inserter.child(this, walkerKey);
+
+        return (Document) (walkerKey.hasChildren() ? child.child(walkerKey.shift()) : child);
+    }
+
+
     @Override
     @Nonnull
     public <T> T get(@Nonnull DocumentKey key, @Nonnull Class<T> type) {
         T value = getOptional(key, type);
 
-        return Preconditions.checkNotNull(value, "Document does not have a value for %s", key.externalise());
+        if (value == null) {                        // Only externalise the key if we need it for the message
+            throw new NullPointerException("Document does not have a value for " + key.externalise());
+        }
+
+        return value;
     }
 
     @Override
@@ -425,6 +928,102 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
         return (value == null ? defaultValue : value);
     }
 
+    @Override
+    public long getLong(@Nonnull DocumentKey key, long defaultValue) {
+        CompiledKey walkerKey = CompiledKey.of(key);
+        long result;
+
+        if (walkerKey.hasChildren()) {
+            ReadableDocument child = atHelper(walkerKey);
+
+            result = (child == null ? defaultValue : child.getLong(walkerKey.shift(), defaultValue));
+        } else {
+            Object value = getHelper(walkerKey);
+
+            if (value instanceof Number number) {
+                result = number.longValue();                 // Fast path - no need to box the result
+            } else if (value == null) {
+                result = defaultValue;
+            } else {
+                result = to(key, value, Long.class);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public int getInt(@Nonnull DocumentKey key, int defaultValue) {
+        CompiledKey walkerKey = CompiledKey.of(key);
+        int result;
+
+        if (walkerKey.hasChildren()) {
+            ReadableDocument child = atHelper(walkerKey);
+
+            result = (child == null ? defaultValue : child.getInt(walkerKey.shift(), defaultValue));
+        } else {
+            Object value = getHelper(walkerKey);
+
+            if (value instanceof Number number) {
+                result = number.intValue();
+            } else if (value == null) {
+                result = defaultValue;
+            } else {
+                result = to(key, value, Integer.class);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public double getDouble(@Nonnull DocumentKey key, double defaultValue) {
+        CompiledKey walkerKey = CompiledKey.of(key);
+        double result;
+
+        if (walkerKey.hasChildren()) {
+            ReadableDocument child = atHelper(walkerKey);
+
+            result = (child == null ? defaultValue : child.getDouble(walkerKey.shift(), defaultValue));
+        } else {
+            Object value = getHelper(walkerKey);
+
+            if (value instanceof Number number) {
+                result = number.doubleValue();
+            } else if (value == null) {
+                result = defaultValue;
+            } else {
+                result = to(key, value, Double.class);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean getBoolean(@Nonnull DocumentKey key, boolean defaultValue) {
+        CompiledKey walkerKey = CompiledKey.of(key);
+        boolean result;
+
+        if (walkerKey.hasChildren()) {
+            ReadableDocument child = atHelper(walkerKey);
+
+            result = (child == null ? defaultValue : child.getBoolean(walkerKey.shift(), defaultValue));
+        } else {
+            Object value = getHelper(walkerKey);
+
+            if (value instanceof Boolean flag) {
+                result = flag;
+            } else if (value == null) {
+                result = defaultValue;
+            } else {
+                result = to(key, value, Boolean.class);
+            }
+        }
+
+        return result;
+    }
+
     @Nonnull
     @Override
     public <T> T get(@Nonnull DocumentKey key, @Nonnull Function<String, T> fromString) {
@@ -440,7 +1039,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
         Object value = GET_WALKER.walk(this, key);
 
         if ((value instanceof Sequence) && (type == Object.class)) { // Special case - sequence can't be seen externally
-            result = (T) ((Sequence<?>) value).toList();
+            result = (T) ((Sequence<?>) value).toUnmodifiableList();
         } else {
             result = to(key, value, type);
         }
@@ -449,19 +1048,21 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
     }
 
     @Nullable
-    private Object getHelper(@Nonnull WalkerKey walkerKey) {
-        return WalkerHelper.get(Object.class, structure, walkerKey);
+    private Object getHelper(@Nonnull CompiledKey walkerKey) {
+        return Counter.valueOf(WalkerHelper.get(Object.class, getStructure(), walkerKey));
     }
 
 
     @Override
     @Nonnull
     public <T> List<? extends T> getAll(@Nonnull DocumentKey key, @Nonnull Class<T> type) {
-        Object data = getOptional(key, Object.class);
+        Object data = GET_WALKER.walk(this, key);
         List<T> list;
 
         if (data == null) {
             list = Collections.emptyList();
+        } else if (data instanceof Sequence<?> sequence) {
+            list = toList(key, sequence.toList(), type);      // Copied, so the list can be read without a lock
         } else if (data instanceof Collection) {
             list = toList(key, (Collection<?>) data, type);
         } else {
@@ -474,9 +1075,30 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
 
     @Override
     public boolean isEmpty() {
-        return structure.isEmpty();
+        return getStructure().isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return getStructure().size();
+    }
+
+    @Override
+    @Nonnull
+    public ReadableDocument at(@Nonnull DocumentKey prefix) {
+        ReadableDocument child = AT_WALKER.walk(this, prefix);
+
+        return (child == null ? DocumentFactoryImpl.empty() : child);
     }
 
+    @Nullable
+    private ReadableDocument atHelper(@Nonnull CompiledKey walkerKey) {
+        Object child = WalkerHelper.get(Object.class, getStructure(), walkerKey);
+
+        return WalkerHelper.cast(Document.class, walkerKey, child);
+    }
+
+
     @Override
     public boolean contains(@Nonnull DocumentKey key) {
         Boolean result = CONTAINS_WALKER.walk(this, key);
@@ -484,32 +1106,62 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
         return (result == null ? false : result);
     }
 
-    private boolean containsHelper(@Nonnull WalkerKey walkerKey) {
+    private boolean containsHelper(@Nonnull CompiledKey walkerKey) {
         boolean contains;
         String simple = walkerKey.simpleKey();
 
         if (walkerKey.hasIndex()) {
             int index = walkerKey.index();
-            Object data = structure.get(simple);
+            Object data = getStructure().get(simple);
             Sequence<?> children = (Sequence<?>) WalkerHelper.cast(Sequence.class, walkerKey, data);
 
             contains = ((children != null) && (index < children.size()));
         } else {
-            contains = structure.containsKey(simple);
+            contains = getStructure().containsKey(simple);
         }
 
         return contains;
     }
 
 
+    /**
+     * Returns the number of values held at {@code key}. This is the number of elements in a sequence, {@literal 1}
+     * for any other value and {@literal 0} if there is no value. Unlike reading a sequence, this does not copy it.
+     * @param key       key to the value
+     * @return the number of values held at {@code key}
+     */
+    int sizeOf(@Nonnull DocumentKey key) {
+        Integer result = SIZE_WALKER.walk(this, key);
+
+        return (result == null ? 0 : result);
+    }
+
+    private int sizeHelper(@Nonnull CompiledKey walkerKey) {
+        Object value = WalkerHelper.get(Object.class, getStructure(), walkerKey);
+        int size;
+
+        if (value == null) {
+            size = 0;
+        } else if (value instanceof Sequence<?> sequence) {
+            size = sequence.size();
+        } else {
+            size = 1;
+        }
+
+        return size;
+    }
+
+
     @Override
     public boolean hasValue(@Nonnull DocumentKey key) {
-        return (getOptional(key, Object.class) != null);
+        return (GET_WALKER.walk(this, key) != null);
     }
 
     @Override
     public boolean isSequence(@Nonnull DocumentKey key) {
-        return (getOptional(key, Object.class) instanceof List);
+        Object value = GET_WALKER.walk(this, key);
+
+        return ((value instanceof Sequence) || (value instanceof List));
     }
 
 
@@ -529,14 +1181,14 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
                                           @Nonnull DocumentVisitor<T> visitor,
                                           @Nullable VisitorKeyImpl key) {
         for (var entry: target.getStructure().entrySet()) {
+            if (visitor.isComplete()) {                     // The visitor may not need any data at all
+                break;
+            }
+
             String name = entry.getKey();
             Object value = entry.getValue();
 
             visitor = acceptValue(visitor, new VisitorKeyImpl(key, name), value);
-
-            if (visitor.isComplete()) {
-                break;
-            }
         }
 
         return visitor;
@@ -552,21 +1204,29 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
             visitor = visitor.stringValue(key, (String) value);
         } else if (value instanceof Number) {
             visitor = visitor.numericValue(key, (Number) value);
+        } else if (value instanceof Counter counter) {
+            visitor = visitor.numericValue(key, counter.value());
         } else if (value instanceof Boolean) {
             visitor = visitor.booleanValue(key, (boolean) value);
         } else if (value instanceof Enum<?>) {
             visitor = visitor.enumValue(key, (Enum<?>) value);
         } else if (value instanceof AbstractDocument<?> child) {
             visitor = visitor.beginChild(key);
-            visitor = accept(child.getWrapped(), visitor, key);
+
+            if (!visitor.skipContents()) {
+                visitor = accept(child.getWrapped(), visitor, key);
+            }
+
             visitor = visitor.endChild(key);
         } else if (value instanceof Sequence<?> sequence) {
-            int index = 0;
+            int size = sequence.size();
+
+            visitor = visitor.beginSequence(key, sequence.getType(), size);
 
-            visitor = visitor.beginSequence(key, sequence.getType(), sequence.size());
+            int count = (visitor.skipContents() ? 0 : size);
 
-            for (var element : sequence) {
-                visitor = acceptValue(visitor, new VisitorKeyImpl(key, index++), element);
+            for (int index = 0; index < count; index++) {
+                visitor = acceptValue(visitor, new VisitorKeyImpl(key, index), sequence.get(index));
 
                 if (visitor.isComplete()) {
                     break;
@@ -581,19 +1241,106 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
         return visitor;
     }
 
-    // Suspend Checkstyle rule SuperCloneCheck for 10 lines: Instead of calling super clone, we are using the
+    // Suspend Checkstyle rule SuperCloneCheck for 12 lines: Instead of calling super clone, we are using the
     // constructor chain which will also create all the decorators in the correct order. We don't need to worry
     // about this class from being overridden as it's final
     @Nonnull
     @Override
     public Document clone() {
-        AbstractDocument<?> backing = (AbstractDocument<?>) accept(new Copy());
+        DocumentImpl backing = new DocumentImpl(null);
+        backing.setCompactNumbers(compactNumbers);
+        backing.share(this);
+
         AbstractDocument<?> clone = constructor.apply(backing);
         clone.getImpl().setConstructor(constructor);
 
         return (Document) clone;
     }
 
+    /**
+     * Returns a revision that shares the data in this document with another document. If this document owns its
+     * structure then a new generation of its history is started, so that it is copied before it is next updated.
+     * @return a revision that shares the data in this document with another document
+     */
+    @Nonnull
+    private Revision capture() {
+        Revision current = revision;
+
+        return (current.source() != null ? current : new Revision(current.structure(), history.capture(), 0));
+    }
+
+    /**
+     * Replace the revision of this document. If the current revision is from an earlier generation then it may be
+     * needed by a clone, so it is recorded in the history first.
+     * @param next      The new revision of this document
+     */
+    private void setRevision(@Nonnull Revision next) {
+        if (revision.generation() != history.generation()) {
+            history.replace(this, revision);
+        }
+
+        revision = next;
+    }
+
+    /**
+     * Replace the structure that this document shares with the document it was cloned from with a copy.
+     * The child documents in the copy are new documents, with the same decorators as this document, that initially
+     * share the data held by the original children.
+     * Readers of a {@link com.github.tymefly.common.document.decorator.ConcurrentDocument} do not exclude each other,
+     * so the structure is only forked by the first of them.
+     */
+    private synchronized void fork() {
+        Snapshot source = revision.source();
+
+        if (source != null) {
+            Structure copy = revision.structure().copy(v -> fork(source, v));
+
+            setRevision(new Revision(copy, null, history.generation()));
+        }
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private Object fork(@Nonnull Snapshot source, @Nullable Object value) {
+        Object result;
+
+        if (value instanceof AbstractDocument<?> child) {
+            DocumentImpl original = child.getImpl();
+            Revision shared = source.revisionOf(original);
+            Snapshot from = (shared.source() == null ? source : shared.source());
+
+            DocumentImpl forked = new DocumentImpl(history,
+                                                   new Revision(shared.structure(), from, history.generation()),
+                                                   original.isCompactNumbers());
+            AbstractDocument<?> decorated = constructor.apply(forked);
+
+            decorated.getImpl().setConstructor(constructor);
+            result = decorated;
+        } else if ((value instanceof Sequence<?> sequence) &&
+                    sequence.getType().isAssignableFrom(CommonDocument.class)) {
+            result = ((Sequence<Object>) sequence).copy(v -> fork(source, v));
+        } else {
+            result = shareValue(value);
+        }
+
+        return result;
+    }
+
+    @Nullable
+    private static Object shareValue(@Nullable Object value) {
+        Object result = value;
+
+        if (value instanceof Sequence<?> sequence) {
+            sequence.share();
+        } else if (value instanceof Counter counter) {
+            result = counter.copy();                    // Counters are updated in place, so they can't be shared
+        } else {
+            // Do nothing - other values are immutable
+        }
+
+        return result;
+    }
+
     @Override
     public boolean equals(Object other) {
         boolean equal;
@@ -601,7 +1348,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
         if (this == other) {
             equal = true;
         } else if (other instanceof AbstractDocument<?> o) {
-            equal = structure.equals(o.getStructure());
+            equal = !hasDifferentHash(o.getImpl()) && getStructure().equals(o.getStructure());
         } else {
             equal = false;
         }
@@ -609,9 +1356,41 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
         return equal;
     }
 
+    /**
+     * The hash code is cached until this document, or another document in its tree, is updated. The version is
+     * read before the hash code is calculated, so a hash code that is calculated while an update is in progress is
+     * discarded when the update completes.
+     */
     @Override
     public int hashCode() {
-        return structure.hashCode();
+        long version = history.version();
+        Hash cached = hash;
+        int result;
+
+        if ((cached != null) && (cached.version() == version)) {
+            result = cached.value();
+        } else {
+            result = getStructure().hashCode();
+            hash = new Hash(version, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns {@literal true} only if both documents have a valid cached hash code and the hash codes are different,
+     * in which case the documents can not be equal. Hash codes are not calculated by this method.
+     * @param other     Document to compare with this document
+     * @return {@literal true} only if this document and the {@code other} document are known to be different
+     */
+    private boolean hasDifferentHash(@Nonnull DocumentImpl other) {
+        Hash mine = hash;
+        Hash theirs = other.hash;
+
+        return (mine != null) && (theirs != null) &&
+               (mine.version() == history.version()) &&
+               (theirs.version() == other.history.version()) &&
+               (mine.value() != theirs.value());
     }
 
     @Nonnull
@@ -621,7 +1400,7 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
 
 
     /**
-     * Wrapper to {@link Convert#toList(Collection, Class)} with improved exceptions
+     * Equivalent to {@link Convert#toList(Collection, Class)} with improved exceptions
      * @param key       Key of data to convert
      * @param data      values to convert
      * @param type      Desired type
@@ -631,20 +1410,20 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
      */
     @Nonnull
     private <T> List<T> toList(@Nonnull DocumentKey key, @Nonnull Collection<?> data, @Nonnull Class<T> type) {
-        List<T> result;
+        List<T> result = new ArrayList<>(data.size());
 
-        try {
-            result = Convert.toList(data, type);
-        } catch (ClassCastException | IllegalArgumentException e) {
-            throw new DocumentException("Unexpected data at '" + key.externalise() + "'", e);
+        for (Object element : data) {
+            result.add(to(key, element, type));
         }
 
-        return result;
+        return Collections.unmodifiableList(result);            // Not List.copyOf() - elements may be null
     }
 
 
     /**
-     * Wrapper to {@link Convert#to(Object, Class)} with improved exceptions
+     * Equivalent to {@link Convert#to(Object, Class)} with improved exceptions. Values are converted by
+     * {@link Convert#safeTo(Object, Class)}, so the only exception that is created is the one that is thrown.
+     * Compact documents may store a Double; it is converted to a String in the same way as the equivalent BigDecimal
      * @param key       Key of data to convert
      * @param data      value to convert
      * @param type      Desired type
@@ -653,12 +1432,11 @@ final class DocumentImpl extends AbstractDocument<Document> implements Document
      * @throws DocumentException if the data could not be converted
      */
     private <T> T to(@Nonnull DocumentKey key, @Nullable Object data, @Nonnull Class<T> type) throws DocumentException {
-        T result;
+        Object value = ((type == String.class) && (data instanceof Double number) ? BigDecimal.valueOf(number) : data);
+        T result = Convert.safeTo(value, type);
 
-        try {
-            result = Convert.to(data, type);
-        } catch (ClassCastException | IllegalArgumentException e) {
-            throw new DocumentException("Unexpected data at '" + key.externalise() + "'", e);
+        if ((result == null) && (data != null)) {
+            throw new DocumentException("Unexpected data at '" + key.externalise() + "'");
         }
 
         return result;
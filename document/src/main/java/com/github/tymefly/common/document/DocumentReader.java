@@ -53,6 +53,53 @@ public interface DocumentReader {
     @Nonnull
     <T> T getOrDefault(@Nonnull DocumentKey key, @Nonnull T defaultValue);
 
+    /**
+     * Accessor for numeric data stored in this Document that does not box the returned value. Numbers are
+     * converted to a {@code long} as described by {@link Number#longValue()}; other values are converted using the
+     * same rules as {@link #get(DocumentKey, Class)}
+     * @param key           a key which may be in this document
+     * @param defaultValue  Value that is returned if the key is not in the Document or its associated
+     *                      value is {@literal null}.
+     * @return              the value associated with {@code key}, or the {@code defaultValue}
+     * @throws DocumentException if the value can not be converted to a {@code long}
+     */
+    long getLong(@Nonnull DocumentKey key, long defaultValue);
+
+    /**
+     * Accessor for numeric data stored in this Document that does not box the returned value. Numbers are
+     * converted to an {@code int} as described by {@link Number#intValue()}; other values are converted using the
+     * same rules as {@link #get(DocumentKey, Class)}
+     * @param key           a key which may be in this document
+     * @param defaultValue  Value that is returned if the key is not in the Document or its associated
+     *                      value is {@literal null}.
+     * @return              the value associated with {@code key}, or the {@code defaultValue}
+     * @throws DocumentException if the value can not be converted to an {@code int}
+     */
+    int getInt(@Nonnull DocumentKey key, int defaultValue);
+
+    /**
+     * Accessor for numeric data stored in this Document that does not box the returned value. Numbers are
+     * converted to a {@code double} as described by {@link Number#doubleValue()}; other values are converted using
+     * the same rules as {@link #get(DocumentKey, Class)}
+     * @param key           a key which may be in this document
+     * @param defaultValue  Value that is returned if the key is not in the Document or its associated
+     *                      value is {@literal null}.
+     * @return              the value associated with {@code key}, or the {@code defaultValue}
+     * @throws DocumentException if the value can not be converted to a {@code double}
+     */
+    double getDouble(@Nonnull DocumentKey key, double defaultValue);
+
+    /**
+     * Accessor for boolean data stored in this Document that does not box the returned value. Other values are
+     * converted using the same rules as {@link #get(DocumentKey, Class)}
+     * @param key           a key which may be in this document
+     * @param defaultValue  Value that is returned if the key is not in the Document or its associated
+     *                      value is {@literal null}.
+     * @return              the value associated with {@code key}, or the {@code defaultValue}
+     * @throws DocumentException if the value can not be converted to a {@code boolean}
+     */
+    boolean getBoolean(@Nonnull DocumentKey key, boolean defaultValue);
+
     /**
      * Null safe accessor for data stored in this Document.
      * @param key           a key which may be in this document
@@ -101,6 +148,14 @@ public interface DocumentReader {
      */
     boolean isEmpty();
 
+
+    /**
+     * Returns the number of fields in this Document. A sequence is a single field, and the fields in child
+     * Documents are not counted
+     * @return the number of fields in this Document
+     */
+    int size();
+
     /**
      * Returns {@literal true} only if the {@code key} is present in the Document.
      * {@literal true} is returned even if the associated value is {@literal null}.
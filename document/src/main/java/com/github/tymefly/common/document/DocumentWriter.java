@@ -1,6 +1,7 @@
 package com.github.tymefly.common.document;
 
 import java.util.Collection;
+import java.util.function.UnaryOperator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -52,6 +53,17 @@ public interface DocumentWriter<F> {
     @Nonnull
     F appendString(@Nonnull DocumentKey key, @Nullable String value);
 
+    /**
+     * Append new strings to a sequence in this Document. If the Document does not contain a sequence at the
+     * specified location then a new sequence containing just the {@code values} will be inserted.
+     * This is more efficient than appending the values one at a time.
+     * @param key       a key that determines the location of a sequence in the Document
+     * @param values    the strings to append. This should be an ordered collection
+     * @return          a fluent interface
+     */
+    @Nonnull
+    F appendStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values);
+
     /**
      * Add a single Numeric value to this Document. If the Document already contains an element at the location
      * given by the {@code key} this it will be silently replaced.
@@ -92,6 +104,59 @@ public interface DocumentWriter<F> {
     @Nonnull
     F appendNumber(@Nonnull DocumentKey key, @Nullable Number value);
 
+    /**
+     * Append new numbers to a sequence in this Document. If the Document does not contain a sequence at the
+     * specified location then a new sequence containing just the {@code values} will be inserted.
+     * This is more efficient than appending the values one at a time.
+     * @param key       a key that determines the location of a sequence in the Document
+     * @param values    the numbers to append. This should be an ordered collection
+     * @return          a fluent interface
+     */
+    @Nonnull
+    F appendNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values);
+
+    /**
+     * Add {@code delta} to the number at the location given by the {@code key}. If the Document does not contain
+     * a value at the location then {@code delta} is stored.
+     * <br>
+     * The number is held in a form that many threads can update without contending with each other, so this
+     * should be used for counters and statistics that are updated frequently. It is read back as any other number.
+     * @param key       a key that determines the location of the number in the Document
+     * @param delta     the amount to add to the number
+     * @return          a fluent interface
+     * @throws DocumentException if the Document contains a value that is not a number at the location
+     */
+    @Nonnull
+    F increment(@Nonnull DocumentKey key, long delta);
+
+    /**
+     * Add {@code delta} to the number at the location given by the {@code key}. If the Document does not contain
+     * a value at the location then {@code delta} is stored.
+     * <br>
+     * As with {@link #increment(DocumentKey, long)} the number is held in a form that many threads can update
+     * without contending with each other. Once a fractional value has been added the number is held as a
+     * {@code double}, so this should not be used if the value must be held with more precision.
+     * @param key       a key that determines the location of the number in the Document
+     * @param delta     the amount to add to the number
+     * @return          a fluent interface
+     * @throws DocumentException if the Document contains a value that is not a number at the location
+     */
+    @Nonnull
+    F add(@Nonnull DocumentKey key, double delta);
+
+    /**
+     * Replace the number at the location given by the {@code key} with the result of applying the {@code function}
+     * to it. The function is passed {@literal null} if the Document does not contain a value at the location.
+     * Documents that support concurrent updates apply the function atomically, but unlike
+     * {@link #increment(DocumentKey, long)} and {@link #add(DocumentKey, double)} the update blocks other writers.
+     * @param key       a key that determines the location of the number in the Document
+     * @param function  function that is passed the current number and returns the number to store
+     * @return          a fluent interface
+     * @throws DocumentException if the Document contains a value that is not a number at the location
+     */
+    @Nonnull
+    F accumulate(@Nonnull DocumentKey key, @Nonnull UnaryOperator<Number> function);
+
     /**
      * Add a single Boolean value to this Document. If the Document already contains an element at the location
      * given by the {@code key} this it will be silently replaced.
@@ -132,6 +197,17 @@ public interface DocumentWriter<F> {
     @Nonnull
     F appendBoolean(@Nonnull DocumentKey key, @Nullable Boolean value);
 
+    /**
+     * Append new Booleans to a sequence in this Document. If the Document does not contain a sequence at the
+     * specified location then a new sequence containing just the {@code values} will be inserted.
+     * This is more efficient than appending the values one at a time.
+     * @param key       a key that determines the location of a sequence in the Document
+     * @param values    the Booleans to append. This should be an ordered collection
+     * @return          a fluent interface
+     */
+    @Nonnull
+    F appendBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values);
+
     /**
      * Add a single enumeration constant value to this Document. If the Document already contains an element at
      * the location given by the {@code key} this it will be silently replaced.
@@ -177,6 +253,18 @@ public interface DocumentWriter<F> {
     @Nonnull
     <E extends Enum<E>> F appendEnum(@Nonnull DocumentKey key, @Nullable E value);
 
+    /**
+     * Append new Enumeration constants to a sequence in this Document. If the Document does not contain a sequence
+     * at the specified location then a new sequence containing just the {@code values} will be inserted.
+     * This is more efficient than appending the values one at a time.
+     * @param key       a key that determines the location of a sequence in the Document
+     * @param values    the enumeration constants to append. This should be an ordered collection
+     * @param <E>       The type of the enumeration constants
+     * @return          a fluent interface
+     */
+    @Nonnull
+    <E extends Enum<E>> F appendEnums(@Nonnull DocumentKey key, @Nonnull Collection<E> values);
+
     /**
      * Add a single child Document value to this Document. If the Document already contains an element at the location
      * given by the {@code key} this it will be silently replaced.
@@ -217,6 +305,17 @@ public interface DocumentWriter<F> {
     @Nonnull
     F appendDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value);
 
+    /**
+     * Append new Documents to a sequence in this Document. If the Document does not contain a sequence at the
+     * specified location then a new sequence containing just the {@code values} will be inserted.
+     * This is more efficient than appending the values one at a time.
+     * @param key       a key that determines the location of a sequence in the Document
+     * @param values    the child Documents to append. This should be an ordered collection
+     * @return          a fluent interface
+     */
+    @Nonnull
+    F appendDocuments(@Nonnull DocumentKey key, @Nonnull Collection<? extends CommonDocument> values);
+
     /**
      * Remove a single element or sequence from this Document. If the Document does not contain any data at the location
      * given by the {@code key} then this method will not do anything
@@ -0,0 +1,103 @@
+package com.github.tymefly.common.document;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Sequence} of floating point numbers that stores its elements in an array of {@code double} values.
+ * This can only hold finite {@link Double}s, or {@link BigDecimal}s that are exactly the same as the value
+ * {@link BigDecimal#valueOf(double)} returns for their {@code double} value, which includes all BigDecimals that were
+ * created from a {@code double}. All the elements are returned as the same type as the first value that was stored.
+ */
+final class DoubleSequence extends Sequence<Number> {
+    private double[] values;
+    private final BitSet present;
+    private Class<?> boxType;                   // null until the first value is stored
+
+
+    /**
+     * Constructor for an empty sequence
+     * @param capacity  Initial capacity of the sequence
+     */
+    DoubleSequence(int capacity) {
+        super(Number.class, 0);
+
+        this.values = new double[capacity];
+        this.present = new BitSet();
+        this.boxType = null;
+    }
+
+
+    /**
+     * Returns {@literal true} only if {@code value} can be stored in a DoubleSequence without losing information
+     * @param value     A non-null value
+     * @return {@literal true} only if {@code value} can be stored in a DoubleSequence without losing information
+     */
+    static boolean fits(@Nonnull Object value) {
+        boolean fits;
+
+        if (value instanceof Double number) {
+            fits = Double.isFinite(number);
+        } else if (value instanceof BigDecimal number) {
+            double asDouble = number.doubleValue();
+
+            fits = Double.isFinite(asDouble) && number.equals(BigDecimal.valueOf(asDouble));
+        } else {
+            fits = false;
+        }
+
+        return fits;
+    }
+
+
+    @Override
+    @Nullable
+    Number get(int index) {
+        Number result;
+
+        if ((index >= size()) || !present.get(index)) {
+            result = null;
+        } else if (boxType == Double.class) {
+            result = values[index];
+        } else {
+            result = BigDecimal.valueOf(values[index]);
+        }
+
+        return result;
+    }
+
+    @Override
+    boolean isNull(int index) {
+        return !present.get(index);
+    }
+
+    @Override
+    boolean accepts(@Nullable Number value) {
+        return ((value == null) || (((boxType == null) || (boxType == value.getClass())) && fits(value)));
+    }
+
+    @Override
+    void store(int index, @Nullable Number value) {
+        if (value == null) {
+            present.clear(index);
+        } else {
+            boxType = value.getClass();
+            values[index] = value.doubleValue();
+            present.set(index);
+        }
+    }
+
+    @Override
+    void resize(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.tymefly.common.document;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Sequence} of enum constants that are all of the same type. The elements are stored as an array of
+ * ordinals, so this can only hold enums that have fewer than {@link #MAX_CONSTANTS} constants. The type of the enum
+ * is bound when the first value is stored.
+ */
+@SuppressWarnings("rawtypes")
+final class EnumSequence extends Sequence<Enum> {
+    private static final int MAX_CONSTANTS = 255;
+
+    private Class<?> enumType;                  // null until the first value is stored
+    private Enum<?>[] constants;
+    private byte[] ordinals;                    // Stored as ordinal + 1 so that 0 is null
+
+
+    private EnumSequence(int capacity) {
+        super(Enum.class, 0);
+
+        this.enumType = null;
+        this.constants = null;
+        this.ordinals = new byte[capacity];
+    }
+
+
+    /**
+     * Create an empty EnumSequence that can store {@code sample}
+     * @param capacity  Initial capacity of the sequence
+     * @param sample    The first value that will be stored in the sequence, or {@literal null} if this is not known
+     * @return          An empty EnumSequence that can store {@code sample}, or {@literal null} if {@code sample}
+     *                  can not be stored in an EnumSequence
+     */
+    @Nullable
+    static EnumSequence of(int capacity, @Nullable Object sample) {
+        EnumSequence result = new EnumSequence(capacity);
+
+        return ((sample == null) || ((sample instanceof Enum<?> value) && result.accepts(value)) ? result : null);
+    }
+
+
+    @Override
+    @Nullable
+    Enum get(int index) {
+        int ordinal = (index < size() ? Byte.toUnsignedInt(ordinals[index]) : 0);
+
+        return (ordinal == 0 ? null : constants[ordinal - 1]);
+    }
+
+    @Override
+    boolean isNull(int index) {
+        return (ordinals[index] == 0);
+    }
+
+    @Override
+    boolean accepts(@Nullable Enum value) {
+        boolean accepts;
+
+        if (value == null) {
+            accepts = true;
+        } else if (enumType == null) {
+            accepts = (value.getDeclaringClass().getEnumConstants().length < MAX_CONSTANTS);
+        } else {
+            accepts = (value.getDeclaringClass() == enumType);
+        }
+
+        return accepts;
+    }
+
+    @Override
+    void store(int index, @Nullable Enum value) {
+        if ((value != null) && (enumType == null)) {
+            enumType = value.getDeclaringClass();
+            constants = (Enum<?>[]) enumType.getEnumConstants();
+        }
+
+        ordinals[index] = (byte) (value == null ? 0 : value.ordinal() + 1);
+    }
+
+    @Override
+    void resize(int capacity) {
+        ordinals = Arrays.copyOf(ordinals, capacity);
+    }
+
+    @Override
+    int capacity() {
+        return ordinals.length;
+    }
+}
@@ -0,0 +1,305 @@
+package com.github.tymefly.common.document;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Records how the Documents in a tree have changed since the tree was last cloned, so that
+ * {@link DocumentImpl#clone()} can share the {@link Structure Structures} in the tree rather than copying them.
+ * <br>
+ * Each Document holds its structure in a {@link Revision}, which notes the generation of the History in which the
+ * revision was created. Cloning a Document takes a {@link Snapshot} of its History, which starts a new generation.
+ * From then on a Document with a revision from an earlier generation copies its structure before it is updated, and
+ * records the revision it replaced in every snapshot that was taken while that revision was current. A clone that
+ * shares a structure with the original tree finds the data that a child document held when the clone was taken by
+ * looking it up in its own snapshot. Snapshots do not reference each other, and are only referenced by clones that
+ * have not yet copied all the data they share, so a snapshot and the revisions in it are garbage collected once
+ * they are no longer required. A snapshot that is kept holds at most one revision of each Document in the tree.
+ * <br>
+ * Documents that are added to a tree join its History, so that a Document that is held by more than one tree is
+ * never updated in place while any of them share its structure.
+ * <br>
+ * The History also holds the {@link #version() version} of the tree, which is increased after every update to any
+ * Document in the tree. Documents use it to find out if a value they calculated from their data is still valid.
+ * <br>
+ * The snapshots of a tree are guarded by the monitor of the History at the root of the tree, so Documents in
+ * different trees do not contend with each other.
+ */
+@ThreadSafe
+final class History {
+    /**
+     * The data in a Document at some point in time
+     * @param structure     The structure that holds the data
+     * @param source        The snapshot that the structure is shared from, or {@literal null} if the structure
+     *                      belongs to the history of the Document that holds it
+     * @param generation    The generation of the History in which the revision was created
+     */
+    record Revision(@Nonnull Structure structure, @Nullable Snapshot source, long generation) {
+    }
+
+
+    /**
+     * The revisions that were replaced after a Document tree was cloned.
+     */
+    static final class Snapshot {
+        private final History history;
+        @GuardedBy("history.root()")
+        private final Map<DocumentImpl, Revision> replaced = new IdentityHashMap<>();
+
+
+        private Snapshot(@Nonnull History history) {
+            this.history = history;
+        }
+
+
+        /**
+         * Returns the revision that {@code document} held when this snapshot was taken
+         * @param document  A document in the tree that this snapshot was taken from
+         * @return the revision that {@code document} held when this snapshot was taken
+         */
+        @Nonnull
+        Revision revisionOf(@Nonnull DocumentImpl document) {
+            return history.locked(root -> {
+                Revision result = replaced.get(document);
+
+                return (result == null ? document.getRevision() : result);  // null => unchanged since snapshot
+            });
+        }
+    }
+
+
+    /**
+     * A weak reference to a snapshot that remembers the generation that the snapshot started
+     */
+    private static final class Captured extends WeakReference<Snapshot> {
+        private final long generation;
+
+
+        Captured(@Nonnull Snapshot snapshot, long generation) {
+            super(snapshot);
+
+            this.generation = generation;
+        }
+    }
+
+
+    private static final int MIN_PRUNE_SIZE = 16;
+    private static final AtomicLong IDS = new AtomicLong();
+
+    private final long id;
+    private volatile History parent;
+    private volatile long generation;
+    private final AtomicLong version;
+    @GuardedBy("this")
+    private List<Captured> snapshots;
+    @GuardedBy("this")
+    private int pruneSize;
+
+
+    /**
+     * Constructor for the history of a new Document tree
+     */
+    History() {
+        this.id = IDS.incrementAndGet();
+        this.parent = null;
+        this.generation = 0;
+        this.version = new AtomicLong();
+        this.snapshots = new ArrayList<>(0);
+        this.pruneSize = MIN_PRUNE_SIZE;
+    }
+
+
+    /**
+     * Returns the current generation of this History. A Document with a revision from an earlier generation
+     * must not update its structure in place
+     * @return the current generation of this History
+     */
+    long generation() {
+        return root().generation;
+    }
+
+
+    /**
+     * Returns the version of the tree. This is increased after every update to a Document in the tree, so a value
+     * that was calculated from the data in the tree is still valid if the version has not changed since before
+     * it was calculated
+     * @return the version of the tree
+     */
+    long version() {
+        return root().version.get();
+    }
+
+
+    /**
+     * Record that a Document in the tree has been updated. This must be called after the update is complete, so that
+     * a value that was calculated while the update was in progress is not tagged with the new version
+     */
+    void modified() {
+        root().version.incrementAndGet();
+    }
+
+
+    /**
+     * Start a new generation of this History
+     * @return a snapshot that can be used to find the data that the Documents in the tree hold now
+     */
+    @Nonnull
+    Snapshot capture() {
+        return locked(root -> {
+            Snapshot snapshot = new Snapshot(this);
+
+            root.generation++;
+            root.snapshots.add(new Captured(snapshot, root.generation));
+            root.prune();
+
+            return snapshot;
+        });
+    }
+
+
+    /**
+     * Record that {@code document} is about to replace its {@code revision}
+     * @param document  The Document that is replacing its revision
+     * @param revision  The revision that is being replaced
+     */
+    void replace(@Nonnull DocumentImpl document, @Nonnull Revision revision) {
+        locked(root -> {
+            // Snapshots are held in the order they were taken, so only the most recent snapshots, which were taken
+            // after the revision was created, need to know about it.
+            ListIterator<Captured> iterator = root.snapshots.listIterator(root.snapshots.size());
+            boolean done = false;
+
+            while (!done && iterator.hasPrevious()) {
+                Captured captured = iterator.previous();
+                Snapshot snapshot = captured.get();
+
+                if (captured.generation <= revision.generation()) {
+                    done = true;
+                } else if (snapshot != null) {              // No clone still needs to know about the revision
+                    snapshot.replaced.putIfAbsent(document, revision);
+                }
+            }
+
+            return null;
+        });
+    }
+
+
+    /**
+     * Merge the {@code other} History into this History
+     * @param other     The history of a Document that has been added to the tree of this History
+     */
+    void join(@Nonnull History other) {
+        boolean done = false;
+
+        while (!done) {
+            History root = root();
+            History joined = other.root();
+
+            if (root == joined) {
+                done = true;
+            } else {
+                History first = (root.id < joined.id ? root : joined);          // Lock in a consistent order
+                History second = (first == root ? joined : root);
+
+                synchronized (first) {
+                    synchronized (second) {
+                        if ((root.parent == null) && (joined.parent == null)) {  // Neither tree has been joined
+                            merge(root, joined);
+                            done = true;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+
+    @GuardedBy("root, joined")
+    private static void merge(@Nonnull History root, @Nonnull History joined) {
+        joined.snapshots.removeIf(captured -> captured.get() == null);
+
+        joined.parent = root;
+        root.version.accumulateAndGet(joined.version.get() + 1, Math::max);        // Newer than both trees
+
+        if (joined.snapshots.isEmpty()) {
+            // The revisions in the joined tree must not be newer than the snapshots that are taken from now on
+            root.generation = Math.max(root.generation, joined.generation);
+        } else {
+            // The clones of the joined tree must also see the revisions that are replaced from now on, and
+            // the generations in the joined tree have different numbers so every revision must be copied
+            root.generation = Math.max(root.generation, joined.generation) + 1;
+            root.snapshots.addAll(joined.snapshots);
+            root.snapshots.sort(Comparator.comparingLong(captured -> captured.generation));
+        }
+
+        joined.snapshots = new ArrayList<>(0);
+    }
+
+
+    /**
+     * Discard the references to snapshots that have been garbage collected. To keep the cost of capturing a
+     * snapshot constant, this is only done once the number of references has doubled since they were last pruned
+     */
+    @GuardedBy("this")
+    private void prune() {
+        if (snapshots.size() >= pruneSize) {
+            snapshots.removeIf(captured -> captured.get() == null);
+            pruneSize = Math.max(MIN_PRUNE_SIZE, snapshots.size() * 2);
+        }
+    }
+
+
+    /**
+     * Perform an {@code action} while holding the lock of the root of this History
+     * @param action    The action to perform. This is passed the root History
+     * @param <T>       The type of value returned by the action
+     * @return the value returned by the action
+     */
+    @Nullable
+    private <T> T locked(@Nonnull Function<History, T> action) {
+        T result = null;
+        boolean done = false;
+
+        while (!done) {
+            History root = root();
+
+            synchronized (root) {
+                if (root.parent == null) {                  // The tree may have been joined to another tree
+                    result = action.apply(root);
+                    done = true;
+                }
+            }
+        }
+
+        return result;
+    }
+
+
+    @Nonnull
+    private History root() {
+        History root = this;
+
+        while (root.parent != null) {
+            root = root.parent;
+        }
+
+        if (parent != null) {
+            parent = root;                              // Path compression - any ancestor is a valid parent
+        }
+
+        return root;
+    }
+}
@@ -1,30 +1,36 @@
 package com.github.tymefly.common.document;
 
-import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
+import com.github.tymefly.common.base.function.TriConsumer;
 import com.github.tymefly.common.base.validate.Preconditions;
+import com.github.tymefly.common.document.key.CompiledKey;
 import com.github.tymefly.common.document.key.DocumentKey;
 
 
 /**
  * Walk through the Document tree and insert some data. Missing child documents and structures will be
- * created as required.
+ * created as required. Inserter instances are thread-safe and may be shared by Documents; the value to insert is
+ * passed with each call so that a single Inserter can be built once for each type of data.
  *
  * @implNote Rather than walking through the {@link Structure} elements inside the {@link DocumentImpl} the walker
  * will call top methods in the nested {@link Document} objects. This is because Decorators for child documents may
  * add additional specialist functionality.
+ * @param <V>       Type of the value that is inserted
  */
 @ThreadSafe
-class Inserter {
-    /** Builders for {@link Inserter} objects */
-    static class Builder {
-        private BiConsumer<DocumentImpl, WalkerKey> found;
-        private Function<AbstractDocument<?>, ? extends AbstractDocument<?>> constructor;
-        private BiConsumer<WritableDocument<?>, DocumentKey> toWalk;
+class Inserter<V> {
+    /**
+     * Builders for {@link Inserter} objects
+     * @param <V>       Type of the value that is inserted
+     */
+    static class Builder<V> {
+        private TriConsumer<DocumentImpl, CompiledKey, V> found;
+        private TriConsumer<WritableDocument<?>, DocumentKey, V> toWalk;
 
 
         /**
@@ -33,7 +39,7 @@ class Inserter {
          * @return          a fluent interface
          */
         @Nonnull
-        Builder toWalk(@Nonnull BiConsumer<WritableDocument<?>, DocumentKey> toWalk) {
+        Builder<V> toWalk(@Nonnull TriConsumer<WritableDocument<?>, DocumentKey, V> toWalk) {
             this.toWalk = toWalk;
 
             return this;
@@ -45,66 +51,110 @@ class Inserter {
          * @return          A fluent interface
          */
         @Nonnull
-        Builder whenFound(@Nonnull BiConsumer<DocumentImpl, WalkerKey> found) {
+        Builder<V> whenFound(@Nonnull TriConsumer<DocumentImpl, CompiledKey, V> found) {
             this.found = found;
 
             return this;
         }
 
-        /**
-         * Used to set the function that creates missing inner document elements
-         * @param constructor   Function that obtains the value returned if the document is missing element in the key.
-         * @return              A fluent interface
-         */
-        @Nonnull
-        Builder constructBy(@Nonnull Function<AbstractDocument<?>, ? extends AbstractDocument<?>> constructor) {
-            this.constructor = constructor;
-
-            return this;
-        }
-
 
         @Nonnull
-        Inserter build() {
-            return new Inserter(this);
+        Inserter<V> build() {
+            return new Inserter<>(this);
         }
     }
 
 
-    private final BiConsumer<WritableDocument<?>, DocumentKey> toWalk;
-    private final BiConsumer<DocumentImpl, WalkerKey> found;
-    private final Function<AbstractDocument<?>, ? extends AbstractDocument<?>> constructor;
+    private final TriConsumer<WritableDocument<?>, DocumentKey, V> toWalk;
+    private final TriConsumer<DocumentImpl, CompiledKey, V> found;
 
 
-    private Inserter(@Nonnull Builder builder) {
-        this.toWalk = Preconditions.checkSet(builder.toWalk, "Found Function");
+    private Inserter(@Nonnull Builder<V> builder) {
+        this.toWalk = Preconditions.checkSet(builder.toWalk, "Walk Function");
         this.found = Preconditions.checkSet(builder.found, "Found Function");
-        this.constructor = Preconditions.checkSet(builder.constructor, "Document constructor");
     }
 
 
-    void insert(@Nonnull AbstractDocument<?> document, @Nonnull DocumentKey key) {
-        WalkerKey walkerKey = WalkerKey.from(key);
-        String name = walkerKey.simpleKey();
+    /**
+     * Insert the {@code value} into the {@code document}. Missing child documents are created by the
+     * {@link DocumentImpl#getConstructor() constructor} of the {@code document}, which they also use to create
+     * their own children, and store their numbers in the same way as the {@code document}
+     * @param document  Document to insert into
+     * @param key       Location in the document to insert into
+     * @param value     value to insert
+     */
+    void insert(@Nonnull AbstractDocument<?> document, @Nonnull DocumentKey key, @Nullable V value) {
+        CompiledKey walkerKey = CompiledKey.of(key);
 
         if (walkerKey.hasChildren()) {
-            AbstractDocument<?> child;
-            Structure structure = document.getStructure();
+            toWalk.accept(child(document, walkerKey), walkerKey.shift(), value);
+        } else {
+            DocumentImpl impl = document.getImpl();
 
-            if (walkerKey.hasIndex()) {
-                Sequence<CommonDocument> sequence =
-                    WalkerHelper.getSequence(structure, walkerKey, CommonDocument.class);
+            found.accept(impl, walkerKey, value);
+            impl.modified();
+        }
+    }
 
-                child = (AbstractDocument<?>) sequence.computeIfAbsent(walkerKey.index(), i -> constructor.apply(null));
-            } else {
-                Object found = structure.computeIfAbsent(name, k -> constructor.apply(null));
 
-                child = WalkerHelper.cast(AbstractDocument.class, walkerKey, found);
-            }
+    /**
+     * Returns the child document at the current element of the {@code walkerKey}, creating it if it is missing.
+     * @param document  Document that holds the child
+     * @param walkerKey Key to the child, which may have further elements
+     * @return the child document at the current element of the {@code walkerKey}
+     * @throws DocumentException if the {@code document} holds a value that is not a Document at the location
+     */
+    @Nonnull
+    static AbstractDocument<?> child(@Nonnull AbstractDocument<?> document, @Nonnull CompiledKey walkerKey) {
+        return (walkerKey.hasIndex() ? fromSequence(document, walkerKey) : fromStructure(document, walkerKey));
+    }
 
-            toWalk.accept(child, walkerKey.shift());
-        } else {
-            found.accept(document.getImpl(), walkerKey);
+
+    @Nonnull
+    private static AbstractDocument<?> fromSequence(@Nonnull AbstractDocument<?> document,
+                                                    @Nonnull CompiledKey walkerKey) {
+        Structure structure = document.getImpl().getWritableStructure();
+        Sequence<CommonDocument> sequence = WalkerHelper.getSequence(structure, walkerKey, CommonDocument.class);
+        int index = walkerKey.index();
+        AbstractDocument<?> child = (AbstractDocument<?>) sequence.get(index);
+
+        if (child == null) {
+            child = create(document);
+            sequence.set(index, (CommonDocument) child);
+            document.getImpl().modified();
+        }
+
+        return child;
+    }
+
+
+    @Nonnull
+    private static AbstractDocument<?> fromStructure(@Nonnull AbstractDocument<?> document,
+                                                     @Nonnull CompiledKey walkerKey) {
+        Structure structure = document.getStructure();
+        String name = walkerKey.simpleKey();
+        AbstractDocument<?> child = WalkerHelper.cast(AbstractDocument.class, walkerKey, structure.get(name));
+
+        if (child == null) {
+            child = create(document);
+            document.getImpl().getWritableStructure().put(name, child);
+            document.getImpl().modified();
         }
+
+        return child;
+    }
+
+
+    @Nonnull
+    private static AbstractDocument<?> create(@Nonnull AbstractDocument<?> parent) {
+        DocumentImpl parentImpl = parent.getImpl();
+        Function<AbstractDocument<?>, ? extends AbstractDocument<?>> constructor = parentImpl.getConstructor();
+        AbstractDocument<?> child = constructor.apply(null);
+
+        child.getImpl().setConstructor(constructor);             // So that grandchildren are also decorated
+        child.getImpl().setCompactNumbers(parentImpl.isCompactNumbers());
+        parentImpl.join(child.getImpl());
+
+        return child;
     }
 }
@@ -0,0 +1,93 @@
+package com.github.tymefly.common.document;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link Sequence} of integral numbers that stores its elements in an array of {@code long} values.
+ * This can only hold {@link Long}s, or {@link BigDecimal}s with a scale of 0 that fit in a {@code long}. All the
+ * elements are returned as the same type as the first value that was stored.
+ */
+final class LongSequence extends Sequence<Number> {
+    private long[] values;
+    private final BitSet present;
+    private Class<?> boxType;                   // null until the first value is stored
+
+
+    /**
+     * Constructor for an empty sequence
+     * @param capacity  Initial capacity of the sequence
+     */
+    LongSequence(int capacity) {
+        super(Number.class, 0);
+
+        this.values = new long[capacity];
+        this.present = new BitSet();
+        this.boxType = null;
+    }
+
+
+    /**
+     * Returns {@literal true} only if {@code value} can be stored in a LongSequence without losing information
+     * @param value     A non-null value
+     * @return {@literal true} only if {@code value} can be stored in a LongSequence without losing information
+     */
+    static boolean fits(@Nonnull Object value) {
+        return (value instanceof Long) ||
+               ((value instanceof BigDecimal number) &&
+                (number.scale() == 0) &&
+                (number.unscaledValue().bitLength() < Long.SIZE));
+    }
+
+
+    @Override
+    @Nullable
+    Number get(int index) {
+        Number result;
+
+        if ((index >= size()) || !present.get(index)) {
+            result = null;
+        } else if (boxType == Long.class) {
+            result = values[index];
+        } else {
+            result = BigDecimal.valueOf(values[index]);
+        }
+
+        return result;
+    }
+
+    @Override
+    boolean isNull(int index) {
+        return !present.get(index);
+    }
+
+    @Override
+    boolean accepts(@Nullable Number value) {
+        return ((value == null) || (((boxType == null) || (boxType == value.getClass())) && fits(value)));
+    }
+
+    @Override
+    void store(int index, @Nullable Number value) {
+        if (value == null) {
+            present.clear(index);
+        } else {
+            boxType = value.getClass();
+            values[index] = value.longValue();
+            present.set(index);
+        }
+    }
+
+    @Override
+    void resize(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    int capacity() {
+        return values.length;
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.tymefly.common.document;
+
+import java.lang.reflect.Array;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A general purpose {@link Sequence} that stores its elements in an array of objects
+ * @param <E>       Base type of elements in the sequence
+ */
+final class ObjectSequence<E> extends Sequence<E> {
+    private E[] data;
+
+
+    /**
+     * Constructor for an empty sequence
+     * @param type      Base type of elements in the sequence
+     * @param capacity  Initial capacity of the sequence
+     */
+    ObjectSequence(@Nonnull Class<E> type, int capacity) {
+        super(type, 0);
+
+        @SuppressWarnings("unchecked")
+        E[] data = (E[]) Array.newInstance(type, capacity);
+
+        this.data = data;
+    }
+
+
+    /**
+     * Constructor for an initialised sequence
+     * @param type      Base type of elements in the sequence
+     * @param data      Backing array for the sequence. This is not copied
+     * @param size      Number of elements in {@code data} that are part of the sequence
+     */
+    ObjectSequence(@Nonnull Class<E> type, @Nonnull E[] data, int size) {
+        super(type, size);
+
+        this.data = data;
+    }
+
+
+    @Override
+    @Nullable
+    E get(int index) {
+        return (index < data.length ? data[index] : null);
+    }
+
+    @Override
+    boolean isNull(int index) {
+        return (data[index] == null);
+    }
+
+    @Override
+    boolean accepts(@Nullable E value) {
+        return true;
+    }
+
+    @Override
+    void store(int index, @Nullable E value) throws DocumentException {
+        try {
+            data[index] = value;
+        } catch (ArrayStoreException e) {
+            throw new DocumentException("Attempt to store %s in an sequence of %s",
+                    value.getClass().getSimpleName(),
+                    getType().getSimpleName());
+        }
+    }
+
+    @Override
+    void resize(int capacity) {
+        @SuppressWarnings("unchecked")
+        E[] update = (E[]) Array.newInstance(getType(), capacity);
+
+        System.arraycopy(data, 0, update, 0, data.length);
+        data = update;
+    }
+
+    @Override
+    int capacity() {
+        return data.length;
+    }
+}
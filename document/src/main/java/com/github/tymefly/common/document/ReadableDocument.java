@@ -2,6 +2,7 @@ package com.github.tymefly.common.document;
 
 import javax.annotation.Nonnull;
 
+import com.github.tymefly.common.document.key.DocumentKey;
 import com.github.tymefly.common.document.visitor.DocumentVisitor;
 
 /**
@@ -19,9 +20,28 @@ public interface ReadableDocument extends DocumentReader, CommonDocument, Clonea
     @Nonnull
     <T> T accept(@Nonnull DocumentVisitor<T> visitor);
 
+    /**
+     * Returns the child Document at the location given by the {@code prefix}. The path to the child is only
+     * followed once, so the returned Document can be used as a cursor to read many values with keys that are
+     * relative to the child. For example {@code document.at(() -> "order.lines[3].pricing").get(() -> "net", ...)}
+     * reads the same value as {@code document.get(() -> "order.lines[3].pricing.net", ...)}.
+     * <br>
+     * The child is returned with its own decorators, and is not modifiable if this Document is not modifiable.
+     * If this Document does not contain a child Document at the location then an empty, immutable, Document is
+     * returned; it will not see a child that is added later.
+     * @param prefix    a key that determines the location of the child Document
+     * @return          the child Document at the location given by the {@code prefix}
+     * @throws DocumentException if the Document contains a value that is not a Document at the location
+     * @see WritableDocument#child(DocumentKey)
+     */
+    @Nonnull
+    ReadableDocument at(@Nonnull DocumentKey prefix);
+
     /**
      * Returns a clone of this ReadableDocument, including all the data within the document and all the
-     * decorators in the order they were originally defined
+     * decorators in the order they were originally defined. The clone initially shares its data with this
+     * document, so the cost of cloning does not depend on the size of the document; each part of the data is only
+     * copied when it is first updated in either document.
      * @return a clone of this ReadableDocument. This will be at least a Readable Document
      */
     @Nonnull
@@ -1,34 +1,56 @@
 package com.github.tymefly.common.document;
 
-import java.lang.reflect.Array;
+import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.RandomAccess;
+import java.util.function.UnaryOperator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 /**
- * A type safe expandable array of elements
+ * A type safe expandable array of elements.
+ * <br>
+ * Sequences of numbers, booleans and enums are held in specialised implementations that store their values in
+ * primitive arrays. If a value is stored that the specialised implementation can not represent then the sequence
+ * is widened to a general purpose sequence of objects; callers that store values in a sequence must therefore
+ * use the sequence returned by {@link #set(int, Object)} or {@link #append(Object)}.
  * @param <E>       Base type of elements in the sequence
  */
-class Sequence<E> implements Iterable<E> {
+abstract class Sequence<E> implements Iterable<E> {
+    /**
+     * An unmodifiable copy of a Sequence
+     * @param modifications     The number of times the Sequence had been modified when it was copied
+     * @param elements          The copied elements
+     * @param <E>               Base type of elements in the sequence
+     */
+    private record Copy<E>(int modifications, @Nonnull List<E> elements) {
+    }
+
+
     private static final int HEAD_ROOM = 8;
     private static final int SMALL_PRIME = 31;
 
     private final Class<E> type;
-    private E[] data;
     private int size;
-    private List<E> list;           // Cached value of toList() - this must be set to null when Sequence is mutated
+    private View view;              // Lazily created value of toList() - this must be notified when Sequence is mutated
+    private Copy<E> unmodifiable;   // Cached value of toUnmodifiableList() - only valid if modifications is unchanged
+    private volatile int modifications;
+    private volatile boolean shared;
 
 
-    private Sequence(@Nonnull Class<E> type, @Nonnull E[] data, int size) {
+    /**
+     * Constructor
+     * @param type      Base type of elements in the sequence
+     * @param size      Number of elements already in the backing storage of the sequence
+     */
+    Sequence(@Nonnull Class<E> type, int size) {
         this.type = type;
-        this.data = data;
         this.size = size;
     }
 
@@ -55,13 +77,11 @@ class Sequence<E> implements Iterable<E> {
     @Nonnull
     static <T> Sequence<T> of(@Nonnull Class<T> type, int expectedSize) {
         // Round up to the nearest multiple of HEAD_ROOM
-        expectedSize = ((expectedSize + HEAD_ROOM) / HEAD_ROOM) * HEAD_ROOM;
-
         // Create a non-zero sized array on the basis that we want a sequence to store data in it
-        @SuppressWarnings("unchecked")
-        T[] data = (T[]) Array.newInstance(type, expectedSize);
+        int capacity = ((expectedSize + HEAD_ROOM) / HEAD_ROOM) * HEAD_ROOM;
+        Sequence<T> result = specialise(type, capacity, null);
 
-        return new Sequence<>(type, data, 0);
+        return (result == null ? new ObjectSequence<>(type, capacity) : result);
     }
 
 
@@ -76,7 +96,9 @@ class Sequence<E> implements Iterable<E> {
     @SafeVarargs
     static <T> Sequence<T> of(@Nonnull Class<T> type, T... data) {
         // Don't extend the array - if we've set the data we probably know all the elements we want to store
-        return new Sequence<>(type, data.clone(), data.length);
+        Sequence<T> result = fill(type, data);
+
+        return (result == null ? new ObjectSequence<>(type, data.clone(), data.length) : result);
     }
 
 
@@ -99,13 +121,85 @@ class Sequence<E> implements Iterable<E> {
             @SuppressWarnings("unchecked")
             T[] backing = (T[]) data.toArray();
 
-            result = new Sequence<>(type, backing, backing.length);
+            result = fill(type, backing);
+            result = (result == null ? new ObjectSequence<>(type, backing, backing.length) : result);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Attempt to store all the {@code data} in a specialised sequence
+     * @param type      Base type of the elements
+     * @param data      Initial values of the sequence
+     * @param <T>       Base type of the elements
+     * @return          A specialised sequence that contains all the data, or {@literal null} if there is no
+     *                  specialised sequence that can store all the {@code data}
+     */
+    @Nullable
+    private static <T> Sequence<T> fill(@Nonnull Class<T> type, @Nonnull T[] data) {
+        T sample = null;
+
+        for (int index = 0; (sample == null) && (index < data.length); index++) {
+            sample = data[index];
+        }
+
+        Sequence<T> result = specialise(type, data.length, sample);
+        int index = 0;
+
+        while ((result != null) && (index < data.length)) {
+            T value = data[index];
+
+            if (result.canStore(value)) {
+                result.store(index++, value);
+            } else {
+                result = null;
+            }
+        }
+
+        if (result != null) {
+            result.size = data.length;
         }
 
         return result;
     }
 
 
+    /**
+     * Create an empty specialised sequence that can store {@code sample}
+     * @param type      Base type of the elements
+     * @param capacity  Initial capacity of the sequence
+     * @param sample    A value that will be stored in the sequence, or {@literal null} if this is not known.
+     * @param <T>       Base type of the elements
+     * @return          A specialised sequence, or {@literal null} if there is no specialised sequence for the
+     *                  {@code type} that can store {@code sample}
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static <T> Sequence<T> specialise(@Nonnull Class<T> type, int capacity, @Nullable Object sample) {
+        Sequence<?> result;
+
+        if (type == Number.class) {
+            if ((sample == null) || LongSequence.fits(sample)) {
+                result = new LongSequence(capacity);
+            } else if (DoubleSequence.fits(sample)) {
+                result = new DoubleSequence(capacity);
+            } else {
+                result = null;
+            }
+        } else if (type == Boolean.class) {
+            result = new BooleanSequence(capacity);
+        } else if (type == Enum.class) {
+            result = EnumSequence.of(capacity, sample);
+        } else {
+            result = null;
+        }
+
+        return (Sequence<T>) result;
+    }
+
+
     @Override
     @Nonnull
     public Iterator<E> iterator() {
@@ -121,29 +215,88 @@ class Sequence<E> implements Iterable<E> {
      * @return the element at {@code index} of this sequence
      */
     @Nullable
-    E get(int index) {
-        return (index < data.length ? data[index] : null);
+    abstract E get(int index);
+
+
+    /**
+     * Returns {@literal true} only if the element at {@code index} is {@literal null}.
+     * {@code index} must be less than {@link #capacity()}
+     * @param index     An index into this sequence
+     * @return {@literal true} only if the element at {@code index} is {@literal null}
+     */
+    abstract boolean isNull(int index);
+
+
+    /**
+     * Returns {@literal true} only if this sequence can store {@code value} without being widened.
+     * @param value     A value of the type of this sequence that could be stored in it
+     * @return {@literal true} only if this sequence can store {@code value} without being widened.
+     */
+    abstract boolean accepts(@Nullable E value);
+
+
+    /**
+     * Store a value in the sequence without updating the size.
+     * {@code index} must be less than {@link #capacity()} and {@code value} must have been {@link #accepts accepted}
+     * @param index     An index into this sequence at which the {@code value} will be stored
+     * @param value     the element to store in this sequence
+     * @throws DocumentException if {@code value} is an unexpected type
+     */
+    abstract void store(int index, @Nullable E value) throws DocumentException;
+
+
+    /**
+     * Change the number of elements that can be stored without resizing the backing storage.
+     * @param capacity  The new capacity. This will always be larger than the current {@link #capacity()}
+     */
+    abstract void resize(int capacity);
+
+
+    /**
+     * Append a new value to the end of this sequence.
+     * @param value     the element to append to this sequence
+     * @return          the sequence that now holds the value. This will be a new sequence if this sequence had
+     *                  to be widened to store the {@code value}
+     */
+    @Nonnull
+    Sequence<E> append(@Nullable E value) {
+        return set(size, value);
     }
 
 
-    E computeIfAbsent(int index, @Nonnull Function<Integer, ? extends E> mappingFunction) {
-        E result = get(index);
+    /**
+     * Append all the {@code values} to the end of this sequence. The backing storage is resized at most once
+     * before the values are stored.
+     * @param values    the elements to append to this sequence, in order
+     * @return          the sequence that now holds the values. This will be a new sequence if this sequence had
+     *                  to be widened to store any of the {@code values}
+     * @throws DocumentException if any of the {@code values} is an unexpected type
+     */
+    @Nonnull
+    Sequence<E> appendAll(@Nonnull Collection<? extends E> values) throws DocumentException {
+        Sequence<E> target = this;
+
+        ensureCapacity(size + values.size());
 
-        if (result == null) {
-            result = mappingFunction.apply(index);
-            set(index, result);
+        for (E value : values) {
+            target = target.set(target.size, value);
         }
 
-        return result;
+        return target;
     }
 
 
     /**
-     * Append a new value to the end of this sequence.
-     * @param value     the element to append to this sequence
+     * Ensure that this sequence can hold at least {@code minCapacity} elements without resizing the backing storage.
+     * @param minCapacity   The minimum number of elements that can be stored
      */
-    void append(@Nullable E value) {
-        set(size, value);
+    void ensureCapacity(int minCapacity) {
+        int capacity = capacity();
+
+        if (minCapacity > capacity) {
+            // Grow geometrically so that repeatedly appending values has an amortised constant cost
+            resize(Math.max(minCapacity, capacity + Math.max(capacity >> 1, HEAD_ROOM)));
+        }
     }
 
 
@@ -153,27 +306,59 @@ class Sequence<E> implements Iterable<E> {
      * Index is 0 based.
      * @param index     An index into this sequence at which the {@code value} will be stored
      * @param value     the element to store in this sequence
+     * @return          the sequence that now holds the value. This will be a new sequence if this sequence had
+     *                  to be widened to store the {@code value}
      * @throws DocumentException if {@code value} is an unexpected type
      */
-    void set(int index, @Nullable E value) throws DocumentException {
-        if (index >= data.length) {
-            @SuppressWarnings("unchecked")
-            E[] update = (E[]) Array.newInstance(type, index + HEAD_ROOM);
+    @Nonnull
+    Sequence<E> set(int index, @Nullable E value) throws DocumentException {
+        Sequence<E> target = (canStore(value) ? this : widen(value));
+
+        target.ensureCapacity(index + 1);
+
+        target.store(index, value);
+        target.size = Math.max(target.size, index + 1);
+        target.modified();
+
+        if (target != this) {
+            modified();             // Views of this sequence are no longer backed by the sequence in the document
+        }
+
+        return target;
+    }
+
+
+    private boolean canStore(@Nullable E value) {
+        return ((value == null) || (type.isInstance(value) && accepts(value)));
+    }
+
+
+    /**
+     * Copy this sequence into one that can also hold {@code value}
+     * @param value     A value that this sequence does not accept
+     * @return          A copy of this sequence that can store {@code value}
+     */
+    @Nonnull
+    private Sequence<E> widen(@Nonnull E value) {
+        boolean hasValues = false;
+
+        for (int index = 0; !hasValues && (index < size); index++) {
+            hasValues = !isNull(index);
+        }
 
-            System.arraycopy(data, 0, update, 0, data.length);
-            data = update;
+        Sequence<E> wider = (hasValues || !type.isInstance(value) ? null : specialise(type, capacity(), value));
+
+        if (wider == null) {
+            wider = new ObjectSequence<>(type, capacity());
         }
 
-        try {
-            data[index] = value;
-        } catch (ArrayStoreException e) {
-            throw new DocumentException("Attempt to store %s in an sequence of %s",
-                    value.getClass().getSimpleName(),
-                    type.getSimpleName());
+        for (int index = 0; index < size; index++) {
+            wider.store(index, get(index));
         }
 
-        size = Math.max(size, index + 1);
-        list = null;
+        wider.size = size;
+
+        return wider;
     }
 
 
@@ -185,12 +370,13 @@ class Sequence<E> implements Iterable<E> {
      */
     boolean remove(int index) {
         if (index < size) {
-            list = null;
-            data[index] = null;
+            store(index, null);
 
-            while ((size != 0) && (data[size - 1] == null)) {
+            while ((size != 0) && isNull(size - 1)) {
                 size--;
             }
+
+            modified();
         }
 
         return (size == 0);
@@ -212,23 +398,111 @@ class Sequence<E> implements Iterable<E> {
 
 
     /**
-     * Returns the number of elements that can be stored without resizing the backing array.
-     * This will always be at least {@link #size()} elements, but may be larger
-     * @return the number of elements that can be stored without resizing the backing array
+     * Mark this sequence as being held by more than one {@link Structure}. A shared sequence must not be updated;
+     * the structure that needs to update it must replace it with a {@link #copy(UnaryOperator) copy} first
+     */
+    void share() {
+        shared = true;
+    }
+
+
+    /**
+     * Returns {@literal true} only if this sequence is held by more than one {@link Structure}
+     * @return {@literal true} only if this sequence is held by more than one {@link Structure}
      */
-    int capacity() {
-        return data.length;
+    boolean isShared() {
+        return shared;
+    }
+
+
+    /**
+     * Returns a copy of this sequence that is not shared
+     * @param transform     Function applied to each element as it is copied
+     * @return a copy of this sequence that is not shared
+     */
+    @Nonnull
+    Sequence<E> copy(@Nonnull UnaryOperator<E> transform) {
+        Sequence<E> copy = of(type, size);
+
+        for (int index = 0; index < size; index++) {
+            copy = copy.set(index, transform.apply(get(index)));
+        }
+
+        return copy;
     }
 
 
+    /**
+     * Returns the number of elements that can be stored without resizing the backing storage.
+     * This will always be at least {@link #size()} elements, but may be larger
+     * @return the number of elements that can be stored without resizing the backing storage
+     */
+    abstract int capacity();
+
+
+    /**
+     * Returns a read-only view of this sequence. The view is backed by the sequence, so it does not copy the elements
+     * and changes to the sequence are visible through it. Iterators obtained from the view are fail-fast; they throw
+     * a {@link java.util.ConcurrentModificationException} if the sequence is modified while they are in use.
+     * The view must not escape from the Document; callers outside the Document are passed
+     * {@link #toUnmodifiableList()} instead.
+     * @return a read-only view of this sequence
+     */
     @Nonnull
     List<E> toList() {
-        if (list == null) {
-            list = Arrays.stream(data, 0, size)
-                .collect(Collectors.toList());
+        if (view == null) {
+            view = new View();
+        }
+
+        return view;
+    }
+
+
+    /**
+     * Returns an unmodifiable copy of this sequence. Unlike {@link #toList()} the copy is not changed by later updates
+     * to the sequence, so it can be passed to callers outside the Document without exposing the sequence to
+     * concurrent modification. The copy is cached until the sequence is next modified.
+     * <br>
+     * Copies may be made by readers that do not hold a lock and race with a writer. The modification count is read
+     * before the elements are copied, so a copy that is made while an update is in progress is never reused once
+     * the update completes.
+     * @return an unmodifiable copy of this sequence
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    List<E> toUnmodifiableList() {
+        int version = modifications;
+        Copy<E> cached = unmodifiable;
+        List<E> result;
+
+        if ((cached != null) && (cached.modifications() == version)) {
+            result = cached.elements();
+        } else {
+            Object[] elements = new Object[size];
+
+            for (int index = 0; index < elements.length; index++) {
+                elements[index] = get(index);
+            }
+
+            // The copies only have final fields, so concurrent readers that race to cache them see every element
+            result = Collections.unmodifiableList(Arrays.asList((E[]) elements));   // Elements may be null
+            unmodifiable = new Copy<>(version, result);
         }
 
-        return list;
+        return result;
+    }
+
+
+    /**
+     * Must be called after the sequence has been mutated, so that readers that see the new modification count also
+     * see the mutation
+     */
+    private void modified() {
+        modifications++;            // Only one thread can update a sequence at a time
+
+        if (view != null) {
+            view.modified();
+        }
     }
 
 
@@ -257,7 +531,7 @@ class Sequence<E> implements Iterable<E> {
         boolean equal = (size == index);
 
         while (equal && (index-- != 0)) {
-            equal = Objects.equals(data[index], other.data[index]);
+            equal = Objects.equals(get(index), other.get(index));
         }
 
         return equal;
@@ -265,11 +539,11 @@ class Sequence<E> implements Iterable<E> {
 
     @Override
     public int hashCode() {
-        // We can't use Arrays.hashCode() because unused elements to make up the HEAD_ROOM would change the hashCode
+        // We can't hash the backing storage because unused elements to make up the HEAD_ROOM would change the hashCode
         int result = 1;
 
         for (int index = 0; index < size; index++) {
-            Object element = data[index];
+            Object element = get(index);
             result = SMALL_PRIME * result + (element == null ? 0 : element.hashCode());
         }
 
@@ -289,7 +563,7 @@ class Sequence<E> implements Iterable<E> {
 
             for (int i = 0; i < size; i++) {
                 builder.append(separator)
-                       .append(data[i]);
+                       .append(get(i));
                 separator = ", ";
             }
 
@@ -299,4 +573,24 @@ class Sequence<E> implements Iterable<E> {
 
         return result;
     }
+
+
+    /**
+     * Read-only List view of the elements in the enclosing Sequence
+     */
+    private final class View extends AbstractList<E> implements RandomAccess {
+        @Override
+        public E get(int index) {
+            return Sequence.this.get(Objects.checkIndex(index, size));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        void modified() {
+            modCount++;
+        }
+    }
 }
@@ -0,0 +1,275 @@
+package com.github.tymefly.common.document;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * The ordered set of keys held by a {@link Structure}, mapping each key to the slot in the structure that holds
+ * its value.
+ * <br>
+ * Documents that are created from the same source usually have the same keys in the same order, so shapes are
+ * shared between structures. Shared shapes form a transition tree rooted at {@link #EMPTY}; adding a key to a
+ * shared shape follows (or creates) the transition for that key, so structures that add the same keys in the same
+ * order end up with the same shape instance. Shared shapes are immutable and can be used by any number of threads.
+ * <br>
+ * Transitions are held weakly, and each shared shape holds the shape it was derived from, so the tree only holds
+ * the shapes of live structures and the shapes they were derived from. To stop the tree growing without bound for
+ * map-like documents with unpredictable keys, a shape that has too many keys or too many live transitions hands out
+ * <i>private</i> shapes instead. A private shape belongs to a single structure and is updated in place.
+ */
+final class Shape {
+    /** The shape of an empty structure */
+    static final Shape EMPTY = new Shape(null, new String[0], 0, true);
+
+    private static final int HASH_THRESHOLD = 8;
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int MAX_SHARED_KEYS = 64;
+    private static final int MAX_TRANSITIONS = 32;
+
+    private final Shape parent;     // Keeps the transitions to a shared shape alive. null for EMPTY and private shapes
+    private final boolean shared;
+    private String[] keys;
+    private int size;
+    private int[] index;            // Slot + 1 of each key, or 0 for an empty bucket. null for small shapes
+
+    @GuardedBy("this")
+    private Map<String, WeakReference<Shape>> transitions;
+
+
+    private Shape(@Nullable Shape parent, @Nonnull String[] keys, int size, boolean shared) {
+        this.parent = parent;
+        this.shared = shared;
+        this.keys = keys;
+        this.size = size;
+        this.index = null;
+        this.transitions = null;
+
+        if (size > HASH_THRESHOLD) {
+            rebuildIndex();
+        }
+    }
+
+
+    /**
+     * Returns the number of keys in this shape
+     * @return the number of keys in this shape
+     */
+    int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns the key held in {@code slot}
+     * @param slot      A slot in this shape. This must be less than {@link #size()}
+     * @return the key held in {@code slot}
+     */
+    @Nonnull
+    String key(int slot) {
+        return keys[slot];
+    }
+
+
+    /**
+     * Returns {@literal true} only if this shape is shared between structures
+     * @return {@literal true} only if this shape is shared between structures
+     */
+    boolean isShared() {
+        return shared;
+    }
+
+
+    /**
+     * Returns the slot that holds {@code key}
+     * @param key       The key to search for
+     * @return          the slot that holds {@code key} or {@literal -1} if the key is not in this shape
+     */
+    int slotOf(@Nullable Object key) {
+        int slot = -1;
+
+        if (!(key instanceof String)) {
+            // Do nothing - only String keys are stored
+        } else if (index == null) {
+            for (int i = 0; (slot < 0) && (i < size); i++) {
+                String candidate = keys[i];
+
+                if ((candidate == key) || key.equals(candidate)) {
+                    slot = i;
+                }
+            }
+        } else {
+            int mask = index.length - 1;
+            int bucket = key.hashCode() & mask;
+
+            while ((slot < 0) && (index[bucket] != 0)) {
+                int candidate = index[bucket] - 1;
+
+                if (key.equals(keys[candidate])) {
+                    slot = candidate;
+                } else {
+                    bucket = (bucket + 1) & mask;
+                }
+            }
+        }
+
+        return slot;
+    }
+
+
+    /**
+     * Returns a shape with {@code key} appended to the keys in this shape. The new key is held in slot
+     * {@link #size()} of the returned shape.
+     * @param key       A key that is not already in this shape
+     * @return          the shape with {@code key} appended. This will be this shape if it is private
+     */
+    @Nonnull
+    Shape add(@Nonnull String key) {
+        Shape result;
+
+        if (!shared) {
+            append(key);
+            result = this;
+        } else if (size >= MAX_SHARED_KEYS) {
+            result = unshared(key);
+        } else {
+            result = transition(key);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Returns a shape with the key in {@code slot} removed. The keys in later slots each move down one slot.
+     * @param slot      The slot of the key to remove
+     * @return          the shape without the key. This will be this shape if it is private
+     */
+    @Nonnull
+    Shape remove(int slot) {
+        Shape result;
+
+        if (shared) {
+            result = EMPTY;
+
+            for (int i = 0; i < size; i++) {
+                if (i != slot) {
+                    result = result.add(keys[i]);
+                }
+            }
+        } else {
+            System.arraycopy(keys, slot + 1, keys, slot, size - slot - 1);
+            size--;
+            keys[size] = null;
+            index = null;
+
+            if (size > HASH_THRESHOLD) {
+                rebuildIndex();             // Removing from the middle of the keys has moved the slots
+            }
+
+            result = this;
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Returns a shape with the same keys as this shape that can safely be used by a different structure
+     * @return a shape with the same keys as this shape that can safely be used by a different structure
+     */
+    @Nonnull
+    Shape copy() {
+        return (shared ? this : new Shape(null, Arrays.copyOf(keys, keys.length), size, false));
+    }
+
+
+    @Nonnull
+    private synchronized Shape transition(@Nonnull String key) {
+        WeakReference<Shape> known = (transitions == null ? null : transitions.get(key));
+        Shape result = (known == null ? null : known.get());
+
+        if (result != null) {
+            // Do nothing - the shape is already known
+        } else if ((known == null) && (transitions != null) && (transitions.size() >= MAX_TRANSITIONS) && !purge()) {
+            result = unshared(key);
+        } else {
+            String[] extended = Arrays.copyOf(keys, size + 1);
+
+            extended[size] = key;
+            result = new Shape(this, extended, size + 1, true);
+
+            if (transitions == null) {
+                transitions = new HashMap<>();
+            }
+
+            transitions.put(key, new WeakReference<>(result));
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Remove the transitions to shapes that have been garbage collected
+     * @return {@literal true} only if at least one transition was removed
+     */
+    @GuardedBy("this")
+    private boolean purge() {
+        return transitions.values().removeIf(transition -> (transition.get() == null));
+    }
+
+
+    @Nonnull
+    private Shape unshared(@Nonnull String key) {
+        Shape result = new Shape(null, Arrays.copyOf(keys, size + (size >> 1) + 1), size, false);
+
+        result.append(key);
+
+        return result;
+    }
+
+
+    private void append(@Nonnull String key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(INITIAL_CAPACITY, size + (size >> 1)));
+        }
+
+        keys[size] = key;
+        size++;
+
+        if ((index != null) && (size * 2 <= index.length)) {
+            indexSlot(size - 1);
+        } else if (size > HASH_THRESHOLD) {
+            rebuildIndex();
+        } else {
+            // Do nothing - small shapes are searched linearly
+        }
+    }
+
+
+    private void rebuildIndex() {
+        index = new int[Integer.highestOneBit(size) << 2];          // Between a quarter and half full
+
+        for (int slot = 0; slot < size; slot++) {
+            indexSlot(slot);
+        }
+    }
+
+
+    private void indexSlot(int slot) {
+        int mask = index.length - 1;
+        int bucket = keys[slot].hashCode() & mask;
+
+        while (index[bucket] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+
+        index[bucket] = slot + 1;
+    }
+}
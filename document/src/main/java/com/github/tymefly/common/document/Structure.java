@@ -1,6 +1,15 @@
 package com.github.tymefly.common.document;
 
-import java.util.LinkedHashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -8,9 +17,35 @@ import javax.annotation.Nullable;
 
 /**
  * Holds the data in a Document.
- * There is little special functionality over a Map, but it makes the code much more readable
+ * <br>
+ * Most Documents only have a handful of fields, so rather than paying for a hash table and a linked entry per
+ * field the values are held, in insertion order, in an array. The keys are held in a {@link Shape} that maps each
+ * key to its slot in the array. Shapes are shared between structures that have the same keys in the same order,
+ * so Documents parsed from the same source do not each hold a copy of their keys.
+ * <br>
+ * This class has the same iteration order, {@link #equals(Object)} and {@link #hashCode()} semantics as a
+ * {@link java.util.LinkedHashMap}, except that a {@link Counter} is compared by its value.
+ * {@literal null} keys are not supported.
  */
-class Structure extends LinkedHashMap<String, Object> {
+class Structure extends AbstractMap<String, Object> {
+    private static final int INITIAL_CAPACITY = 4;
+    private static final Object[] NO_VALUES = {};
+
+    private Shape shape;
+    private Object[] values;
+    private int modCount;
+
+
+    /**
+     * Constructor
+     */
+    Structure() {
+        shape = Shape.EMPTY;
+        values = NO_VALUES;
+        modCount = 0;
+    }
+
+
     /**
      * A fluent alternative to {@link #put(Object, Object)}
      * @param key   key with which the specified value is to be associated
@@ -23,4 +58,240 @@ class Structure extends LinkedHashMap<String, Object> {
 
         return this;
     }
+
+
+    /**
+     * Returns a copy of this structure, with the same keys in the same order
+     * @param transform     Function applied to each value as it is copied
+     * @return a copy of this structure
+     */
+    @Nonnull
+    Structure copy(@Nonnull UnaryOperator<Object> transform) {
+        Structure copy = new Structure();
+        int size = shape.size();
+
+        copy.shape = shape.copy();
+        copy.values = Arrays.copyOf(values, Math.max(size, INITIAL_CAPACITY));
+
+        for (int slot = 0; slot < size; slot++) {
+            copy.values[slot] = transform.apply(values[slot]);
+        }
+
+        return copy;
+    }
+
+
+    /**
+     * Returns the shape of this structure
+     * @return the shape of this structure
+     */
+    @Nonnull
+    Shape getShape() {
+        return shape;
+    }
+
+
+    @Override
+    public int size() {
+        return shape.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return (shape.size() == 0);
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return (shape.slotOf(key) >= 0);
+    }
+
+    @Override
+    @Nullable
+    public Object get(@Nullable Object key) {
+        int slot = shape.slotOf(key);
+
+        return (slot < 0 ? null : values[slot]);
+    }
+
+    @Override
+    @Nullable
+    public Object put(@Nonnull String key, @Nullable Object value) {
+        Object previous;
+        int slot = shape.slotOf(key);
+
+        if (slot >= 0) {
+            previous = values[slot];
+            values[slot] = value;
+        } else {
+            previous = null;
+            append(key, value);
+        }
+
+        return previous;
+    }
+
+    @Override
+    @Nullable
+    public Object remove(@Nullable Object key) {
+        Object previous;
+        int slot = shape.slotOf(key);
+
+        if (slot >= 0) {
+            previous = values[slot];
+            removeSlot(slot);
+        } else {
+            previous = null;
+        }
+
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, 0, shape.size(), null);
+        shape = Shape.EMPTY;
+        modCount++;
+    }
+
+    @Override
+    @Nonnull
+    public Set<Entry<String, Object>> entrySet() {
+        return new EntrySet();
+    }
+
+
+    private void append(@Nonnull String key, @Nullable Object value) {
+        int size = shape.size();
+
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(INITIAL_CAPACITY, size + (size >> 1)));
+        }
+
+        shape = shape.add(key);
+        values[size] = value;
+        modCount++;
+    }
+
+
+    private void removeSlot(int slot) {
+        int size = shape.size() - 1;
+
+        System.arraycopy(values, slot + 1, values, slot, size - slot);
+        values[size] = null;
+        shape = shape.remove(slot);
+        modCount++;
+    }
+
+
+    @Override
+    public boolean equals(Object other) {
+        boolean equal;
+
+        if (this == other) {
+            equal = true;
+        } else if ((other instanceof Map<?, ?> map) && (map.size() == shape.size())) {
+            int size = shape.size();
+
+            equal = true;
+
+            for (int slot = 0; equal && (slot < size); slot++) {
+                String key = shape.key(slot);
+                Object value = Counter.valueOf(values[slot]);
+
+                if (value == null) {
+                    equal = (map.get(key) == null) && map.containsKey(key);
+                } else {
+                    equal = value.equals(Counter.valueOf(map.get(key)));
+                }
+            }
+        } else {
+            equal = false;
+        }
+
+        return equal;
+    }
+
+    @Override
+    public int hashCode() {
+        int size = shape.size();
+        int hash = 0;
+
+        for (int slot = 0; slot < size; slot++) {
+            hash += shape.key(slot).hashCode() ^ Objects.hashCode(Counter.valueOf(values[slot]));
+        }
+
+        return hash;
+    }
+
+
+    /**
+     * A view of the entries in the Structure, in insertion order
+     */
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+        @Override
+        @Nonnull
+        public Iterator<Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return shape.size();
+        }
+
+        @Override
+        public void clear() {
+            Structure.this.clear();
+        }
+    }
+
+
+    /**
+     * A fail-fast iterator over the entries in the Structure, in insertion order
+     */
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+        private int next = 0;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return (next < shape.size());
+        }
+
+        @Override
+        @Nonnull
+        public Entry<String, Object> next() {
+            checkForComodification();
+
+            if (next >= shape.size()) {
+                throw new NoSuchElementException();
+            }
+
+            last = next++;
+
+            return new SimpleImmutableEntry<>(shape.key(last), values[last]);
+        }
+
+        @Override
+        public void remove() {
+            checkForComodification();
+
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+
+            removeSlot(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
 }
@@ -8,6 +8,7 @@ import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import com.github.tymefly.common.base.validate.Preconditions;
+import com.github.tymefly.common.document.key.CompiledKey;
 import com.github.tymefly.common.document.key.DocumentKey;
 
 /**
@@ -27,7 +28,7 @@ class Walker<T> {
      */
     static class Builder<T> {
         private BiFunction<Document, DocumentKey, T> function;
-        private BiFunction<DocumentImpl, WalkerKey, T> found;
+        private BiFunction<DocumentImpl, CompiledKey, T> found;
         private Supplier<T> notFound;
 
         /**
@@ -48,7 +49,7 @@ class Walker<T> {
          * @return          a fluent interface
          */
         @Nonnull
-        Builder<T> whenFound(@Nonnull BiFunction<DocumentImpl, WalkerKey, T> found) {
+        Builder<T> whenFound(@Nonnull BiFunction<DocumentImpl, CompiledKey, T> found) {
             this.found = found;
 
             return this;
@@ -76,7 +77,7 @@ class Walker<T> {
 
 
     private final BiFunction<Document, DocumentKey, T> function;
-    private final BiFunction<DocumentImpl, WalkerKey, T> found;
+    private final BiFunction<DocumentImpl, CompiledKey, T> found;
     private final Supplier<T> notFound;
 
 
@@ -90,7 +91,7 @@ class Walker<T> {
     @Nullable
     T walk(@Nonnull AbstractDocument<?> document, @Nonnull DocumentKey key) {
         T result;
-        WalkerKey walkerKey = WalkerKey.from(key);
+        CompiledKey walkerKey = CompiledKey.of(key);
 
         if (walkerKey.hasChildren()) {
             Structure structure = document.getStructure();
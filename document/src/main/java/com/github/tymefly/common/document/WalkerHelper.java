@@ -1,10 +1,14 @@
 package com.github.tymefly.common.document;
 
+import java.util.function.UnaryOperator;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.github.tymefly.common.document.key.CompiledKey;
+
 /**
- * Utility functions used by classes that handle {@link WalkerKey} objects
+ * Utility functions used by classes that walk through Documents using {@link CompiledKey} objects
  */
 class WalkerHelper {
     /** Hide Utility class constructor */
@@ -23,7 +27,9 @@ class WalkerHelper {
      */
     @Nullable
     @SuppressWarnings("unchecked")
-    static <E> E cast(@Nonnull Class<E> type, @Nonnull WalkerKey key, @Nullable Object data) throws DocumentException {
+    static <E> E cast(@Nonnull Class<E> type,
+                      @Nonnull CompiledKey key,
+                      @Nullable Object data) throws DocumentException {
         E result;
 
         if (data == null) {
@@ -31,8 +37,11 @@ class WalkerHelper {
         } else if (type.isAssignableFrom(data.getClass())) {
             result = (E) data;
         } else {
+            Class<?> actual = (data instanceof Sequence ? Sequence.class :            // Hide specialisations
+                               data instanceof Counter ? Number.class : data.getClass());
+
             throw new DocumentException("Data at '%s' is of type %s, but %s was expected",
-                    key.elementPath(), data.getClass().getSimpleName(), type.getSimpleName());
+                    key.elementPath(), actual.getSimpleName(), type.getSimpleName());
         }
 
         return result;
@@ -49,7 +58,7 @@ class WalkerHelper {
      */
     @Nonnull
     private static <E> Sequence<E> castSequence(@Nonnull Class<E> type,
-                                                @Nonnull WalkerKey key,
+                                                @Nonnull CompiledKey key,
                                                 @Nonnull Object data) throws DocumentException {
         Sequence<?> sequence = cast(Sequence.class, key, data);
 
@@ -60,7 +69,7 @@ class WalkerHelper {
     @SuppressWarnings("unchecked")
     @Nonnull
     private static <E> Sequence<E> castSequence(@Nonnull Class<E> type,
-                                                @Nonnull WalkerKey key,
+                                                @Nonnull CompiledKey key,
                                                 @Nonnull Sequence<?> sequence) {
         if (!type.isAssignableFrom(sequence.getType())) {
             throw new DocumentException("Sequence at '%s' is of type %s, but %s was expected",
@@ -81,7 +90,7 @@ class WalkerHelper {
      * @return              Data from the {@code structure}, or {@literal null} if the value is not present
      */
     @Nullable
-    static <E> E get(@Nonnull Class<E> type, @Nonnull Structure structure, @Nonnull WalkerKey key) {
+    static <E> E get(@Nonnull Class<E> type, @Nonnull Structure structure, @Nonnull CompiledKey key) {
         String simple = key.simpleKey();
         Object value;
 
@@ -104,7 +113,8 @@ class WalkerHelper {
      * <br>
      * Reading an empty sequence is a special case; this method can change the type of an existing structure
      * so that it matches the required type. This allows parsers to create empty structures in the document
-     * with-out forcing the type of the data
+     * with-out forcing the type of the data. A sequence that is {@link Sequence#isShared() shared} with another
+     * structure is also replaced with a copy, so the returned sequence can always be updated.
      * @param structure     structure to read
      * @param key           key to the data
      * @param type          type of the structure
@@ -114,7 +124,7 @@ class WalkerHelper {
      */
     @Nonnull
     static <T> Sequence<T> getSequence(@Nonnull Structure structure,
-                                       @Nonnull WalkerKey key,
+                                       @Nonnull CompiledKey key,
                                        @Nonnull Class<T> type) throws DocumentException {
         Sequence<T> sequence = null;
         String name = key.simpleKey();
@@ -136,6 +146,12 @@ class WalkerHelper {
             sequence = Sequence.of(type, key.index());
 
             structure.put(name, sequence);
+        } else if (sequence.isShared()) {
+            sequence = sequence.copy(UnaryOperator.identity());
+
+            structure.put(name, sequence);
+        } else {
+            // Do nothing - the existing sequence can be updated
         }
 
         return sequence;
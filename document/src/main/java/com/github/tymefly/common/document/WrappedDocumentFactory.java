@@ -4,9 +4,12 @@ import java.util.function.Function;
 
 import javax.annotation.Nonnull;
 
+import com.github.tymefly.common.document.decorator.ConcurrentDocument;
 import com.github.tymefly.common.document.decorator.NullFilterDocument;
+import com.github.tymefly.common.document.decorator.ObservableDocument;
 import com.github.tymefly.common.document.decorator.SynchronizedDocument;
 import com.github.tymefly.common.document.decorator.UnmodifiableDocument;
+import com.github.tymefly.common.document.event.ChangeListener;
 
 /**
  * Factory for creating Wrapped Documents.
@@ -41,6 +44,25 @@ public interface WrappedDocumentFactory<D extends CommonDocument> {
     WrappedDocumentFactory<Document> withSynchronization();
 
 
+    /**
+     * Wrap the generated Document with a {@link ConcurrentDocument} decorator.
+     * Readers do not block each other, but are isolated from concurrent updates to the Document
+     * @return              A fluent interface.
+     */
+    @Nonnull
+    WrappedDocumentFactory<Document> withConcurrency();
+
+
+    /**
+     * Wrap the generated Document with a {@link ObservableDocument} decorator.
+     * Each update to the Document is reported to the {@code listener} after it has been applied
+     * @param listener      Listener that is told about each update to the Document
+     * @return              A fluent interface.
+     */
+    @Nonnull
+    WrappedDocumentFactory<Document> withListener(@Nonnull ChangeListener listener);
+
+
     /**
      * Wraps the generated Document with a custom Decorator. The Decorator must extend {@link DocumentDecorator}
      * and needs to accept a wrapped AbstractDocument as the sole parameter for the {@code constructor} function
@@ -1,8 +1,58 @@
 package com.github.tymefly.common.document;
 
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.common.document.key.DocumentKey;
+
 /**
  * Defines the contract for a Document that can be updated.
  * @param <D>   The type of this Document.
  */
 public interface WritableDocument<D extends CommonDocument> extends CommonDocument, DocumentWriter<D> {
+    /**
+     * Apply a batch of updates to this Document. The updates are applied, in order, as they are made to the
+     * {@link BatchWriter} that is passed to {@code writes}. Documents that control concurrent access to their data
+     * only do so once for the whole batch, so other threads see all the updates at the same time. The
+     * BatchWriter must not be used after {@code writes} returns.
+     * @param writes    function that applies the updates to this Document
+     * @return          a fluent interface
+     */
+    @Nonnull
+    D batch(@Nonnull Consumer<? super BatchWriter> writes);
+
+    /**
+     * Apply a batch of updates to the child Document at the location given by the {@code prefix}. The path to the
+     * child Document is only followed once, and missing child Documents are created, so this should be used when
+     * many values are added under the same key. The keys passed to the {@link BatchWriter} are relative to the
+     * child Document. For example
+     * <pre>{@code document.batch(() -> "payload.meta", meta -> meta
+     *         .addString(() -> "source", source)
+     *         .addNumber(() -> "size", size));}</pre>
+     * is equivalent to adding {@code payload.meta.source} and {@code payload.meta.size} to the document.
+     * @param prefix    a key that determines the location of the child Document
+     * @param writes    function that applies the updates to the child Document
+     * @return          a fluent interface
+     * @throws DocumentException if the Document contains a value that is not a Document at the location
+     * @see #batch(Consumer)
+     */
+    @Nonnull
+    D batch(@Nonnull DocumentKey prefix, @Nonnull Consumer<? super BatchWriter> writes);
+
+    /**
+     * Returns the child Document at the location given by the {@code prefix}, creating it if it is missing. This
+     * is the writable counterpart of {@link ReadableDocument#at(DocumentKey)}; the returned Document can be used
+     * as a cursor to read and update many values with keys that are relative to the child, without following the
+     * path to the child each time.
+     * <br>
+     * Updates made through the child are only co-ordinated with the child's own decorators. If other threads clone,
+     * snapshot or visit this Document while the child is being updated then {@link #batch(DocumentKey, Consumer)}
+     * should be used instead.
+     * @param prefix    a key that determines the location of the child Document
+     * @return          the child Document at the location given by the {@code prefix}
+     * @throws DocumentException if the Document contains a value that is not a Document at the location
+     */
+    @Nonnull
+    D child(@Nonnull DocumentKey prefix);
 }
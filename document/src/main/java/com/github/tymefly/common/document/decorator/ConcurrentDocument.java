@@ -0,0 +1,582 @@
+package com.github.tymefly.common.document.decorator;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.github.tymefly.common.document.AbstractDocument;
+import com.github.tymefly.common.document.BatchWriter;
+import com.github.tymefly.common.document.CommonDocument;
+import com.github.tymefly.common.document.Document;
+import com.github.tymefly.common.document.DocumentDecorator;
+import com.github.tymefly.common.document.ReadableDocument;
+import com.github.tymefly.common.document.WritableDocument;
+import com.github.tymefly.common.document.key.CompiledKey;
+import com.github.tymefly.common.document.key.DocumentKey;
+import com.github.tymefly.common.document.visitor.DocumentVisitor;
+
+/**
+ * A {@link DocumentDecorator} that provides concurrent access to its data.
+ * <br>
+ * Unlike {@link SynchronizedDocument}, readers do not block each other. Reads are first attempted without taking
+ * a lock and are validated afterwards; if the document was updated while it was being read then the read is
+ * repeated under a shared read lock. Updates to this document take an exclusive write lock.
+ * <br>
+ * Each child document of a ConcurrentDocument has its own locks, so an update to a child that already exists is
+ * passed on to the child while only holding the read lock of its parent. Threads that update different parts of
+ * the document do not block each other, or the readers of the parent. Child documents are created, and updates
+ * to documents held in sequences are made, under the write lock of the parent.
+ * <br>
+ * Numbers that are updated by {@link #increment(DocumentKey, long)} and {@link #add(DocumentKey, double)} are held
+ * as counters that many threads can update at the same time. Once a counter exists it is updated while only
+ * holding the read lock.
+ * <br>
+ * {@link #batch(Consumer)} applies all of its updates under a single write lock. {@link #batch(DocumentKey, Consumer)}
+ * and {@link #child(DocumentKey)} are passed on to a child document that already exists in the same way as any
+ * other update to the child. Updates made directly to a child returned by {@link #child(DocumentKey)} or
+ * {@link #at(DocumentKey)} only take the locks of the child.
+ * <br>
+ * {@link #accept(DocumentVisitor)} excludes updates to this document and to the children that are made through it,
+ * so that it sees a consistent document and visitors are not called more than once. It does not block readers, or
+ * updates to counters; each counter is read when it is visited. {@link #clone()} and {@link #snapshot()} do not
+ * need to copy the document, so they briefly take the write lock. A snapshot is not affected by later updates, so
+ * it can be visited, for example to serialize the document, without blocking writers.
+ * @implNote The locks are not reentrant. A {@link DocumentVisitor} passed to {@link #accept(DocumentVisitor)} must
+ * not update the document that it is visiting. Functions passed to {@link #get(DocumentKey, Function)} may be
+ * called a second time if the first read was not valid. Functions passed to {@link #batch(Consumer)} must only
+ * update the document through the {@link BatchWriter} that they are given.
+ */
+public class ConcurrentDocument extends DocumentDecorator<Document> implements Document {
+    private final StampedLock lock;
+    private final StampedLock subtree;
+    private final boolean direct;
+
+    /**
+     * Constructor
+     * @param wrapped Wrapped AbstractDocument
+     */
+    public ConcurrentDocument(@Nonnull AbstractDocument<?> wrapped) {
+        super(wrapped);
+
+        this.lock = new StampedLock();
+        this.subtree = new StampedLock();
+        this.direct = wrapped.wraps().isEmpty();        // Other decorators may need to see updates to children
+    }
+
+    @Nonnull
+    @Override
+    public Document addString(@Nonnull DocumentKey key, @Nullable String value) {
+        return write(key, (d, k) -> d.addString(k, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document addStrings(@Nonnull DocumentKey key, String... values) {
+        return write(key, (d, k) -> d.addStrings(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values) {
+        return write(key, (d, k) -> d.addStrings(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendString(@Nonnull DocumentKey key, @Nullable String value) {
+        return write(key, (d, k) -> d.appendString(k, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values) {
+        return write(key, (d, k) -> d.appendStrings(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addNumber(@Nonnull DocumentKey key, @Nullable Number value) {
+        return write(key, (d, k) -> d.addNumber(k, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document addNumbers(@Nonnull DocumentKey key, Number... values) {
+        return write(key, (d, k) -> d.addNumbers(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values) {
+        return write(key, (d, k) -> d.addNumbers(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendNumber(@Nonnull DocumentKey key, @Nullable Number value) {
+        return write(key, (d, k) -> d.appendNumber(k, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values) {
+        return write(key, (d, k) -> d.appendNumbers(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document increment(@Nonnull DocumentKey key, long delta) {
+        return count(key, (d, k) -> d.increment(k, delta));
+    }
+
+    @Nonnull
+    @Override
+    public Document add(@Nonnull DocumentKey key, double delta) {
+        return count(key, (d, k) -> d.add(k, delta));
+    }
+
+    @Nonnull
+    @Override
+    public Document accumulate(@Nonnull DocumentKey key, @Nonnull UnaryOperator<Number> function) {
+        return write(key, (d, k) -> d.accumulate(k, function));
+    }
+
+    @Nonnull
+    @Override
+    public Document addBoolean(@Nonnull DocumentKey key, @Nullable Boolean value) {
+        return write(key, (d, k) -> d.addBoolean(k, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document addBooleans(@Nonnull DocumentKey key, Boolean... values) {
+        return write(key, (d, k) -> d.addBooleans(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values) {
+        return write(key, (d, k) -> d.addBooleans(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendBoolean(@Nonnull DocumentKey key, @Nullable Boolean value) {
+        return write(key, (d, k) -> d.appendBoolean(k, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values) {
+        return write(key, (d, k) -> d.appendBooleans(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addEnum(@Nonnull DocumentKey key, @Nullable Enum<?> value) {
+        return write(key, (d, k) -> d.addEnum(k, value));
+    }
+
+    @SafeVarargs
+    @Nonnull
+    @Override
+    public final <E extends Enum<E>> Document addEnums(@Nonnull DocumentKey key, E... values) {
+        return write(key, (d, k) -> d.addEnums(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> Document addEnums(@Nonnull DocumentKey key, @Nonnull Collection<E> values) {
+        return write(key, (d, k) -> d.addEnums(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> Document appendEnum(@Nonnull DocumentKey key, @Nullable E value) {
+        return write(key, (d, k) -> d.appendEnum(k, value));
+    }
+
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> Document appendEnums(@Nonnull DocumentKey key,
+                                                                 @Nonnull Collection<E> values) {
+        return write(key, (d, k) -> d.appendEnums(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value) {
+        return write(key, (d, k) -> d.addDocument(k, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document addDocuments(@Nonnull DocumentKey key, CommonDocument... values) {
+        return write(key, (d, k) -> d.addDocuments(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addDocuments(@Nonnull DocumentKey key,
+                                              @Nonnull Collection<? extends CommonDocument> values) {
+        return write(key, (d, k) -> d.addDocuments(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value) {
+        return write(key, (d, k) -> d.appendDocument(k, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendDocuments(@Nonnull DocumentKey key,
+                                                 @Nonnull Collection<? extends CommonDocument> values) {
+        return write(key, (d, k) -> d.appendDocuments(k, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document remove(@Nonnull DocumentKey key) {
+        return write(key, (d, k) -> d.remove(k));
+    }
+
+    @Nonnull
+    @Override
+    public Document batch(@Nonnull Consumer<? super BatchWriter> writes) {
+        return exclusive(() -> {
+            getWrapped().batch(writes);
+
+            return this;
+        });
+    }
+
+    @Nonnull
+    @Override
+    public Document batch(@Nonnull DocumentKey prefix, @Nonnull Consumer<? super BatchWriter> writes) {
+        descend(prefix, (d, k) -> (k == null ? d.batch(writes) : d.batch(k, writes)));
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public Document child(@Nonnull DocumentKey prefix) {
+        return (Document) descend(prefix, (d, k) -> (k == null ? d : d.child(k)));
+    }
+
+    @Nonnull
+    @Override
+    public <T> T get(@Nonnull DocumentKey key, @Nonnull Class<T> type) {
+        return read(() -> super.get(key, type));
+    }
+
+    @Nonnull
+    @Override
+    public <T> T getOrDefault(@Nonnull DocumentKey key, @Nonnull T defaultValue) {
+        return read(() -> super.getOrDefault(key, defaultValue));
+    }
+
+    @Override
+    public long getLong(@Nonnull DocumentKey key, long defaultValue) {
+        return readLong(() -> super.getLong(key, defaultValue));
+    }
+
+    @Override
+    public int getInt(@Nonnull DocumentKey key, int defaultValue) {
+        return (int) readLong(() -> super.getInt(key, defaultValue));
+    }
+
+    @Override
+    public double getDouble(@Nonnull DocumentKey key, double defaultValue) {
+        return Double.longBitsToDouble(readLong(() -> Double.doubleToRawLongBits(super.getDouble(key, defaultValue))));
+    }
+
+    @Override
+    public boolean getBoolean(@Nonnull DocumentKey key, boolean defaultValue) {
+        return (readLong(() -> (super.getBoolean(key, defaultValue) ? 1 : 0)) != 0);
+    }
+
+    @Nonnull
+    @Override
+    public <T> T get(@Nonnull DocumentKey key, @Nonnull Function<String, T> fromString) {
+        return read(() -> super.get(key, fromString));
+    }
+
+    @Nullable
+    @Override
+    public <T> T getOptional(@Nonnull DocumentKey key, @Nonnull Class<T> type) {
+        return read(() -> super.getOptional(key, type));
+    }
+
+    @Nonnull
+    @Override
+    public <T> List<? extends T> getAll(@Nonnull DocumentKey key, @Nonnull Class<T> type) {
+        return read(() -> super.getAll(key, type));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return read(() -> super.isEmpty());
+    }
+
+    @Override
+    public int size() {
+        return (int) readLong(() -> super.size());
+    }
+
+    @Override
+    public boolean contains(@Nonnull DocumentKey key) {
+        return read(() -> super.contains(key));
+    }
+
+    @Override
+    public boolean hasValue(@Nonnull DocumentKey key) {
+        return read(() -> super.hasValue(key));
+    }
+
+    @Override
+    public boolean isSequence(@Nonnull DocumentKey key) {
+        return read(() -> super.isSequence(key));
+    }
+
+    @Nonnull
+    @Override
+    public <T> T accept(@Nonnull DocumentVisitor<T> visitor) {
+        return consistent(() -> super.accept(visitor));
+    }
+
+    @Nonnull
+    @Override
+    public ReadableDocument at(@Nonnull DocumentKey prefix) {
+        return read(() -> super.at(prefix));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return read(() -> super.equals(obj));
+    }
+
+    @Override
+    public int hashCode() {
+        return read(() -> super.hashCode());
+    }
+
+    // Suspend Checkstyle rule SuperCloneCheck for 5 lines: AbstractDocument creates the clone from the
+    // underlying Document, so there is no need to call super.clone()
+    @Nonnull
+    @Override
+    public ReadableDocument clone() {
+        return exclusive(super::clone);
+    }
+
+
+    @Nullable
+    private <T> T read(@Nonnull Supplier<T> reader) {
+        T result = null;
+        boolean valid = false;
+        long stamp = lock.tryOptimisticRead();
+
+        if (stamp != 0) {
+            try {
+                result = reader.get();
+                valid = lock.validate(stamp);
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;                    // The document didn't change, so this is a genuine failure
+                }
+            }
+        }
+
+        if (!valid) {
+            result = locked(reader);
+        }
+
+        return result;
+    }
+
+    /**
+     * A version of {@link #read(Supplier)} for primitive values, which does not box the value that is read. Other
+     * primitive types are passed through a {@code long} without loss
+     * @param reader    function that reads the document
+     * @return          the value read
+     */
+    private long readLong(@Nonnull LongSupplier reader) {
+        long result = 0;
+        boolean valid = false;
+        long stamp = lock.tryOptimisticRead();
+
+        if (stamp != 0) {
+            try {
+                result = reader.getAsLong();
+                valid = lock.validate(stamp);
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;                    // The document didn't change, so this is a genuine failure
+                }
+            }
+        }
+
+        if (!valid) {
+            long readStamp = lock.readLock();
+
+            try {
+                result = reader.getAsLong();
+            } finally {
+                lock.unlockRead(readStamp);
+            }
+        }
+
+        return result;
+    }
+
+    @Nullable
+    private <T> T locked(@Nonnull Supplier<T> reader) {
+        long stamp = lock.readLock();
+
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Nullable
+    private <T> T consistent(@Nonnull Supplier<T> reader) {
+        long stamp = lock.readLock();
+        long children = subtree.writeLock();
+
+        try {
+            return reader.get();
+        } finally {
+            subtree.unlockWrite(children);
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Nullable
+    private <T> T exclusive(@Nonnull Supplier<T> reader) {
+        long stamp = lock.writeLock();
+
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Nonnull
+    private Document write(@Nonnull DocumentKey key, @Nonnull BiConsumer<WritableDocument<?>, DocumentKey> writer) {
+        return write(key, false, writer);
+    }
+
+    @Nonnull
+    private Document count(@Nonnull DocumentKey key, @Nonnull BiConsumer<WritableDocument<?>, DocumentKey> writer) {
+        return write(key, true, writer);
+    }
+
+    @Nonnull
+    private Document write(@Nonnull DocumentKey key,
+                           boolean counter,
+                           @Nonnull BiConsumer<WritableDocument<?>, DocumentKey> writer) {
+        CompiledKey compiled = CompiledKey.of(key);
+        long stamp = lock.readLock();
+
+        try {
+            AbstractDocument<?> child = (compiled.hasChildren() && !compiled.hasIndex() ? child(compiled) : null);
+
+            if (child != null) {
+                writeChild(child, compiled.shift(), writer);
+            } else if (counter && isCounter(compiled)) {
+                writer.accept(getWrapped(), compiled);      // Counters are updated in place by any number of threads
+            } else {
+                stamp = toWriteLock(stamp);
+                writer.accept(getWrapped(), compiled);
+            }
+        } finally {
+            lock.unlock(stamp);
+        }
+
+        return this;
+    }
+
+    @Nullable
+    private AbstractDocument<?> child(@Nonnull CompiledKey key) {
+        Object value = (direct ? getWrapped().getOptional(CompiledKey.of(key.simpleKey()), Object.class) : null);
+        boolean concurrent = (value instanceof AbstractDocument<?> child) && child.wraps(ConcurrentDocument.class);
+
+        return (concurrent ? (AbstractDocument<?>) value : null);
+    }
+
+    private void writeChild(@Nonnull AbstractDocument<?> child,
+                            @Nonnull DocumentKey key,
+                            @Nonnull BiConsumer<WritableDocument<?>, DocumentKey> writer) {
+        long stamp = subtree.readLock();
+
+        try {
+            writer.accept(child, key);
+        } finally {
+            subtree.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Apply the {@code action} to the child document at the location given by the {@code prefix}. If the child
+     * already exists then the action is applied to the child, or to the first child on the path, while only holding
+     * the read lock of this document. Otherwise the action is applied to the wrapped document under the write lock
+     * @param prefix    key to the child document
+     * @param action    function that is passed a document and the key to the child from that document, which is
+     *                  {@literal null} if the document is the child
+     * @param <T>       type of the data returned by the action
+     * @return          data returned by the {@code action}
+     */
+    @Nullable
+    private <T> T descend(@Nonnull DocumentKey prefix,
+                          @Nonnull BiFunction<WritableDocument<?>, DocumentKey, T> action) {
+        CompiledKey compiled = CompiledKey.of(prefix);
+        long stamp = lock.readLock();
+        T result;
+
+        try {
+            AbstractDocument<?> child = (compiled.hasIndex() ? null : child(compiled));
+
+            if (child == null) {
+                stamp = toWriteLock(stamp);
+                result = action.apply(getWrapped(), compiled);
+            } else {
+                long children = subtree.readLock();
+
+                try {
+                    result = action.apply(child, (compiled.hasChildren() ? compiled.shift() : null));
+                } finally {
+                    subtree.unlockRead(children);
+                }
+            }
+        } finally {
+            lock.unlock(stamp);
+        }
+
+        return result;
+    }
+
+    private long toWriteLock(long readStamp) {
+        long stamp = lock.tryConvertToWriteLock(readStamp);
+
+        if (stamp == 0) {                               // Another thread also holds the read lock
+            lock.unlockRead(readStamp);
+            stamp = lock.writeLock();
+        }
+
+        return stamp;
+    }
+}
@@ -66,6 +66,14 @@ public class NullFilterDocument extends DocumentDecorator<Document> implements D
         return this;
     }
 
+    @Nonnull
+    @Override
+    public Document appendStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values) {
+        getWrapped().appendStrings(key, filter(values));
+
+        return this;
+    }
+
     @Nonnull
     @Override
     public Document addNumber(@Nonnull DocumentKey key, @Nullable Number value) {
@@ -102,6 +110,14 @@ public class NullFilterDocument extends DocumentDecorator<Document> implements D
         return this;
     }
 
+    @Nonnull
+    @Override
+    public Document appendNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values) {
+        getWrapped().appendNumbers(key, filter(values));
+
+        return this;
+    }
+
     @Nonnull
     @Override
     public Document addBoolean(@Nonnull DocumentKey key, @Nullable Boolean value) {
@@ -138,6 +154,14 @@ public class NullFilterDocument extends DocumentDecorator<Document> implements D
         return this;
     }
 
+    @Nonnull
+    @Override
+    public Document appendBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values) {
+        getWrapped().appendBooleans(key, filter(values));
+
+        return this;
+    }
+
     @Nonnull
     @Override
     public Document addEnum(@Nonnull DocumentKey key, @Nullable Enum<?> value) {
@@ -175,6 +199,14 @@ public class NullFilterDocument extends DocumentDecorator<Document> implements D
         return this;
     }
 
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> Document appendEnums(@Nonnull DocumentKey key, @Nonnull Collection<E> values) {
+        getWrapped().appendEnums(key, filter(values));
+
+        return this;
+    }
+
     @Nonnull
     @Override
     public Document addDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value) {
@@ -211,6 +243,14 @@ public class NullFilterDocument extends DocumentDecorator<Document> implements D
         return this;
     }
 
+    @Nonnull
+    @Override
+    public Document appendDocuments(@Nonnull DocumentKey key, @Nonnull Collection<? extends CommonDocument> values) {
+        getWrapped().appendDocuments(key, filter(values));
+
+        return this;
+    }
+
 
     @Nonnull
     private <T> List<T> filter(T[] values) {
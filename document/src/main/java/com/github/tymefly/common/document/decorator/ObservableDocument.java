@@ -0,0 +1,389 @@
+package com.github.tymefly.common.document.decorator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.github.tymefly.common.document.AbstractDocument;
+import com.github.tymefly.common.document.BatchWriter;
+import com.github.tymefly.common.document.CommonDocument;
+import com.github.tymefly.common.document.Document;
+import com.github.tymefly.common.document.DocumentDecorator;
+import com.github.tymefly.common.document.event.ChangeEvent;
+import com.github.tymefly.common.document.event.ChangeEvent.Kind;
+import com.github.tymefly.common.document.event.ChangeListener;
+import com.github.tymefly.common.document.key.DocumentKey;
+
+/**
+ * A {@link DocumentDecorator} that reports each update to a {@link ChangeListener}. The update is reported after it
+ * has been applied, with the full path to the value that was updated, so that caches and indexes of the Document can
+ * be kept up to date without visiting the whole Document after each update.
+ * <br>
+ * The old value is read before the update is applied and the new value is read back after it, so the values that
+ * are reported are the ones the Document holds. Sequences are reported as unmodifiable lists and Documents as
+ * {@link CommonDocument#snapshot() snapshots}, so later updates do not change the values in an event. Updates that
+ * do not change the Document, such as writing the value it already holds, are not reported. If other threads can
+ * update the Document at the same time then this decorator should be wrapped by a decorator that controls
+ * concurrent access to the Document.
+ * <br>
+ * Updates that the Document makes to its children while it applies an update are reported as part of that update.
+ * This is tracked per listener, so updates to Documents that report to other listeners are still reported.
+ * <br>
+ * <b>Note:</b> Child Documents, and clones of this Document, report their updates to the same listener. The paths
+ * of updates made to a child Document that has been read from this Document are relative to that child, unless the
+ * child was returned by {@link #child(DocumentKey)}.
+ */
+public class ObservableDocument extends DocumentDecorator<Document> implements Document {
+    private static final ThreadLocal<Set<ChangeListener>> UPDATING =
+            ThreadLocal.withInitial(() -> Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private final ChangeListener listener;
+    private final String prefix;
+
+    /**
+     * Constructor
+     * @param wrapped   The underlying object that this class decorates
+     * @param listener  Listener that is told about each update to the Document
+     */
+    public ObservableDocument(@Nonnull AbstractDocument<?> wrapped, @Nonnull ChangeListener listener) {
+        this(wrapped, listener, null);
+    }
+
+    private ObservableDocument(@Nonnull AbstractDocument<?> wrapped,
+                               @Nonnull ChangeListener listener,
+                               @Nullable String prefix) {
+        super(wrapped);
+
+        this.listener = listener;
+        this.prefix = prefix;
+    }
+
+
+    @Nonnull
+    @Override
+    public Document addString(@Nonnull DocumentKey key, @Nullable String value) {
+        return report(Kind.ADD, key, () -> getWrapped().addString(key, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document addStrings(@Nonnull DocumentKey key, String... values) {
+        return report(Kind.ADD, key, () -> getWrapped().addStrings(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values) {
+        return report(Kind.ADD, key, () -> getWrapped().addStrings(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendString(@Nonnull DocumentKey key, @Nullable String value) {
+        return report(Kind.APPEND, key, () -> getWrapped().appendString(key, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values) {
+        return report(Kind.APPEND, key, () -> getWrapped().appendStrings(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addNumber(@Nonnull DocumentKey key, @Nullable Number value) {
+        return report(Kind.ADD, key, () -> getWrapped().addNumber(key, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document addNumbers(@Nonnull DocumentKey key, Number... values) {
+        return report(Kind.ADD, key, () -> getWrapped().addNumbers(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values) {
+        return report(Kind.ADD, key, () -> getWrapped().addNumbers(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendNumber(@Nonnull DocumentKey key, @Nullable Number value) {
+        return report(Kind.APPEND, key, () -> getWrapped().appendNumber(key, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values) {
+        return report(Kind.APPEND, key, () -> getWrapped().appendNumbers(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document increment(@Nonnull DocumentKey key, long delta) {
+        return report(Kind.UPDATE, key, () -> getWrapped().increment(key, delta));
+    }
+
+    @Nonnull
+    @Override
+    public Document add(@Nonnull DocumentKey key, double delta) {
+        return report(Kind.UPDATE, key, () -> getWrapped().add(key, delta));
+    }
+
+    @Nonnull
+    @Override
+    public Document accumulate(@Nonnull DocumentKey key, @Nonnull UnaryOperator<Number> function) {
+        return report(Kind.UPDATE, key, () -> getWrapped().accumulate(key, function));
+    }
+
+    @Nonnull
+    @Override
+    public Document addBoolean(@Nonnull DocumentKey key, @Nullable Boolean value) {
+        return report(Kind.ADD, key, () -> getWrapped().addBoolean(key, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document addBooleans(@Nonnull DocumentKey key, Boolean... values) {
+        return report(Kind.ADD, key, () -> getWrapped().addBooleans(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values) {
+        return report(Kind.ADD, key, () -> getWrapped().addBooleans(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendBoolean(@Nonnull DocumentKey key, @Nullable Boolean value) {
+        return report(Kind.APPEND, key, () -> getWrapped().appendBoolean(key, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values) {
+        return report(Kind.APPEND, key, () -> getWrapped().appendBooleans(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addEnum(@Nonnull DocumentKey key, @Nullable Enum<?> value) {
+        return report(Kind.ADD, key, () -> getWrapped().addEnum(key, value));
+    }
+
+    @SafeVarargs
+    @Nonnull
+    @Override
+    public final <E extends Enum<E>> Document addEnums(@Nonnull DocumentKey key, E... values) {
+        return report(Kind.ADD, key, () -> getWrapped().addEnums(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> Document addEnums(@Nonnull DocumentKey key, @Nonnull Collection<E> values) {
+        return report(Kind.ADD, key, () -> getWrapped().addEnums(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> Document appendEnum(@Nonnull DocumentKey key, @Nullable E value) {
+        return report(Kind.APPEND, key, () -> getWrapped().appendEnum(key, value));
+    }
+
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> Document appendEnums(@Nonnull DocumentKey key, @Nonnull Collection<E> values) {
+        return report(Kind.APPEND, key, () -> getWrapped().appendEnums(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value) {
+        return report(Kind.ADD, key, () -> getWrapped().addDocument(key, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document addDocuments(@Nonnull DocumentKey key, CommonDocument... values) {
+        return report(Kind.ADD, key, () -> getWrapped().addDocuments(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document addDocuments(@Nonnull DocumentKey key, @Nonnull Collection<? extends CommonDocument> values) {
+        return report(Kind.ADD, key, () -> getWrapped().addDocuments(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value) {
+        return report(Kind.APPEND, key, () -> getWrapped().appendDocument(key, value));
+    }
+
+    @Nonnull
+    @Override
+    public Document appendDocuments(@Nonnull DocumentKey key, @Nonnull Collection<? extends CommonDocument> values) {
+        return report(Kind.APPEND, key, () -> getWrapped().appendDocuments(key, values));
+    }
+
+    @Nonnull
+    @Override
+    public Document remove(@Nonnull DocumentKey key) {
+        return report(Kind.REMOVE, key, () -> getWrapped().remove(key));
+    }
+
+    /**
+     * Apply a batch of updates to this Document. Each update is reported to the listener, which is then flushed.
+     * @param writes    function that applies the updates to this Document
+     * @return          a fluent interface
+     */
+    @Nonnull
+    @Override
+    public Document batch(@Nonnull Consumer<? super BatchWriter> writes) {
+        try {
+            super.batch(writes);
+        } finally {
+            listener.flush();
+        }
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public Document batch(@Nonnull DocumentKey prefix, @Nonnull Consumer<? super BatchWriter> writes) {
+        child(prefix).batch(writes);
+
+        return this;
+    }
+
+    /**
+     * Returns the child Document at the location given by the {@code prefix}, creating it if it is missing.
+     * Updates made through the returned Document are reported with their full path.
+     * @param prefix    a key that determines the location of the child Document
+     * @return          the child Document at the location given by the {@code prefix}
+     */
+    @Nonnull
+    @Override
+    public Document child(@Nonnull DocumentKey prefix) {
+        AbstractDocument<?> child = (AbstractDocument<?>) getWrapped().child(prefix);
+
+        return new ObservableDocument(child, listener, path(prefix));
+    }
+
+
+    /**
+     * Apply an update and report it to the listener if it changed the Document. Updates made to child Documents
+     * while the update is applied are not reported, as they are part of the update.
+     */
+    @Nonnull
+    private Document report(@Nonnull Kind kind, @Nonnull DocumentKey key, @Nonnull Runnable update) {
+        Set<ChangeListener> updating = UPDATING.get();
+
+        if (!updating.add(listener)) {
+            update.run();
+        } else {
+            boolean append = (kind == Kind.APPEND);
+            boolean existed;
+            int size;
+            Object before;
+            String path;
+
+            try {                                           // The key may be invalid, so read it in the try block
+                existed = getWrapped().contains(key);
+                size = (append ? sizeOf(key) : 0);
+                before = (append ? null : freeze(getWrapped().getOptional(key, Object.class)));
+                path = path(key);
+
+                update.run();
+            } finally {
+                updating.remove(listener);
+            }
+
+            boolean exists = getWrapped().contains(key);
+            Object after = (append ? appended(key, size) : freeze(getWrapped().getOptional(key, Object.class)));
+            boolean changed;
+
+            if (append) {
+                changed = !((List<?>) after).isEmpty();
+            } else if (kind == Kind.REMOVE) {
+                changed = (existed && !exists);
+            } else {
+                changed = (existed != exists) || !Objects.equals(before, after);
+            }
+
+            if (changed) {
+                listener.changed(new ChangeEvent(kind, path, before, after));
+            }
+        }
+
+        return this;
+    }
+
+
+    /**
+     * Returns the elements that were appended to the sequence at {@code key}
+     * @param key       key to the sequence
+     * @param from      number of elements that the sequence held before the update
+     * @return the elements that were appended to the sequence
+     */
+    @Nonnull
+    private List<Object> appended(@Nonnull DocumentKey key, int from) {
+        String path = key.externalise();
+        int size = sizeOf(key);
+        List<Object> appended = new ArrayList<>(Math.max(0, size - from));
+
+        for (int index = from; index < size; index++) {
+            String element = path + "[" + index + "]";
+
+            appended.add(freeze(getWrapped().getOptional(() -> element, Object.class)));
+        }
+
+        return Collections.unmodifiableList(appended);          // Not List.copyOf() - elements may be null
+    }
+
+
+    @Nonnull
+    private String path(@Nonnull DocumentKey key) {
+        String path = key.externalise();
+
+        return (prefix == null ? path : prefix + DocumentKey.SEPARATOR + path);
+    }
+
+
+    /**
+     * Returns a value read from the Document that can be passed to the listener. Sequences are already returned
+     * as unmodifiable copies, but Documents are live so they are replaced by snapshots
+     */
+    @Nullable
+    private static Object freeze(@Nullable Object value) {
+        Object result;
+
+        if (value instanceof CommonDocument document) {
+            result = document.snapshot();
+        } else if ((value instanceof List<?> list) && list.stream().anyMatch(CommonDocument.class::isInstance)) {
+            List<Object> frozen = new ArrayList<>(list.size());
+
+            for (Object element : list) {
+                frozen.add(freeze(element));
+            }
+
+            result = Collections.unmodifiableList(frozen);
+        } else {
+            result = value;
+        }
+
+        return result;
+    }
+}
@@ -2,12 +2,15 @@ package com.github.tymefly.common.document.decorator;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.github.tymefly.common.document.AbstractDocument;
+import com.github.tymefly.common.document.BatchWriter;
 import com.github.tymefly.common.document.CommonDocument;
 import com.github.tymefly.common.document.Document;
 import com.github.tymefly.common.document.DocumentDecorator;
@@ -33,6 +36,12 @@ public class SynchronizedDocument extends DocumentDecorator<Document> implements
         return super.unmodifiable();
     }
 
+    @Nonnull
+    @Override
+    public synchronized ReadableDocument snapshot() {
+        return super.snapshot();
+    }
+
     @Nonnull
     @Override
     public synchronized Document addString(@Nonnull DocumentKey key, @Nullable String value) {
@@ -57,6 +66,12 @@ public class SynchronizedDocument extends DocumentDecorator<Document> implements
         return super.appendString(key, value);
     }
 
+    @Nonnull
+    @Override
+    public synchronized Document appendStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values) {
+        return super.appendStrings(key, values);
+    }
+
     @Nonnull
     @Override
     public synchronized Document addNumber(@Nonnull DocumentKey key, @Nullable Number value) {
@@ -81,6 +96,30 @@ public class SynchronizedDocument extends DocumentDecorator<Document> implements
         return super.appendNumber(key, value);
     }
 
+    @Nonnull
+    @Override
+    public synchronized Document appendNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values) {
+        return super.appendNumbers(key, values);
+    }
+
+    @Nonnull
+    @Override
+    public synchronized Document increment(@Nonnull DocumentKey key, long delta) {
+        return super.increment(key, delta);
+    }
+
+    @Nonnull
+    @Override
+    public synchronized Document add(@Nonnull DocumentKey key, double delta) {
+        return super.add(key, delta);
+    }
+
+    @Nonnull
+    @Override
+    public synchronized Document accumulate(@Nonnull DocumentKey key, @Nonnull UnaryOperator<Number> function) {
+        return super.accumulate(key, function);
+    }
+
     @Nonnull
     @Override
     public synchronized Document addBoolean(@Nonnull DocumentKey key, @Nullable Boolean value) {
@@ -105,6 +144,12 @@ public class SynchronizedDocument extends DocumentDecorator<Document> implements
         return super.appendBoolean(key, value);
     }
 
+    @Nonnull
+    @Override
+    public synchronized Document appendBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values) {
+        return super.appendBooleans(key, values);
+    }
+
     @Nonnull
     @Override
     public synchronized Document addEnum(@Nonnull DocumentKey key, @Nullable Enum<?> value) {
@@ -130,6 +175,13 @@ public class SynchronizedDocument extends DocumentDecorator<Document> implements
         return super.appendEnum(key, value);
     }
 
+    @Nonnull
+    @Override
+    public synchronized <E extends Enum<E>> Document appendEnums(@Nonnull DocumentKey key,
+                                                                 @Nonnull Collection<E> values) {
+        return super.appendEnums(key, values);
+    }
+
     @Nonnull
     @Override
     public synchronized Document addDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value) {
@@ -155,12 +207,37 @@ public class SynchronizedDocument extends DocumentDecorator<Document> implements
         return super.appendDocument(key, value);
     }
 
+    @Nonnull
+    @Override
+    public synchronized Document appendDocuments(@Nonnull DocumentKey key,
+                                                 @Nonnull Collection<? extends CommonDocument> values) {
+        return super.appendDocuments(key, values);
+    }
+
     @Nonnull
     @Override
     public synchronized Document remove(@Nonnull DocumentKey key) {
         return super.remove(key);
     }
 
+    @Nonnull
+    @Override
+    public synchronized Document batch(@Nonnull Consumer<? super BatchWriter> writes) {
+        return super.batch(writes);
+    }
+
+    @Nonnull
+    @Override
+    public synchronized Document batch(@Nonnull DocumentKey prefix, @Nonnull Consumer<? super BatchWriter> writes) {
+        return super.batch(prefix, writes);
+    }
+
+    @Nonnull
+    @Override
+    public synchronized Document child(@Nonnull DocumentKey prefix) {
+        return super.child(prefix);
+    }
+
     @Nonnull
     @Override
     public synchronized <T> T get(@Nonnull DocumentKey key, @Nonnull Class<T> type) {
@@ -173,6 +250,26 @@ public class SynchronizedDocument extends DocumentDecorator<Document> implements
         return super.getOrDefault(key, defaultValue);
     }
 
+    @Override
+    public synchronized long getLong(@Nonnull DocumentKey key, long defaultValue) {
+        return super.getLong(key, defaultValue);
+    }
+
+    @Override
+    public synchronized int getInt(@Nonnull DocumentKey key, int defaultValue) {
+        return super.getInt(key, defaultValue);
+    }
+
+    @Override
+    public synchronized double getDouble(@Nonnull DocumentKey key, double defaultValue) {
+        return super.getDouble(key, defaultValue);
+    }
+
+    @Override
+    public synchronized boolean getBoolean(@Nonnull DocumentKey key, boolean defaultValue) {
+        return super.getBoolean(key, defaultValue);
+    }
+
     @Nonnull
     @Override
     public synchronized <T> T get(@Nonnull DocumentKey key, @Nonnull Function<String, T> fromString) {
@@ -196,6 +293,11 @@ public class SynchronizedDocument extends DocumentDecorator<Document> implements
         return super.isEmpty();
     }
 
+    @Override
+    public synchronized int size() {
+        return super.size();
+    }
+
     @Override
     public synchronized boolean contains(@Nonnull DocumentKey key) {
         return super.contains(key);
@@ -217,6 +319,12 @@ public class SynchronizedDocument extends DocumentDecorator<Document> implements
         return super.accept(visitor);
     }
 
+    @Nonnull
+    @Override
+    public synchronized ReadableDocument at(@Nonnull DocumentKey prefix) {
+        return super.at(prefix);
+    }
+
     @Override
     public synchronized boolean equals(Object obj) {
         return super.equals(obj);
@@ -1,11 +1,14 @@
 package com.github.tymefly.common.document.decorator;
 
 import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.github.tymefly.common.document.AbstractDocument;
+import com.github.tymefly.common.document.BatchWriter;
 import com.github.tymefly.common.document.CommonDocument;
 import com.github.tymefly.common.document.Document;
 import com.github.tymefly.common.document.DocumentDecorator;
@@ -62,6 +65,12 @@ public class UnmodifiableDocument extends DocumentDecorator<Document> implements
         throw ERROR;
     }
 
+    @Nonnull
+    @Override
+    public Document appendStrings(@Nonnull DocumentKey key, @Nonnull Collection<String> values) {
+        throw ERROR;
+    }
+
     @Nonnull
     @Override
     public Document addNumber(@Nonnull DocumentKey key, @Nullable Number value) {
@@ -86,6 +95,30 @@ public class UnmodifiableDocument extends DocumentDecorator<Document> implements
         throw ERROR;
     }
 
+    @Nonnull
+    @Override
+    public Document appendNumbers(@Nonnull DocumentKey key, @Nonnull Collection<Number> values) {
+        throw ERROR;
+    }
+
+    @Nonnull
+    @Override
+    public Document increment(@Nonnull DocumentKey key, long delta) {
+        throw ERROR;
+    }
+
+    @Nonnull
+    @Override
+    public Document add(@Nonnull DocumentKey key, double delta) {
+        throw ERROR;
+    }
+
+    @Nonnull
+    @Override
+    public Document accumulate(@Nonnull DocumentKey key, @Nonnull UnaryOperator<Number> function) {
+        throw ERROR;
+    }
+
     @Nonnull
     @Override
     public Document addBoolean(@Nonnull DocumentKey key, @Nullable Boolean value) {
@@ -110,6 +143,12 @@ public class UnmodifiableDocument extends DocumentDecorator<Document> implements
         throw ERROR;
     }
 
+    @Nonnull
+    @Override
+    public Document appendBooleans(@Nonnull DocumentKey key, @Nonnull Collection<Boolean> values) {
+        throw ERROR;
+    }
+
     @Nonnull
     @Override
     public Document addEnum(@Nonnull DocumentKey key, @Nullable Enum<?> value) {
@@ -135,6 +174,12 @@ public class UnmodifiableDocument extends DocumentDecorator<Document> implements
         throw ERROR;
     }
 
+    @Nonnull
+    @Override
+    public <E extends Enum<E>> Document appendEnums(@Nonnull DocumentKey key, @Nonnull Collection<E> values) {
+        throw ERROR;
+    }
+
     @Nonnull
     @Override
     public Document addDocument(@Nonnull DocumentKey key, @Nullable CommonDocument value) {
@@ -160,9 +205,39 @@ public class UnmodifiableDocument extends DocumentDecorator<Document> implements
         throw ERROR;
     }
 
+    @Nonnull
+    @Override
+    public Document appendDocuments(@Nonnull DocumentKey key, @Nonnull Collection<? extends CommonDocument> values) {
+        throw ERROR;
+    }
+
     @Nonnull
     @Override
     public Document remove(@Nonnull DocumentKey key) {
         throw ERROR;
     }
+
+    @Nonnull
+    @Override
+    public Document batch(@Nonnull Consumer<? super BatchWriter> writes) {
+        throw ERROR;
+    }
+
+    @Nonnull
+    @Override
+    public Document batch(@Nonnull DocumentKey prefix, @Nonnull Consumer<? super BatchWriter> writes) {
+        throw ERROR;
+    }
+
+    @Nonnull
+    @Override
+    public Document child(@Nonnull DocumentKey prefix) {
+        throw ERROR;
+    }
+
+    @Nonnull
+    @Override
+    public ReadableDocument at(@Nonnull DocumentKey prefix) {
+        return getWrapped().at(prefix).unmodifiable();
+    }
 }
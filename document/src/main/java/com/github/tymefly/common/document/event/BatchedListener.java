@@ -0,0 +1,67 @@
+package com.github.tymefly.common.document.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.github.tymefly.common.base.validate.Preconditions;
+
+/**
+ * A {@link ChangeListener} that buffers events and passes them to a consumer in batches. A batch is delivered
+ * when it reaches its size limit, at the end of each {@link com.github.tymefly.common.document.WritableDocument#batch}
+ * call, and when {@link #flush()} is called by the client.
+ */
+@ThreadSafe
+public class BatchedListener implements ChangeListener {
+    private final Consumer<? super List<ChangeEvent>> consumer;
+    private final int limit;
+    private List<ChangeEvent> pending;
+
+    /**
+     * Constructor for a listener whose batches are only delivered when they are flushed
+     * @param consumer  Consumer that is passed each batch of events, in the order that the updates were made
+     */
+    public BatchedListener(@Nonnull Consumer<? super List<ChangeEvent>> consumer) {
+        this(consumer, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor
+     * @param consumer  Consumer that is passed each batch of events, in the order that the updates were made
+     * @param limit     The maximum number of events in a batch
+     */
+    public BatchedListener(@Nonnull Consumer<? super List<ChangeEvent>> consumer, int limit) {
+        Preconditions.checkArgument(limit > 0, "Invalid batch size %d", limit);
+
+        this.consumer = consumer;
+        this.limit = limit;
+        this.pending = new ArrayList<>();
+    }
+
+
+    @Override
+    public synchronized void changed(@Nonnull ChangeEvent event) {
+        pending.add(event);
+
+        if (pending.size() >= limit) {
+            flush();
+        }
+    }
+
+
+    /**
+     * Pass any buffered events to the consumer
+     */
+    @Override
+    public synchronized void flush() {
+        if (!pending.isEmpty()) {
+            List<ChangeEvent> batch = pending;
+
+            pending = new ArrayList<>();
+            consumer.accept(batch);
+        }
+    }
+}
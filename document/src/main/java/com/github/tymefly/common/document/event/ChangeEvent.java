@@ -0,0 +1,50 @@
+package com.github.tymefly.common.document.event;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.github.tymefly.common.document.key.DocumentKey;
+
+/**
+ * Describes a single update that has been made to a Document.
+ * @param kind      The kind of update
+ * @param path      The full path to the value that was updated
+ * @param oldValue  The value before the update. This is {@literal null} for {@link Kind#APPEND} updates and if the
+ *                  field did not exist. Sequences are reported as an unmodifiable {@link java.util.List} and
+ *                  Documents as snapshots
+ * @param newValue  The value that the Document holds after the update, in the same form as the {@code oldValue}.
+ *                  For {@link Kind#APPEND} updates this is the appended elements, and for {@link Kind#REMOVE}
+ *                  updates it is {@literal null}
+ * @see ChangeListener
+ */
+public record ChangeEvent(@Nonnull Kind kind,
+                          @Nonnull String path,
+                          @Nullable Object oldValue,
+                          @Nullable Object newValue) {
+    /**
+     * The kinds of update that can be made to a Document
+     */
+    public enum Kind {
+        /** A value was added, or replaced, by one of the {@code add} methods */
+        ADD,
+
+        /** Elements were appended to a sequence by one of the {@code append} methods */
+        APPEND,
+
+        /** A number was updated by {@code increment}, {@code add} or {@code accumulate} */
+        UPDATE,
+
+        /** A value was removed */
+        REMOVE
+    }
+
+
+    /**
+     * Returns a key that can be used to read the updated value from the Document
+     * @return a key that can be used to read the updated value from the Document
+     */
+    @Nonnull
+    public DocumentKey key() {
+        return () -> path;
+    }
+}
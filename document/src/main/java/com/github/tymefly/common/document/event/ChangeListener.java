@@ -0,0 +1,26 @@
+package com.github.tymefly.common.document.event;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receives the updates that are made to a Document that has been created with
+ * {@link com.github.tymefly.common.document.FluentDocumentFactory#withListener(ChangeListener)}.
+ * Events are delivered synchronously, on the thread that updated the Document, after the update has been applied.
+ * @see BatchedListener
+ */
+@FunctionalInterface
+public interface ChangeListener {
+    /**
+     * Called after a Document has been updated
+     * @param event     Description of the update
+     */
+    void changed(@Nonnull ChangeEvent event);
+
+    /**
+     * Called after a batch of updates has been applied to the Document. Listeners that buffer events should
+     * deliver them. By default, this method does nothing.
+     * @see com.github.tymefly.common.document.WritableDocument#batch(java.util.function.Consumer)
+     */
+    default void flush() {
+    }
+}
@@ -0,0 +1,359 @@
+package com.github.tymefly.common.document.key;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import com.github.tymefly.common.base.validate.Preconditions;
+import com.github.tymefly.common.document.DocumentException;
+
+/**
+ * A DocumentKey that has been parsed, once, into an immutable sequence of {@link DocumentKey#ELEMENT}s.
+ * Each element is held as a {@link DocumentKey#SIMPLE_KEY} and an optional {@link DocumentKey#INDEX}.
+ * <br>
+ * A CompiledKey is a view of a full path that starts at one of its elements; the view returned by
+ * {@link #shift()} is the same path with the leading element removed. All the views of a path are created when the
+ * path is compiled, so walking through a key does not need to re-parse or allocate anything.
+ * <br>
+ * Compiled keys are cached by their external form, so clients that repeatedly use the same keys will only parse
+ * each of them once.
+ */
+@Immutable
+public final class CompiledKey implements DocumentKey {
+    private static final int CACHE_SIZE = 4096;
+    private static final int RADIX = 10;
+    private static final char INDEX_START = '[';
+    private static final char INDEX_END = ']';
+
+    private static final Map<String, CompiledKey> CACHE = new ConcurrentHashMap<>();
+    private static final Map<DocumentKey, CompiledKey> ENUM_CACHE = new ConcurrentHashMap<>();
+
+    private final String path;                  // External form of the full key
+    private final String[] simple;              // Simple key for each element
+    private final int[] index;                  // Index for each element, or -1
+    private final int[] start;                  // Offset in path to the start of each element
+    private final int[] end;                    // Offset in path to the character after each element
+    private final CompiledKey[] views;          // views[i] is the key that starts at element i
+    private final int level;                    // The element in the path that this key starts at
+
+    private String external;                    // Lazily evaluated external form of this key
+
+
+    private CompiledKey(@Nonnull String path, @Nonnull String[] simple, @Nonnull int[] index, @Nonnull int[] start) {
+        int count = simple.length;
+
+        this.path = path;
+        this.simple = simple;
+        this.index = index;
+        this.start = start;
+        this.end = new int[count];
+        this.views = new CompiledKey[count];
+        this.level = 0;
+        this.external = path;
+
+        for (int i = 0; i < count; i++) {
+            end[i] = (i == count - 1 ? path.length() : start[i + 1] - 1);
+            views[i] = (i == 0 ? this : new CompiledKey(this, i));
+        }
+    }
+
+    private CompiledKey(@Nonnull CompiledKey root, int level) {
+        this.path = root.path;
+        this.simple = root.simple;
+        this.index = root.index;
+        this.start = root.start;
+        this.end = root.end;
+        this.views = root.views;
+        this.level = level;
+        this.external = null;
+    }
+
+
+    /**
+     * Returns a compiled version of the {@code key}. If {@code key} is already compiled then it will be returned
+     * unchanged.
+     * @param key       Key to compile
+     * @return          a compiled version of the {@code key}
+     * @throws DocumentException if the external form of the key is not valid
+     */
+    @Nonnull
+    public static CompiledKey of(@Nonnull DocumentKey key) throws DocumentException {
+        CompiledKey result;
+
+        if (key instanceof CompiledKey compiled) {
+            result = compiled;
+        } else if (key instanceof ConstructedKey constructed) {
+            result = constructed.compiled();
+        } else if (key instanceof Enum<?>) {                // Enum keys always have the same external form
+            result = ENUM_CACHE.get(key);
+
+            if (result == null) {
+                result = of(key.externalise());
+                ENUM_CACHE.put(key, result);
+            }
+        } else {
+            result = of(key.externalise());
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a compiled version of the {@code path}.
+     * @param path      external form of a key
+     * @return          a compiled version of the {@code path}
+     * @throws DocumentException if {@code path} is not a valid {@link #FULL_PATH}
+     */
+    @Nonnull
+    public static CompiledKey of(@Nonnull String path) throws DocumentException {
+        Preconditions.checkNotNull(path, "Null key passed");
+
+        CompiledKey result = CACHE.get(path);
+
+        if (result == null) {
+            result = compile(path);
+
+            if (result == null) {
+                throw new DocumentException("Invalid key '%s'", path);
+            }
+
+            if (CACHE.size() >= CACHE_SIZE) {       // Keys are cheap to recompile, so just start again
+                CACHE.clear();
+            }
+
+            CACHE.put(path, result);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Parse the {@code path} without using the cache
+     * @param path      external form of a key
+     * @return          a compiled version of the {@code path} or {@literal null} if it is not a valid
+     *                  {@link #FULL_PATH}
+     */
+    @Nullable
+    static CompiledKey compile(@Nonnull String path) {
+        int count = elementCount(path);
+        String[] simple = new String[count];
+        int[] index = new int[count];
+        int[] start = new int[count];
+        int position = 0;
+        int element = 0;
+
+        while ((position != -1) && (element < count)) {
+            start[element] = position;
+            position = scanElement(path, position, element, simple, index);
+            element++;
+
+            if ((position != -1) && (element < count)) {
+                position++;                                 // Skip the separator
+            }
+        }
+
+        return (position == path.length() ? new CompiledKey(path, simple, index, start) : null);
+    }
+
+
+    private static int elementCount(@Nonnull String path) {
+        int count = 1;
+
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == SEPARATOR) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Parse a single {@link #ELEMENT} from the {@code path}
+     * @param path          external form of a key
+     * @param position      offset in {@code path} of the first character in the element
+     * @param element       number of the element in the path
+     * @param simple        array that the simple key of the element is written to
+     * @param index         array that the index of the element is written to
+     * @return              offset in {@code path} of the character after the element, or -1 if the element is
+     *                      not valid
+     */
+    private static int scanElement(@Nonnull String path,
+                                   int position,
+                                   int element,
+                                   @Nonnull String[] simple,
+                                   @Nonnull int[] index) {
+        int length = path.length();
+        int next = position;
+        int result;
+
+        if ((next < length) && isKeyStart(path.charAt(next))) {
+            next++;
+
+            while ((next < length) && isKeyPart(path.charAt(next))) {
+                next++;
+            }
+
+            simple[element] = ((position == 0) && (next == length) ? path : path.substring(position, next));
+            index[element] = -1;
+
+            if ((next < length) && (path.charAt(next) == INDEX_START)) {
+                next = scanIndex(path, next, element, index);
+            }
+
+            result = ((next != -1) && (next < length) && (path.charAt(next) != SEPARATOR) ? -1 : next);
+        } else {
+            result = -1;
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Parse a single {@link #INDEX} from the {@code path}
+     * @param path          external form of a key
+     * @param position      offset in {@code path} of the opening bracket of the index
+     * @param element       number of the element in the path
+     * @param index         array that the index of the element is written to
+     * @return              offset in {@code path} of the character after the index, or -1 if the index is
+     *                      not valid
+     */
+    private static int scanIndex(@Nonnull String path, int position, int element, @Nonnull int[] index) {
+        int length = path.length();
+        int next = position + 1;
+        long value = 0;
+
+        while ((next < length) && (value <= Integer.MAX_VALUE) && isDigit(path.charAt(next))) {
+            value = (value * RADIX) + (path.charAt(next) - '0');
+            next++;
+        }
+
+        boolean valid = ((next != position + 1) &&
+                         (value <= Integer.MAX_VALUE) &&
+                         (next < length) &&
+                         (path.charAt(next) == INDEX_END));
+
+        index[element] = (int) value;
+
+        return (valid ? next + 1 : -1);
+    }
+
+
+    private static boolean isKeyStart(char c) {
+        return ((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) || (c == '_') || (c == '$');
+    }
+
+    private static boolean isKeyPart(char c) {
+        return isKeyStart(c) || isDigit(c);
+    }
+
+    private static boolean isDigit(char c) {
+        return ((c >= '0') && (c <= '9'));
+    }
+
+
+    @Nonnull
+    @Override
+    public String externalise() {
+        if (external == null) {                     // Race conditions are not a problem - Strings are immutable
+            external = path.substring(start[level]);
+        }
+
+        return external;
+    }
+
+
+    /**
+     * Returns the full key, including any outer elements that have been removed by {@link #shift()}
+     * @return the full key, including any outer elements that have been removed by {@link #shift()}
+     */
+    @Nonnull
+    public CompiledKey fullKey() {
+        return views[0];
+    }
+
+    /**
+     * Returns the current {@link DocumentKey#ELEMENT} in this path
+     * @return the current {@link DocumentKey#ELEMENT} in this path
+     */
+    @Nonnull
+    public String currentElement() {
+        return (index[level] == -1 ? simple[level] : path.substring(start[level], end[level]));
+    }
+
+    /**
+     * Returns {@literal true} only of there are more {@link DocumentKey#ELEMENT} after the {@link #currentElement()}
+     * @return {@literal true} only of there are more {@link DocumentKey#ELEMENT} after the {@link #currentElement()}
+     */
+    public boolean hasChildren() {
+        return (level < views.length - 1);
+    }
+
+    /**
+     * Returns the {@link DocumentKey#SIMPLE_KEY} of the {@link #currentElement()}
+     * @return the {@link DocumentKey#SIMPLE_KEY} of the {@link #currentElement()}
+     */
+    @Nonnull
+    public String simpleKey() {
+        return simple[level];
+    }
+
+    /**
+     * Returns {@literal true} only if the {@link #currentElement()} is part of a sequence
+     * @return {@literal true} only if the {@link #currentElement()} is part of a sequence
+     */
+    public boolean hasIndex() {
+        return (index[level] != -1);
+    }
+
+    /**
+     * Returns the 0 based {@link DocumentKey#INDEX} of the {@link #currentElement()}, or -1 if there is no index
+     * @return the 0 based {@link DocumentKey#INDEX} of the {@link #currentElement()}, or -1 if there is no index
+     */
+    public int index() {
+        return index[level];
+    }
+
+    /**
+     * Returns the key for the {@link DocumentKey#ELEMENT}s after the {@link #currentElement()}. This key is unchanged
+     * @return the key for the {@link DocumentKey#ELEMENT}s after the {@link #currentElement()}
+     */
+    @Nonnull
+    public CompiledKey shift() {
+        Preconditions.checkState(hasChildren(), "No Child elements");
+
+        return views[level + 1];
+    }
+
+    /**
+     * Returns the full external path from the outermost element to the current element.
+     * @return the full external path from the outermost element to the current element.
+     * @see #currentElement()
+     */
+    @Nonnull
+    public String elementPath() {
+        return path.substring(0, end[level]);
+    }
+
+    /**
+     * Returns the full external path from the outermost element to the {@link DocumentKey#SIMPLE_KEY}.
+     * @return the full external path from the outermost element to the {@link DocumentKey#SIMPLE_KEY}.
+     * @see #simpleKey()
+     */
+    @Nonnull
+    public String simplePath() {
+        return path.substring(0, start[level] + simple[level].length());
+    }
+
+
+    @Override
+    public String toString() {
+        return "CompiledKey{" + externalise() + '}';
+    }
+}
@@ -1,7 +1,5 @@
 package com.github.tymefly.common.document.key;
 
-import java.util.function.Predicate;
-
 import javax.annotation.Nonnull;
 
 import com.github.tymefly.common.document.DocumentException;
@@ -10,8 +8,7 @@ import com.github.tymefly.common.document.DocumentException;
  * Generated Document key with helpful {@link #toString()} implementation
  */
 class ConstructedKey implements DocumentKey {
-    private static final Predicate<String> VALIDATE = FULL_PATH_PATTERN.asMatchPredicate();
-    private final String external;
+    private final CompiledKey compiled;
 
     /**
      * Constructor
@@ -19,23 +16,35 @@ class ConstructedKey implements DocumentKey {
      * @throws DocumentException    if {@code external} is not a valid {@link #FULL_PATH_PATTERN}
      */
     ConstructedKey(@Nonnull String external) throws DocumentException {
-        if (!VALIDATE.test(external)) {
+        CompiledKey compiled = CompiledKey.compile(external);
+
+        if (compiled == null) {
             throw new DocumentException("Malformed key '%s'", external);
         }
 
-        this.external = external;
+        this.compiled = compiled;
     }
 
 
     @Nonnull
     @Override
     public String externalise() {
-        return external;
+        return compiled.externalise();
+    }
+
+
+    /**
+     * Returns the compiled form of this key
+     * @return the compiled form of this key
+     */
+    @Nonnull
+    CompiledKey compiled() {
+        return compiled;
     }
 
 
     @Override
     public String toString() {
-        return "ConstructedKey{" + external + '}';
+        return "ConstructedKey{" + compiled.externalise() + '}';
     }
 }
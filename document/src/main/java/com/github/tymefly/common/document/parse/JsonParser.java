@@ -6,7 +6,6 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import javax.annotation.Nonnull;
@@ -101,8 +100,8 @@ public class JsonParser implements DocumentParser {
         ElementType arrayType = determineType(values);
 
         if (arrayType == ElementType.None) {
-            // Empty array, so create an array of Strings to preserve the structure
-            parent.addStrings(() -> key, Collections.emptyList());
+            // Empty array or only nulls, so create an array of Strings to preserve the structure
+            parent.addStrings(() -> key, asList(String.class, values));
         } else if (arrayType == ElementType.Mixed) {
             parent.addStrings(() -> key, asList(String.class, values));     // Mixed Type, so use strings
         } else if (arrayType == ElementType.String) {
@@ -124,7 +123,7 @@ public class JsonParser implements DocumentParser {
         List<Document> children = new ArrayList<>(values.size());
 
         for (var value : values) {
-            Document child = populate(Document.newInstance(), value.getAsJsonObject());
+            Document child = (value.isJsonNull() ? null : populate(Document.newInstance(), value.getAsJsonObject()));
 
             children.add(child);
         }
@@ -117,6 +117,20 @@ public interface DocumentVisitor<T> {
         return false;
     }
 
+    /**
+     * Returns {@literal true} if the handling Document should not pass the contents of the child Document or
+     * sequence that was just reported by {@link #beginChild(VisitorKey)} or
+     * {@link #beginSequence(VisitorKey, Class, int)} to this visitor. The matching call to
+     * {@link #endChild(VisitorKey)} or {@link #endSequence(VisitorKey)} is still made. This allows visitors that
+     * only need part of a document to run in time proportional to the data they actually read.
+     * This method is called immediately after each call to {@code beginChild} and {@code beginSequence}, and
+     * defaults to return {@literal false}.
+     * @return {@literal true} if the contents of the current child Document or sequence are not required.
+     */
+    default boolean skipContents() {
+        return false;
+    }
+
     /**
      * Returns the data generated by the visitor
      * @return the data generated by the visitor
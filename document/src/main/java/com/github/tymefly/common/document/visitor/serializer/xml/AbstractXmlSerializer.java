@@ -2,6 +2,7 @@ package com.github.tymefly.common.document.visitor.serializer.xml;
 
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.math.BigDecimal;
 
 import javax.annotation.Nonnull;
 import javax.xml.stream.XMLOutputFactory;
@@ -78,7 +79,10 @@ abstract sealed class AbstractXmlSerializer
     @Nonnull
     @Override
     public DocumentVisitor<String> numericValue(@Nonnull VisitorKey key, @Nonnull Number value) {
-        return stringValue(key, value.toString());
+        // Compact documents store Doubles; format them in the same way as the equivalent BigDecimal
+        Number number = (value instanceof Double ? BigDecimal.valueOf(value.doubleValue()) : value);
+
+        return stringValue(key, number.toString());
     }
 
     @Nonnull
@@ -119,4 +119,9 @@ abstract sealed class AbstractKeyVisitor<T>
     public AbstractKeyVisitor<T> endSequence(@Nonnull VisitorKey key) {
         return this;
     }
+
+    @Override
+    public boolean skipContents() {
+        return !reportNested;               // Nothing below a non-recursive child will be reported
+    }
 }
@@ -1,5 +1,7 @@
 package com.github.tymefly.common.document.visitor.util;
 
+import java.util.function.Supplier;
+
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.NotThreadSafe;
 
@@ -14,15 +16,27 @@ import com.github.tymefly.common.document.visitor.VisitorKey;
  */
 @NotThreadSafe
 abstract sealed class AbstractMergeVisitor implements DocumentVisitor<Document> permits Copy, Merge {
-    private final Document result;
+    private final Supplier<Document> children;
+    private Document result;
     private Class<?> type = String.class;
+    private boolean complete = false;
 
     /**
      * Constructor
      * @param results   Generated Document that may contain default values that this visitor can overwrite
      */
     AbstractMergeVisitor(@Nonnull Document results) {
+        this(results, Document::newInstance);
+    }
+
+    /**
+     * Constructor
+     * @param results   Generated Document that may contain default values that this visitor can overwrite
+     * @param children  Supplier of the empty child Documents that are added to the {@code results}
+     */
+    AbstractMergeVisitor(@Nonnull Document results, @Nonnull Supplier<Document> children) {
         this.result = results;
+        this.children = children;
     }
 
     @Nonnull
@@ -80,7 +94,7 @@ abstract sealed class AbstractMergeVisitor implements DocumentVisitor<Document>
     @Nonnull
     @Override
     public DocumentVisitor<Document> beginChild(@Nonnull VisitorKey key) {
-        result.addDocument(key.documentKey(), Document.newInstance());
+        result.addDocument(key.documentKey(), children.get());
 
         return this;
     }
@@ -121,6 +135,21 @@ abstract sealed class AbstractMergeVisitor implements DocumentVisitor<Document>
         return this;
     }
 
+    /**
+     * Replace the generated Document with one that has already been completed, so that the visitor does not need
+     * to read any more data
+     * @param completed     the generated Document
+     */
+    void complete(@Nonnull Document completed) {
+        this.result = completed;
+        this.complete = true;
+    }
+
+    @Override
+    public boolean isComplete() {
+        return complete;
+    }
+
     @Nonnull
     @Override
     public Document process() {
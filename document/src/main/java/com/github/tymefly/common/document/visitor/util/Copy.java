@@ -1,8 +1,14 @@
 package com.github.tymefly.common.document.visitor.util;
 
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import com.github.tymefly.common.document.Document;
+import com.github.tymefly.common.document.ReadableDocument;
+import com.github.tymefly.common.document.visitor.DocumentVisitor;
+import com.github.tymefly.common.document.visitor.VisitorContext;
 
 /**
  * Visitor that will create a deep copy of a Document.
@@ -16,8 +22,41 @@ import com.github.tymefly.common.document.Document;
  */
 @NotThreadSafe
 public non-sealed class Copy extends AbstractMergeVisitor {
+    private final boolean direct;
+
     /** Constructor */
     public Copy() {
         super(Document.newInstance());
+
+        this.direct = true;
+    }
+
+    /**
+     * Constructor for a Copy visitor that copies into an existing {@code target} Document. This allows the client
+     * to choose how the copied values are stored.
+     * @param target    An empty document that the values are copied into
+     * @param children  Supplier of the empty child Documents that values in child Documents are copied into
+     */
+    public Copy(@Nonnull Document target, @Nonnull Supplier<Document> children) {
+        super(target, children);
+
+        this.direct = false;
+    }
+
+
+    /**
+     * If this visitor creates its own target Document then a copy of a standard Document is made directly from
+     * the underlying structure of the source rather than by adding each of the values in turn.
+     * @param context   the visitor context
+     * @return          a fluent interface
+     */
+    @Nonnull
+    @Override
+    public DocumentVisitor<Document> initialise(@Nonnull VisitorContext context) {
+        if (direct && (context.reader() instanceof ReadableDocument source)) {
+            complete(Document.factory().copy(source).build());
+        }
+
+        return this;
     }
 }
@@ -0,0 +1,625 @@
+package com.github.tymefly.common.document.visitor.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import com.github.tymefly.common.document.CommonDocument;
+import com.github.tymefly.common.document.Document;
+import com.github.tymefly.common.document.DocumentException;
+import com.github.tymefly.common.document.DocumentReader;
+import com.github.tymefly.common.document.ReadableDocument;
+import com.github.tymefly.common.document.key.DocumentKey;
+import com.github.tymefly.common.document.key.FlatDocumentKey;
+import com.github.tymefly.common.document.visitor.DocumentVisitor;
+import com.github.tymefly.common.document.visitor.VisitorContext;
+import com.github.tymefly.common.document.visitor.VisitorKey;
+
+/**
+ * A Visitor that calculates the changes that need to be made to a base Document to make it equal to the Document
+ * that accepts this visitor. The changes can be applied to a copy of the base Document with
+ * {@link #apply(Document, ReadableDocument)}:
+ * <pre>{@code
+ * Document delta = current.accept(new Diff(base));
+ * Diff.apply(copyOfBase, delta);
+ * }</pre>
+ * The base Document is walked in step with the Document that accepts this visitor, so the changes are found in
+ * a single pass. The delta is a Document with a single sequence, {@code changes}, of child Documents that are
+ * applied in order. Each change has an {@code op}, which is one of the {@link Operation}s, and the {@code path} of
+ * the value that is changed:
+ * <ul>
+ *  <li>{@link Operation#SET} changes have the new {@code value}, which may be a child Document or a sequence</li>
+ *  <li>{@link Operation#REMOVE} changes have no other fields</li>
+ *  <li>{@link Operation#SPLICE} changes replace {@code delete} elements of a sequence, starting at {@code index},
+ *      with the elements in the {@code insert} sequence</li>
+ * </ul>
+ * As the delta is a standard Document it can be serialized with any of the serializers, and parsed back into a
+ * Document by the matching parser before it is applied. Serializers do not record the type of enumerated values,
+ * so enumerated values in a delta that has been parsed are applied as strings.
+ */
+@NotThreadSafe
+public class Diff implements DocumentVisitor<Document> {
+    /**
+     * The operations that can be applied to a Document by a delta
+     */
+    public enum Operation {
+        /** Add or replace a value */
+        SET,
+
+        /** Remove a value */
+        REMOVE,
+
+        /** Replace a range of elements in a sequence */
+        SPLICE
+    }
+
+
+    /**
+     * Keys in a delta
+     */
+    private enum Field implements FlatDocumentKey {
+        CHANGES,
+        OP,
+        PATH,
+        VALUE,
+        INDEX,
+        DELETE,
+        INSERT
+    }
+
+
+    /**
+     * Tracks the differences between a sequence in the base Document and the elements of the sequence in the
+     * visited Document as they are read, so that the elements that are the same at the start and the end of the
+     * sequences are not included in the delta.
+     */
+    private static final class Splice {
+        private final List<?> base;
+        private final int size;
+        private int index = 0;
+        private int first = -1;                         // First element that differs from the start of the base
+        private int last = -1;                          // Last element that differs from the end of the base
+        private List<Object> inserted;
+
+        private Splice(@Nonnull List<?> base, int size) {
+            this.base = base;
+            this.size = size;
+        }
+
+        private void next(@Nullable Object value) {
+            int aligned = index + base.size() - size;
+
+            if ((first < 0) && ((index >= base.size()) || !Objects.equals(value, base.get(index)))) {
+                first = index;
+                inserted = new ArrayList<>();
+            }
+
+            if (first >= 0) {
+                inserted.add(value);
+            }
+
+            if ((aligned < 0) || !Objects.equals(value, base.get(aligned))) {
+                last = index;
+            }
+
+            index++;
+        }
+
+        private boolean isChanged() {
+            return (first >= 0) || (size != base.size());
+        }
+    }
+
+
+    /**
+     * The location in the base Document that matches the current location in the visited Document
+     */
+    private static final class Frame {
+        private final ReadableDocument document;
+        private final List<?> elements;
+        private final Splice splice;
+        private int matched;
+
+        private Frame(@Nullable ReadableDocument document, @Nullable List<?> elements, @Nullable Splice splice) {
+            this.document = document;
+            this.elements = elements;
+            this.splice = splice;
+            this.matched = 0;
+        }
+    }
+
+
+    /**
+     * A visitor that returns the keys of the fields in a Document, but not the fields in its child Documents
+     */
+    private static final class Fields implements DocumentVisitor<List<String>> {
+        private final List<String> keys = new ArrayList<>();
+        private int level = 0;
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<List<String>> nullValue(@Nonnull VisitorKey key) {
+            return field(key);
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<List<String>> stringValue(@Nonnull VisitorKey key, @Nonnull String value) {
+            return field(key);
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<List<String>> numericValue(@Nonnull VisitorKey key, @Nonnull Number value) {
+            return field(key);
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<List<String>> booleanValue(@Nonnull VisitorKey key, boolean value) {
+            return field(key);
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<List<String>> enumValue(@Nonnull VisitorKey key, @Nonnull Enum<?> value) {
+            return field(key);
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<List<String>> beginChild(@Nonnull VisitorKey key) {
+            field(key);
+            level++;
+
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<List<String>> endChild(@Nonnull VisitorKey key) {
+            level--;
+
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<List<String>> beginSequence(@Nonnull VisitorKey key, @Nonnull Class<?> type, int size) {
+            return field(key);
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<List<String>> endSequence(@Nonnull VisitorKey key) {
+            return this;
+        }
+
+        @Override
+        public boolean skipContents() {
+            return true;
+        }
+
+        @Nonnull
+        @Override
+        public List<String> process() {
+            return keys;
+        }
+
+        @Nonnull
+        private DocumentVisitor<List<String>> field(@Nonnull VisitorKey key) {
+            if ((level == 0) && (key.getIndex() < 0)) {
+                keys.add(key.simpleKey());
+            }
+
+            return this;
+        }
+    }
+
+
+    private static final Object MISSING = new Object();
+
+    private final Deque<Frame> frames;
+    private final List<Document> changes;
+    private DocumentReader source;
+    private int skipped;
+
+    /**
+     * Constructor
+     * @param base      Document that the changes are calculated against
+     */
+    public Diff(@Nonnull ReadableDocument base) {
+        this.frames = new ArrayDeque<>();
+        this.changes = new ArrayList<>();
+        this.skipped = 0;
+
+        frames.push(new Frame(base, null, null));
+    }
+
+
+    /**
+     * Apply the changes in a {@code delta} that has been generated by this visitor to a {@code target} Document.
+     * @param target    Document that is updated in place
+     * @param delta     Changes that are applied to the {@code target}
+     * @return          the {@code target} Document
+     * @throws DocumentException if the {@code delta} is not valid, or does not match the {@code target}
+     */
+    @Nonnull
+    public static Document apply(@Nonnull Document target, @Nonnull ReadableDocument delta) throws DocumentException {
+        for (ReadableDocument change : delta.getAll(Field.CHANGES, ReadableDocument.class)) {
+            Operation operation = change.getOptional(Field.OP, Operation.class);
+            String path = change.getOptional(Field.PATH, String.class);
+            DocumentKey key = () -> path;
+
+            if ((operation == null) || (path == null)) {
+                throw new DocumentException("Invalid change in delta: %s", change);
+            } else if (operation == Operation.SET) {
+                write(target, key, change.getOptional(Field.VALUE, Object.class));
+            } else if (operation == Operation.REMOVE) {
+                target.remove(key);
+            } else {
+                splice(target, key, change);
+            }
+        }
+
+        return target;
+    }
+
+
+    private static void splice(@Nonnull Document target, @Nonnull DocumentKey key, @Nonnull ReadableDocument change) {
+        List<Object> values = new ArrayList<>(target.getAll(key, Object.class));
+        int index = change.getInt(Field.INDEX, -1);
+        int delete = change.getInt(Field.DELETE, -1);
+
+        if ((index < 0) || (delete < 0) || (index + delete > values.size())) {
+            throw new DocumentException("Can not splice %d elements at %d of '%s'", delete, index, key.externalise());
+        }
+
+        values.subList(index, index + delete).clear();
+        values.addAll(index, change.getAll(Field.INSERT, Object.class));
+
+        writeAll(target, key, values);
+    }
+
+
+    /**
+     * Write any value that can be read from a Document
+     */
+    private static void write(@Nonnull Document target, @Nonnull DocumentKey key, @Nullable Object value) {
+        if (value == null) {
+            target.addString(key, null);
+        } else if (value instanceof String text) {
+            target.addString(key, text);
+        } else if (value instanceof Number number) {
+            target.addNumber(key, number);
+        } else if (value instanceof Boolean flag) {
+            target.addBoolean(key, flag);
+        } else if (value instanceof Enum<?> constant) {
+            target.addEnum(key, constant);
+        } else if (value instanceof CommonDocument child) {
+            target.addDocument(key, child);
+        } else if (value instanceof List<?> values) {
+            writeAll(target, key, values);
+        } else {
+            throw new DocumentException("Unexpected %s at '%s'", value.getClass().getSimpleName(), key.externalise());
+        }
+    }
+
+
+    /**
+     * Write a sequence. The type of the sequence is taken from its elements; if the elements do not all have the
+     * same type then they are written as strings. A sequence can not hold both child Documents and other values.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void writeAll(@Nonnull Document target, @Nonnull DocumentKey key, @Nonnull List<?> values)
+            throws DocumentException {
+        Class<?> type = typeOf(key, values);
+
+        if (type == Number.class) {
+            target.addNumbers(key, (Collection<Number>) values);
+        } else if (type == Boolean.class) {
+            target.addBooleans(key, (Collection<Boolean>) values);
+        } else if (type == CommonDocument.class) {
+            target.addDocuments(key, (Collection<? extends CommonDocument>) values);
+        } else if (type.isEnum()) {
+            target.addEnums(key, (Collection) values);
+        } else {
+            List<String> text = new ArrayList<>(values.size());
+
+            for (Object value : values) {
+                text.add(value == null ? null : value.toString());
+            }
+
+            target.addStrings(key, text);
+        }
+    }
+
+
+    @Nonnull
+    private static Class<?> typeOf(@Nonnull DocumentKey key, @Nonnull List<?> values) throws DocumentException {
+        Class<?> type = null;
+        boolean mixed = false;
+
+        for (Object value : values) {
+            Class<?> kind;
+
+            if (value == null) {
+                kind = type;
+            } else if (value instanceof Number) {
+                kind = Number.class;
+            } else if (value instanceof Boolean) {
+                kind = Boolean.class;
+            } else if (value instanceof CommonDocument) {
+                kind = CommonDocument.class;
+            } else if (value instanceof Enum<?> constant) {
+                kind = constant.getDeclaringClass();
+            } else {
+                kind = String.class;
+            }
+
+            boolean differs = (type != null) && (kind != type);
+
+            if (differs && ((type == CommonDocument.class) || (kind == CommonDocument.class))) {
+                throw new DocumentException("Can not mix Documents and values in the sequence '%s'", key.externalise());
+            }
+
+            mixed |= differs;
+            type = (type == null ? kind : type);
+        }
+
+        return (mixed || (type == null) ? String.class : type);
+    }
+
+
+    /**
+     * Returns {@literal true} only if the base {@code elements} can be spliced into a sequence of child Documents
+     */
+    private static boolean isDocuments(@Nonnull List<?> elements) {
+        return elements.stream().allMatch(element -> (element == null) || (element instanceof ReadableDocument));
+    }
+
+
+    @Nonnull
+    @Override
+    public DocumentVisitor<Document> initialise(@Nonnull VisitorContext context) {
+        source = context.reader();
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public DocumentVisitor<Document> nullValue(@Nonnull VisitorKey key) {
+        return value(key, null);
+    }
+
+    @Nonnull
+    @Override
+    public DocumentVisitor<Document> stringValue(@Nonnull VisitorKey key, @Nonnull String value) {
+        return value(key, value);
+    }
+
+    @Nonnull
+    @Override
+    public DocumentVisitor<Document> numericValue(@Nonnull VisitorKey key, @Nonnull Number value) {
+        return value(key, value);
+    }
+
+    @Nonnull
+    @Override
+    public DocumentVisitor<Document> booleanValue(@Nonnull VisitorKey key, boolean value) {
+        return value(key, value);
+    }
+
+    @Nonnull
+    @Override
+    public DocumentVisitor<Document> enumValue(@Nonnull VisitorKey key, @Nonnull Enum<?> value) {
+        return value(key, value);
+    }
+
+    @Nonnull
+    @Override
+    public DocumentVisitor<Document> beginChild(@Nonnull VisitorKey key) {
+        if (skipped != 0) {
+            skipped++;
+        } else if (match(key) instanceof ReadableDocument base) {
+            frames.push(new Frame(base, null, null));
+        } else {
+            replace(key, source.getOptional(key.documentKey(), Object.class));
+            skipped = 1;
+        }
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public DocumentVisitor<Document> endChild(@Nonnull VisitorKey key) {
+        if (skipped != 0) {
+            skipped--;
+        } else {
+            ReadableDocument current = source.getOptional(key.documentKey(), ReadableDocument.class);
+
+            removed(frames.pop(), key.fullPath() + DocumentKey.SEPARATOR, current);
+        }
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public DocumentVisitor<Document> beginSequence(@Nonnull VisitorKey key, @Nonnull Class<?> type, int size) {
+        Object base = (skipped == 0 ? match(key) : MISSING);
+
+        if (skipped != 0) {
+            skipped++;
+        } else if (!(base instanceof List<?> elements)) {
+            set(key.fullPath(), source.getOptional(key.documentKey(), Object.class));
+            skipped = 1;
+        } else if ((type == CommonDocument.class) && !isDocuments(elements)) {
+            set(key.fullPath(), source.getOptional(key.documentKey(), Object.class));
+            skipped = 1;
+        } else if (type != CommonDocument.class) {
+            frames.push(new Frame(null, null, new Splice(elements, size)));
+        } else if (size == elements.size()) {
+            frames.push(new Frame(null, elements, null));               // Compare the child Documents in turn
+        } else {
+            Splice splice = new Splice(elements, size);
+
+            for (Object element : source.getAll(key.documentKey(), Object.class)) {
+                splice.next(element);
+            }
+
+            splice(key.fullPath(), splice);
+            skipped = 1;
+        }
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public DocumentVisitor<Document> endSequence(@Nonnull VisitorKey key) {
+        if (skipped != 0) {
+            skipped--;
+        } else {
+            Frame frame = frames.pop();
+
+            if (frame.splice != null) {
+                splice(key.fullPath(), frame.splice);
+            }
+        }
+
+        return this;
+    }
+
+    @Override
+    public boolean skipContents() {
+        return (skipped != 0);
+    }
+
+    @Nonnull
+    @Override
+    public Document process() {
+        removed(frames.pop(), "", source);
+
+        return Document.newInstance()
+            .addDocuments(Field.CHANGES, changes);
+    }
+
+
+    @Nonnull
+    private DocumentVisitor<Document> value(@Nonnull VisitorKey key, @Nullable Object value) {
+        if (skipped == 0) {
+            Frame frame = frames.peek();
+
+            if (frame.splice != null) {
+                frame.splice.next(value);
+            } else {
+                Object base = match(key);
+
+                if ((base == MISSING) || !Objects.equals(value, base)) {
+                    replace(key, value);
+                }
+            }
+        }
+
+        return this;
+    }
+
+
+    /**
+     * Returns the value in the base Document that matches the {@code key}.
+     * @param key       Key of a value in the visited Document
+     * @return the matching value, which may be {@literal null}, or {@link #MISSING} if there is no matching value
+     */
+    @Nullable
+    private Object match(@Nonnull VisitorKey key) {
+        Frame frame = frames.peek();
+        Object base;
+
+        if (frame.elements != null) {
+            base = frame.elements.get(key.getIndex());
+        } else if (frame.document.contains(key::simpleKey)) {
+            frame.matched++;
+            base = frame.document.getOptional(key::simpleKey, Object.class);
+        } else {
+            base = MISSING;
+        }
+
+        return base;
+    }
+
+
+    /**
+     * Replace a value in the base Document. If the value is an element in a sequence then the element is replaced
+     */
+    private void replace(@Nonnull VisitorKey key, @Nullable Object value) {
+        int index = key.getIndex();
+
+        if (index < 0) {
+            set(key.fullPath(), value);
+        } else {
+            Document change = add(Operation.SPLICE, key.simpleKeyPath())
+                .addNumber(Field.INDEX, index)
+                .addNumber(Field.DELETE, 1);
+
+            writeAll(change, Field.INSERT, Collections.singletonList(value));
+        }
+    }
+
+
+    /**
+     * Record the fields in the base Document that are not in the {@code current} Document as removed
+     */
+    private void removed(@Nonnull Frame frame, @Nonnull String prefix, @Nonnull DocumentReader current) {
+        if (frame.matched != frame.document.size()) {
+            for (String key : frame.document.accept(new Fields())) {
+                if (!current.contains(() -> key)) {
+                    add(Operation.REMOVE, prefix + key);
+                }
+            }
+        }
+    }
+
+
+    private void set(@Nonnull String path, @Nullable Object value) {
+        write(add(Operation.SET, path), Field.VALUE, value);
+    }
+
+
+    private void splice(@Nonnull String path, @Nonnull Splice splice) {
+        if (splice.isChanged()) {
+            int size = splice.size;
+            int prefix = (splice.first < 0 ? size : splice.first);
+            int suffix = Math.min(size - 1 - splice.last, Math.min(size, splice.base.size()) - prefix);
+            List<?> insert = (splice.inserted == null ? List.of() : splice.inserted.subList(0, size - suffix - prefix));
+
+            Document change = add(Operation.SPLICE, path)
+                .addNumber(Field.INDEX, prefix)
+                .addNumber(Field.DELETE, splice.base.size() - prefix - suffix);
+
+            writeAll(change, Field.INSERT, insert);
+        }
+    }
+
+
+    @Nonnull
+    private Document add(@Nonnull Operation operation, @Nonnull String path) {
+        Document change = Document.newInstance()
+            .addEnum(Field.OP, operation)
+            .addString(Field.PATH, path);
+
+        changes.add(change);
+
+        return change;
+    }
+}
@@ -1,6 +1,10 @@
 package com.github.tymefly.common.document.visitor.util;
 
 import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -10,91 +14,236 @@ import com.github.tymefly.common.base.annotation.VisibleForTesting;
 import com.github.tymefly.common.base.utils.BigDecimals;
 import com.github.tymefly.common.base.utils.Convert;
 import com.github.tymefly.common.base.utils.Enums;
+import com.github.tymefly.common.document.Document;
 import com.github.tymefly.common.document.ReadableDocument;
 import com.github.tymefly.common.document.visitor.DocumentVisitor;
 import com.github.tymefly.common.document.visitor.VisitorKey;
 
 /**
- * A Visitor that compare two Documents to see if contain the same data after type conversion have been handled
+ * A Visitor that compare two Documents to see if contain the same data after type conversion have been handled.
+ * <br>
+ * The other Document is walked in step with the Document that accepts this visitor. Each value is read from the
+ * matching child Document or sequence in the other Document by its simple key or index. The fields of the other
+ * Document that are matched are counted, so when each child Document ends any extra fields in the other Document
+ * are found without walking it again. As only values are compared, a field that holds an empty sequence or an
+ * empty child Document is the same as a missing field; the contents of extra fields are only read to check they
+ * are empty. The cost of the comparison is therefore linear in the size of the Documents, and it stops at the
+ * end of the first child Document that differs.
  */
 @NotThreadSafe
 public class Equivalent implements DocumentVisitor<Boolean> {
-    private final ReadableDocument other;
+    /**
+     * The location in the other Document that matches the current location in the visited Document
+     */
+    private static final class Frame {
+        private final ReadableDocument document;
+        private final List<?> sequence;
+        private int matched;                // Fields in the other Document that are also in the visited Document
+        private int fields;                 // Fields in the visited Document that hold at least one value
+        private int values;                 // Values in the visited Document, including those in child Documents
+
+        private Frame(@Nullable ReadableDocument document, @Nullable List<?> sequence) {
+            this.document = document;
+            this.sequence = sequence;
+            this.matched = 0;
+            this.fields = 0;
+            this.values = 0;
+        }
+    }
+
+
+    /**
+     * A visitor that returns the number of fields in a Document that hold at least one value
+     */
+    private static final class Fields implements DocumentVisitor<Integer> {
+        private int fields = 0;
+        private int level = 0;
+        private boolean found = false;
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<Integer> nullValue(@Nonnull VisitorKey key) {
+            return value();
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<Integer> stringValue(@Nonnull VisitorKey key, @Nonnull String value) {
+            return value();
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<Integer> numericValue(@Nonnull VisitorKey key, @Nonnull Number value) {
+            return value();
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<Integer> booleanValue(@Nonnull VisitorKey key, boolean value) {
+            return value();
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<Integer> enumValue(@Nonnull VisitorKey key, @Nonnull Enum<?> value) {
+            return value();
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<Integer> beginChild(@Nonnull VisitorKey key) {
+            return begin();
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<Integer> endChild(@Nonnull VisitorKey key) {
+            return end();
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<Integer> beginSequence(@Nonnull VisitorKey key, @Nonnull Class<?> type, int size) {
+            return begin();
+        }
+
+        @Nonnull
+        @Override
+        public DocumentVisitor<Integer> endSequence(@Nonnull VisitorKey key) {
+            return end();
+        }
+
+        @Override
+        public boolean skipContents() {
+            return found;                   // The rest of the field does not need to be read
+        }
+
+        @Nonnull
+        @Override
+        public Integer process() {
+            return fields;
+        }
+
+        @Nonnull
+        private DocumentVisitor<Integer> value() {
+            if (level == 0) {
+                fields++;
+            } else {
+                found = true;
+            }
+
+            return this;
+        }
+
+        @Nonnull
+        private DocumentVisitor<Integer> begin() {
+            found &= (level != 0);
+            level++;
+
+            return this;
+        }
+
+        @Nonnull
+        private DocumentVisitor<Integer> end() {
+            level--;
+
+            if ((level == 0) && found) {
+                fields++;
+            }
+
+            return this;
+        }
+    }
+
+
+    private static final Object MISSING = new Object();
+
+    private final Deque<Frame> frames;
     private boolean equivalent = true;
-    private int size = 0;
 
     /**
      * Constructor
      * @param other     Document that needs to be compared with the one that accepts this visitor
      */
     public Equivalent(@Nonnull ReadableDocument other) {
-        this.other = other;
+        this.frames = new ArrayDeque<>();
+
+        frames.push(new Frame(other, null));
     }
 
 
     @Nonnull
     @Override
     public DocumentVisitor<Boolean> nullValue(@Nonnull VisitorKey key) {
-        equivalent = check(key, null);
-        size++;
-
-        return this;
+        return value(key, null);
     }
 
     @Nonnull
     @Override
     public DocumentVisitor<Boolean> stringValue(@Nonnull VisitorKey key, @Nonnull String value) {
-        equivalent = check(key, value);
-        size++;
-
-        return this;
+        return value(key, value);
     }
 
     @Nonnull
     @Override
     public DocumentVisitor<Boolean> numericValue(@Nonnull VisitorKey key, @Nonnull Number value) {
-        equivalent = check(key, value);
-        size++;
-
-        return this;
+        return value(key, value);
     }
 
     @Nonnull
     @Override
     public DocumentVisitor<Boolean> booleanValue(@Nonnull VisitorKey key, boolean value) {
-        equivalent = check(key, value);
-        size++;
-
-        return this;
+        return value(key, value);
     }
 
     @Nonnull
     @Override
     public DocumentVisitor<Boolean> enumValue(@Nonnull VisitorKey key, @Nonnull Enum<?> value) {
-        equivalent = check(key, value);
-        size++;
-
-        return this;
+        return value(key, value);
     }
 
     @Nonnull
     @Override
     public DocumentVisitor<Boolean> beginChild(@Nonnull VisitorKey key) {
+        Object right = match(key);
+
+        if (right instanceof ReadableDocument child) {
+            frames.push(new Frame(child, null));
+        } else {
+            equivalent = equivalent && isEmpty(right);          // The visited child must also be empty
+            frames.push(new Frame(Document.empty(), null));
+        }
+
         return this;
     }
 
     @Nonnull
     @Override
     public DocumentVisitor<Boolean> endChild(@Nonnull VisitorKey key) {
+        Frame frame = end();
+
+        equivalent = equivalent && isComplete(frame);
+
         return this;
     }
 
     @Nonnull
     @Override
     public DocumentVisitor<Boolean> beginSequence(@Nonnull VisitorKey key, @Nonnull Class<?> type, int size) {
-        int otherSize = other.getAll(key.documentKey(), Object.class).size();
+        Object right = match(key);
+        List<?> sequence;
+
+        if (right instanceof List<?> list) {
+            sequence = list;
+        } else if (right == MISSING) {
+            sequence = List.of();
+        } else {
+            sequence = Collections.singletonList(right);        // A single value is a sequence of one element
+        }
 
-        equivalent = (size == otherSize);
+        equivalent = equivalent && (size == sequence.size());
+        frames.push(new Frame(null, sequence));
 
         return this;
     }
@@ -102,6 +251,8 @@ public class Equivalent implements DocumentVisitor<Boolean> {
     @Nonnull
     @Override
     public DocumentVisitor<Boolean> endSequence(@Nonnull VisitorKey key) {
+        end();
+
         return this;
     }
 
@@ -113,16 +264,110 @@ public class Equivalent implements DocumentVisitor<Boolean> {
     @Nonnull
     @Override
     public Boolean process() {
-        equivalent = equivalent && (other.accept(new Size()) == size);
+        equivalent = equivalent && isComplete(frames.peek());
 
         return equivalent;
     }
 
 
+    @Nonnull
+    private DocumentVisitor<Boolean> value(@Nonnull VisitorKey key, @Nullable Object value) {
+        Frame frame = frames.peek();
+
+        equivalent = equivalent && check(key, value);
+        frame.values++;
+
+        if (frame.document != null) {
+            frame.fields++;
+        }
+
+        return this;
+    }
+
+
+    /**
+     * Ends the current child Document or sequence, and records it as a field of the enclosing Document if it held
+     * at least one value
+     * @return the frame for the child Document or sequence
+     */
+    @Nonnull
+    private Frame end() {
+        Frame frame = frames.pop();
+        Frame parent = frames.peek();
+
+        parent.values += frame.values;
+
+        if ((parent.document != null) && (frame.values != 0)) {
+            parent.fields++;
+        }
+
+        return frame;
+    }
+
+
+    /**
+     * Returns the value in the other Document that matches the {@code key}. Matched fields in a child Document are
+     * counted, so that {@link #isComplete(Frame)} can check for extra fields without reading them.
+     * @param key       Key of a value in the visited Document
+     * @return the matching value, which may be {@literal null}, or {@link #MISSING} if there is no matching value
+     */
+    @Nullable
+    private Object match(@Nonnull VisitorKey key) {
+        Frame frame = frames.peek();
+        int index = key.getIndex();
+        Object right;
+
+        if (frame.document != null) {
+            if (frame.document.contains(key::simpleKey)) {
+                frame.matched++;
+                right = frame.document.getOptional(key::simpleKey, Object.class);
+            } else {
+                right = MISSING;
+            }
+        } else if (index < frame.sequence.size()) {
+            right = frame.sequence.get(index);
+        } else {
+            right = MISSING;
+        }
+
+        return right;
+    }
+
+
+    /**
+     * Returns {@literal true} only if the other Document has no fields that hold values which are not in the
+     * visited Document. Every field in the other Document that was matched has already been compared, so the
+     * other fields only need to be read if there are any.
+     */
+    private boolean isComplete(@Nonnull Frame frame) {
+        return (frame.matched == frame.document.size()) || (frame.fields == frame.document.accept(new Fields()));
+    }
+
+
+    /**
+     * Returns {@literal true} only if {@code value}, which is read from the other Document, holds no values
+     */
+    private boolean isEmpty(@Nullable Object value) {
+        boolean empty;
+
+        if (value == MISSING) {
+            empty = true;
+        } else if (value instanceof ReadableDocument document) {
+            empty = (document.accept(new Fields()) == 0);
+        } else if (value instanceof List<?> list) {
+            empty = list.stream().allMatch(element -> (element instanceof ReadableDocument) && isEmpty(element));
+        } else {
+            empty = false;
+        }
+
+        return empty;
+    }
+
+
     private boolean check(@Nonnull VisitorKey key, @Nullable Object left) {
-        Object right = other.getOptional(key.documentKey(), Object.class);
+        Object right = match(key);
 
-        return check(left, right);
+        return (right != MISSING) && check(left, right);
     }
 
 
@@ -134,8 +379,9 @@ public class Equivalent implements DocumentVisitor<Boolean> {
             same = (right == null);
         } else if (right == null) {
             same = false;
-        } else if ((left instanceof BigDecimal leftValue) && (right instanceof BigDecimal rightValue)) {
-            same = (leftValue.compareTo(rightValue) == 0);
+        } else if ((left instanceof Number leftValue) && (right instanceof Number rightValue)) {
+            // Compact Documents may store the same value as a BigDecimal, a Long or a Double
+            same = BigDecimals.eq(BigDecimals.toBigDecimal(leftValue), BigDecimals.toBigDecimal(rightValue));
         } else if (left.getClass() == right.getClass()) {
             same = left.equals(right);
         } else if ((left instanceof Number) && (right instanceof String)) {
@@ -158,11 +404,6 @@ public class Equivalent implements DocumentVisitor<Boolean> {
             same = check(((boolean) left ? 1 : 0), right);
         } else if ((left instanceof Number) && (right instanceof Boolean)) {
             same = check(left, ((boolean) right ? 1: 0));
-        } else if ((left instanceof Number) && (right instanceof Number)) {     // Should not happen
-            BigDecimal leftValue = BigDecimals.toBigDecimal((Number) left);
-            BigDecimal rightValue = BigDecimals.toBigDecimal((Number) right);
-
-            same = check(leftValue, rightValue);
         } else {
             same = false;
         }
@@ -178,16 +419,8 @@ public class Equivalent implements DocumentVisitor<Boolean> {
     }
 
     private boolean check(@Nonnull Number left, @Nonnull String right) {
-        boolean same;
-
-        try {
-            BigDecimal rightValue = new BigDecimal(right.trim());
-
-            same = check(left, rightValue);
-        } catch (NumberFormatException e) {
-            same = false;
-        }
+        BigDecimal rightValue = Convert.safeTo(right, BigDecimal.class);
 
-        return same;
+        return (rightValue != null) && check(left, rightValue);
     }
 }
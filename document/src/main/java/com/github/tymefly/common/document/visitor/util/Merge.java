@@ -3,6 +3,7 @@ package com.github.tymefly.common.document.visitor.util;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.NotThreadSafe;
 
+import com.github.tymefly.common.document.Document;
 import com.github.tymefly.common.document.ReadableDocument;
 
 /**
@@ -22,6 +23,6 @@ public non-sealed class Merge extends AbstractMergeVisitor {
      * @param other     Other document to merge
      */
     public Merge(@Nonnull ReadableDocument other) {
-        super(other.accept(new Copy()));
+        super(Document.factory().copy(other).build());
     }
 }
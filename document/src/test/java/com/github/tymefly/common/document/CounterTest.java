@@ -0,0 +1,80 @@
+package com.github.tymefly.common.document;
+
+import java.math.BigDecimal;
+import java.util.stream.IntStream;
+
+import com.github.tymefly.common.base.utils.BigDecimals;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link Counter}
+ */
+public class CounterTest {
+    /**
+     * Unit test {@link Counter#increment(long)}
+     */
+    @Test
+    public void test_increment() {
+        Counter counter = new Counter(BigDecimals::toCompact);
+
+        IntStream.rangeClosed(1, 10_000)
+            .parallel()
+            .forEach(i -> counter.increment(2));
+
+        Assert.assertEquals("Unexpected value", 20_000L, counter.value());
+        Assert.assertEquals("Unexpected String", "20000", counter.toString());
+    }
+
+
+    /**
+     * Unit test {@link Counter#add(double)} and {@link Counter#add(Number)}
+     */
+    @Test
+    public void test_add() {
+        Counter counter = new Counter(BigDecimals::toBigDecimal);
+
+        counter.add(BigDecimal.TEN);
+        Assert.assertEquals("Whole numbers are exact", BigDecimal.valueOf(10), counter.value());
+
+        counter.add(0.5);
+        counter.add(new BigDecimal("1.25"));
+        Assert.assertEquals("Unexpected value", new BigDecimal("11.75"), counter.value());
+    }
+
+
+    /**
+     * Unit test {@link Counter#copy()}
+     */
+    @Test
+    public void test_copy() {
+        Counter counter = new Counter(BigDecimals::toCompact);
+
+        counter.increment(3);
+        counter.add(0.5);
+
+        Counter copy = counter.copy();
+        Counter converted = counter.copy(BigDecimals::toBigDecimal);
+
+        copy.increment(1);
+
+        Assert.assertEquals("Original was updated", 3.5, counter.value());
+        Assert.assertEquals("Unexpected copy", 4.5, copy.value());
+        Assert.assertEquals("Unexpected conversion", new BigDecimal("3.5"), converted.value());
+    }
+
+
+    /**
+     * Unit test {@link Counter#valueOf(Object)}
+     */
+    @Test
+    public void test_valueOf() {
+        Counter counter = new Counter(BigDecimals::toCompact);
+
+        counter.increment(7);
+
+        Assert.assertEquals("Counter", 7L, Counter.valueOf(counter));
+        Assert.assertEquals("Other value", "text", Counter.valueOf("text"));
+        Assert.assertNull("null", Counter.valueOf(null));
+    }
+}
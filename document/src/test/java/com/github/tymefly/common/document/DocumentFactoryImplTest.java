@@ -2,6 +2,7 @@ package com.github.tymefly.common.document;
 
 import java.io.File;
 import java.io.InputStream;
+import java.math.BigDecimal;
 import java.net.URL;
 import java.util.Arrays;
 import java.util.List;
@@ -17,6 +18,7 @@ import com.github.tymefly.common.document.key.DocumentKey;
 import com.github.tymefly.common.document.parse.DocumentParser;
 import com.github.tymefly.common.document.parse.JsonParser;
 import com.github.tymefly.common.document.parse.PropertiesParser;
+import com.github.tymefly.common.document.visitor.util.Equivalent;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -139,6 +141,68 @@ public class DocumentFactoryImplTest {
     }
 
 
+    /**
+     * Unit test {@link DocumentFactoryImpl#withConcurrency()}
+     */
+    @Test
+    public void test_withConcurrency() {
+        Document doc = DocumentFactoryImpl.create()
+                .withConcurrency()
+                .build()
+                .addString(() -> "child.value", "Hello");
+
+        Assert.assertEquals("Unexpected type returned", "ConcurrentDocument", doc.getClass().getSimpleName());
+        Assert.assertEquals("Unexpected child type",
+                            "ConcurrentDocument",
+                            doc.get(() -> "child", Document.class).getClass().getSimpleName());
+    }
+
+
+    /**
+     * Unit test {@link DocumentFactoryImpl#compactNumbers()}
+     */
+    @Test
+    public void test_compactNumbers() {
+        Document compact = DocumentFactoryImpl.create()
+                .compactNumbers()
+                .parse("{ \"int\" : 12, \"double\" : 2.5, \"precise\" : 2.50 }", new JsonParser())
+                .addNumber(() -> "child.value", 3)
+                .addNumbers(() -> "list", 1.5f, 2.25)
+                .addNumber(() -> "large", 1e20)
+                .addNumber(() -> "small", 1e-10)
+                .build();
+        Document standard = DocumentFactoryImpl.create()
+                .parse(compact.toString(), new JsonParser())
+                .build();
+
+        Assert.assertEquals("int", 12L, compact.get(() -> "int", Number.class));
+        Assert.assertEquals("double", 2.5, compact.get(() -> "double", Number.class));
+        Assert.assertEquals("precise", new BigDecimal("2.50"), compact.get(() -> "precise", Number.class));
+        Assert.assertEquals("child", 3L, compact.get(() -> "child.value", Number.class));
+        Assert.assertEquals("list", List.of(1.5, 2.25), compact.getAll(() -> "list", Number.class));
+        Assert.assertEquals("Convert", new BigDecimal("12"), compact.get(() -> "int", BigDecimal.class));
+        Assert.assertEquals("large", "100000000000000000000", compact.get(() -> "large", String.class));
+        Assert.assertEquals("small", "0.00000000010", compact.get(() -> "small", String.class));
+        Assert.assertEquals("large standard",
+                standard.get(() -> "large", String.class),
+                compact.get(() -> "large", String.class));
+
+        compact.addNumber(() -> "child.other", 4);
+        Assert.assertEquals("new child", 4L, compact.get(() -> "child.other", Number.class));
+
+        Document clone = (Document) compact.clone();
+        clone.addNumber(() -> "new.value", 5);
+
+        Assert.assertEquals("clone", 5L, clone.get(() -> "new.value", Number.class));
+        Assert.assertEquals("clone content", compact, clone.remove(() -> "new"));
+
+        compact.remove(() -> "child.other");
+        Assert.assertEquals("Serialized", standard.toString(), compact.toString());
+        Assert.assertTrue("Equivalent", compact.accept(new Equivalent(standard)));
+        Assert.assertNotEquals("Standard", standard.get(() -> "int", Number.class), 12L);
+    }
+
+
     /**
      * Unit test {@link DocumentFactoryImpl#copy(ReadableDocument)}
      */
@@ -160,6 +224,35 @@ public class DocumentFactoryImplTest {
     }
 
 
+    /**
+     * Unit test {@link DocumentFactoryImpl#copy(ReadableDocument)} when the numbers are stored differently
+     */
+    @Test
+    public void test_copy_CompactNumbers() {
+        Document source = DocumentFactoryImpl.create()
+                .compactNumbers()
+                .addNumber(() -> "value", 12)
+                .addNumbers(() -> "child.list", 1, 2.5)
+                .addStrings(() -> "child.strings", "a", "b")
+                .build();
+        Document target = DocumentFactoryImpl.create()
+                .copy(source)
+                .build();
+
+        Assert.assertEquals("value", new BigDecimal("12"), target.get(() -> "value", Number.class));
+        Assert.assertEquals("list", List.of(new BigDecimal("1"), new BigDecimal("2.5")),
+                target.getAll(() -> "child.list", Number.class));
+        Assert.assertTrue("Equivalent", target.accept(new Equivalent(source)));
+
+        target.appendString(() -> "child.strings", "c");
+        target.addNumber(() -> "child.other", 3);
+
+        Assert.assertEquals("source strings updated", 2, source.getAll(() -> "child.strings", String.class).size());
+        Assert.assertFalse("source child updated", source.contains(() -> "child.other"));
+        Assert.assertEquals("new number", new BigDecimal("3"), target.get(() -> "child.other", Number.class));
+    }
+
+
     /**
      * Unit test {@link DocumentFactoryImpl#load(InputStream, DocumentParser)}
      */
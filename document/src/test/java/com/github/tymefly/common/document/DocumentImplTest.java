@@ -1,9 +1,13 @@
 package com.github.tymefly.common.document;
 
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -15,10 +19,13 @@ import javax.annotation.Nullable;
 import com.github.tymefly.common.document.decorator.NullFilterDocument;
 import com.github.tymefly.common.document.decorator.SynchronizedDocument;
 import com.github.tymefly.common.document.decorator.UnmodifiableDocument;
+import com.github.tymefly.common.document.key.CompiledKey;
 import com.github.tymefly.common.document.key.DocumentKey;
 import com.github.tymefly.common.document.key.LayeredDocumentKey;
 import com.github.tymefly.common.document.visitor.util.PathSet;
+import com.sun.management.ThreadMXBean;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
 /**
@@ -122,6 +129,74 @@ public class DocumentImplTest {
     }
 
 
+    /**
+     * Unit test {@link DocumentImpl#snapshot()}
+     */
+    @Test
+    public void test_snapshot() {
+        Document source = Document.newInstance()
+            .addString(() -> "child.value", "before")
+            .increment(() -> "child.count", 1)
+            .addNumbers(() -> "values", 1, 2);
+        ReadableDocument snapshot = source.snapshot();
+
+        source.addString(() -> "child.value", "after")
+            .increment(() -> "child.count", 1)
+            .appendNumber(() -> "values", 3)
+            .addString(() -> "other", "new");
+
+        Assert.assertFalse("Snapshot can be mutated", snapshot.canMutate());
+        Assert.assertEquals("Unexpected snapshot",
+                            "{\"child\":{\"value\":\"before\",\"count\":1},\"values\":[1,2]}",
+                            snapshot.toString());
+        Assert.assertEquals("Unexpected source",
+                            "{\"child\":{\"value\":\"after\",\"count\":2},\"values\":[1,2,3],\"other\":\"new\"}",
+                            source.toString());
+        Assert.assertThrows(UnsupportedOperationException.class,
+                            () -> ((Document) snapshot).addString(() -> "child.value", "mutate"));
+    }
+
+
+    /**
+     * Unit test a {@link DocumentImpl#snapshot()} that is kept while the source is repeatedly updated and cloned
+     * does not retain the data that the source held after the snapshot was taken
+     */
+    @Test
+    public void test_snapshot_Retention() {
+        Document source = Document.newInstance()
+            .addString(() -> "value", "initial")
+            .addString(() -> "child.value", "initial");
+        ReadableDocument snapshot = source.snapshot();
+        List<WeakReference<String>> replaced = new ArrayList<>();
+
+        for (int cycle = 0; cycle < 1_000; cycle++) {
+            String value = new String("value " + cycle);           // A distinct object that can be collected
+            String child = new String("child " + cycle);
+
+            source.clone();
+            source.addString(() -> "value", value)
+                .addString(() -> "child.value", child);
+
+            replaced.add(new WeakReference<>(value));
+            replaced.add(new WeakReference<>(child));
+        }
+
+        source.addString(() -> "value", "final")
+            .addString(() -> "child.value", "final");
+
+        for (int attempt = 0; (attempt < 10) && replaced.stream().anyMatch(r -> r.get() != null); attempt++) {
+            System.gc();
+        }
+
+        Assert.assertEquals("Replaced values were retained",
+                            0,
+                            replaced.stream().filter(r -> r.get() != null).count());
+        Assert.assertEquals("Unexpected snapshot",
+                            "{\"value\":\"initial\",\"child\":{\"value\":\"initial\"}}",
+                            snapshot.toString());
+    }
+
+
     /**
      * Unit test {@link DocumentImpl#empty()}
      */
@@ -359,6 +434,43 @@ public class DocumentImplTest {
     }
 
 
+    /**
+     * Unit test {@link DocumentImpl#getLong(DocumentKey, long)}, {@link DocumentImpl#getInt(DocumentKey, int)},
+     * {@link DocumentImpl#getDouble(DocumentKey, double)} and {@link DocumentImpl#getBoolean(DocumentKey, boolean)}
+     */
+    @Test
+    public void test_get_Primitives() {
+        sample.addNumber(() -> "big.value", Long.MAX_VALUE)
+            .increment(() -> "counter", 7);
+
+        Assert.assertEquals("getLong", 1L, sample.getLong(Key.NUMBER_VALUE, 99));
+        Assert.assertEquals("getLong big", Long.MAX_VALUE, sample.getLong(() -> "big.value", 99));
+        Assert.assertEquals("getLong from String", 2L, sample.getLong(() -> "string.array[2]", 99));
+        Assert.assertEquals("getLong truncated", -2L, sample.getLong(() -> "number.list[2]", 99));
+        Assert.assertEquals("getLong counter", 7L, sample.getLong(() -> "counter", 99));
+        Assert.assertEquals("getLong null", 99L, sample.getLong(() -> "number.list[1]", 99));
+        Assert.assertEquals("getLong missing", 99L, sample.getLong(() -> "missing.value", 99));
+
+        Assert.assertEquals("getInt", 1, sample.getInt(Key.NUMBER_VALUE, 99));
+        Assert.assertEquals("getInt from String", 3, sample.getInt(() -> "more[3]", 99));
+        Assert.assertEquals("getInt missing", 99, sample.getInt(() -> "more[2]", 99));
+
+        Assert.assertEquals("getDouble", -2.3, sample.getDouble(() -> "number.list[2]", 99), 0.0);
+        Assert.assertEquals("getDouble", 2000.0, sample.getDouble(() -> "number.array[2]", 99), 0.0);
+        Assert.assertEquals("getDouble missing", 99.5, sample.getDouble(() -> "number.missing", 99.5), 0.0);
+
+        Assert.assertTrue("getBoolean", sample.getBoolean(Key.BOOL_VALUE, false));
+        Assert.assertFalse("getBoolean list", sample.getBoolean(() -> "bool.list[2]", true));
+        Assert.assertTrue("getBoolean null", sample.getBoolean(() -> "bool.list[1]", true));
+        Assert.assertTrue("getBoolean from String", similar1.getBoolean(Key.BOOL_VALUE, false));
+
+        DocumentException e = Assert.assertThrows(DocumentException.class,
+                                                  () -> sample.getInt(Key.STRING_VALUE, 99));
+        Assert.assertEquals("Unexpected message", "Unexpected data at 'value'", e.getMessage());
+        Assert.assertThrows(DocumentException.class, () -> sample.getBoolean(Key.STRING_VALUE, false));
+    }
+
+
     /**
      * Unit test {@link DocumentImpl#get(DocumentKey, Function)}
      */
@@ -575,6 +687,39 @@ public class DocumentImplTest {
     }
 
 
+    /**
+     * Unit test {@link DocumentImpl#getOptional(DocumentKey, Class)} returns a sequence that is not changed by later
+     * updates to the document
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test_getOptional_SequenceIsCopy() {
+        DocumentKey key = () -> "values";
+        Document document = Document.newInstance()
+            .addNumbers(key, 1, 2, 3);
+        List<Object> before = (List<Object>) document.getOptional(key, Object.class);
+        List<Object> seen = new ArrayList<>();
+
+        for (Object value : before) {                           // Appending while iterating must not fail
+            seen.add(value);
+            document.appendNumber(key, 4);
+        }
+
+        document.appendNumber(key, new BigDecimal("5.5"));     // Widen the sequence
+
+        List<Object> after = (List<Object>) document.getOptional(key, Object.class);
+
+        Assert.assertEquals("Unexpected values seen", "[1, 2, 3]", seen.toString());
+        Assert.assertEquals("Returned list was changed", "[1, 2, 3]", before.toString());
+        Assert.assertEquals("Unexpected size after update", 7, after.size());
+        Assert.assertEquals("Unexpected widened value", new BigDecimal("5.5"), after.get(6));
+        Assert.assertSame("Unchanged sequence was copied again", after, document.getOptional(key, Object.class));
+        Assert.assertThrows("List is modifiable", UnsupportedOperationException.class, () -> after.add(8));
+        Assert.assertTrue("Not a sequence", document.isSequence(key));
+        Assert.assertTrue("No value", document.hasValue(key));
+    }
+
+
     /**
      * Unit test {@link DocumentImpl#get(DocumentKey, Class)}
      */
@@ -598,7 +743,43 @@ public class DocumentImplTest {
      */
     @Test
     public void test_get_null() {
-        Assert.assertThrows(NullPointerException.class, () -> sample.get(() -> "more[2]", String.class));
+        Exception e = Assert.assertThrows(NullPointerException.class, () -> sample.get(() -> "more[2]", String.class));
+
+        Assert.assertEquals("Unexpected message", "Document does not have a value for more[2]", e.getMessage());
+    }
+
+
+    /**
+     * Unit test {@link DocumentImpl#get(DocumentKey, Class)}
+     */
+    @Test
+    public void test_get_AllocationFree() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Document document = Document.factory().nullFilter().build()
+            .addNumber(() -> "a.b[1].c", 42)
+            .addString(Key.STRING_VALUE, "Hello");
+        DocumentKey compiled = CompiledKey.of("a.b[1].c");
+        DocumentKey lambda = () -> "a.b[1].c";
+        long allocated = 0;
+
+        Assume.assumeTrue("Allocation counting is not supported", threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        for (int pass = 0; pass < 2; pass++) {                 // First pass warms up the code, second pass measures
+            long start = threads.getCurrentThreadAllocatedBytes();
+
+            for (int i = 0; i < 10_000; i++) {
+                document.get(compiled, BigDecimal.class);
+                document.get(lambda, Number.class);
+                document.getOptional(Key.STRING_VALUE, String.class);
+                document.contains(compiled);
+                document.hasValue(lambda);
+            }
+
+            allocated = threads.getCurrentThreadAllocatedBytes() - start;
+        }
+
+        Assert.assertTrue("Read path allocated " + allocated + " bytes", allocated < 10_000);
     }
 
 
@@ -774,6 +955,112 @@ public class DocumentImplTest {
                         .appendDocument(Key.DOC_LIST, sample));
     }
 
+    /**
+     * Unit test {@link DocumentImpl#appendStrings(DocumentKey, Collection)}
+     */
+    @Test
+    public void test_append_Strings() {
+        Assert.assertEquals("Append to existing sequence",
+                new DocumentImpl(null)
+                        .addStrings(Key.STRING_LIST, "A", "B", null, "D"),
+                new DocumentImpl(null)
+                        .addStrings(Key.STRING_LIST, "A")
+                        .appendStrings(Key.STRING_LIST, Arrays.asList("B", null, "D")));
+
+        Assert.assertEquals("Append to missing sequence",
+                new DocumentImpl(null)
+                        .addStrings(Key.STRING_LIST, "new", "values"),
+                new DocumentImpl(null)
+                        .appendStrings(Key.STRING_LIST, List.of("new", "values")));
+
+        Assert.assertEquals("Append nothing",
+                new DocumentImpl(null)
+                        .addStrings(Key.STRING_LIST),
+                new DocumentImpl(null)
+                        .appendStrings(Key.STRING_LIST, Collections.emptyList()));
+    }
+
+    /**
+     * Unit test {@link DocumentImpl#appendNumbers(DocumentKey, Collection)}
+     */
+    @Test
+    public void test_append_Numbers() {
+        Assert.assertEquals("Append to existing sequence",
+                new DocumentImpl(null)
+                        .addNumbers(Key.NUMBER_LIST, 1, 2, 3.5, null),
+                new DocumentImpl(null)
+                        .addNumbers(Key.NUMBER_LIST, 1)
+                        .appendNumbers(Key.NUMBER_LIST, Arrays.asList(2, 3.5, null)));
+
+        Assert.assertEquals("Append to missing sequence",
+                new DocumentImpl(null)
+                        .addNumbers(Key.NUMBER_LIST, 99, 100),
+                new DocumentImpl(null)
+                        .appendNumbers(Key.NUMBER_LIST, List.of(99, 100)));
+    }
+
+    /**
+     * Unit test {@link DocumentImpl#appendBooleans(DocumentKey, Collection)}
+     */
+    @Test
+    public void test_append_Booleans() {
+        Assert.assertEquals("Append to existing sequence",
+                new DocumentImpl(null)
+                        .addBooleans(Key.BOOL_LIST, true, false, null),
+                new DocumentImpl(null)
+                        .addBooleans(Key.BOOL_LIST, true)
+                        .appendBooleans(Key.BOOL_LIST, Arrays.asList(false, null)));
+
+        Assert.assertEquals("Append to missing sequence",
+                new DocumentImpl(null)
+                        .addBooleans(Key.BOOL_LIST, true),
+                new DocumentImpl(null)
+                        .appendBooleans(Key.BOOL_LIST, List.of(true)));
+    }
+
+    /**
+     * Unit test {@link DocumentImpl#appendEnums(DocumentKey, Collection)}
+     */
+    @Test
+    public void test_append_Enums() {
+        Assert.assertEquals("Append to existing sequence",
+                new DocumentImpl(null)
+                        .addEnums(Key.ENUM_LIST, Type1.ZERO, null, Type1.TWO),
+                new DocumentImpl(null)
+                        .addEnums(Key.ENUM_LIST, Type1.ZERO)
+                        .appendEnums(Key.ENUM_LIST, Arrays.asList(null, Type1.TWO)));
+
+        Assert.assertEquals("Append to missing sequence",
+                new DocumentImpl(null)
+                        .addEnums(Key.ENUM_LIST, Type1.ZERO, Type1.ONE),
+                new DocumentImpl(null)
+                        .appendEnums(Key.ENUM_LIST, List.of(Type1.ZERO, Type1.ONE)));
+    }
+
+    /**
+     * Unit test {@link DocumentImpl#appendDocuments(DocumentKey, Collection)}
+     */
+    @Test
+    public void test_append_Documents() {
+        Assert.assertEquals("Append to existing sequence",
+                new DocumentImpl(null)
+                        .addDocuments(Key.DOC_LIST, empty, defaultDoc, null, sample),
+                new DocumentImpl(null)
+                        .addDocuments(Key.DOC_LIST, empty)
+                        .appendDocuments(Key.DOC_LIST, Arrays.asList(defaultDoc, null, sample)));
+
+        Assert.assertEquals("Append to missing sequence",
+                new DocumentImpl(null)
+                        .addDocuments(Key.DOC_LIST, sample),
+                new DocumentImpl(null)
+                        .appendDocuments(Key.DOC_LIST, List.of(sample)));
+
+        Assert.assertThrows("Indexed key",
+                DocumentException.class,
+                () -> new DocumentImpl(null)
+                        .appendDocuments(() -> "list[0]", List.of(sample)));
+    }
+
     /**
      * Unit test {@link DocumentImpl#appendString(DocumentKey, String)} 
      */
@@ -814,6 +1101,260 @@ public class DocumentImplTest {
     }
 
 
+    /**
+     * Unit test {@link DocumentImpl#increment(DocumentKey, long)} and {@link DocumentImpl#add(DocumentKey, double)}
+     */
+    @Test
+    public void test_increment() {
+        Document test = new DocumentImpl(null)
+            .addNumber(() -> "existing", 10)
+            .increment(() -> "stats.count", 1)
+            .increment(() -> "stats.count", 2)
+            .increment(() -> "existing", -3)
+            .add(() -> "stats.total", 1.5)
+            .add(() -> "stats.total", 0.25)
+            .increment(() -> "stats.total", 1);
+
+        Assert.assertEquals("count", 3, (int) test.get(() -> "stats.count", Integer.class));
+        Assert.assertEquals("count as Number", BigDecimal.valueOf(3), test.get(() -> "stats.count", Number.class));
+        Assert.assertEquals("existing", 7L, (long) test.get(() -> "existing", Long.class));
+        Assert.assertEquals("total", 2.75, test.get(() -> "stats.total", Double.class), 0.0);
+        Assert.assertEquals("serialized",
+                            "{\"existing\":7,\"stats\":{\"count\":3,\"total\":2.75}}",
+                            test.toString());
+        Assert.assertEquals("equals",
+                            new DocumentImpl(null)
+                                .addNumber(() -> "existing", 7)
+                                .addNumber(() -> "stats.count", 3)
+                                .addNumber(() -> "stats.total", 2.75),
+                            test);
+        Assert.assertEquals("hashCode",
+                            new DocumentImpl(null)
+                                .addNumber(() -> "existing", 7)
+                                .addNumber(() -> "stats.count", 3)
+                                .addNumber(() -> "stats.total", 2.75)
+                                .hashCode(),
+                            test.hashCode());
+    }
+
+    /**
+     * Unit test {@link DocumentImpl#increment(DocumentKey, long)}
+     */
+    @Test
+    public void test_increment_Sequence() {
+        Document test = new DocumentImpl(null)
+            .addNumbers(() -> "values", 1, 2, 3)
+            .increment(() -> "values[1]", 5)
+            .increment(() -> "values[4]", 1);
+
+        Assert.assertEquals("Unexpected values", "{\"values\":[1,7,3,null,1]}", test.toString());
+    }
+
+    /**
+     * Unit test {@link DocumentImpl#increment(DocumentKey, long)}
+     */
+    @Test
+    public void test_increment_BadType() {
+        Document test = new DocumentImpl(null)
+            .addString(() -> "text", "Hello");
+
+        DocumentException e = Assert.assertThrows(DocumentException.class, () -> test.increment(() -> "text", 1));
+        Assert.assertEquals("Unexpected message",
+                            "Data at 'text' is of type String, but Number was expected",
+                            e.getMessage());
+
+        test.increment(() -> "count", 1);
+
+        e = Assert.assertThrows(DocumentException.class, () -> test.addString(() -> "count.child", "???"));
+        Assert.assertEquals("Counter should look like a number",
+                            "Data at 'count' is of type Number, but AbstractDocument was expected",
+                            e.getMessage());
+    }
+
+    /**
+     * Unit test {@link DocumentImpl#increment(DocumentKey, long)} and {@link DocumentImpl#clone()}
+     */
+    @Test
+    public void test_increment_Clone() {
+        Document original = new DocumentImpl(null)
+            .increment(() -> "child.count", 1);
+        Document clone = (Document) original.clone();
+
+        original.increment(() -> "child.count", 1);
+        clone.increment(() -> "child.count", 10);
+
+        Assert.assertEquals("original", 2, (int) original.get(() -> "child.count", Integer.class));
+        Assert.assertEquals("clone", 11, (int) clone.get(() -> "child.count", Integer.class));
+    }
+
+    /**
+     * Unit test {@link DocumentImpl#accumulate(DocumentKey, java.util.function.UnaryOperator)}
+     */
+    @Test
+    public void test_accumulate() {
+        Document test = new DocumentImpl(null)
+            .accumulate(() -> "max", n -> (n == null ? 5 : Math.max(n.intValue(), 5)))
+            .accumulate(() -> "max", n -> Math.max(n.intValue(), 3))
+            .increment(() -> "count", 4)
+            .accumulate(() -> "count", n -> n.intValue() * 10)
+            .increment(() -> "count", 1);
+
+        Assert.assertEquals("max", 5, (int) test.get(() -> "max", Integer.class));
+        Assert.assertEquals("count", 41, (int) test.get(() -> "count", Integer.class));
+        Assert.assertThrows("Bad type",
+                            DocumentException.class,
+                            () -> test.addString(() -> "text", "x").accumulate(() -> "text", n -> 1));
+    }
+
+
+    /**
+     * Unit test {@link DocumentImpl#batch(java.util.function.Consumer)}
+     */
+    @Test
+    public void test_batch() {
+        Document test = new DocumentImpl(null)
+            .addString(() -> "removed", "value")
+            .batch(b -> b.addString(() -> "payload.id", "abc")
+                         .addNumbers(() -> "payload.values", 1, 2)
+                         .appendNumber(() -> "payload.values", 3)
+                         .increment(() -> "count", 2)
+                         .remove(() -> "removed"));
+
+        Assert.assertEquals("Unexpected document",
+                            new DocumentImpl(null)
+                                .addString(() -> "payload.id", "abc")
+                                .addNumbers(() -> "payload.values", 1, 2, 3)
+                                .addNumber(() -> "count", 2),
+                            test);
+    }
+
+
+    /**
+     * Unit test {@link DocumentImpl#batch(DocumentKey, java.util.function.Consumer)}
+     */
+    @Test
+    public void test_batch_Prefix() {
+        Document test = new DocumentImpl(null)
+            .addString(() -> "payload.meta.existing", "old")
+            .batch(() -> "payload.meta", meta -> meta
+                .addString(() -> "source", "test")
+                .addNumber(() -> "size", 42)
+                .batch(() -> "headers[1]", header -> header.addString(() -> "name", "Accept")))
+            .batch(() -> "created.child", child -> child.addBoolean(() -> "flag", true))
+            .batch(() -> "empty", child -> { });
+
+        Assert.assertEquals("Unexpected document",
+                            new DocumentImpl(null)
+                                .addString(() -> "payload.meta.existing", "old")
+                                .addString(() -> "payload.meta.source", "test")
+                                .addNumber(() -> "payload.meta.size", 42)
+                                .addString(() -> "payload.meta.headers[1].name", "Accept")
+                                .addBoolean(() -> "created.child.flag", true)
+                                .addDocument(() -> "empty", new DocumentImpl(null)),
+                            test);
+    }
+
+
+    /**
+     * Unit test {@link DocumentImpl#batch(DocumentKey, java.util.function.Consumer)}
+     */
+    @Test
+    public void test_batch_BadType() {
+        Document test = new DocumentImpl(null)
+            .addString(() -> "payload", "text");
+
+        DocumentException e = Assert.assertThrows(DocumentException.class,
+                                                  () -> test.batch(() -> "payload.meta", m -> { }));
+        Assert.assertEquals("Unexpected message",
+                            "Data at 'payload' is of type String, but AbstractDocument was expected",
+                            e.getMessage());
+    }
+
+
+    /**
+     * Unit test {@link DocumentImpl#batch(java.util.function.Consumer)} - the writer can not be used after the
+     * batch has been applied
+     */
+    @Test
+    public void test_batch_Closed() {
+        BatchWriter[] writer = new BatchWriter[1];
+        Document test = new DocumentImpl(null)
+            .batch(b -> {
+                writer[0] = b;
+                b.addString(() -> "value", "in batch");
+            });
+
+        IllegalStateException e = Assert.assertThrows(IllegalStateException.class,
+                                                      () -> writer[0].addString(() -> "value", "late"));
+        Assert.assertEquals("Unexpected message", "The batch has already been applied", e.getMessage());
+        Assert.assertEquals("Unexpected value", "in batch", test.get(() -> "value", String.class));
+    }
+
+
+    /**
+     * Unit test {@link DocumentImpl#at(DocumentKey)}
+     */
+    @Test
+    public void test_at() {
+        Document source = new DocumentImpl(null)
+            .addString(() -> "order.lines[3].pricing.currency", "GBP")
+            .addNumber(() -> "order.lines[3].pricing.net", 10)
+            .addString(() -> "order.id", "abc");
+        ReadableDocument pricing = source.at(() -> "order.lines[3].pricing");
+
+        Assert.assertEquals("currency", "GBP", pricing.get(() -> "currency", String.class));
+        Assert.assertEquals("net", 10, (int) pricing.get(() -> "net", Integer.class));
+        Assert.assertSame("Unexpected child", source.get(() -> "order.lines[3].pricing", Document.class), pricing);
+
+        source.addNumber(() -> "order.lines[3].pricing.gross", 12);
+
+        Assert.assertEquals("Cursor should see updates", 12, (int) pricing.get(() -> "gross", Integer.class));
+    }
+
+
+    /**
+     * Unit test {@link DocumentImpl#at(DocumentKey)}
+     */
+    @Test
+    public void test_at_Missing() {
+        Document source = new DocumentImpl(null)
+            .addString(() -> "order.id", "abc");
+
+        Assert.assertTrue("missing child", source.at(() -> "order.lines[3].pricing").isEmpty());
+        Assert.assertTrue("missing parent", source.at(() -> "payload.meta").isEmpty());
+        Assert.assertFalse("empty is immutable", source.at(() -> "payload").canMutate());
+
+        DocumentException e = Assert.assertThrows(DocumentException.class, () -> source.at(() -> "order.id"));
+        Assert.assertEquals("Unexpected message",
+                            "Data at 'order.id' is of type String, but Document was expected",
+                            e.getMessage());
+    }
+
+
+    /**
+     * Unit test {@link DocumentImpl#child(DocumentKey)}
+     */
+    @Test
+    public void test_child() {
+        Document source = new DocumentImpl(null)
+            .addString(() -> "order.id", "abc");
+        Document pricing = source.child(() -> "order.lines[1].pricing");
+
+        pricing.addString(() -> "currency", "GBP")
+            .addNumber(() -> "net", 10);
+
+        Assert.assertSame("Existing child", pricing, source.child(() -> "order.lines[1].pricing"));
+        Assert.assertSame("Existing order", source.get(() -> "order", Document.class), source.child(() -> "order"));
+        Assert.assertEquals("Unexpected document",
+                            new DocumentImpl(null)
+                                .addString(() -> "order.id", "abc")
+                                .addString(() -> "order.lines[1].pricing.currency", "GBP")
+                                .addNumber(() -> "order.lines[1].pricing.net", 10),
+                            source);
+        Assert.assertThrows(DocumentException.class, () -> source.child(() -> "order.id.value"));
+    }
+
+
     /**
      * Unit test {@link DocumentImpl#remove(DocumentKey)}
      */
@@ -935,6 +1476,78 @@ public class DocumentImplTest {
     }
 
 
+    /**
+     * Unit test {@link Document#hashCode()}
+     */
+    @Test
+    public void test_hashCode_Updated() {
+        Document document = new DocumentImpl(null)
+                .addString(() -> "child.value", "A")
+                .increment(() -> "child.count", 1)
+                .addStrings(() -> "list", "x", "y");
+        Document child = document.child(() -> "child");
+        Document expected = new DocumentImpl(null);
+        int initial = document.hashCode();
+
+        Assert.assertEquals("Cached value changed", initial, document.hashCode());
+
+        child.addString(() -> "value", "B");
+        expected.addString(() -> "child.value", "B")
+            .addNumber(() -> "child.count", 1)
+            .addStrings(() -> "list", "x", "y");
+        Assert.assertEquals("Child update ignored", expected.hashCode(), document.hashCode());
+        Assert.assertEquals("Not equal", expected, document);
+
+        document.increment(() -> "child.count", 1);
+        expected.addNumber(() -> "child.count", 2);
+        Assert.assertEquals("Counter update ignored", expected.hashCode(), document.hashCode());
+
+        document.appendString(() -> "list", "z");
+        expected.appendString(() -> "list", "z");
+        Assert.assertEquals("Append ignored", expected.hashCode(), document.hashCode());
+
+        document.remove(() -> "child.value");
+        expected.remove(() -> "child.value");
+        Assert.assertEquals("Remove ignored", expected.hashCode(), document.hashCode());
+        Assert.assertEquals("Not equal after remove", expected, document);
+
+        expected.addString(() -> "other", "value");
+        Assert.assertNotEquals("Cached hash codes were not compared", expected, document);
+    }
+
+
+    /**
+     * Unit test {@link DocumentImpl#version()}
+     */
+    @Test
+    public void test_version() {
+        Document document = new DocumentImpl(null).addString(() -> "child.value", "A");
+        Document child = document.child(() -> "child");
+        Document other = new DocumentImpl(null).addString(() -> "value", "A");
+        long initial = document.version();
+
+        Assert.assertEquals("Reading changed the version", initial, document.version());
+        document.get(() -> "child.value", String.class);
+        document.hashCode();
+        Assert.assertEquals("Reading changed the version", initial, document.version());
+
+        child.addString(() -> "value", "B");
+        Assert.assertNotEquals("Child update ignored", initial, document.version());
+        Assert.assertEquals("Child has a different version", document.version(), child.version());
+
+        long updated = document.version();
+        Document clone = (Document) document.clone();
+
+        other.addString(() -> "value", "C");
+        clone.addString(() -> "child.value", "C");
+        Assert.assertEquals("Unrelated update changed version", updated, document.version());
+
+        document.addDocument(() -> "other", other);
+        Assert.assertTrue("Join did not change version", document.version() > updated);
+        Assert.assertEquals("Joined document has a different version", document.version(), other.version());
+    }
+
+
     /**
      * Unit test {@link DocumentImpl#isEmpty()}
      */
@@ -1233,6 +1846,83 @@ public class DocumentImplTest {
     }
 
 
+    /**
+     * Unit test {@link DocumentImpl#clone()} - the clone and the original can be updated independently
+     */
+    @Test
+    public void test_Clone_Independent() {
+        Document source = Document.newInstance()
+            .addString(() -> "a.b.c", "original")
+            .addNumbers(() -> "a.list", 1, 2)
+            .addDocuments(() -> "docs", Document.newInstance().addString(() -> "value", "first"));
+        Document clone = (Document) source.clone();
+
+        clone.addString(() -> "a.b.c", "clone");
+        clone.appendNumber(() -> "a.list", 3);
+        clone.addString(() -> "docs[0].value", "clone");
+        source.addString(() -> "a.b.d", "source");
+        source.remove(() -> "a.list[0]");
+
+        Assert.assertEquals("Unexpected clone", "{\"a\":{\"b\":{\"c\":\"clone\"},\"list\":[1,2,3]}," +
+            "\"docs\":[{\"value\":\"clone\"}]}", clone.toString());
+        Assert.assertEquals("Unexpected source", "{\"a\":{\"b\":{\"c\":\"original\",\"d\":\"source\"}," +
+            "\"list\":[null,2]},\"docs\":[{\"value\":\"first\"}]}", source.toString());
+    }
+
+
+    /**
+     * Unit test {@link DocumentImpl#clone()} - child documents that were read before the document was cloned
+     * still belong to the original document
+     */
+    @Test
+    public void test_Clone_ChildHandles() {
+        Document inserted = Document.newInstance().addString(() -> "value", "inserted");
+        Document source = Document.newInstance()
+            .addString(() -> "a.b", "original")
+            .addDocument(() -> "doc", inserted);
+        Document child = source.get(() -> "a", Document.class);
+        Document clone = (Document) source.clone();
+        Document cloneOfClone = (Document) clone.clone();
+
+        child.addString(() -> "b", "updated");
+        inserted.addString(() -> "value", "updated");
+
+        Assert.assertSame("Child was replaced", child, source.get(() -> "a", Document.class));
+        Assert.assertEquals("Source not updated", "updated", source.get(() -> "a.b", String.class));
+        Assert.assertEquals("Inserted not updated", "updated", source.get(() -> "doc.value", String.class));
+        Assert.assertEquals("Clone updated", "original", clone.get(() -> "a.b", String.class));
+        Assert.assertEquals("Inserted in clone updated",
+            "inserted", clone.get(() -> "doc.value", String.class));
+        Assert.assertEquals("Clone of clone updated", "original", cloneOfClone.get(() -> "a.b", String.class));
+        Assert.assertNotSame("Clone shares child", child, clone.get(() -> "a", Document.class));
+    }
+
+
+    /**
+     * Unit test {@link DocumentImpl#clone()} - the source is cloned repeatedly while it is being updated
+     */
+    @Test
+    public void test_Clone_Repeatedly() {
+        Document source = Document.newInstance().addNumber(() -> "child.value", 0);
+        Document child = source.get(() -> "child", Document.class);
+        List<Document> clones = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            clones.add((Document) source.clone());
+            child.addNumber(() -> "value", i + 1);
+            child.appendNumber(() -> "history", i);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            Document clone = clones.get(i);
+
+            Assert.assertEquals("Unexpected value in " + i, i, clone.get(() -> "child.value", Number.class).intValue());
+            Assert.assertEquals("Unexpected history in " + i,
+                i, clone.getAll(() -> "child.history", Number.class).size());
+        }
+    }
+
+
 
                 //*** helpers ***//
 
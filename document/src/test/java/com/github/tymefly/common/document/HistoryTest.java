@@ -0,0 +1,122 @@
+package com.github.tymefly.common.document;
+
+import java.lang.ref.WeakReference;
+
+import com.github.tymefly.common.document.History.Revision;
+import com.github.tymefly.common.document.History.Snapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link History}
+ */
+public class HistoryTest {
+    /**
+     * Unit test {@link History#capture()}
+     */
+    @Test
+    public void test_capture() {
+        History history = new History();
+        long initial = history.generation();
+
+        history.capture();
+
+        Assert.assertEquals("Unexpected generation", initial + 1, history.generation());
+    }
+
+
+    /**
+     * Unit test {@link History#replace(DocumentImpl, Revision)}
+     */
+    @Test
+    public void test_replace() {
+        DocumentImpl changed = new DocumentImpl(null);
+        DocumentImpl unchanged = new DocumentImpl(null);
+        Revision original = changed.getRevision();
+        History history = new History();
+
+        history.replace(changed, original);                  // No snapshot, so nothing is recorded
+
+        Snapshot first = history.capture();
+
+        history.replace(changed, original);
+        history.replace(changed, unchanged.getRevision());   // Only the first replacement is recorded
+
+        Snapshot second = history.capture();
+
+        Assert.assertSame("Unexpected revision from first", original, first.revisionOf(changed));
+        Assert.assertSame("Unexpected revision from second", changed.getRevision(), second.revisionOf(changed));
+        Assert.assertSame("Unexpected unchanged revision", unchanged.getRevision(), first.revisionOf(unchanged));
+    }
+
+
+    /**
+     * Unit test {@link History#join(History)}
+     */
+    @Test
+    public void test_join() {
+        DocumentImpl document = new DocumentImpl(null);
+        Revision original = document.getRevision();
+        History history = new History();
+        History other = new History();
+        Snapshot snapshot = other.capture();
+        long generation = other.generation();
+
+        history.join(other);
+        history.replace(document, original);
+
+        Assert.assertTrue("Generation was not advanced", history.generation() > generation);
+        Assert.assertEquals("Generations are not shared", history.generation(), other.generation());
+        Assert.assertSame("Snapshot did not see replacement", original, snapshot.revisionOf(document));
+
+        history.capture();
+        Assert.assertEquals("Joined generation did not change", history.generation(), other.generation());
+    }
+
+
+    /**
+     * Unit test {@link History#replace(DocumentImpl, Revision)} only records a revision in the snapshots that
+     * were taken while it was current
+     */
+    @Test
+    public void test_replace_LaterRevision() {
+        DocumentImpl document = new DocumentImpl(null);
+        History history = new History();
+        Revision original = document.getRevision();
+        Snapshot first = history.capture();
+        Revision later = new Revision(new Structure(), null, history.generation());
+
+        history.replace(document, original);
+
+        Snapshot second = history.capture();
+
+        history.replace(document, later);
+
+        Assert.assertSame("Unexpected revision from first", original, first.revisionOf(document));
+        Assert.assertSame("Unexpected revision from second", later, second.revisionOf(document));
+    }
+
+
+    /**
+     * Unit test a snapshot that is kept does not prevent later snapshots from being garbage collected
+     */
+    @Test
+    public void test_capture_Retention() {
+        DocumentImpl document = new DocumentImpl(null);
+        History history = new History();
+        Snapshot kept = history.capture();
+
+        history.replace(document, document.getRevision());
+
+        WeakReference<Snapshot> later = new WeakReference<>(history.capture());
+
+        history.replace(document, new Revision(new Structure(), null, history.generation() - 1));
+
+        for (int attempt = 0; (attempt < 10) && (later.get() != null); attempt++) {
+            System.gc();
+        }
+
+        Assert.assertNull("Later snapshot was retained", later.get());
+        Assert.assertNotNull("Unexpected revision from kept snapshot", kept.revisionOf(document));
+    }
+}
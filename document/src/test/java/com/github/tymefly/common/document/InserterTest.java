@@ -1,8 +1,9 @@
 package com.github.tymefly.common.document;
 
-import java.util.function.BiConsumer;
 import java.util.function.Function;
 
+import com.github.tymefly.common.base.function.TriConsumer;
+import com.github.tymefly.common.document.key.CompiledKey;
 import com.github.tymefly.common.document.key.DocumentKey;
 import org.junit.Assert;
 import org.junit.Before;
@@ -10,6 +11,7 @@ import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -19,21 +21,21 @@ import static org.mockito.Mockito.when;
  * Unit test for {@link Inserter}
  */
 public class InserterTest {
-    private BiConsumer<DocumentImpl, WalkerKey> whenFound;
+    private TriConsumer<DocumentImpl, CompiledKey, String> whenFound;
     private Function<AbstractDocument<?>, ? extends AbstractDocument<Document>> constructor;
-    private BiConsumer<WritableDocument<?>, DocumentKey> toWalk;
+    private TriConsumer<WritableDocument<?>, DocumentKey, String> toWalk;
 
     private AbstractDocument<?> document;
     private AbstractDocument<?> child;
 
-    private Inserter inserter;
+    private Inserter<String> inserter;
 
 
     @Before
     public void setUp() {
-        whenFound = mock(BiConsumer.class);
+        whenFound = mock(TriConsumer.class);
         constructor = mock(Function.class);
-        toWalk = mock(BiConsumer.class);
+        toWalk = mock(TriConsumer.class);
 
         document = (AbstractDocument<?>) Document.newInstance();
         child = (AbstractDocument<Document>) Document.empty();
@@ -41,10 +43,11 @@ public class InserterTest {
         when(constructor.apply(null))
             .then(a -> child);
 
-        inserter = new Inserter.Builder()
+        document.getImpl().setConstructor(constructor);
+
+        inserter = new Inserter.Builder<String>()
             .toWalk(toWalk)
             .whenFound(whenFound)
-            .constructBy(constructor)
             .build();
     }
 
@@ -56,13 +59,14 @@ public class InserterTest {
         ArgumentCaptor<WritableDocument<?>> child = ArgumentCaptor.forClass(WritableDocument.class);
         ArgumentCaptor<DocumentKey> key = ArgumentCaptor.forClass(DocumentKey.class);
 
-        document.addString(() -> "a.key", "value");
+        document = (AbstractDocument<?>) Document.newInstance().addString(() -> "a.key", "value");
+        document.getImpl().setConstructor(constructor);
 
-        inserter.insert(document, () -> "a.b.c");
+        inserter.insert(document, () -> "a.b.c", "data");
 
-        verify(whenFound, never()).accept(any(DocumentImpl.class), any(WalkerKey.class));
+        verify(whenFound, never()).accept(any(DocumentImpl.class), any(CompiledKey.class), any(String.class));
         verify(constructor, never()).apply(null);
-        verify(toWalk).accept(child.capture(), key.capture());
+        verify(toWalk).accept(child.capture(), key.capture(), eq("data"));
 
         Assert.assertEquals("Unexpected child", Document.newInstance().addString(() -> "key", "value"), child.getValue());
         Assert.assertEquals("Unexpected key", "b.c", key.getValue().externalise());
@@ -76,11 +80,11 @@ public class InserterTest {
         ArgumentCaptor<WritableDocument<?>> child = ArgumentCaptor.forClass(WritableDocument.class);
         ArgumentCaptor<DocumentKey> key = ArgumentCaptor.forClass(DocumentKey.class);
 
-        inserter.insert(document, () -> "a.b.c");
+        inserter.insert(document, () -> "a.b.c", "data");
 
-        verify(whenFound, never()).accept(any(DocumentImpl.class), any(WalkerKey.class));
+        verify(whenFound, never()).accept(any(DocumentImpl.class), any(CompiledKey.class), any(String.class));
         verify(constructor).apply(null);
-        verify(toWalk).accept(child.capture(), key.capture());
+        verify(toWalk).accept(child.capture(), key.capture(), eq("data"));
 
         Assert.assertSame("Unexpected child", this.child, child.getValue());
         Assert.assertEquals("Unexpected key", "b.c", key.getValue().externalise());
@@ -95,13 +99,14 @@ public class InserterTest {
         ArgumentCaptor<WritableDocument<?>> child = ArgumentCaptor.forClass(WritableDocument.class);
         ArgumentCaptor<DocumentKey> key = ArgumentCaptor.forClass(DocumentKey.class);
 
-        document.addString(() -> "a[2].key", "value");
+        document = (AbstractDocument<?>) Document.newInstance().addString(() -> "a[2].key", "value");
+        document.getImpl().setConstructor(constructor);
 
-        inserter.insert(document, () -> "a[2].b.c");
+        inserter.insert(document, () -> "a[2].b.c", "data");
 
-        verify(whenFound, never()).accept(any(DocumentImpl.class), any(WalkerKey.class));
+        verify(whenFound, never()).accept(any(DocumentImpl.class), any(CompiledKey.class), any(String.class));
         verify(constructor, never()).apply(any(AbstractDocument.class));
-        verify(toWalk).accept(child.capture(), key.capture());
+        verify(toWalk).accept(child.capture(), key.capture(), eq("data"));
 
         Assert.assertEquals("Unexpected child", Document.newInstance().addString(() -> "key", "value"), child.getValue());
         Assert.assertEquals("Unexpected key", "b.c", key.getValue().externalise());
@@ -115,11 +120,11 @@ public class InserterTest {
         ArgumentCaptor<WritableDocument<?>> child = ArgumentCaptor.forClass(WritableDocument.class);
         ArgumentCaptor<DocumentKey> key = ArgumentCaptor.forClass(DocumentKey.class);
 
-        inserter.insert(document, () -> "a[2].b.c");
+        inserter.insert(document, () -> "a[2].b.c", "data");
 
-        verify(whenFound, never()).accept(any(DocumentImpl.class), any(WalkerKey.class));
+        verify(whenFound, never()).accept(any(DocumentImpl.class), any(CompiledKey.class), any(String.class));
         verify(constructor).apply(null);
-        verify(toWalk).accept(child.capture(), key.capture());
+        verify(toWalk).accept(child.capture(), key.capture(), eq("data"));
 
         Assert.assertSame("Unexpected child", this.child, child.getValue());
         Assert.assertEquals("Unexpected key", "b.c", key.getValue().externalise());
@@ -132,13 +137,13 @@ public class InserterTest {
     @Test
     public void test_FoundUltimateChild() {
         ArgumentCaptor<DocumentImpl> foundChild = ArgumentCaptor.forClass(DocumentImpl.class);
-        ArgumentCaptor<WalkerKey> foundKey = ArgumentCaptor.forClass(WalkerKey.class);
+        ArgumentCaptor<CompiledKey> foundKey = ArgumentCaptor.forClass(CompiledKey.class);
 
-        inserter.insert(document, () -> "key");
+        inserter.insert(document, () -> "key", "data");
 
-        verify(whenFound).accept(foundChild.capture(), foundKey.capture());
+        verify(whenFound).accept(foundChild.capture(), foundKey.capture(), eq("data"));
         verify(constructor, never()).apply(any(AbstractDocument.class));
-        verify(toWalk, never()).accept(any(WritableDocument.class), any(DocumentKey.class));
+        verify(toWalk, never()).accept(any(WritableDocument.class), any(DocumentKey.class), any(String.class));
 
         Assert.assertEquals("Unexpected foundChild", document, foundChild.getValue());
         Assert.assertEquals("Unexpected foundKey", "key", foundKey.getValue().externalise());
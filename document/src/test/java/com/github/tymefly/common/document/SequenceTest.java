@@ -1,8 +1,11 @@
 package com.github.tymefly.common.document;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 
@@ -13,6 +16,61 @@ import org.junit.Test;
  * Unit test for {@link Sequence}
  */
 public class SequenceTest {
+    private enum Colour { RED, GREEN, BLUE }
+    private enum Shape { SQUARE }
+
+    /**
+     * A sequence that is appended to while it is being copied, as if the append was made by another thread
+     */
+    private static class RacingSequence extends Sequence<String> {
+        private final String[] data = new String[8];
+        private boolean racing = false;
+
+        RacingSequence() {
+            super(String.class, 0);
+        }
+
+        void race() {
+            racing = true;
+        }
+
+        @Override
+        String get(int index) {
+            if (racing) {
+                racing = false;
+                append("late");
+            }
+
+            return data[index];
+        }
+
+        @Override
+        boolean isNull(int index) {
+            return (data[index] == null);
+        }
+
+        @Override
+        boolean accepts(String value) {
+            return true;
+        }
+
+        @Override
+        void store(int index, String value) {
+            data[index] = value;
+        }
+
+        @Override
+        void resize(int capacity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        int capacity() {
+            return data.length;
+        }
+    }
+
+
     /**
      * Unit test {@link Sequence#of(Class)}
      */
@@ -145,6 +203,51 @@ public class SequenceTest {
     }
 
 
+    /**
+     * Unit test {@link Sequence#toList}
+     */
+    @Test
+    public void test_ToList_View() {
+        Sequence<String> data = Sequence.of(String.class, "a", "b");
+        List<String> view = data.toList();
+
+        Assert.assertSame("View was not reused", view, data.toList());
+
+        data.append("c");
+
+        Assert.assertEquals("Mutation not visible", List.of("a", "b", "c"), view);
+        Assert.assertThrows("Index beyond size", IndexOutOfBoundsException.class, () -> view.get(3));
+        Assert.assertThrows("View is read-only", UnsupportedOperationException.class, () -> view.add("d"));
+        Assert.assertThrows("View is read-only", UnsupportedOperationException.class, () -> view.set(0, "d"));
+    }
+
+
+    /**
+     * Unit test {@link Sequence#toList}
+     */
+    @Test
+    public void test_ToList_FailFast() {
+        Sequence<Number> data = Sequence.of(Number.class, 1L, 2L);
+        Iterator<Number> append = data.iterator();
+
+        append.next();
+        data.append(3L);
+        Assert.assertThrows("Append", ConcurrentModificationException.class, append::next);
+
+        Iterator<Number> remove = data.iterator();
+
+        remove.next();
+        data.remove(2);
+        Assert.assertThrows("Remove", ConcurrentModificationException.class, remove::next);
+
+        Iterator<Number> widen = data.iterator();
+
+        widen.next();
+        Assert.assertNotSame("Sequence was not widened", data, data.append(new BigDecimal("2.5")));
+        Assert.assertThrows("Widen", ConcurrentModificationException.class, widen::next);
+    }
+
+
     /**
      * Unit test {@link Sequence#toList}
      */
@@ -157,6 +260,41 @@ public class SequenceTest {
 
 
 
+    /**
+     * Unit test {@link Sequence#toUnmodifiableList()}
+     */
+    @Test
+    public void test_ToUnmodifiableList() {
+        Sequence<String> data = Sequence.of(String.class, "a", null);
+        List<String> copy = data.toUnmodifiableList();
+
+        Assert.assertSame("Copy was not reused", copy, data.toUnmodifiableList());
+
+        data.append("c");
+
+        Assert.assertEquals("Copy was changed", Arrays.asList("a", null), copy);
+        Assert.assertEquals("Mutation not copied", Arrays.asList("a", null, "c"), data.toUnmodifiableList());
+        Assert.assertThrows("Copy is read-only", UnsupportedOperationException.class, () -> copy.add("d"));
+        Assert.assertThrows("Copy is read-only", UnsupportedOperationException.class, () -> copy.set(0, "d"));
+    }
+
+
+    /**
+     * Unit test {@link Sequence#toUnmodifiableList()} does not reuse a copy that was made while the sequence was
+     * being updated
+     */
+    @Test
+    public void test_ToUnmodifiableList_Race() {
+        RacingSequence data = new RacingSequence();
+
+        data.append("a");
+        data.race();
+
+        Assert.assertEquals("Unexpected racing copy", List.of("a"), data.toUnmodifiableList());
+        Assert.assertEquals("Stale copy was reused", List.of("a", "late"), data.toUnmodifiableList());
+    }
+
+
     /**
      * Unit test {@link Sequence#remove(int)}
      */
@@ -319,29 +457,91 @@ public class SequenceTest {
 
 
     /**
-     * Unit test {@link Sequence#set(int, Object)}
+     * Unit test {@link Sequence#appendAll(Collection)}
      */
     @Test
-    public void test_set_wrongType() {
-        Sequence<?> sequence = Sequence.of(String.class, "Hello");
+    public void test_appendAll() {
+        Sequence<String> sequence = Sequence.of(String.class, "First");
 
-        Exception actual = Assert.assertThrows(DocumentException.class,
-                () -> ((Sequence<Number>) sequence).set(3, 123));
+        Assert.assertSame("Unexpected sequence", sequence, sequence.appendAll(Arrays.asList("Second", null, "Fourth")));
+        Assert.assertEquals("Unexpected Size", 4, sequence.size());
+        Assert.assertEquals("Unexpected content", Arrays.asList("First", "Second", null, "Fourth"), sequence.toList());
+        Assert.assertTrue("Unexpected capacity", sequence.capacity() >= 4);
 
-        Assert.assertEquals("Unexpected error", "Attempt to store Integer in an sequence of String", actual.getMessage());
+        Assert.assertSame("Append nothing", sequence, sequence.appendAll(Collections.emptyList()));
+        Assert.assertEquals("Append nothing: Unexpected Size", 4, sequence.size());
+    }
+
+
+    /**
+     * Unit test {@link Sequence#appendAll(Collection)}
+     */
+    @Test
+    public void test_appendAll_Widen() {
+        Sequence<Number> sequence = Sequence.of(Number.class, 1L, 2L);
+        Sequence<Number> actual = sequence.appendAll(Arrays.asList(3L, new BigDecimal("4.5"), 5L));
+
+        Assert.assertEquals("Unexpected type", ObjectSequence.class, actual.getClass());
+        Assert.assertEquals("Unexpected content",
+            Arrays.asList(1L, 2L, 3L, new BigDecimal("4.5"), 5L),
+            actual.toList());
     }
 
 
     /**
-     * Unit test {@link Sequence#computeIfAbsent}
+     * Unit test {@link Sequence#ensureCapacity(int)}
      */
     @Test
-    public void test_computeIfAbsent() {
+    public void test_ensureCapacity() {
         Sequence<String> sequence = Sequence.of(String.class);
+        int initial = sequence.capacity();
+
+        sequence.ensureCapacity(initial);
+        Assert.assertEquals("Unnecessary resize", initial, sequence.capacity());
+
+        sequence.ensureCapacity(initial + 1);
+        Assert.assertTrue("Small growth is not geometric", sequence.capacity() > initial + 1);
+
+        sequence.ensureCapacity(1000);
+        Assert.assertEquals("Large growth", 1000, sequence.capacity());
+    }
+
+
+    /**
+     * Unit test {@link Sequence#append(Object)}
+     */
+    @Test
+    public void test_append_Growth() {
+        Sequence<Long> sequence = Sequence.of(Long.class);
+        int capacity = sequence.capacity();
+        int resizes = 0;
+
+        for (long value = 0; value < 100_000; value++) {
+            sequence.append(value);
+
+            if (sequence.capacity() != capacity) {
+                capacity = sequence.capacity();
+                resizes++;
+            }
+        }
+
+        Assert.assertEquals("Unexpected Size", 100_000, sequence.size());
+        Assert.assertEquals("Unexpected Value", Long.valueOf(99_999), sequence.get(99_999));
+        Assert.assertTrue("Too many resizes: " + resizes, resizes < 30);
+    }
+
+
+    /**
+     * Unit test {@link Sequence#set(int, Object)}
+     */
+    @Test
+    public void test_set_wrongType() {
+        Sequence<?> sequence = Sequence.of(String.class, "Hello");
+
+        Exception actual = Assert.assertThrows(DocumentException.class,
+                () -> ((Sequence<Number>) sequence).set(3, 123));
 
-        Assert.assertEquals("Empty", "x:10", sequence.computeIfAbsent(10, i -> "x:" + i));
-        Assert.assertEquals("Not found", "y:11", sequence.computeIfAbsent(11, i -> "y:" + i));
-        Assert.assertEquals("Existing", "y:11", sequence.computeIfAbsent(11, i -> "z:" + i));
+        Assert.assertEquals("Unexpected error", "Attempt to store Integer in an sequence of String", actual.getMessage());
     }
 
 
@@ -414,4 +614,167 @@ public class SequenceTest {
         Assert.assertEquals("test equals()", withSpace, noSpace);
         Assert.assertEquals("test hashCode()", withSpace.hashCode(), noSpace.hashCode());
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Unit test {@link Sequence#of(Class, Object[])} chooses a specialised implementation
+     */
+    @Test
+    public void test_Specialised() {
+        Assert.assertTrue("Long", Sequence.of(Number.class, BigDecimal.ONE, null) instanceof LongSequence);
+        Assert.assertTrue("Double", Sequence.of(Number.class, null, new BigDecimal("2.5")) instanceof DoubleSequence);
+        Assert.assertTrue("Empty Number", Sequence.of(Number.class) instanceof LongSequence);
+        Assert.assertTrue("Boolean", Sequence.of(Boolean.class, true, null, false) instanceof BooleanSequence);
+        Assert.assertTrue("Enum", Sequence.of(Enum.class, Colour.RED, null) instanceof EnumSequence);
+        Assert.assertTrue("Empty Enum", Sequence.of(Enum.class) instanceof EnumSequence);
+
+        Assert.assertTrue("Mixed Numbers",
+            Sequence.of(Number.class, BigDecimal.ONE, new BigDecimal("2.5")) instanceof ObjectSequence);
+        Assert.assertTrue("Non-BigDecimal", Sequence.of(Number.class, 1, 2) instanceof ObjectSequence);
+        Assert.assertTrue("Mixed Enums", Sequence.of(Enum.class, Colour.RED, Shape.SQUARE) instanceof ObjectSequence);
+        Assert.assertTrue("String", Sequence.of(String.class, "a") instanceof ObjectSequence);
+    }
+
+
+    /**
+     * Unit test the values stored in a {@link LongSequence}
+     */
+    @Test
+    public void test_LongSequence() {
+        Sequence<Number> sequence = Sequence.of(Number.class, List.of(BigDecimal.ONE, new BigDecimal(Long.MIN_VALUE)));
+
+        Assert.assertSame("Unexpected sequence", sequence, sequence.set(3, BigDecimal.TEN));
+        Assert.assertEquals("Unexpected content",
+            Arrays.asList(BigDecimal.ONE, new BigDecimal(Long.MIN_VALUE), null, BigDecimal.TEN),
+            sequence.toList());
+        Assert.assertEquals("Unexpected equality", Sequence.of(Number.class,
+            new Number[] { BigDecimal.ONE, new BigDecimal(Long.MIN_VALUE), null, BigDecimal.TEN }), sequence);
+    }
+
+
+    /**
+     * Unit test the values stored in a {@link DoubleSequence}
+     */
+    @Test
+    public void test_DoubleSequence() {
+        Sequence<Number> sequence = Sequence.of(Number.class, BigDecimal.valueOf(1.5), BigDecimal.valueOf(1e300));
+
+        Assert.assertSame("Unexpected sequence", sequence, sequence.append(BigDecimal.valueOf(-0.25)));
+        Assert.assertEquals("Unexpected content",
+            List.of(BigDecimal.valueOf(1.5), BigDecimal.valueOf(1e300), BigDecimal.valueOf(-0.25)),
+            sequence.toList());
+    }
+
+
+    /**
+     * Unit test the values stored in a {@link BooleanSequence}
+     */
+    @Test
+    public void test_BooleanSequence() {
+        Sequence<Boolean> sequence = Sequence.of(Boolean.class);
+
+        sequence.set(0, true);
+        sequence.set(2, false);
+        sequence.set(3, true);
+        sequence.set(3, null);
+
+        Assert.assertEquals("Unexpected content", Arrays.asList(true, null, false, null), sequence.toList());
+        Assert.assertFalse("Remove 3", sequence.remove(3));
+        Assert.assertEquals("Unexpected size", 3, sequence.size());
+    }
+
+
+    /**
+     * Unit test the values stored in an {@link EnumSequence}
+     */
+    @Test
+    public void test_EnumSequence() {
+        Sequence<Enum> sequence = Sequence.of(Enum.class);
+
+        sequence.set(1, Colour.BLUE);
+        sequence.append(Colour.RED);
+
+        Assert.assertTrue("Unexpected sequence", sequence instanceof EnumSequence);
+        Assert.assertEquals("Unexpected content", Arrays.asList(null, Colour.BLUE, Colour.RED), sequence.toList());
+        Assert.assertSame("Unexpected element", Colour.BLUE, sequence.get(1));
+    }
+
+
+    /**
+     * Unit test a specialised {@link Sequence} is widened when it can not store a value
+     */
+    @Test
+    public void test_Widen() {
+        Sequence<Number> longs = Sequence.of(Number.class, BigDecimal.ONE);
+        Sequence<Number> wider = longs.append(new BigDecimal("2.50"));
+
+        Assert.assertTrue("Unexpected wider sequence", wider instanceof ObjectSequence);
+        Assert.assertEquals("Unexpected content", List.of(BigDecimal.ONE, new BigDecimal("2.50")), wider.toList());
+        Assert.assertEquals("Unexpected type", Number.class, wider.getType());
+    }
+
+
+    /**
+     * Unit test an empty specialised {@link Sequence} is re-specialised for the first value
+     */
+    @Test
+    public void test_Widen_Empty() {
+        Sequence<Number> empty = Sequence.of(Number.class);
+        Sequence<Number> doubles = empty.set(2, BigDecimal.valueOf(0.5));
+
+        Assert.assertTrue("Unexpected sequence", doubles instanceof DoubleSequence);
+        Assert.assertEquals("Unexpected content", Arrays.asList(null, null, BigDecimal.valueOf(0.5)), doubles.toList());
+
+        Sequence<Enum> enums = Sequence.of(Enum.class, Colour.GREEN);
+        Sequence<Enum> mixed = enums.append(Shape.SQUARE);
+
+        Assert.assertTrue("Unexpected mixed sequence", mixed instanceof ObjectSequence);
+        Assert.assertEquals("Unexpected mixed content", List.of(Colour.GREEN, Shape.SQUARE), mixed.toList());
+    }
+
+
+    /**
+     * Unit test {@link Sequence#set(int, Object)} for a specialised sequence
+     */
+    @Test
+    public void test_set_wrongType_Specialised() {
+        Sequence<?> sequence = Sequence.of(Boolean.class, true);
+
+        Exception actual = Assert.assertThrows(DocumentException.class,
+                () -> ((Sequence<String>) sequence).set(3, "Hello"));
+
+        Assert.assertEquals("Unexpected error", "Attempt to store String in an sequence of Boolean", actual.getMessage());
+    }
+
+
+    /**
+     * Unit test {@link Sequence#copy}
+     */
+    @Test
+    public void test_copy() {
+        Sequence<Number> sequence = Sequence.of(Number.class, 1, 2, null, 4);
+
+        sequence.share();
+
+        Sequence<Number> copy = sequence.copy(n -> (n == null ? null : BigDecimal.valueOf(n.longValue() * 10)));
+
+        Assert.assertTrue("Not shared", sequence.isShared());
+        Assert.assertFalse("Copy was shared", copy.isShared());
+        Assert.assertEquals("Unexpected content", Arrays.asList(10L, 20L, null, 40L), toLongs(copy));
+        Assert.assertEquals("Original changed", Arrays.asList(1L, 2L, null, 4L), toLongs(sequence));
+
+        copy.append(BigDecimal.valueOf(0.5));
+        Assert.assertEquals("Original resized", 4, sequence.size());
+    }
+
+
+    private List<Long> toLongs(Sequence<Number> sequence) {
+        List<Long> result = new ArrayList<>();
+
+        for (Number value : sequence) {
+            result.add(value == null ? null : value.longValue());
+        }
+
+        return result;
+    }
+}
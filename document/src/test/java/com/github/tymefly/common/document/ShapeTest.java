@@ -0,0 +1,147 @@
+package com.github.tymefly.common.document;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link Shape}
+ */
+public class ShapeTest {
+    /**
+     * Unit test {@link Shape#add(String)}
+     */
+    @Test
+    public void test_add_Shared() {
+        Shape first = Shape.EMPTY.add("a").add("b");
+        Shape second = Shape.EMPTY.add("a").add("b");
+        Shape other = Shape.EMPTY.add("b").add("a");
+
+        Assert.assertSame("Shape was not shared", first, second);
+        Assert.assertNotSame("Key order was ignored", first, other);
+        Assert.assertTrue("Unexpected type", first.isShared());
+
+        Assert.assertEquals("Unexpected size", 2, first.size());
+        Assert.assertEquals("Unexpected slot for a", 0, first.slotOf("a"));
+        Assert.assertEquals("Unexpected slot for b", 1, first.slotOf("b"));
+        Assert.assertEquals("Unexpected slot for c", -1, first.slotOf("c"));
+        Assert.assertEquals("Unexpected slot for non-string", -1, first.slotOf(1));
+        Assert.assertEquals("Unexpected key", "b", first.key(1));
+        Assert.assertEquals("EMPTY was modified", 0, Shape.EMPTY.size());
+    }
+
+
+    /**
+     * Unit test {@link Shape#remove(int)}
+     */
+    @Test
+    public void test_remove_Shared() {
+        Shape shape = Shape.EMPTY.add("x").add("y").add("z");
+        Shape removed = shape.remove(1);
+
+        Assert.assertSame("Unexpected shape", Shape.EMPTY.add("x").add("z"), removed);
+        Assert.assertEquals("Original was modified", 3, shape.size());
+        Assert.assertEquals("Unexpected slot", 1, removed.slotOf("z"));
+    }
+
+
+    /**
+     * Unit test {@link Shape#add(String)}
+     */
+    @Test
+    public void test_add_TooManyKeys() {
+        Shape shape = Shape.EMPTY;
+
+        for (int i = 0; i < 100; i++) {
+            shape = shape.add("many-keys-" + i);
+        }
+
+        Assert.assertFalse("Large shapes should be private", shape.isShared());
+        Assert.assertEquals("Unexpected size", 100, shape.size());
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("Unexpected slot for " + i, i, shape.slotOf("many-keys-" + i));
+        }
+
+        Assert.assertSame("Private shapes are updated in place", shape, shape.add("another"));
+        Assert.assertSame("Private shapes are updated in place", shape, shape.remove(0));
+        Assert.assertEquals("Unexpected slot after removal", 98, shape.slotOf("many-keys-99"));
+        Assert.assertEquals("Removed key", -1, shape.slotOf("many-keys-0"));
+    }
+
+
+    /**
+     * Unit test {@link Shape#add(String)}
+     */
+    @Test
+    public void test_add_TooManyTransitions() {
+        Shape root = Shape.EMPTY.add("transitions");
+        List<Shape> live = new ArrayList<>();           // Transitions to shapes that are not used can be purged
+
+        for (int i = 0; i < 100; i++) {
+            live.add(root.add("key-" + i));
+        }
+
+        Shape last = live.get(99);
+
+        Assert.assertFalse("Transitions should be limited", last.isShared());
+        Assert.assertEquals("Unexpected slot", 1, last.slotOf("key-99"));
+        Assert.assertTrue("Early transitions are still shared", root.add("key-0").isShared());
+    }
+
+
+    /**
+     * Unit test {@link Shape#copy()}
+     */
+    @Test
+    public void test_copy() {
+        Shape shared = Shape.EMPTY.add("copy");
+        Shape unshared = shared;
+
+        for (int i = 0; i < 100; i++) {
+            unshared = unshared.add("copy-" + i);
+        }
+
+        Shape copy = unshared.copy();
+
+        copy.add("only in copy");
+
+        Assert.assertSame("Shared shapes are not copied", shared, shared.copy());
+        Assert.assertNotSame("Private shapes are copied", unshared, copy);
+        Assert.assertEquals("Copy was not independent", -1, unshared.slotOf("only in copy"));
+        Assert.assertEquals("Unexpected slot", 101, copy.slotOf("only in copy"));
+    }
+
+
+    /**
+     * Unit test shared shapes that are no longer used can be garbage collected, while shapes that are used are
+     * still shared
+     */
+    @Test
+    public void test_add_Retention() {
+        Shape kept = Shape.EMPTY.add("retention").add("kept");
+        List<WeakReference<Shape>> unused = new ArrayList<>();
+
+        for (int i = 0; i < 1_000; i++) {
+            DocumentImpl document = new DocumentImpl(null);
+            String key = "key" + UUID.randomUUID().toString().replace("-", "");
+
+            document.addString(() -> "retention", "value")
+                .addString(() -> key, "value");
+
+            unused.add(new WeakReference<>(document.getStructure().getShape()));
+        }
+
+        for (int attempt = 0; (attempt < 10) && unused.stream().anyMatch(shape -> shape.get() != null); attempt++) {
+            System.gc();
+        }
+
+        Assert.assertTrue("Unused shapes were retained", unused.stream().allMatch(shape -> shape.get() == null));
+        Assert.assertSame("Used shape is not shared", kept, Shape.EMPTY.add("retention").add("kept"));
+        Assert.assertTrue("Transitions were not purged", Shape.EMPTY.add("retention").add("new").isShared());
+    }
+}
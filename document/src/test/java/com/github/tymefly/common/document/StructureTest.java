@@ -1,6 +1,12 @@
 package com.github.tymefly.common.document;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -103,4 +109,113 @@ public class StructureTest {
                 structure.hashCode(),
                 differentKeys.hashCode());
     }
-}
\ No newline at end of file
+
+    /**
+     * Unit test {@link Structure#remove}
+     */
+    @Test
+    public void test_remove() {
+        Assert.assertEquals("Unexpected value", 0, structure.remove("Zero"));
+        Assert.assertNull("Remove missing", structure.remove("Zero"));
+        Assert.assertNull("Remove non-string", structure.remove(1));
+
+        Assert.assertEquals("Unexpected size", 1, structure.size());
+        Assert.assertFalse("Key was not removed", structure.containsKey("Zero"));
+        Assert.assertTrue("Key was removed", structure.containsKey("Key"));
+    }
+
+    /**
+     * Unit test {@link Structure} with enough keys to be indexed
+     */
+    @Test
+    public void test_Large() {
+        Map<String, Object> expected = new LinkedHashMap<>();
+        Structure large = new Structure();
+
+        for (int i = 0; i < 100; i++) {
+            expected.put("key-" + i, i);
+            large.put("key-" + i, i);
+        }
+
+        large.put("key-50", "updated");
+        expected.put("key-50", "updated");
+
+        for (int i = 0; i < 100; i += 3) {
+            Assert.assertEquals("Unexpected removal " + i, i == 50 ? "updated" : i, large.remove("key-" + i));
+            expected.remove("key-" + i);
+        }
+
+        large.put("key-0", null);
+        expected.put("key-0", null);
+
+        Assert.assertEquals("Unexpected size", expected.size(), large.size());
+        Assert.assertEquals("Unexpected content", expected, large);
+        Assert.assertEquals("Unexpected content", large, expected);
+        Assert.assertEquals("Unexpected hashCode", expected.hashCode(), large.hashCode());
+        Assert.assertEquals("Unexpected order", new ArrayList<>(expected.keySet()), new ArrayList<>(large.keySet()));
+        Assert.assertTrue("Null value", large.containsKey("key-0"));
+        Assert.assertFalse("Missing value", large.containsKey("key-3"));
+        Assert.assertEquals("Indexed value", 98, large.get("key-98"));
+    }
+
+    /**
+     * Unit test {@link Structure#entrySet}
+     */
+    @Test
+    public void test_entrySet() {
+        List<String> keys = new ArrayList<>();
+
+        structure.add("Other", "x");
+
+        for (var entry : structure.entrySet()) {
+            keys.add(entry.getKey());
+        }
+
+        Assert.assertEquals("Unexpected order", List.of("Key", "Zero", "Other"), keys);
+
+        Iterator<Map.Entry<String, Object>> iterator = structure.entrySet().iterator();
+
+        iterator.next();
+        iterator.remove();
+        Assert.assertEquals("Unexpected next", "Zero", iterator.next().getKey());
+        Assert.assertEquals("Unexpected content", Map.of("Zero", 0, "Other", "x"), structure);
+
+        structure.add("New", 1);
+        Assert.assertThrows("Fail fast", ConcurrentModificationException.class, iterator::next);
+
+        structure.clear();
+        Assert.assertTrue("Not cleared", structure.isEmpty());
+    }
+
+    /**
+     * Unit test {@link Structure#getShape()}
+     */
+    @Test
+    public void test_SharedShape() {
+        Assert.assertSame("Shape was not shared", structure.getShape(), same.getShape());
+        Assert.assertNotSame("Different keys", structure.getShape(), differentKeys.getShape());
+
+        same.remove("Key");
+        same.add("Key", "value");
+
+        Assert.assertEquals("Content changed", structure, same);
+        Assert.assertNotSame("Order changed", structure.getShape(), same.getShape());
+    }
+
+
+    /**
+     * Unit test {@link Structure#copy}
+     */
+    @Test
+    public void test_copy() {
+        Structure copy = structure.copy(v -> (v instanceof Integer i ? i + 1 : v));
+
+        copy.add("Added", "x");
+        copy.remove("Key");
+
+        Assert.assertEquals("Unexpected copy", Map.of("Zero", 1, "Added", "x"), copy);
+        Assert.assertEquals("Original changed", 2, structure.size());
+        Assert.assertEquals("Original value changed", 0, structure.get("Zero"));
+        Assert.assertEquals("Original key removed", "value", structure.get("Key"));
+    }
+}
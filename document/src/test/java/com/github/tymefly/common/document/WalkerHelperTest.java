@@ -1,5 +1,6 @@
 package com.github.tymefly.common.document;
 
+import com.github.tymefly.common.document.key.CompiledKey;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -7,11 +8,11 @@ import org.junit.Test;
  * Unit test for {@link WalkerHelper}
  */
 public class WalkerHelperTest {
-    private final WalkerKey key = WalkerKey.from(() -> "a[2].b[99].c");
+    private final CompiledKey key = CompiledKey.of(() -> "a[2].b[99].c");
 
 
     /**
-     * Unit test {@link WalkerHelper#cast(Class, WalkerKey, Object)}
+     * Unit test {@link WalkerHelper#cast(Class, CompiledKey, Object)}
      */
     @Test
     public void test_cast_success() {
@@ -21,7 +22,7 @@ public class WalkerHelperTest {
     }
 
     /**
-     * Unit test {@link WalkerHelper#cast(Class, WalkerKey, Object)}
+     * Unit test {@link WalkerHelper#cast(Class, CompiledKey, Object)}
      */
     @Test
     public void test_cast_failure() {
@@ -35,7 +36,7 @@ public class WalkerHelperTest {
 
 
     /**
-     * Unit test {@link WalkerHelper#get(Class, Structure, WalkerKey)}
+     * Unit test {@link WalkerHelper#get(Class, Structure, CompiledKey)}
      */
     @Test
     public void test_get() {
@@ -46,17 +47,17 @@ public class WalkerHelperTest {
                 .add("c", child)
                 .add("e", sequence);
 
-        Assert.assertNull("Missing Value", WalkerHelper.get(Number.class, data, WalkerKey.from(() -> "a[12]")));
-        Assert.assertEquals("Expected Number", 12, WalkerHelper.get(Number.class, data, WalkerKey.from(() -> "b")));
-        Assert.assertNull("Missing sequence", WalkerHelper.get(Document.class, data, WalkerKey.from(() -> "d[99]")));
-        Assert.assertNull("Missing Indexed", WalkerHelper.get(String.class, data, WalkerKey.from(() -> "e[99]")));
-        Assert.assertNull("Bad key", WalkerHelper.get(String.class, data, WalkerKey.from(() -> "f")));
-        Assert.assertNull("Bad key indexed", WalkerHelper.get(String.class, data, WalkerKey.from(() -> "f[2]")));
+        Assert.assertNull("Missing Value", WalkerHelper.get(Number.class, data, CompiledKey.of(() -> "a[12]")));
+        Assert.assertEquals("Expected Number", 12, WalkerHelper.get(Number.class, data, CompiledKey.of(() -> "b")));
+        Assert.assertNull("Missing sequence", WalkerHelper.get(Document.class, data, CompiledKey.of(() -> "d[99]")));
+        Assert.assertNull("Missing Indexed", WalkerHelper.get(String.class, data, CompiledKey.of(() -> "e[99]")));
+        Assert.assertNull("Bad key", WalkerHelper.get(String.class, data, CompiledKey.of(() -> "f")));
+        Assert.assertNull("Bad key indexed", WalkerHelper.get(String.class, data, CompiledKey.of(() -> "f[2]")));
     }
 
 
     /**
-     * Unit test {@link WalkerHelper#get(Class, Structure, WalkerKey)}
+     * Unit test {@link WalkerHelper#get(Class, Structure, CompiledKey)}
      */
     @Test
     public void test_get_failure() {
@@ -66,7 +67,7 @@ public class WalkerHelperTest {
 
         DocumentException exception =
                 Assert.assertThrows(DocumentException.class,
-                                    () ->  WalkerHelper.get(Number.class, data, WalkerKey.from(() -> "s")));
+                                    () ->  WalkerHelper.get(Number.class, data, CompiledKey.of(() -> "s")));
 
         Assert.assertEquals("Unexpected message",
                 "Data at 's' is of type Sequence, but Number was expected",
@@ -75,13 +76,13 @@ public class WalkerHelperTest {
 
 
     /**
-     * Unit test {@link WalkerHelper#getSequence(Structure, WalkerKey, Class)}
+     * Unit test {@link WalkerHelper#getSequence(Structure, CompiledKey, Class)}
      */
     @Test
     public void test_getSequence_happyPath() {
         Sequence<Integer> raw = Sequence.of(Integer.class, 1, 2, 3);
         Structure structure = new Structure().add("a", raw);
-        WalkerKey key = WalkerKey.from(() -> "a[0]");
+        CompiledKey key = CompiledKey.of(() -> "a[0]");
 
         Sequence<Integer> actual = WalkerHelper.getSequence(structure, key, Integer.class);
 
@@ -90,11 +91,11 @@ public class WalkerHelperTest {
     }
 
     /**
-     * Unit test {@link WalkerHelper#getSequence(Structure, WalkerKey, Class)}
+     * Unit test {@link WalkerHelper#getSequence(Structure, CompiledKey, Class)}
      */
     @Test
     public void test_getSequence_Null() {
-        WalkerKey key = WalkerKey.from(() -> "a[17]");
+        CompiledKey key = CompiledKey.of(() -> "a[17]");
         Structure structure = new Structure().add("a", null);
 
         Exception e = Assert.assertThrows(DocumentException.class,
@@ -104,11 +105,11 @@ public class WalkerHelperTest {
     }
 
     /**
-     * Unit test {@link WalkerHelper#getSequence(Structure, WalkerKey, Class)}
+     * Unit test {@link WalkerHelper#getSequence(Structure, CompiledKey, Class)}
      */
     @Test
     public void test_getSequence_Missing() {
-        WalkerKey key = WalkerKey.from(() -> "a[2]");
+        CompiledKey key = CompiledKey.of(() -> "a[2]");
         Structure structure = new Structure();
 
         Sequence<String> actual = WalkerHelper.getSequence(structure, key, String.class);
@@ -120,11 +121,11 @@ public class WalkerHelperTest {
     }
 
     /**
-     * Unit test {@link WalkerHelper#getSequence(Structure, WalkerKey, Class)}
+     * Unit test {@link WalkerHelper#getSequence(Structure, CompiledKey, Class)}
      */
     @Test
     public void test_getSequence_NotASequence() {
-        WalkerKey key = WalkerKey.from(() -> "a.b");
+        CompiledKey key = CompiledKey.of(() -> "a.b");
         Object raw = "Hello";
         Structure structure = new Structure().add("a", raw);
 
@@ -135,11 +136,11 @@ public class WalkerHelperTest {
     }
 
     /**
-     * Unit test {@link WalkerHelper#getSequence(Structure, WalkerKey, Class)}
+     * Unit test {@link WalkerHelper#getSequence(Structure, CompiledKey, Class)}
      */
     @Test
     public void test_getSequence_wrongType() {
-        WalkerKey key = WalkerKey.from(() -> "a[1]");
+        CompiledKey key = CompiledKey.of(() -> "a[1]");
         Object raw = Sequence.of(String.class, "Hello");
         Structure structure = new Structure().add("a", raw);
 
@@ -150,13 +151,13 @@ public class WalkerHelperTest {
     }
 
     /**
-     * Unit test {@link WalkerHelper#getSequence(Structure, WalkerKey, Class)}
+     * Unit test {@link WalkerHelper#getSequence(Structure, CompiledKey, Class)}
      */
     @Test
     public void test_getSequence_ChangeType() {
         Sequence<Integer> raw = Sequence.of(Integer.class);
         Structure structure = new Structure().add("a", raw);
-        WalkerKey key = WalkerKey.from(() -> "a[0]");
+        CompiledKey key = CompiledKey.of(() -> "a[0]");
 
         Sequence<String> actual = WalkerHelper.getSequence(structure, key, String.class);
 
@@ -3,6 +3,7 @@ package com.github.tymefly.common.document;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
+import com.github.tymefly.common.document.key.CompiledKey;
 import com.github.tymefly.common.document.key.DocumentKey;
 import org.junit.Assert;
 import org.junit.Before;
@@ -20,7 +21,7 @@ import static org.mockito.Mockito.when;
  */
 public class WalkerTest {
     private BiFunction<Document, DocumentKey, String> toWalk;
-    private BiFunction<DocumentImpl, WalkerKey, String> whenFound;
+    private BiFunction<DocumentImpl, CompiledKey, String> whenFound;
     private Supplier<String> whenNotFound;
 
     private AbstractDocument document;
@@ -41,7 +42,7 @@ public class WalkerTest {
 
         when(toWalk.apply(any(Document.class), any(DocumentKey.class)))
                 .thenReturn("continue");
-        when(whenFound.apply(any(DocumentImpl.class), any(WalkerKey.class)))
+        when(whenFound.apply(any(DocumentImpl.class), any(CompiledKey.class)))
                 .thenReturn("found");
         when(whenNotFound.get())
                 .thenReturn("NOT_FOUND");
@@ -66,7 +67,7 @@ public class WalkerTest {
         Assert.assertEquals("Unexpected result", "continue", result);
 
         verify(toWalk).apply(child.capture(), key.capture());
-        verify(whenFound, never()).apply(any(DocumentImpl.class), any(WalkerKey.class));
+        verify(whenFound, never()).apply(any(DocumentImpl.class), any(CompiledKey.class));
         verify(whenNotFound, never()).get();
 
         Assert.assertEquals("Unexpected child",
@@ -87,8 +88,8 @@ public class WalkerTest {
 
         Assert.assertEquals("Unexpected result", "NOT_FOUND", result);
 
-        verify(toWalk, never()).apply(any(DocumentImpl.class), any(WalkerKey.class));
-        verify(whenFound, never()).apply(any(DocumentImpl.class), any(WalkerKey.class));
+        verify(toWalk, never()).apply(any(DocumentImpl.class), any(CompiledKey.class));
+        verify(whenFound, never()).apply(any(DocumentImpl.class), any(CompiledKey.class));
         verify(whenNotFound).get();
     }
 
@@ -99,13 +100,13 @@ public class WalkerTest {
     @Test
     public void test_FoundUltimateChild() {
         ArgumentCaptor<DocumentImpl> child = ArgumentCaptor.forClass(DocumentImpl.class);
-        ArgumentCaptor<WalkerKey> key = ArgumentCaptor.forClass(WalkerKey.class);
+        ArgumentCaptor<CompiledKey> key = ArgumentCaptor.forClass(CompiledKey.class);
 
         String result = walker.walk(document, () -> "key");
 
         Assert.assertEquals("Unexpected result", "found", result);
 
-        verify(toWalk, never()).apply(any(DocumentImpl.class), any(WalkerKey.class));
+        verify(toWalk, never()).apply(any(DocumentImpl.class), any(CompiledKey.class));
         verify(whenFound).apply(child.capture(), key.capture());
         verify(whenNotFound, never()).get();
 
@@ -0,0 +1,951 @@
+package com.github.tymefly.common.document.decorator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nonnull;
+
+import com.github.tymefly.common.document.AbstractDocument;
+import com.github.tymefly.common.document.CommonDocument;
+import com.github.tymefly.common.document.Document;
+import com.github.tymefly.common.document.ReadableDocument;
+import com.github.tymefly.common.document.key.DocumentKey;
+import com.github.tymefly.common.document.visitor.DocumentVisitor;
+import com.github.tymefly.common.document.visitor.util.Copy;
+import com.github.tymefly.common.document.visitor.util.Size;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ConcurrentDocument}
+ */
+public class ConcurrentDocumentTest {
+    private enum Type { ONE, TWO, THREE, FOUR }
+
+    private static final DocumentKey VALUE = () -> "Value";
+    private static final DocumentKey DATA = () -> "Data";
+    private static final DocumentKey EMPTY = () -> "Empty";
+    private static final DocumentKey NULL = () -> "Null";
+    private static final DocumentKey LIST = () -> "List";
+
+    private ConcurrentDocument doc;
+
+
+    @Before
+    public void setUp() {
+        AbstractDocument<?> backing = (AbstractDocument<?>) Document.newInstance();
+        doc = new ConcurrentDocument(backing);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#get(DocumentKey, Function)} does not block other readers
+     */
+    @Test
+    public void test_concurrentReaders() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        doc.addString(VALUE, "Data");
+
+        try {
+            Future<String> other = executor.submit(() -> doc.get(VALUE, v -> await(barrier, v)));
+
+            Assert.assertEquals("Unexpected value", "Data", doc.get(VALUE, v -> await(barrier, v)));
+            Assert.assertEquals("Unexpected value", "Data", other.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Stress test {@link ConcurrentDocument}. Producers update different child documents while other threads
+     * read, visit and clone the document
+     */
+    @Test
+    public void test_concurrentProducers() throws Exception {
+        int producers = 6;
+        int updates = 2_000;
+        Document root = Document.factory().withConcurrency().build();
+        ExecutorService executor = Executors.newFixedThreadPool(producers + 2);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicBoolean valid = new AtomicBoolean(true);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        try {
+            for (int p = 0; p < producers; p++) {
+                String producer = "producer" + p;
+                DocumentKey values = () -> producer + ".values";
+                DocumentKey count = () -> producer + ".count";
+
+                tasks.add(executor.submit(() -> {
+                    for (int i = 1; i <= updates; i++) {
+                        root.appendNumber(values, i)
+                            .addNumber(count, i);
+                    }
+                }));
+            }
+
+            Future<?> cloner = executor.submit(() -> {
+                while (running.get()) {
+                    Document clone = (Document) root.clone();
+
+                    for (int p = 0; p < producers; p++) {
+                        String producer = "producer" + p;
+                        int size = clone.getAll(() -> producer + ".values", Number.class).size();
+                        int count = clone.getOrDefault(() -> producer + ".count", 0);
+
+                        if ((size != count) && (size != count + 1)) {
+                            valid.set(false);
+                        }
+                    }
+                }
+            });
+            Future<?> visitor = executor.submit(() -> {
+                while (running.get()) {
+                    root.accept(new Size());
+                    root.getOptional(() -> "producer0.count", Number.class);
+                }
+            });
+
+            for (var task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+
+            running.set(false);
+            cloner.get(30, TimeUnit.SECONDS);
+            visitor.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertTrue("Clone was not consistent", valid.get());
+
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+
+            Assert.assertEquals("Lost appends for " + p,
+                                updates,
+                                root.getAll(() -> "producer" + producer + ".values", Number.class).size());
+            Assert.assertEquals("Lost updates for " + p,
+                                updates,
+                                (int) root.get(() -> "producer" + producer + ".count", Integer.class));
+            Assert.assertTrue("Child should be concurrent",
+                              root.get(() -> "producer" + producer, Document.class).wraps(ConcurrentDocument.class));
+        }
+
+        Assert.assertEquals("Unexpected count", producers * (updates + 1), (int) root.accept(new Size()));
+    }
+
+
+    /**
+     * Unit test {@link ConcurrentDocument#batch(java.util.function.Consumer)} and
+     * {@link ConcurrentDocument#batch(DocumentKey, java.util.function.Consumer)} - readers see all the updates in
+     * a batch at the same time
+     */
+    @Test
+    public void test_batch() {
+        Document root = Document.factory().withConcurrency().build();
+        AtomicBoolean valid = new AtomicBoolean(true);
+
+        IntStream.rangeClosed(1, 20_000)
+            .parallel()
+            .forEach(i -> {
+                if ((i % 4) == 0) {
+                    root.batch(b -> b.addNumber(() -> "first", i)
+                                     .addNumber(() -> "second", i)
+                                     .appendNumber(() -> "values", i));
+                } else if ((i % 4) == 1) {
+                    root.batch(() -> "child", c -> c.addNumber(() -> "first", i)
+                                                    .addNumber(() -> "second", i));
+                } else {
+                    ReadableDocument snapshot = root.snapshot();
+                    Number first = snapshot.getOptional(() -> "first", Number.class);
+                    Number second = snapshot.getOptional(() -> "second", Number.class);
+                    Number childFirst = snapshot.getOptional(() -> "child.first", Number.class);
+                    Number childSecond = snapshot.getOptional(() -> "child.second", Number.class);
+
+                    if (!Objects.equals(first, second) || !Objects.equals(childFirst, childSecond)) {
+                        valid.set(false);
+                    }
+                }
+            });
+
+        Assert.assertTrue("Batch was not atomic", valid.get());
+        Assert.assertEquals("Lost updates", 5_000, root.getAll(() -> "values", Number.class).size());
+        Assert.assertTrue("Child should be concurrent",
+                          root.get(() -> "child", Document.class).wraps(ConcurrentDocument.class));
+    }
+
+
+    /**
+     * Unit test {@link ConcurrentDocument#child(DocumentKey)} and {@link ConcurrentDocument#at(DocumentKey)}
+     */
+    @Test
+    public void test_cursor() {
+        Document root = Document.factory().withConcurrency().build();
+
+        IntStream.rangeClosed(1, 20_000)
+            .parallel()
+            .forEach(i -> {
+                Document child = root.child(() -> "parent.child" + (i % 4));
+
+                child.increment(() -> "count", 1);
+                root.at(() -> "parent").getOptional(() -> "child0.count", Number.class);
+            });
+
+        for (int c = 0; c < 4; c++) {
+            String name = "parent.child" + c;
+            Document child = root.child(() -> name);
+
+            Assert.assertTrue("Child should be concurrent", child.wraps(ConcurrentDocument.class));
+            Assert.assertEquals("Lost updates", 5_000, (int) child.get(() -> "count", Integer.class));
+        }
+    }
+
+
+    /**
+     * Unit test {@link ConcurrentDocument#getLong(DocumentKey, long)},
+     * {@link ConcurrentDocument#getInt(DocumentKey, int)}, {@link ConcurrentDocument#getDouble(DocumentKey, double)}
+     * and {@link ConcurrentDocument#getBoolean(DocumentKey, boolean)} while the document is updated
+     */
+    @Test
+    public void test_getPrimitives() {
+        AtomicBoolean valid = new AtomicBoolean(true);
+
+        doc.addNumber(VALUE, -1)
+           .addBoolean(DATA, true);
+
+        IntStream.rangeClosed(1, 20_000)
+            .parallel()
+            .forEach(i -> {
+                if ((i % 4) == 0) {
+                    doc.addNumber(VALUE, -i)
+                       .addNumber(() -> "child.value", i + 0.5)
+                       .addBoolean(DATA, (i % 8) == 0);
+                } else {
+                    boolean ok = (doc.getLong(VALUE, 0) < 0) &&
+                                 (doc.getInt(VALUE, 0) < 0) &&
+                                 (doc.getDouble(() -> "child.value", 0.5) % 1 == 0.5);
+
+                    doc.getBoolean(DATA, false);
+
+                    if (!ok) {
+                        valid.set(false);
+                    }
+                }
+            });
+
+        Assert.assertTrue("Read invalid data", valid.get());
+
+        doc.addNumber(VALUE, -20_000)
+           .addNumber(() -> "child.value", 20_000.5)
+           .addBoolean(DATA, true);
+
+        Assert.assertEquals("getLong", -20_000L, doc.getLong(VALUE, 0));
+        Assert.assertEquals("getInt", -20_000, doc.getInt(VALUE, 0));
+        Assert.assertEquals("getDouble", 20_000.5, doc.getDouble(() -> "child.value", 0), 0.0);
+        Assert.assertTrue("getBoolean", doc.getBoolean(DATA, false));
+        Assert.assertEquals("default", 42L, doc.getLong(EMPTY, 42));
+    }
+
+
+    /**
+     * Unit test {@link ConcurrentDocument#snapshot()} while the document is updated
+     */
+    @Test
+    public void test_snapshot() throws Exception {
+        int updates = 10_000;
+        Document root = Document.factory().withConcurrency().build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<ReadableDocument> snapshots = new ArrayList<>();
+        List<String> serialized = new ArrayList<>();
+
+        try {
+            Future<?> producer = executor.submit(() -> {
+                for (int i = 1; i <= updates; i++) {
+                    root.appendNumber(() -> "child.values", i)
+                        .increment(() -> "child.count", 1);
+                }
+            });
+
+            while (!producer.isDone()) {
+                ReadableDocument snapshot = root.snapshot();
+
+                snapshots.add(snapshot);
+                serialized.add(snapshot.toString());
+            }
+
+            producer.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < snapshots.size(); i++) {
+            ReadableDocument snapshot = snapshots.get(i);
+            int size = snapshot.getAll(() -> "child.values", Number.class).size();
+            int count = snapshot.getOrDefault(() -> "child.count", 0);
+
+            Assert.assertFalse("Snapshot " + i + " can be mutated", snapshot.canMutate());
+            Assert.assertEquals("Snapshot " + i + " was updated", serialized.get(i), snapshot.toString());
+            Assert.assertTrue("Snapshot " + i + " is inconsistent", (size == count) || (size == count + 1));
+        }
+
+        Assert.assertEquals("Lost updates", updates, (int) root.get(() -> "child.count", Integer.class));
+    }
+
+
+    /**
+     * Unit test {@link ConcurrentDocument#getAll(DocumentKey, Class)} while the document is updated
+     */
+    @Test
+    public void test_concurrentUpdates() {
+        AtomicBoolean valid = new AtomicBoolean(true);
+
+        IntStream.rangeClosed(1, 20_000)
+            .parallel()
+            .forEach(i -> {
+                if ((i % 4) == 0) {
+                    doc.appendNumber(DATA, i)
+                       .addString(() -> "Key" + (i % 100), "Value-" + i);
+                } else {
+                    List<? extends Number> values = doc.getAll(DATA, Number.class);
+
+                    if (!values.stream().allMatch(v -> (v.intValue() % 4) == 0)) {
+                        valid.set(false);
+                    }
+
+                    doc.getOptional(() -> "Key" + (i % 100), String.class);
+                }
+            });
+
+        Assert.assertTrue("Read invalid data", valid.get());
+        Assert.assertEquals("Lost updates", 5_000, doc.getAll(DATA, Number.class).size());
+        Assert.assertEquals("Unexpected count", 5_000 + 25, (int) doc.accept(new Size()));
+    }
+
+
+    /**
+     * Unit test {@link ConcurrentDocument#getOptional(DocumentKey, Class)} returns a sequence that can be
+     * iterated while another thread appends to it
+     */
+    @Test
+    public void test_getOptional_ConcurrentAppend() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        doc.addNumbers(LIST, 0);
+
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 1; running.get() && (i < 100_000); i++) {
+                    doc.appendNumber(LIST, i);
+                }
+            });
+
+            IntStream.rangeClosed(1, 2_000)
+                .parallel()
+                .forEach(i -> {
+                    long previous = -1;
+
+                    for (Object value : (List<?>) doc.getOptional(LIST, Object.class)) {
+                        long current = ((Number) value).longValue();
+
+                        Assert.assertEquals("Unexpected element", previous + 1, current);
+                        previous = current;
+                    }
+                });
+
+            running.set(false);
+            writer.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Unit test {@link ConcurrentDocument#increment(DocumentKey, long)} and
+     * {@link ConcurrentDocument#add(DocumentKey, double)} do not lose updates
+     */
+    @Test
+    public void test_concurrentCounters() {
+        Document root = Document.factory().withConcurrency().build();
+
+        IntStream.rangeClosed(1, 20_000)
+            .parallel()
+            .forEach(i -> {
+                root.increment(() -> "stats.count", 1)
+                    .increment(() -> "total", i)
+                    .add(() -> "stats.half", 0.5);
+
+                if ((i % 1_000) == 0) {
+                    root.accumulate(() -> "stats.max", n -> (n == null ? i : Math.max(n.intValue(), i)));
+                }
+            });
+
+        Assert.assertEquals("Lost increments", 20_000, (int) root.get(() -> "stats.count", Integer.class));
+        Assert.assertEquals("Lost totals", 200_010_000L, (long) root.get(() -> "total", Long.class));
+        Assert.assertEquals("Lost additions", 10_000.0, root.get(() -> "stats.half", Double.class), 0.0);
+        Assert.assertEquals("Lost accumulations", 20_000, (int) root.get(() -> "stats.max", Integer.class));
+    }
+
+
+    /**
+     * Unit test {@link ConcurrentDocument#hashCode()} does not cache hash codes of incomplete updates
+     */
+    @Test
+    public void test_concurrentHashCode() {
+        Document root = Document.factory().withConcurrency().build();
+
+        IntStream.rangeClosed(1, 10_000)
+            .parallel()
+            .forEach(i -> {
+                if ((i % 2) == 0) {
+                    root.increment(() -> "stats.count", 1)
+                        .addNumber(() -> "values.v" + (i % 100), i % 100);
+                } else {
+                    root.hashCode();
+                }
+            });
+
+        Document expected = Document.newInstance()
+            .addNumber(() -> "stats.count", 5_000);
+
+        for (int i = 0; i < 100; i += 2) {
+            String key = "values.v" + i;
+
+            expected.addNumber(() -> key, i);
+        }
+
+        Assert.assertEquals("Stale hash code", expected.hashCode(), root.hashCode());
+    }
+
+
+    /**
+     * Unit test {@link ConcurrentDocument#addString(DocumentKey, String)} and
+     * {@link ConcurrentDocument#appendString(DocumentKey, String)}
+     */
+    @Test
+    public void test_addString() {
+        doc.addString(VALUE, "Hello")
+           .addString(NULL, null)
+           .appendString(LIST, "1")
+           .appendString(LIST, "2");
+
+        Assert.assertEquals("strings",
+            Document.newInstance()
+                    .addString(VALUE, "Hello")
+                    .addString(NULL, null)
+                    .addStrings(LIST, "1", "2"),
+            doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#addStrings(DocumentKey, String...)}
+     */
+    @Test
+    public void test_addStrings_Array() {
+        doc.addStrings(VALUE, null, "Hello", null, "World")
+           .addStrings(EMPTY)
+           .addStrings(NULL, (String) null);
+
+        Assert.assertEquals("addString(...)",
+            Document.newInstance()
+                    .addStrings(VALUE, null, "Hello", null, "World")
+                    .addStrings(EMPTY)
+                    .addStrings(NULL, (String) null),
+            doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#addStrings(DocumentKey, Collection)}
+     */
+    @Test
+    public void test_addStrings_List() {
+        doc.addStrings(VALUE, Arrays.asList(null, "Hello", null, "World"))
+           .addStrings(EMPTY, Collections.emptyList())
+           .addStrings(NULL, nullList(String.class));
+
+        Assert.assertEquals("addStrings(List)",
+            Document.newInstance()
+                    .addStrings(VALUE, null, "Hello", null, "World")
+                    .addStrings(EMPTY)
+                    .addStrings(NULL, nullList(String.class)),
+            doc);
+    }
+
+
+    /**
+     * Unit test {@link ConcurrentDocument#addNumber(DocumentKey, Number)} and
+     * {@link ConcurrentDocument#appendNumber(DocumentKey, Number)}
+     */
+    @Test
+    public void test_addNumber() {
+        doc.addNumber(VALUE, 12)
+           .addNumber(NULL, null)
+           .appendNumber(LIST, 1)
+           .appendNumber(LIST, 2);
+
+        Assert.assertEquals("addNumber()",
+            Document.newInstance()
+                    .addNumber(VALUE, 12)
+                    .addNumber(NULL, null)
+                    .addNumbers(LIST, 1, 2),
+            doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#addNumbers(DocumentKey, Number...)}
+     */
+    @Test
+    public void test_addNumbers_Array() {
+        doc.addNumbers(VALUE, 1, null, 2, null, 3)
+           .addNumbers(EMPTY)
+           .addNumbers(NULL, (Long) null);
+
+        Assert.assertEquals("addNumbers(...)",
+            Document.newInstance()
+                    .addNumbers(VALUE, 1, null, 2, null, 3)
+                    .addNumbers(EMPTY)
+                    .addNumbers(NULL, (Number) null),
+            doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#addNumbers(DocumentKey, Collection)}
+     */
+    @Test
+    public void test_addNumbers_List() {
+        doc.addNumbers(VALUE, Arrays.asList(1, null, 2, null, 3))
+           .addNumbers(EMPTY, Collections.emptyList())
+           .addNumbers(NULL, nullList(Number.class));
+
+        Assert.assertEquals("addNumbers(List)",
+            Document.newInstance()
+                    .addNumbers(VALUE, 1, null, 2, null, 3)
+                    .addNumbers(EMPTY)
+                    .addNumbers(NULL, nullList(Number.class)),
+            doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#addBoolean(DocumentKey, Boolean)} and
+     * {@link ConcurrentDocument#appendBoolean(DocumentKey, Boolean)}
+     */
+    @Test
+    public void test_addBoolean() {
+        doc.addBoolean(VALUE, true)
+           .addBoolean(NULL, null)
+           .appendBoolean(LIST, Boolean.TRUE)
+           .appendBoolean(LIST, Boolean.FALSE);
+
+        Assert.assertEquals("addBoolean()",
+            Document.newInstance()
+                    .addBoolean(VALUE, true)
+                    .addBoolean(NULL, null)
+                    .addBooleans(LIST, Boolean.TRUE, Boolean.FALSE),
+            doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#addBooleans(DocumentKey, Boolean...)}
+     */
+    @Test
+    public void test_addBooleans_Array() {
+        doc.addBooleans(VALUE, true, false, null)
+           .addBooleans(EMPTY)
+           .addBooleans(NULL, (Boolean) null);
+
+        Assert.assertEquals("addBooleans(...)",
+            Document.newInstance()
+                    .addBooleans(VALUE, true, false, null)
+                    .addBooleans(EMPTY)
+                    .addBooleans(NULL, (Boolean) null),
+            doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#addBooleans(DocumentKey, Boolean...)}
+     */
+    @Test
+    public void test_addBooleans_List() {
+        doc.addBooleans(VALUE, Arrays.asList(true, false, null))
+           .addBooleans(EMPTY, Collections.emptyList())
+           .addBooleans(NULL, nullList(Boolean.class));
+
+        Assert.assertEquals("addBooleans(List)",
+            Document.newInstance()
+                    .addBooleans(VALUE, true, false, null)
+                    .addBooleans(EMPTY)
+                    .addBooleans(NULL, nullList(Boolean.class)),
+            doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#addEnum(DocumentKey, Enum)} and
+     *      * {@link ConcurrentDocument#appendEnum(DocumentKey, Enum)}
+     */
+    @Test
+    public void test_addEnum() {
+        doc.addEnum(VALUE, Type.ONE)
+           .addEnum(NULL, null)
+           .appendEnum(LIST, Type.THREE)
+           .appendEnum(LIST, Type.FOUR);
+
+        Assert.assertEquals("addEnum()",
+            Document.newInstance()
+                    .addEnum(VALUE, Type.ONE)
+                    .addEnum(NULL, null)
+                    .addEnums(LIST, Type.THREE, Type.FOUR),
+            doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#addEnums(DocumentKey, Enum[])}
+     */
+    @Test
+    public void test_addEnums_Array() {
+        doc.addEnums(VALUE, Type.ONE, null, null, Type.TWO)
+           .addEnums(EMPTY)
+           .addEnums(NULL, (Type) null);
+
+        Assert.assertEquals("addEnums(...)",
+            Document.newInstance()
+                    .addEnums(VALUE, Type.ONE, null, null, Type.TWO)
+                    .addEnums(EMPTY, new ArrayList<Type>())
+                    .addEnums(NULL, (Type) null),
+            doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#addEnums(DocumentKey, Enum[])}
+     */
+    @Test
+    public void test_addEnums_List() {
+        doc.addEnums(VALUE, Arrays.asList(Type.ONE, null, null, Type.TWO))
+           .addEnums(EMPTY, new ArrayList<Type>())
+           .addEnums(NULL, nullList(Type.class));
+
+        Assert.assertEquals("addEnums(List)",
+            Document.newInstance()
+                    .addEnums(VALUE, Type.ONE, null, null, Type.TWO)
+                    .addEnums(EMPTY, new ArrayList<Type>())
+                    .addEnums(NULL, nullList(Type.class)),
+            doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#addDocument(DocumentKey, CommonDocument)} and
+     * {@link ConcurrentDocument#appendDocument(DocumentKey, CommonDocument)}
+     */
+    @Test
+    public void test_addDocument() {
+        doc.addDocument(VALUE, Document.empty())
+           .addDocument(NULL, null)
+           .appendDocument(LIST, null)
+           .appendDocument(LIST, Document.empty());
+
+        Assert.assertEquals("addDocument()",
+            Document.newInstance()
+                    .addDocument(VALUE, Document.empty())
+                    .addDocument(NULL, null)
+                    .addDocuments(LIST, null, Document.empty()),
+            doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#addDocuments(DocumentKey, CommonDocument...)}
+     */
+    @Test
+    public void test_addDocuments_Array() {
+        doc.addDocuments(VALUE, Document.empty(), null, null, Document.empty())
+           .addDocuments(EMPTY)
+           .addDocuments(NULL, (CommonDocument) null);
+
+        Assert.assertEquals("addDocuments(...)",
+            Document.newInstance()
+                    .addDocuments(VALUE,Document.empty(), null, null, Document.empty())
+                    .addDocuments(EMPTY)
+                    .addDocuments(NULL, (CommonDocument) null),
+            doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#addDocuments(DocumentKey, CommonDocument...)}
+     */
+    @Test
+    public void test_addDocuments_List() {
+        doc.addDocuments(VALUE, Arrays.asList(Document.empty(), null, null, Document.empty()))
+           .addDocuments(EMPTY, Collections.emptyList())
+           .addDocuments(NULL, nullList(Document.class));
+
+        Assert.assertEquals("addDocuments(List)",
+            Document.newInstance()
+                    .addDocuments(VALUE,Document.empty(), null, null, Document.empty())
+                    .addDocuments(EMPTY)
+                    .addDocuments(NULL, nullList(Document.class)),
+            doc);
+    }
+
+
+    /**
+     * Unit test {@link ConcurrentDocument#unmodifiable()}
+     */
+    @Test
+    public void test_immutable() {
+        doc.addString(VALUE, "Hello")
+           .addNumber(DATA, 123);
+
+        ReadableDocument view = doc.unmodifiable();
+
+        Assert.assertEquals("expected docs to be equal", doc, view);
+        Assert.assertEquals("Unexpected type", UnmodifiableDocument.class, view.getClass());
+        Assert.assertEquals("Changes were passed through", doc.addString(VALUE, "other"), view);
+    }
+
+
+    /**
+     * Unit test {@link ConcurrentDocument#remove(DocumentKey)}
+     */
+    @Test
+    public void test_remove() {
+        doc.addString(VALUE, "Hello")
+           .addNumber(DATA, 123);
+
+        Assert.assertTrue("Has VALUE", doc.contains(VALUE));
+
+        doc.remove(VALUE);
+
+        Assert.assertFalse("No longer had VALUE", doc.contains(VALUE));
+        Assert.assertEquals("Unexpected content", Document.newInstance().addNumber(DATA, 123), doc);
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#getOrDefault(DocumentKey, Object)}
+     */
+    @Test
+    public void test_get() {
+        doc.addString(VALUE, "Hello")
+           .addNumbers(DATA, 0, 1, 2, 3);
+
+        Assert.assertEquals("get VALUE", "Hello", doc.get(VALUE, String.class));
+        Assert.assertEquals("get DATA[1]", 1, (int) doc.get(() -> "Data[1]", Integer.class));
+        Assert.assertThrows("Read invalid data", NullPointerException.class, () -> doc.get(NULL, Boolean.class));
+    }
+    /**
+     * Unit test {@link ConcurrentDocument#getOrDefault(DocumentKey, Object)}
+     */
+    @Test
+    public void test_get_Default() {
+        doc.addString(VALUE, "Hello")
+           .addNumbers(DATA, 0, 1, 2, 3);
+
+        Assert.assertEquals("get VALUE", "Hello", doc.getOrDefault(VALUE, "???"));
+        Assert.assertEquals("get DATA[1]", 1, (int) doc.getOrDefault(() -> "Data[1]", 10));
+        Assert.assertEquals("get NULL", 99, (int) doc.getOrDefault(NULL, 99));
+    }
+
+
+    /**
+     * Unit test {@link ConcurrentDocument#getOptional(DocumentKey, Class)}
+     */
+    @Test
+    public void test_getOptional() {
+        doc.addString(VALUE, "Hello")
+           .addNumbers(DATA, 0, 1, 2, 3);
+
+        Assert.assertEquals("get VALUE", "Hello", doc.getOptional(VALUE, String.class));
+        Assert.assertEquals("get DATA[1]", Integer.valueOf(1), doc.getOptional(() -> "Data[1]", Integer.class));
+        Assert.assertNull("get NULL", doc.getOptional(NULL, Boolean.class));
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#getAll(DocumentKey, Class)}
+     */
+    @Test
+    public void test_getAll() {
+        doc.addString(VALUE, "Hello")
+           .addNumbers(DATA, 0, 1, 2, 3);
+
+        Assert.assertEquals("get VALUE", Collections.singletonList("Hello"), doc.getAll(VALUE, String.class));
+        Assert.assertEquals("get DATA[1]", Collections.singletonList(1), doc.getAll(() -> "Data[1]", Integer.class));
+        Assert.assertEquals("get DATA", List.of(0, 1, 2, 3), doc.getAll(DATA, Integer.class));
+        Assert.assertEquals("get NULL", Collections.emptyList(), doc.getAll(NULL, Boolean.class));
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#isEmpty()}
+     */
+    @Test
+    public void test_isEmpty() {
+        Assert.assertTrue("Expected empty Doc", doc.isEmpty());
+
+        doc.addString(VALUE, "xxx");
+        Assert.assertFalse("No longer empty", doc.isEmpty());
+
+        doc.remove(VALUE);
+        Assert.assertTrue("empty again", doc.isEmpty());
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#contains(DocumentKey)}
+     */
+    @Test
+    public void test_contains() {
+        doc.addString(VALUE, "Hello")
+           .addNumbers(DATA, 0, 1, 2, 3);
+
+        Assert.assertTrue("Contains VALUE", doc.contains(VALUE));
+        Assert.assertTrue("Contains DATA[1]", doc.contains(() -> "Data[1]"));
+        Assert.assertTrue("Contains DATA", doc.contains(DATA));
+        Assert.assertFalse("Contains NULL", doc.contains(NULL));
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#hasValue(DocumentKey)}
+     */
+    @Test
+    public void test_hasValue() {
+        doc.addString(VALUE, "Hello")
+           .addBoolean(NULL, null)
+           .addNumbers(DATA, 0, 1, 2, 3);
+
+        Assert.assertTrue("hasValue VALUE", doc.hasValue(VALUE));
+        Assert.assertTrue("hasValue DATA[1]", doc.hasValue(() -> "Data[1]"));
+        Assert.assertTrue("hasValue DATA", doc.hasValue(DATA));
+        Assert.assertFalse("hasValue NULL", doc.hasValue(NULL));
+        Assert.assertFalse("hasValue EMPTY", doc.hasValue(EMPTY));
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#isSequence(DocumentKey)}
+     */
+    @Test
+    public void test_isSequence() {
+        doc.addString(VALUE, "Hello")
+           .addBoolean(NULL, null)
+           .addNumbers(DATA, 0, 1, 2, 3);
+
+        Assert.assertFalse("isSequence VALUE", doc.isSequence(VALUE));
+        Assert.assertFalse("isSequence DATA[1]", doc.isSequence(() -> "Data[1]"));
+        Assert.assertTrue("isSequence DATA", doc.hasValue(DATA));
+        Assert.assertFalse("isSequence NULL", doc.hasValue(NULL));
+        Assert.assertFalse("isSequence NULL", doc.hasValue(EMPTY));
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#accept(DocumentVisitor)}
+     */
+    @Test
+    public void test_accept() {
+        doc.addString(VALUE, "Hello")
+           .addBoolean(NULL, null)
+           .addNumbers(DATA, 0, 1, 2, 3);
+
+        Assert.assertEquals("Unexpected count", 6, (int) doc.accept(new Size()));
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#clone()}
+     */
+    @Test
+    public void test_clone() {
+        Document original = Document.factory()
+            .withConcurrency()
+            .build()
+            .addString(VALUE, "Hello")
+            .addNumbers(DATA, 0, 1, 2, 3);
+        Document clone = (Document) original.clone();
+
+        original.addString(VALUE, "Updated");
+
+        Assert.assertTrue("Clone should be concurrent", clone.wraps(ConcurrentDocument.class));
+        Assert.assertEquals("Unexpected clone value", "Hello", clone.get(VALUE, String.class));
+        Assert.assertEquals("Unexpected clone data", List.of(0, 1, 2, 3), clone.getAll(DATA, Integer.class));
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#equals(Object)}
+     */
+    @Test
+    public void test_equals() {
+        AbstractDocument<?> backing = (AbstractDocument<?>) Document.newInstance();
+        ConcurrentDocument other = new ConcurrentDocument(backing);
+
+        doc.addString(VALUE, "Hello")
+           .addBoolean(NULL, null)
+           .addNumbers(DATA, 0, 1, 2, 3);
+        other.addString(VALUE, "Hello")
+           .addBoolean(NULL, null)
+           .addNumbers(DATA, 0, 1, 2, 3);
+
+        Document copy = doc.accept(new Copy());
+
+        Assert.assertEquals("Should be equal - same type", doc, other);
+        Assert.assertEquals("Should be equal - even if decorators are different", doc, copy);
+        Assert.assertNotEquals("Mutated", other, doc.remove(NULL));
+    }
+
+    /**
+     * Unit test {@link ConcurrentDocument#hashCode()}
+     */
+    @Test
+    public void test_hashCode() {
+        AbstractDocument<?> backing = (AbstractDocument<?>) Document.newInstance();
+        ConcurrentDocument other = new ConcurrentDocument(backing);
+        Document other2 = Document.newInstance()
+            .addString(VALUE, "Hello")
+            .addBoolean(NULL, null)
+            .addNumbers(DATA, 0, 1, 2, 3);
+
+        doc.addString(VALUE, "Hello")
+           .addBoolean(NULL, null)
+           .addNumbers(DATA, 0, 1, 2, 3);
+        other.addString(VALUE, "Hello")
+           .addBoolean(NULL, null)
+           .addNumbers(DATA, 0, 1, 2, 3);
+
+        Document copy = doc.accept(new Copy());
+
+        Assert.assertEquals("Should have same hash - same type", doc.hashCode(), other.hashCode());
+        Assert.assertEquals("Should have same hash - even if decorators are different", doc.hashCode(), other2.hashCode());
+        Assert.assertEquals("Copy should have same hash - even if decorators are different", doc.hashCode(), copy.hashCode());
+        Assert.assertNotEquals("Mutated", other.hashCode(), doc.addStrings(EMPTY).hashCode());
+    }
+
+
+
+    @Nonnull
+    private <T> List<T> nullList(@Nonnull Class<T> type) {
+        List<T> values = new ArrayList<>();
+        values.add(null);
+
+        return values;
+    }
+
+
+    @Nonnull
+    private String await(@Nonnull CyclicBarrier barrier, @Nonnull String value) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new AssertionError("Reader was blocked", e);
+        }
+
+        return value;
+    }
+}
@@ -33,6 +33,24 @@ public class NullFilterDocumentTest {
         doc = new NullFilterDocument(backing);
     }
 
+    /**
+     * Unit test {@link NullFilterDocument#at(DocumentKey)} and {@link NullFilterDocument#child(DocumentKey)}
+     */
+    @Test
+    public void test_cursor() {
+        Document root = Document.factory().nullFilter().build();
+        Document child = root.child(() -> "parent.child");
+
+        child.addString(VALUE, "Hello")
+             .addString(NULL, null);
+
+        Assert.assertTrue("Child should filter nulls", child.wraps(NullFilterDocument.class));
+        Assert.assertSame("Unexpected cursor", child, root.at(() -> "parent.child"));
+        Assert.assertEquals("child()",
+            Document.newInstance().addString(() -> "parent.child.Value", "Hello"),
+            root);
+    }
+
     /**
      * Unit test {@link NullFilterDocument#addString(DocumentKey, String)}
      */
@@ -84,6 +102,19 @@ public class NullFilterDocumentTest {
             doc);
     }
 
+    /**
+     * Unit test {@link NullFilterDocument#appendStrings(DocumentKey, Collection)}
+     */
+    @Test
+    public void test_appendStrings() {
+        doc.addStrings(VALUE, "Hello")
+           .appendStrings(VALUE, Arrays.asList(null, "World", null, "?"));
+
+        Assert.assertEquals("appendStrings()",
+            Document.newInstance().addStrings(VALUE, "Hello", "World", "?"),
+            doc);
+    }
+
 
     /**
      * Unit test {@link NullFilterDocument#addNumber(DocumentKey, Number)}
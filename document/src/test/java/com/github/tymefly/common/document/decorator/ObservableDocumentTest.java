@@ -0,0 +1,251 @@
+package com.github.tymefly.common.document.decorator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.tymefly.common.document.Document;
+import com.github.tymefly.common.document.DocumentException;
+import com.github.tymefly.common.document.event.ChangeEvent;
+import com.github.tymefly.common.document.event.ChangeEvent.Kind;
+import com.github.tymefly.common.document.event.ChangeListener;
+import com.github.tymefly.common.document.key.DocumentKey;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ObservableDocument}
+ */
+public class ObservableDocumentTest {
+    private enum Type { ONE, TWO }
+
+    private List<ChangeEvent> events;
+    private Document doc;
+
+
+    @Before
+    public void setUp() {
+        events = new ArrayList<>();
+        doc = Document.factory()
+            .withListener(events::add)
+            .build();
+    }
+
+
+    /**
+     * Unit test {@link ObservableDocument#addString(DocumentKey, String)} and the other {@code add} methods
+     */
+    @Test
+    public void test_add() {
+        doc.addString(() -> "a.b", "first")
+           .addString(() -> "a.b", "second")
+           .addNumbers(() -> "numbers", 1, 2)
+           .addEnum(() -> "enum", Type.ONE)
+           .addDocument(() -> "child", Document.newInstance().addBoolean(() -> "flag", true));
+
+        Assert.assertEquals("Unexpected events",
+            List.of(new ChangeEvent(Kind.ADD, "a.b", null, "first"),
+                    new ChangeEvent(Kind.ADD, "a.b", "first", "second"),
+                    new ChangeEvent(Kind.ADD, "numbers", null, List.of(BigDecimal.ONE, BigDecimal.valueOf(2))),
+                    new ChangeEvent(Kind.ADD, "enum", null, Type.ONE),
+                    new ChangeEvent(Kind.ADD, "child", null, Document.newInstance().addBoolean(() -> "flag", true))),
+            events);
+        Assert.assertEquals("Unexpected key", "second", doc.get(events.get(1).key(), String.class));
+    }
+
+
+    /**
+     * Unit test {@link ObservableDocument#appendString(DocumentKey, String)} and the other {@code append} methods
+     */
+    @Test
+    public void test_append() {
+        doc.appendString(() -> "strings", "one")
+           .appendStrings(() -> "strings", List.of("two", "three"))
+           .appendEnum(() -> "enums", Type.TWO);
+
+        Assert.assertEquals("Unexpected events",
+            List.of(new ChangeEvent(Kind.APPEND, "strings", null, List.of("one")),
+                    new ChangeEvent(Kind.APPEND, "strings", null, List.of("two", "three")),
+                    new ChangeEvent(Kind.APPEND, "enums", null, List.of(Type.TWO))),
+            events);
+    }
+
+
+    /**
+     * Unit test {@link ObservableDocument#increment(DocumentKey, long)} and the other counter methods
+     */
+    @Test
+    public void test_update() {
+        doc.increment(() -> "count", 2)
+           .increment(() -> "count", 3)
+           .accumulate(() -> "count", n -> n.longValue() * 2);
+
+        Assert.assertEquals("Unexpected kind", Kind.UPDATE, events.get(0).kind());
+        Assert.assertEquals("Unexpected number of events", 3, events.size());
+        Assert.assertNull("Unexpected old value #1", events.get(0).oldValue());
+        Assert.assertEquals("Unexpected new value #1", 2L, ((Number) events.get(0).newValue()).longValue());
+        Assert.assertEquals("Unexpected old value #2", 2L, ((Number) events.get(1).oldValue()).longValue());
+        Assert.assertEquals("Unexpected new value #2", 5L, ((Number) events.get(1).newValue()).longValue());
+        Assert.assertEquals("Unexpected new value #3", 10L, ((Number) events.get(2).newValue()).longValue());
+    }
+
+
+    /**
+     * Unit test {@link ObservableDocument#remove(DocumentKey)}
+     */
+    @Test
+    public void test_remove() {
+        doc.addString(() -> "a.b", "value")
+           .remove(() -> "a.b")
+           .remove(() -> "missing");
+
+        Assert.assertEquals("Unexpected events",
+            List.of(new ChangeEvent(Kind.ADD, "a.b", null, "value"),
+                    new ChangeEvent(Kind.REMOVE, "a.b", "value", null)),
+            events);
+    }
+
+
+    /**
+     * Unit test {@link ObservableDocument#child(DocumentKey)} and {@link ObservableDocument#batch(DocumentKey,
+     * java.util.function.Consumer)}
+     */
+    @Test
+    public void test_child() {
+        doc.child(() -> "a.b")
+           .addString(() -> "c", "value");
+        doc.batch(() -> "x", writer -> writer.addNumber(() -> "y", 1));
+
+        Assert.assertEquals("Unexpected events",
+            List.of(new ChangeEvent(Kind.ADD, "a.b.c", null, "value"),
+                    new ChangeEvent(Kind.ADD, "x.y", null, BigDecimal.ONE)),
+            events);
+        Assert.assertEquals("Unexpected document",
+            Document.newInstance().addString(() -> "a.b.c", "value").addNumber(() -> "x.y", 1),
+            doc);
+    }
+
+
+    /**
+     * Unit test {@link ObservableDocument#batch(java.util.function.Consumer)}
+     */
+    @Test
+    public void test_batch() {
+        List<Integer> flushed = new ArrayList<>();
+        Document document = Document.factory()
+            .withListener(new ChangeListener() {
+                @Override
+                public void changed(ChangeEvent event) {
+                    events.add(event);
+                }
+
+                @Override
+                public void flush() {
+                    flushed.add(events.size());
+                }
+            })
+            .build();
+
+        document.batch(writer -> writer
+            .addString(() -> "a", "1")
+            .addString(() -> "b", "2"));
+
+        Assert.assertEquals("Unexpected number of events", 2, events.size());
+        Assert.assertEquals("Unexpected flush", List.of(2), flushed);
+    }
+
+
+    /**
+     * Unit test {@link ObservableDocument} does not report updates that do not change the Document
+     */
+    @Test
+    public void test_NoChange() {
+        Document document = Document.factory()
+            .nullFilter()
+            .withListener(events::add)
+            .build();
+
+        document.addString(() -> "a", null)
+           .addString(() -> "b", "value")
+           .addString(() -> "b", "value")
+           .addNumbers(() -> "c", 1, 2)
+           .addNumbers(() -> "c", 1, 2)
+           .appendStrings(() -> "d", List.of())
+           .remove(() -> "missing");
+
+        Assert.assertEquals("Unexpected events",
+            List.of(new ChangeEvent(Kind.ADD, "b", null, "value"),
+                    new ChangeEvent(Kind.ADD, "c", null, List.of(BigDecimal.ONE, BigDecimal.valueOf(2)))),
+            events);
+    }
+
+
+    /**
+     * Unit test {@link ObservableDocument} reports the values that the Document holds, and that they are not
+     * changed by later updates
+     */
+    @Test
+    public void test_StoredValues() {
+        Document document = Document.factory()
+            .compactNumbers()
+            .withListener(events::add)
+            .build();
+        Document child = Document.newInstance().addString(() -> "name", "before");
+
+        document.addNumber(() -> "number", new BigDecimal("2.5"))
+            .addNumbers(() -> "numbers", 1, 2)
+            .appendNumber(() -> "numbers", new BigDecimal("3.0"))
+            .addDocument(() -> "child", child)
+            .addNumbers(() -> "numbers", 4);
+
+        child.addString(() -> "name", "after");
+        document.appendNumber(() -> "numbers", 5);
+
+        Assert.assertEquals("Unexpected events",
+            List.of(new ChangeEvent(Kind.ADD, "number", null, 2.5),
+                    new ChangeEvent(Kind.ADD, "numbers", null, List.of(1L, 2L)),
+                    new ChangeEvent(Kind.APPEND, "numbers", null, List.of(3.0)),
+                    new ChangeEvent(Kind.ADD, "child", null, Document.newInstance().addString(() -> "name", "before")),
+                    new ChangeEvent(Kind.ADD, "numbers", List.of(1L, 2L, 3.0), List.of(4L)),
+                    new ChangeEvent(Kind.APPEND, "numbers", null, List.of(5L))),
+            events);
+    }
+
+
+    /**
+     * Unit test {@link ObservableDocument} still reports updates to a Document with a different listener that are
+     * made while another Document is being updated
+     */
+    @Test
+    public void test_IndependentListeners() {
+        List<ChangeEvent> other = new ArrayList<>();
+        Document document = Document.factory()
+            .withListener(other::add)
+            .build();
+
+        doc.accumulate(() -> "count", n -> {
+            document.addString(() -> "name", "value");
+
+            return (n == null ? 1 : n.longValue() + 1);
+        });
+
+        Assert.assertEquals("Unexpected number of events", 1, events.size());
+        Assert.assertEquals("Unexpected other events",
+            List.of(new ChangeEvent(Kind.ADD, "name", null, "value")),
+            other);
+    }
+
+
+    /**
+     * Unit test {@link ObservableDocument} still reports updates after an update failed because its key was invalid
+     */
+    @Test
+    public void test_InvalidKey() {
+        Assert.assertThrows("Invalid key", DocumentException.class, () -> doc.addString(() -> "bad key!", "x"));
+
+        doc.addString(() -> "b", "2");
+
+        Assert.assertEquals("Unexpected events", List.of(new ChangeEvent(Kind.ADD, "b", null, "2")), events);
+    }
+}
@@ -5,6 +5,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.IntStream;
 
 import javax.annotation.Nonnull;
@@ -179,6 +184,95 @@ public class SynchronizedDocumentTest {
             doc);
     }
 
+    /**
+     * Unit test {@link SynchronizedDocument#getOptional(DocumentKey, Class)} returns a sequence that can be
+     * iterated while another thread appends to it
+     */
+    @Test
+    public void test_getOptional_ConcurrentAppend() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        doc.addNumbers(LIST, 0);
+
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 1; running.get() && (i < 100_000); i++) {
+                    doc.appendNumber(LIST, i);
+                }
+            });
+
+            IntStream.rangeClosed(1, 2_000)
+                .parallel()
+                .forEach(i -> {
+                    long previous = -1;
+
+                    for (Object value : (List<?>) doc.getOptional(LIST, Object.class)) {
+                        long current = ((Number) value).longValue();
+
+                        Assert.assertEquals("Unexpected element", previous + 1, current);
+                        previous = current;
+                    }
+                });
+
+            running.set(false);
+            writer.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Unit test {@link SynchronizedDocument#increment(DocumentKey, long)} and
+     * {@link SynchronizedDocument#add(DocumentKey, double)}
+     */
+    @Test
+    public void test_increment() {
+        IntStream.rangeClosed(1, 10_000)
+            .parallel()
+            .forEach(i -> doc.increment(VALUE, 1)
+                             .add(DATA, 0.25));
+
+        Assert.assertEquals("increment",
+            Document.newInstance()
+                    .addNumber(VALUE, 10_000)
+                    .addNumber(DATA, 2_500.0),
+            doc);
+    }
+
+    /**
+     * Unit test {@link SynchronizedDocument#batch(DocumentKey, java.util.function.Consumer)}
+     */
+    @Test
+    public void test_batch() {
+        IntStream.rangeClosed(1, 1_000)
+            .parallel()
+            .forEach(i -> doc.batch(() -> "child", c -> c.increment(VALUE, 1)
+                                                         .appendNumber(DATA, i)));
+
+        Assert.assertEquals("Lost updates", 1_000, doc.getAll(() -> "child.Data", Number.class).size());
+        Assert.assertEquals("Lost increments", 1_000, (int) doc.get(() -> "child.Value", Integer.class));
+    }
+
+    /**
+     * Unit test {@link SynchronizedDocument#getLong(DocumentKey, long)},
+     * {@link SynchronizedDocument#getInt(DocumentKey, int)},
+     * {@link SynchronizedDocument#getDouble(DocumentKey, double)} and
+     * {@link SynchronizedDocument#getBoolean(DocumentKey, boolean)}
+     */
+    @Test
+    public void test_getPrimitives() {
+        doc.addNumber(VALUE, 12.5)
+           .addBoolean(DATA, true);
+
+        Assert.assertEquals("getLong", 12L, doc.getLong(VALUE, 0));
+        Assert.assertEquals("getInt", 12, doc.getInt(VALUE, 0));
+        Assert.assertEquals("getDouble", 12.5, doc.getDouble(VALUE, 0), 0.0);
+        Assert.assertTrue("getBoolean", doc.getBoolean(DATA, false));
+        Assert.assertEquals("default", 7, doc.getInt(EMPTY, 7));
+    }
+
     /**
      * Unit test {@link SynchronizedDocument#addBoolean(DocumentKey, Boolean)} and
      * {@link SynchronizedDocument#appendBoolean(DocumentKey, Boolean)}
@@ -32,6 +32,23 @@ public class UnmodifiableDocumentTest {
     }
 
 
+    /**
+     * Unit test {@link UnmodifiableDocument#at(DocumentKey)}
+     */
+    @Test
+    public void test_at() {
+        Document backing = Document.newInstance()
+            .addString(() -> "child.value", "Hello");
+        Document view = (Document) backing.unmodifiable();
+        Document child = (Document) view.at(() -> "child");
+
+        Assert.assertFalse("Child can be mutated", child.canMutate());
+        Assert.assertEquals("Unexpected value", "Hello", child.get(() -> "value", String.class));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> child.addString(() -> "value", "mutated"));
+        Assert.assertEquals("Backing was updated", "Hello", backing.get(() -> "child.value", String.class));
+    }
+
+
     /**
      * Unit test {@link UnmodifiableDocument#unmodifiable()}
      */
@@ -50,26 +67,37 @@ public class UnmodifiableDocumentTest {
         Assert.assertThrows("addStrings array", UnsupportedOperationException.class, () -> doc.addStrings(KEY));
         Assert.assertThrows("addStrings list", UnsupportedOperationException.class, () -> doc.addStrings(KEY, Collections.emptyList()));
         Assert.assertThrows("appendString", UnsupportedOperationException.class, () -> doc.appendString(KEY, ""));
+        Assert.assertThrows("appendStrings", UnsupportedOperationException.class, () -> doc.appendStrings(KEY, Collections.emptyList()));
 
         Assert.assertThrows("addNumber", UnsupportedOperationException.class, () -> doc.addNumber(KEY, 0));
         Assert.assertThrows("addNumbers array", UnsupportedOperationException.class, () -> doc.addNumbers(KEY));
         Assert.assertThrows("addNumbers list", UnsupportedOperationException.class, () -> doc.addNumbers(KEY, Collections.emptyList()));
         Assert.assertThrows("appendNumber", UnsupportedOperationException.class, () -> doc.appendNumber(KEY, 0));
+        Assert.assertThrows("appendNumbers", UnsupportedOperationException.class, () -> doc.appendNumbers(KEY, Collections.emptyList()));
+        Assert.assertThrows("increment", UnsupportedOperationException.class, () -> doc.increment(KEY, 1));
+        Assert.assertThrows("add", UnsupportedOperationException.class, () -> doc.add(KEY, 1.5));
+        Assert.assertThrows("accumulate", UnsupportedOperationException.class, () -> doc.accumulate(KEY, n -> n));
+        Assert.assertThrows("batch", UnsupportedOperationException.class, () -> doc.batch(b -> { }));
+        Assert.assertThrows("batch prefix", UnsupportedOperationException.class, () -> doc.batch(KEY, b -> { }));
+        Assert.assertThrows("child", UnsupportedOperationException.class, () -> doc.child(KEY));
 
         Assert.assertThrows("addBoolean", UnsupportedOperationException.class, () -> doc.addBoolean(KEY, true));
         Assert.assertThrows("addBooleans array", UnsupportedOperationException.class, () -> doc.addBooleans(KEY));
         Assert.assertThrows("addBooleans list", UnsupportedOperationException.class, () -> doc.addBooleans(KEY, Collections.emptyList()));
         Assert.assertThrows("appendBoolean", UnsupportedOperationException.class, () -> doc.appendBoolean(KEY, true));
+        Assert.assertThrows("appendBooleans", UnsupportedOperationException.class, () -> doc.appendBooleans(KEY, Collections.emptyList()));
 
         Assert.assertThrows("addEnum", UnsupportedOperationException.class, () -> doc.addEnum(KEY, Type.ONE));
         Assert.assertThrows("addEnums array", UnsupportedOperationException.class, () -> doc.addEnums(KEY));
         Assert.assertThrows("addEnums list", UnsupportedOperationException.class, () -> doc.addEnums(KEY, Collections.<Type>emptyList()));
         Assert.assertThrows("appendEnum", UnsupportedOperationException.class, () -> doc.appendEnum(KEY, Type.ONE));
+        Assert.assertThrows("appendEnums", UnsupportedOperationException.class, () -> doc.appendEnums(KEY, Collections.<Type>emptyList()));
 
         Assert.assertThrows("addDocument", UnsupportedOperationException.class, () -> doc.addDocument(KEY, Document.empty()));
         Assert.assertThrows("addDocuments array", UnsupportedOperationException.class, () -> doc.addDocuments(KEY));
         Assert.assertThrows("addDocuments list", UnsupportedOperationException.class, () -> doc.addDocuments(KEY, Collections.emptyList()));
         Assert.assertThrows("appendDocument", UnsupportedOperationException.class, () -> doc.appendDocument(KEY, Document.empty()));
+        Assert.assertThrows("appendDocuments", UnsupportedOperationException.class, () -> doc.appendDocuments(KEY, Collections.emptyList()));
     }
 
 
@@ -0,0 +1,65 @@
+package com.github.tymefly.common.document.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.tymefly.common.document.Document;
+import com.github.tymefly.common.document.event.ChangeEvent.Kind;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link BatchedListener}
+ */
+public class BatchedListenerTest {
+    /**
+     * Unit test {@link BatchedListener#changed(ChangeEvent)}
+     */
+    @Test
+    public void test_limit() {
+        List<List<ChangeEvent>> batches = new ArrayList<>();
+        BatchedListener listener = new BatchedListener(batches::add, 2);
+        Document document = Document.factory().compactNumbers().withListener(listener).build();
+
+        document.addNumber(() -> "a", 1)
+            .addNumber(() -> "b", 2)
+            .addNumber(() -> "c", 3);
+
+        Assert.assertEquals("Unexpected batches",
+            List.of(List.of(new ChangeEvent(Kind.ADD, "a", null, 1L), new ChangeEvent(Kind.ADD, "b", null, 2L))),
+            batches);
+
+        listener.flush();
+        listener.flush();
+
+        Assert.assertEquals("Unexpected number of batches", 2, batches.size());
+        Assert.assertEquals("Unexpected last batch", List.of(new ChangeEvent(Kind.ADD, "c", null, 3L)), batches.get(1));
+    }
+
+
+    /**
+     * Unit test {@link BatchedListener#flush()} at the end of a batch of updates
+     */
+    @Test
+    public void test_batch() {
+        List<List<ChangeEvent>> batches = new ArrayList<>();
+        Document document = Document.factory().withListener(new BatchedListener(batches::add)).build();
+
+        document.addString(() -> "a", "1")
+            .batch(writer -> writer
+                .addString(() -> "b", "2")
+                .remove(() -> "a"));
+
+        Assert.assertEquals("Unexpected number of batches", 1, batches.size());
+        Assert.assertEquals("Unexpected batch size", 3, batches.get(0).size());
+    }
+
+
+    /**
+     * Unit test {@link BatchedListener#BatchedListener(java.util.function.Consumer, int)}
+     */
+    @Test
+    public void test_InvalidLimit() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new BatchedListener(batch -> { }, 0));
+    }
+}
@@ -1,22 +1,25 @@
-package com.github.tymefly.common.document;
+package com.github.tymefly.common.document.key;
 
+import com.github.tymefly.common.document.DocumentException;
 import org.junit.Assert;
 import org.junit.Test;
 
 /**
- * Unit test for {@link WalkerKey}
+ * Unit test for {@link CompiledKey}
  */
-public class WalkerKeyTest {
-    private WalkerKey simple = WalkerKey.from(() -> "simple");
-    private WalkerKey indexed = WalkerKey.from(() -> "indexed[1]");
-    private WalkerKey withChild = WalkerKey.from(() -> "root.child");
-    private WalkerKey full = WalkerKey.from(() -> "root[1].mid.child[3]");
-    private WalkerKey shifted = WalkerKey.from(() -> "root[1].mid.child[3]").shift();
-    private WalkerKey shifted2 = WalkerKey.from(() -> "root[1].mid.child[3]").shift().shift();
+public class CompiledKeyTest {
+    private enum Keys implements LayeredDocumentKey { PARENT_CHILD }
+
+    private CompiledKey simple = CompiledKey.of(() -> "simple");
+    private CompiledKey indexed = CompiledKey.of(() -> "indexed[1]");
+    private CompiledKey withChild = CompiledKey.of(() -> "root.child");
+    private CompiledKey full = CompiledKey.of(() -> "root[1].mid.child[3]");
+    private CompiledKey shifted = CompiledKey.of(() -> "root[1].mid.child[3]").shift();
+    private CompiledKey shifted2 = CompiledKey.of(() -> "root[1].mid.child[3]").shift().shift();
 
 
     /**
-     * Unit test {@link WalkerKey#fullKey()}
+     * Unit test {@link CompiledKey#fullKey()}
      */
     @Test
     public void test_fullKey() {
@@ -29,7 +32,7 @@ public class WalkerKeyTest {
     }
 
     /**
-     * Unit test {@link WalkerKey#externalise()}
+     * Unit test {@link CompiledKey#externalise()}
      */
     @Test
     public void test_externalise() {
@@ -42,7 +45,7 @@ public class WalkerKeyTest {
     }
 
     /**
-     * Unit test {@link WalkerKey#currentElement()}
+     * Unit test {@link CompiledKey#currentElement()}
      */
     @Test
     public void test_fFirstElement() {
@@ -55,7 +58,7 @@ public class WalkerKeyTest {
     }
 
     /**
-     * Unit test {@link WalkerKey#hasChildren()}
+     * Unit test {@link CompiledKey#hasChildren()}
      */
     @Test
     public void test_hasChildren() {
@@ -68,7 +71,7 @@ public class WalkerKeyTest {
     }
 
     /**
-     * Unit test {@link WalkerKey#simpleKey()}
+     * Unit test {@link CompiledKey#simpleKey()}
      */
     @Test
     public void test_SimpleKey() {
@@ -81,7 +84,7 @@ public class WalkerKeyTest {
     }
 
     /**
-     * Unit test {@link WalkerKey#hasIndex()}
+     * Unit test {@link CompiledKey#hasIndex()}
      */
     @Test
     public void test_hasIndex() {
@@ -94,7 +97,7 @@ public class WalkerKeyTest {
     }
 
     /**
-     * Unit test {@link WalkerKey#index()}
+     * Unit test {@link CompiledKey#index()}
      */
     @Test
     public void test_index() {
@@ -107,7 +110,7 @@ public class WalkerKeyTest {
     }
 
     /**
-     * Unit test {@link WalkerKey#simplePath()}
+     * Unit test {@link CompiledKey#simplePath()}
      */
     @Test
     public void test_SimplePath() {
@@ -120,7 +123,7 @@ public class WalkerKeyTest {
     }
 
     /**
-     * Unit test {@link WalkerKey#elementPath()}
+     * Unit test {@link CompiledKey#elementPath()}
      */
     @Test
     public void test_ElementPath() {
@@ -131,4 +134,83 @@ public class WalkerKeyTest {
         Assert.assertEquals("'shifted' unexpected elementPath()", "root[1].mid", shifted.elementPath());
         Assert.assertEquals("'shifted2' unexpected elementPath()", "root[1].mid.child[3]", shifted2.elementPath());
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Unit test {@link CompiledKey#shift()}
+     */
+    @Test
+    public void test_shift_isImmutable() {
+        CompiledKey key = CompiledKey.of(() -> "a.b.c");
+        CompiledKey child = key.shift();
+
+        Assert.assertEquals("key has changed", "a.b.c", key.externalise());
+        Assert.assertEquals("Unexpected child", "b.c", child.externalise());
+        Assert.assertSame("shift() is not repeatable", child, key.shift());
+        Assert.assertSame("Unexpected full key", key, child.shift().fullKey());
+        Assert.assertThrows(IllegalStateException.class, () -> child.shift().shift());
+    }
+
+    /**
+     * Unit test {@link CompiledKey#of(DocumentKey)}
+     */
+    @Test
+    public void test_of_cached() {
+        CompiledKey first = CompiledKey.of(() -> "cached.key[4]");
+
+        Assert.assertSame("Compiled key was not reused", first, CompiledKey.of(first));
+        Assert.assertSame("External form was not cached", first, CompiledKey.of(() -> "cached.key[4]"));
+        Assert.assertSame("String was not cached", first, CompiledKey.of("cached.key[4]"));
+        Assert.assertSame("Enum was not cached", CompiledKey.of(Keys.PARENT_CHILD), CompiledKey.of(Keys.PARENT_CHILD));
+        Assert.assertEquals("Unexpected enum key", "parent.child", CompiledKey.of(Keys.PARENT_CHILD).externalise());
+    }
+
+    /**
+     * Unit test {@link CompiledKey#of(DocumentKey)}
+     */
+    @Test
+    public void test_of_constructedKey() {
+        ConstructedKey constructed = new ConstructedKey("a[1].b");
+
+        Assert.assertSame("Constructed key was not reused", constructed.compiled(), CompiledKey.of(constructed));
+    }
+
+    /**
+     * Unit test {@link CompiledKey#of(String)}
+     */
+    @Test
+    public void test_of_valid() {
+        Assert.assertEquals("underscore", "_a", CompiledKey.of("_a").simpleKey());
+        Assert.assertEquals("dollar", "$a1", CompiledKey.of("$a1").simpleKey());
+        Assert.assertEquals("big index", Integer.MAX_VALUE, CompiledKey.of("a[2147483647]").index());
+        Assert.assertEquals("leading zeros", 7, CompiledKey.of("a[007].b").index());
+    }
+
+    /**
+     * Unit test {@link CompiledKey#of(String)}
+     */
+    @Test
+    public void test_of_invalid() {
+        String[] invalid = { "", ".", "a.", ".a", "a..b", "1a", "a-b", "a[]", "a[1", "a[x]", "a[1]b", "a[1][2]",
+                             "a b", "a[-1]", "a[2147483648]", "a[1].", "[1]" };
+
+        for (var key : invalid) {
+            DocumentException e = Assert.assertThrows("Accepted '" + key + "'",
+                                                      DocumentException.class,
+                                                      () -> CompiledKey.of(key));
+
+            Assert.assertEquals("Unexpected message", "Invalid key '" + key + "'", e.getMessage());
+        }
+
+        Assert.assertThrows(NullPointerException.class, () -> CompiledKey.of(() -> null));
+    }
+
+    /**
+     * Unit test {@link CompiledKey#toString()}
+     */
+    @Test
+    public void test_toString() {
+        Assert.assertTrue("Bad full key", full.toString().contains("root[1].mid.child[3]"));
+        Assert.assertTrue("Bad shifted key", shifted.toString().contains("mid.child[3]"));
+    }
+}
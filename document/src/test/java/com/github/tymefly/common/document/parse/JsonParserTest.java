@@ -155,6 +155,23 @@ public class JsonParserTest {
         Assert.assertThrows(DocumentException.class, () -> actual.getOptional(elementKey, Boolean.class));
     }
 
+    /**
+     * Unit test {@link JsonParser#load(WritableDocument, InputStream)}
+     */
+    @Test
+    public void test_NullArray() {
+        ReadableDocument expected = Document.newInstance()
+                .addStrings(() -> "name", null, null)
+                .addDocuments(() -> "docs", Document.newInstance().addString(() -> "id", "one"), null);
+        InputStream sample = getClass().getClassLoader().getResourceAsStream("doc/nullArray.json");
+        JsonParser parser = new JsonParser();
+        Document actual = Document.newInstance();
+
+        parser.load(actual, sample);
+
+        Assert.assertEquals("Parse failed", expected, actual);
+    }
+
     /**
      * Unit test {@link JsonParser#load(WritableDocument, InputStream)}
      */
@@ -11,6 +11,8 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,6 +37,7 @@ public class DocumentVisitorTest {
         when(visitor.beginSequence(any(VisitorKey.class), any(Class.class), anyInt())).thenReturn(visitor);
         when(visitor.endSequence(any(VisitorKey.class))).thenReturn(visitor);
         when(visitor.isComplete()).thenReturn(false);
+        when(visitor.skipContents()).thenReturn(false);
         when(visitor.process()).thenReturn("Done");
     }
 
@@ -54,4 +57,41 @@ public class DocumentVisitorTest {
 
         Assert.assertSame("Unexpected reader", doc, contextArg.getValue().reader());
     }
+
+
+    /**
+     * Unit test {@link DocumentVisitor#skipContents()}
+     */
+    @Test
+    public void test_ReadContents() {
+        Document.newInstance()
+            .addString(() -> "child.value", "x")
+            .addStrings(() -> "sequence", "a", "b")
+            .accept(visitor);
+
+        verify(visitor).beginChild(any(VisitorKey.class));
+        verify(visitor, times(3)).stringValue(any(VisitorKey.class), anyString());
+        verify(visitor).endChild(any(VisitorKey.class));
+        verify(visitor).beginSequence(any(VisitorKey.class), any(Class.class), anyInt());
+        verify(visitor).endSequence(any(VisitorKey.class));
+    }
+
+    /**
+     * Unit test {@link DocumentVisitor#skipContents()}
+     */
+    @Test
+    public void test_SkipContents() {
+        when(visitor.skipContents()).thenReturn(true);
+
+        Document.newInstance()
+            .addString(() -> "child.value", "x")
+            .addStrings(() -> "sequence", "a", "b")
+            .accept(visitor);
+
+        verify(visitor).beginChild(any(VisitorKey.class));
+        verify(visitor, never()).stringValue(any(VisitorKey.class), anyString());
+        verify(visitor).endChild(any(VisitorKey.class));
+        verify(visitor).beginSequence(any(VisitorKey.class), any(Class.class), anyInt());
+        verify(visitor).endSequence(any(VisitorKey.class));
+    }
 }
\ No newline at end of file
@@ -79,4 +79,24 @@ public class CopyTest {
         Assert.assertTrue("Failed to copy EMPTY_ARRAY", actual.contains(Key.EMPTY_ARRAY));
         Assert.assertEquals("Unexpected Wrappers", Collections.emptyList(), actual.wraps());
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Unit test {@link Copy} - the copy can be updated without changing the source
+     */
+    @Test
+    public void test_Copy_Independent() {
+        Document mutable = Document.newInstance()
+            .addString(() -> "a.b", "source")
+            .addNumbers(() -> "a.list", 1, 2);
+        Document actual = mutable.accept(new Copy());
+
+        actual.addString(() -> "a.b", "copy");
+        actual.appendNumber(() -> "a.list", 3);
+        mutable.addString(() -> "a.c", "source");
+
+        Assert.assertEquals("Unexpected copy", "{\"a\":{\"b\":\"copy\",\"list\":[1,2,3]}}", actual.toString());
+        Assert.assertEquals("Unexpected source",
+            "{\"a\":{\"b\":\"source\",\"list\":[1,2],\"c\":\"source\"}}", mutable.toString());
+    }
+}
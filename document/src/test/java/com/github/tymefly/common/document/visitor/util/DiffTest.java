@@ -0,0 +1,293 @@
+package com.github.tymefly.common.document.visitor.util;
+
+import java.util.Arrays;
+
+import com.github.tymefly.common.document.Document;
+import com.github.tymefly.common.document.DocumentException;
+import com.github.tymefly.common.document.ReadableDocument;
+import com.github.tymefly.common.document.parse.JsonParser;
+import com.github.tymefly.common.document.visitor.serializer.json.JsonSerializer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link Diff}
+ */
+public class DiffTest {
+    private enum Value {
+        A, B, C
+    }
+
+
+    private Document base;
+
+
+    @Before
+    public void setUp() {
+        base = Document.newInstance()
+            .addString(() -> "name", "base")
+            .addNumber(() -> "count", 1)
+            .addBoolean(() -> "flag", true)
+            .addEnum(() -> "value", Value.A)
+            .addString(() -> "empty", null)
+            .addNumber(() -> "child.a", 1)
+            .addNumber(() -> "child.b", 2)
+            .addString(() -> "child.grand.c", "c")
+            .addStrings(() -> "strings", "a", "b", "c", "d")
+            .addNumbers(() -> "numbers", 1, 2, 3)
+            .addEnums(() -> "enums", Value.A, Value.B)
+            .addDocuments(() -> "docs",
+                Document.newInstance().addString(() -> "id", "one"),
+                Document.newInstance().addString(() -> "id", "two"),
+                null);
+    }
+
+
+    /**
+     * Unit test {@link Diff}
+     */
+    @Test
+    public void test_NoChange() {
+        Document delta = base.clone().accept(new Diff(base));
+
+        Assert.assertTrue("Unexpected changes", delta.getAll(() -> "changes", Object.class).isEmpty());
+    }
+
+
+    /**
+     * Unit test {@link Diff}
+     */
+    @Test
+    public void test_Values() {
+        Document current = copy(base)
+            .addString(() -> "name", "current")
+            .addNumber(() -> "count", 2)
+            .addString(() -> "empty", "not empty")
+            .addBoolean(() -> "added", false)
+            .remove(() -> "flag");
+
+        Document delta = verify(current, 4);
+
+        assertChange(delta, 0, "SET", "name");
+        assertChange(delta, 1, "SET", "count");
+        assertChange(delta, 2, "SET", "empty");
+        assertChange(delta, 3, "SET", "added");
+        assertChange(delta, 4, "REMOVE", "flag");
+    }
+
+
+    /**
+     * Unit test {@link Diff}
+     */
+    @Test
+    public void test_Children() {
+        Document current = copy(base)
+            .addNumber(() -> "child.b", 3)
+            .remove(() -> "child.grand.c")
+            .addString(() -> "child.grand.d", "d")
+            .addString(() -> "child.new.e", "e");
+
+        Document delta = verify(current, 3);
+
+        assertChange(delta, 0, "SET", "child.b");
+        assertChange(delta, 1, "SET", "child.grand.d");
+        assertChange(delta, 2, "REMOVE", "child.grand.c");
+        assertChange(delta, 3, "SET", "child.new");
+    }
+
+
+    /**
+     * Unit test {@link Diff}
+     */
+    @Test
+    public void test_ChangedType() {
+        Document current = copy(base)
+            .addString(() -> "child", "no longer a child")
+            .addString(() -> "strings", "no longer a sequence")
+            .remove(() -> "name")
+            .addNumber(() -> "name.first", 1)
+            .addNumbers(() -> "count", 1, 2);
+
+        Document delta = verify(current, 3);
+
+        assertChange(delta, 0, "SET", "count");
+        assertChange(delta, 1, "SET", "child");
+        assertChange(delta, 2, "SET", "strings");
+        assertChange(delta, 3, "SET", "name");
+    }
+
+
+    /**
+     * Unit test {@link Diff}
+     */
+    @Test
+    public void test_Sequences() {
+        Document current = copy(base)
+            .addStrings(() -> "strings", "a", "x", "d")
+            .addNumbers(() -> "numbers", 1, 2, 3, 4)
+            .addEnums(() -> "enums", Value.B);
+
+        Document delta = verify(current, 2);
+
+        assertSplice(delta, 0, "strings", 1, 2, "x");
+        assertSplice(delta, 1, "numbers", 3, 0, 4);
+        assertSplice(delta, 2, "enums", 0, 1);
+    }
+
+
+    /**
+     * Unit test {@link Diff}
+     */
+    @Test
+    public void test_SequenceOfDocuments_SameSize() {
+        Document current = copy(base)
+            .addDocuments(() -> "docs",
+                Document.newInstance().addString(() -> "id", "one"),
+                Document.newInstance().addString(() -> "id", "2").addString(() -> "extra", "x"),
+                Document.newInstance().addString(() -> "id", "three"));
+
+        Document delta = verify(current, 2);
+
+        assertChange(delta, 0, "SET", "docs[1].id");
+        assertChange(delta, 1, "SET", "docs[1].extra");
+        assertSplice(delta, 2, "docs", 2, 1, Document.newInstance().addString(() -> "id", "three"));
+    }
+
+
+    /**
+     * Unit test {@link Diff}
+     */
+    @Test
+    public void test_SequenceOfDocuments_Resized() {
+        Document current = copy(base)
+            .addDocuments(() -> "docs",
+                Document.newInstance().addString(() -> "id", "zero"),
+                Document.newInstance().addString(() -> "id", "one"),
+                Document.newInstance().addString(() -> "id", "two"),
+                null);
+
+        Document delta = verify(current, 0);
+
+        assertSplice(delta, 0, "docs", 0, 0, Document.newInstance().addString(() -> "id", "zero"));
+    }
+
+
+    /**
+     * Unit test {@link Diff} where the elements of a sequence become child Documents
+     */
+    @Test
+    public void test_SequenceOfDocuments_WasValues() {
+        Document current = copy(base)
+            .addDocuments(() -> "strings",
+                Document.newInstance().addString(() -> "x", "1"),
+                Document.newInstance().addString(() -> "y", "2"),
+                Document.newInstance().addString(() -> "z", "3"),
+                null)
+            .addDocuments(() -> "numbers", Document.newInstance().addString(() -> "x", "1"));
+
+        Document delta = verify(current, 1);
+
+        assertChange(delta, 0, "SET", "strings");
+        assertChange(delta, 1, "SET", "numbers");
+    }
+
+
+    /**
+     * Unit test {@link Diff#apply(Document, ReadableDocument)} with a delta that has been serialized
+     */
+    @Test
+    public void test_Serialized() {
+        Document current = copy(base)
+            .addString(() -> "name", "current")
+            .addNumber(() -> "child.grand.c", 3.5)
+            .addStrings(() -> "strings", "a", "b", null, "c", "d")
+            .addNumbers(() -> "numbers", 0, 1, 2, 3)
+            .addEnums(() -> "enums", Value.C, Value.A, Value.B)
+            .remove(() -> "child.a")
+            .remove(() -> "docs");
+        String json = current.accept(new Diff(base)).accept(new JsonSerializer());
+        Document delta = Document.factory().parse(json, new JsonParser()).build();
+        Document actual = Diff.apply(copy(base), delta);
+
+        Assert.assertTrue("Unexpected document: " + actual, actual.accept(new Equivalent(current)));
+        Assert.assertTrue("Unexpected document: " + actual, current.accept(new Equivalent(actual)));
+    }
+
+
+    /**
+     * Unit test {@link Diff#apply(Document, ReadableDocument)} with an invalid delta
+     */
+    @Test
+    public void test_apply_Invalid() {
+        Document missingPath = Document.newInstance()
+            .addDocuments(() -> "changes", Document.newInstance().addString(() -> "op", "SET"));
+        Document badSplice = Document.newInstance()
+            .addDocuments(() -> "changes", Document.newInstance()
+                .addString(() -> "op", "SPLICE")
+                .addString(() -> "path", "numbers")
+                .addNumber(() -> "index", 2)
+                .addNumber(() -> "delete", 2));
+
+        Document mixedSplice = Document.newInstance()
+            .addDocuments(() -> "changes", Document.newInstance()
+                .addString(() -> "op", "SPLICE")
+                .addString(() -> "path", "strings")
+                .addNumber(() -> "index", 0)
+                .addNumber(() -> "delete", 1)
+                .addDocuments(() -> "insert", Document.newInstance().addString(() -> "x", "1")));
+
+        Assert.assertThrows(DocumentException.class, () -> Diff.apply(copy(base), missingPath));
+        Assert.assertThrows(DocumentException.class, () -> Diff.apply(copy(base), badSplice));
+        Assert.assertThrows(DocumentException.class, () -> Diff.apply(copy(base), mixedSplice));
+    }
+
+
+    /**
+     * Calculate and apply the delta between {@link #base} and the {@code current} Document
+     * @param current   The updated Document
+     * @param last      Index of the last change in the delta
+     * @return the delta
+     */
+    private Document verify(Document current, int last) {
+        Document delta = current.accept(new Diff(base));
+        Document actual = Diff.apply(copy(base), delta);
+
+        Assert.assertEquals("Unexpected number of changes in " + delta,
+            last + 1,
+            delta.getAll(() -> "changes", Object.class).size());
+        Assert.assertEquals("Unexpected document", current, actual);
+
+        return delta;
+    }
+
+
+    private void assertChange(Document delta, int index, String operation, String path) {
+        Assert.assertEquals("Unexpected operation at " + index,
+            operation,
+            delta.getOptional(() -> "changes[" + index + "].op", String.class));
+        Assert.assertEquals("Unexpected path at " + index,
+            path,
+            delta.getOptional(() -> "changes[" + index + "].path", String.class));
+    }
+
+
+    private void assertSplice(Document delta, int index, String path, int start, int delete, Object... insert) {
+        assertChange(delta, index, "SPLICE", path);
+
+        Assert.assertEquals("Unexpected index at " + index,
+            start,
+            delta.getInt(() -> "changes[" + index + "].index", -1));
+        Assert.assertEquals("Unexpected delete at " + index,
+            delete,
+            delta.getInt(() -> "changes[" + index + "].delete", -1));
+        Assert.assertEquals("Unexpected insert at " + index,
+            Arrays.toString(insert),
+            delta.getAll(() -> "changes[" + index + "].insert", Object.class).toString());
+    }
+
+
+    private Document copy(ReadableDocument source) {
+        return Document.factory().copy(source).build();
+    }
+}
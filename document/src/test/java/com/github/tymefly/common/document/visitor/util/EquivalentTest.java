@@ -193,6 +193,128 @@ public class EquivalentTest {
         Assert.assertFalse("#2 Unexpected equivalent docs", strings.accept(new Equivalent(mixed)));
     }
 
+    /**
+     * Unit test {@link Equivalent}
+     */
+    @Test
+    public void test_HappyPath_Nested() {
+        Document mixed = Document.newInstance()
+            .addNumber(() -> "a.b.Num", 1)
+            .addBoolean(() -> "a.Bool", true)
+            .addDocuments(() -> "Docs",
+                Document.newInstance().addNumber(() -> "Num", 2),
+                Document.newInstance().addEnum(() -> "Enum", Type.TWO));
+        Document strings = Document.newInstance()
+            .addString(() -> "a.b.Num", "1.0")
+            .addString(() -> "a.Bool", "true")
+            .addDocuments(() -> "Docs",
+                Document.newInstance().addString(() -> "Num", "2"),
+                Document.newInstance().addString(() -> "Enum", "TWO"));
+
+        Assert.assertTrue("#1 Expected docs to be equivalent", mixed.accept(new Equivalent(strings)));
+        Assert.assertTrue("#2 Expected docs to be equivalent", strings.accept(new Equivalent(mixed)));
+    }
+
+
+    /**
+     * Unit test {@link Equivalent}
+     */
+    @Test
+    public void test_HappyPath_EmptyIsMissing() {
+        Document empty = Document.newInstance()
+            .addString(() -> "foo", "bar")
+            .addStrings(() -> "Str")
+            .addDocument(() -> "a.b", Document.newInstance())
+            .addDocuments(() -> "Docs", Document.newInstance().addNumbers(() -> "Num"));
+        Document missing = Document.newInstance()
+            .addString(() -> "foo", "bar")
+            .addDocuments(() -> "Docs", Document.newInstance());
+
+        Assert.assertTrue("#1 Expected docs to be equivalent", empty.accept(new Equivalent(missing)));
+        Assert.assertTrue("#2 Expected docs to be equivalent", missing.accept(new Equivalent(empty)));
+    }
+
+
+    /**
+     * Unit test {@link Equivalent}
+     */
+    @Test
+    public void test_HappyPath_NestedEmptyIsMissing() {
+        Document empty = Document.newInstance()
+            .addString(() -> "a.foo", "bar")
+            .addStrings(() -> "a.Str")
+            .addDocument(() -> "a.b.c", Document.newInstance())
+            .addDocuments(() -> "a.Docs", Document.newInstance().addNumbers(() -> "Num"))
+            .addDocument(() -> "x.y", Document.newInstance());
+        Document missing = Document.newInstance()
+            .addString(() -> "a.foo", "bar")
+            .addDocuments(() -> "a.Docs", Document.newInstance());
+
+        Assert.assertTrue("#1 Expected docs to be equivalent", empty.accept(new Equivalent(missing)));
+        Assert.assertTrue("#2 Expected docs to be equivalent", missing.accept(new Equivalent(empty)));
+    }
+
+
+    /**
+     * Unit test {@link Equivalent}
+     */
+    @Test
+    public void test_UnhappyPath_EmptyIsNotNull() {
+        Document emptyChild = Document.newInstance()
+            .addString(() -> "foo", "bar")
+            .addDocument(() -> "a", Document.newInstance());
+        Document emptySequence = Document.newInstance()
+            .addString(() -> "foo", "bar")
+            .addStrings(() -> "a");
+        Document value = Document.newInstance()
+            .addString(() -> "foo", "bar")
+            .addString(() -> "a", null);
+
+        Assert.assertFalse("#1 Unexpected equivalent docs", emptyChild.accept(new Equivalent(value)));
+        Assert.assertFalse("#2 Unexpected equivalent docs", value.accept(new Equivalent(emptyChild)));
+        Assert.assertFalse("#3 Unexpected equivalent docs", emptySequence.accept(new Equivalent(value)));
+        Assert.assertFalse("#4 Unexpected equivalent docs", value.accept(new Equivalent(emptySequence)));
+    }
+
+
+    /**
+     * Unit test {@link Equivalent}
+     */
+    @Test
+    public void test_UnhappyPath_ExtraNestedField() {
+        Document small = Document.newInstance()
+            .addNumber(() -> "a.b.Num", 1)
+            .addDocuments(() -> "Docs", Document.newInstance().addNumber(() -> "Num", 2));
+        Document nested = Document.newInstance()
+            .addNumber(() -> "a.b.Num", 1)
+            .addNumber(() -> "a.b.Extra", 1)
+            .addDocuments(() -> "Docs", Document.newInstance().addNumber(() -> "Num", 2));
+        Document sequence = Document.newInstance()
+            .addNumber(() -> "a.b.Num", 1)
+            .addDocuments(() -> "Docs", Document.newInstance().addNumber(() -> "Num", 2).addNumber(() -> "X", 3));
+
+        Assert.assertFalse("#1 Unexpected equivalent docs", small.accept(new Equivalent(nested)));
+        Assert.assertFalse("#2 Unexpected equivalent docs", nested.accept(new Equivalent(small)));
+        Assert.assertFalse("#3 Unexpected equivalent docs", small.accept(new Equivalent(sequence)));
+        Assert.assertFalse("#4 Unexpected equivalent docs", sequence.accept(new Equivalent(small)));
+    }
+
+
+    /**
+     * Unit test {@link Equivalent}
+     */
+    @Test
+    public void test_UnhappyPath_ChildIsValue() {
+        Document child = Document.newInstance()
+            .addNumber(() -> "a.Num", 1);
+        Document value = Document.newInstance()
+            .addString(() -> "a", "1");
+
+        Assert.assertFalse("#1 Unexpected equivalent docs", child.accept(new Equivalent(value)));
+        Assert.assertFalse("#2 Unexpected equivalent docs", value.accept(new Equivalent(child)));
+    }
+
+
     /**
      * Unit test {@link Equivalent#check(Object, Object)}
      */